@@ -0,0 +1,123 @@
+package alioth.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import alioth.task.ConcurrentTaskList;
+import alioth.task.Task;
+import alioth.task.Todo;
+
+/**
+ * Measures how read throughput of a shared ConcurrentTaskList scales with the number of
+ * reading threads, alone and alongside one writer. JMH reports the total throughput of all
+ * threads, so each readers benchmark gives one point of the scaling curve; run with
+ * {@code -PjmhInclude=ConcurrentTaskListBenchmark} on a machine with at least 8 cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConcurrentTaskListBenchmark {
+    @Param({"1000", "100000"})
+    int size;
+
+    private ConcurrentTaskList tasks;
+
+    /**
+     * Loads the tasks and builds the indexes the reads use.
+     */
+    @Setup
+    public void setUp() {
+        tasks = ConcurrentTaskList.backedBy(TaskMix.generate(size));
+        tasks.find("royal");
+        tasks.containsDuplicate(new Todo("royal ball"));
+    }
+
+    /**
+     * Reads one task by position and one by id, and checks one task for a duplicate,
+     * as a list command, a mark command and an add command would.
+     */
+    private boolean readMix() {
+        int index = ThreadLocalRandom.current().nextInt(tasks.size());
+        Task task = tasks.get(index);
+        return tasks.getById(task.getId()) == task && tasks.containsDuplicate(task);
+    }
+
+    /**
+     * Reads on 1 thread.
+     */
+    @Benchmark
+    @Threads(1)
+    public boolean readers1() {
+        return readMix();
+    }
+
+    /**
+     * Reads on 2 threads.
+     */
+    @Benchmark
+    @Threads(2)
+    public boolean readers2() {
+        return readMix();
+    }
+
+    /**
+     * Reads on 4 threads.
+     */
+    @Benchmark
+    @Threads(4)
+    public boolean readers4() {
+        return readMix();
+    }
+
+    /**
+     * Reads on 8 threads.
+     */
+    @Benchmark
+    @Threads(8)
+    public boolean readers8() {
+        return readMix();
+    }
+
+    /**
+     * Finds a phrase on 4 threads, which walks the trigram index under the read lock.
+     */
+    @Benchmark
+    @Threads(4)
+    public List<Task> find4() {
+        return tasks.find("mine song");
+    }
+
+    /**
+     * Reads on 3 threads while the writer below changes the list.
+     */
+    @Benchmark
+    @Group("readersWithWriter")
+    @GroupThreads(3)
+    public boolean readersWithWriterRead() {
+        return readMix();
+    }
+
+    /**
+     * Adds a task and removes it again, so the list keeps its size.
+     */
+    @Benchmark
+    @Group("readersWithWriter")
+    @GroupThreads(1)
+    public Task readersWithWriterWrite() {
+        tasks.add(new Todo("pumpkin carriage"));
+        return tasks.remove(tasks.size() - 1);
+    }
+}
@@ -0,0 +1,92 @@
+package alioth.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import alioth.exception.AliothException;
+import alioth.parser.Parser;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Measures running commands on a task list, from parsing to the reply, without any file writes.
+ *
+ * The storage is kept in an open batch that is never saved, so only the work in memory is measured.
+ * Each benchmark undoes its own change, so the list keeps its size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExecuteBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private final Ui ui = new Ui();
+    private TaskList tasks;
+    private Storage storage;
+    private Path directory;
+    private String markLine;
+    private String unmarkLine;
+    private String deleteLastLine;
+
+    /**
+     * Loads the tasks, builds their indexes and opens the batch.
+     */
+    @Setup
+    public void setUp() throws IOException, AliothException {
+        directory = Files.createTempDirectory("alioth-execute");
+        storage = new Storage(directory.resolve("tasks.txt"));
+        storage.beginBatch();
+        tasks = TaskList.backedBy(TaskMix.generate(size));
+        tasks.containsDuplicate(TaskMix.create(new Random(0), -1));
+
+        markLine = "mark " + (size / 2);
+        unmarkLine = "unmark " + (size / 2);
+        deleteLastLine = "delete " + (size + 1);
+    }
+
+    /**
+     * Cancels the batch and removes the temporary folder.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.cancelBatch();
+        Files.deleteIfExists(directory.resolve("tasks.txt"));
+        Files.deleteIfExists(directory);
+    }
+
+    private String run(String line) throws AliothException {
+        Parser.parse(line).execute(tasks, ui, storage);
+        return ui.consumeOutput();
+    }
+
+    /**
+     * Adds a todo, which checks for duplicates, then deletes it again.
+     */
+    @Benchmark
+    public String addAndDelete() throws AliothException {
+        return run("todo Bake royal cake") + run(deleteLastLine);
+    }
+
+    /**
+     * Marks a task in the middle of the list as done, then not done.
+     */
+    @Benchmark
+    public String markAndUnmark() throws AliothException {
+        return run(markLine) + run(unmarkLine);
+    }
+}
@@ -0,0 +1,71 @@
+package alioth.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import alioth.command.Command;
+import alioth.exception.AliothException;
+import alioth.parser.AliasRegistry;
+import alioth.parser.Parser;
+import alioth.task.TaskList;
+
+/**
+ * Measures turning input lines into commands, and task numbers, ranges and ids into indices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParserBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private final AliasRegistry aliases = new AliasRegistry();
+    private TaskList tasks;
+    private String[] lines;
+    private String indexArgs;
+    private int next;
+
+    /**
+     * Loads the tasks and prepares a mix of input lines.
+     */
+    @Setup
+    public void setUp() throws AliothException {
+        tasks = TaskList.backedBy(TaskMix.generate(size));
+        aliases.add("ls", "list");
+        lines = new String[] {
+            "todo Bake royal cake",
+            "deadline Pay palace tax /by 2026-01-31",
+            "event Royal Tea Party /from 2026-02-25 1400 /to 2026-02-25 1600",
+            "mark " + size / 2,
+            "find glass slipper",
+            "search ball AND (gown OR \"glass slipper\") NOT pumpkin --limit 5",
+            "ls",
+        };
+        indexArgs = "1," + size / 3 + ",#" + size / 2 + "," + size / 4 + "-" + (size / 4 + 100);
+    }
+
+    /**
+     * Parses the next line of the mix.
+     */
+    @Benchmark
+    public Command parse() throws AliothException {
+        next = (next + 1) % lines.length;
+        return Parser.parse(lines[next], aliases);
+    }
+
+    /**
+     * Parses a list of task numbers, an id and a range of 101 tasks.
+     */
+    @Benchmark
+    public int[] parseTaskIndices() throws AliothException {
+        return Parser.parseTaskIndices(tasks, indexArgs, "mark");
+    }
+}
@@ -0,0 +1,100 @@
+package alioth.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import alioth.exception.AliothException;
+import alioth.storage.Storage;
+import alioth.storage.StorageFormat;
+import alioth.task.Task;
+
+/**
+ * Measures saving and loading the whole task list in each snapshot format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"TEXT", "BINARY"})
+    StorageFormat format;
+
+    private Path directory;
+    private List<Task> tasks;
+    private Storage saveStorage;
+    private Storage loadStorage;
+    private Storage lazyStorage;
+
+    /**
+     * Writes the save file that the load benchmarks read.
+     */
+    @Setup
+    public void setUp() throws IOException, AliothException {
+        directory = Files.createTempDirectory("alioth-storage");
+        tasks = TaskMix.generate(size);
+
+        saveStorage = new Storage(directory.resolve("saved.txt"));
+        saveStorage.setFormat(format);
+
+        Path loadPath = directory.resolve("loaded.txt");
+        Storage writer = new Storage(loadPath);
+        writer.setFormat(format);
+        writer.save(tasks);
+        loadStorage = new Storage(loadPath);
+        lazyStorage = new Storage(loadPath);
+        lazyStorage.setLazyLoad(true);
+    }
+
+    /**
+     * Removes the temporary folder.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Writes every task to the save file.
+     */
+    @Benchmark
+    public void save() throws AliothException {
+        saveStorage.save(tasks);
+    }
+
+    /**
+     * Reads and decodes every task.
+     */
+    @Benchmark
+    public List<Task> load() throws AliothException {
+        return loadStorage.load();
+    }
+
+    /**
+     * Loads the tasks lazily, then uses one, as when the app starts and shows the first task.
+     */
+    @Benchmark
+    public Task loadLazily() throws AliothException {
+        return lazyStorage.load().get(0);
+    }
+}
@@ -0,0 +1,85 @@
+package alioth.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import alioth.task.Task;
+import alioth.task.TaskList;
+import alioth.task.Todo;
+
+/**
+ * Measures finding tasks and checking for duplicates once the indexes are built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private TaskList tasks;
+    private Task existing;
+    private Task missing;
+
+    /**
+     * Loads the tasks and builds the indexes the benchmarks use.
+     */
+    @Setup
+    public void setUp() {
+        List<Task> generated = TaskMix.generate(size);
+        existing = generated.get(size / 2);
+        missing = new Todo("royal ball " + size);
+        tasks = TaskList.backedBy(generated);
+        tasks.find("royal");
+        tasks.containsDuplicate(missing);
+    }
+
+    /**
+     * Finds a word that is in many tasks.
+     */
+    @Benchmark
+    public List<Task> findCommonWord() {
+        return tasks.find("royal");
+    }
+
+    /**
+     * Finds a phrase that is in few tasks.
+     */
+    @Benchmark
+    public List<Task> findRarePhrase() {
+        return tasks.find("mine song");
+    }
+
+    /**
+     * Finds a keyword too short for the trigram index, which scans every task.
+     */
+    @Benchmark
+    public List<Task> findShortKeyword() {
+        return tasks.find("ta");
+    }
+
+    /**
+     * Checks a task that is already in the list.
+     */
+    @Benchmark
+    public boolean containsDuplicateHit() {
+        return tasks.containsDuplicate(existing);
+    }
+
+    /**
+     * Checks a task that is not in the list.
+     */
+    @Benchmark
+    public boolean containsDuplicateMiss() {
+        return tasks.containsDuplicate(missing);
+    }
+}
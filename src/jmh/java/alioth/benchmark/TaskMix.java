@@ -0,0 +1,73 @@
+package alioth.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import alioth.task.Deadline;
+import alioth.task.Event;
+import alioth.task.Task;
+import alioth.task.Todo;
+
+/**
+ * Generates task lists that look like real ones for the benchmarks.
+ *
+ * About 60% of the tasks are todos, 25% deadlines and 15% events, and a third are done.
+ * Descriptions are two to five words from a small vocabulary, so some words are common and
+ * others rare, and every description ends with a number so no two tasks are duplicates.
+ * The same size always gives the same list.
+ */
+final class TaskMix {
+    private static final String[] WORDS = {
+        "royal", "ball", "gown", "glass", "slipper", "pumpkin", "carriage", "castle", "tea", "party",
+        "library", "books", "palace", "tax", "report", "dragon", "forest", "tower", "crown", "feast",
+        "invite", "letters", "garden", "roses", "mirror", "apple", "dwarfs", "mine", "song", "dance",
+    };
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private TaskMix() {}
+
+    /**
+     * Returns a list of the given number of tasks.
+     */
+    static List<Task> generate(int size) {
+        Random random = new Random(size);
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = create(random, i);
+            task.setDone(random.nextInt(3) == 0);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns a new task that is not done, whose number is given.
+     */
+    static Task create(Random random, int number) {
+        StringBuilder description = new StringBuilder();
+        int wordCount = 2 + random.nextInt(4);
+        for (int i = 0; i < wordCount; i++) {
+            // Squaring skews the choice toward the first words, so they are the common ones.
+            double skewed = random.nextDouble() * random.nextDouble();
+            description.append(WORDS[(int) (skewed * WORDS.length)]).append(' ');
+        }
+        description.append(number);
+
+        int kind = random.nextInt(20);
+        LocalDate day = START.plusDays(random.nextInt(730));
+        if (kind < 12) {
+            return new Todo(description.toString());
+        } else if (kind < 17) {
+            return new Deadline(description.toString(), day);
+        } else {
+            LocalDateTime from = day.atTime(8 + random.nextInt(10), 0);
+            return new Event(description.toString(), from, from.plusHours(1 + random.nextInt(3)));
+        }
+    }
+}
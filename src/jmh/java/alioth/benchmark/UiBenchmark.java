@@ -0,0 +1,48 @@
+package alioth.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import alioth.task.Task;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Measures rendering the whole task list as the reply to a list command.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UiBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private final Ui ui = new Ui();
+    private List<Task> tasks;
+
+    /**
+     * Loads the tasks so that each knows its id.
+     */
+    @Setup
+    public void setUp() {
+        tasks = TaskList.backedBy(TaskMix.generate(size)).asList();
+    }
+
+    /**
+     * Renders every task with its number and id.
+     */
+    @Benchmark
+    public String showTasks() {
+        ui.showTasks(tasks);
+        return ui.consumeOutput();
+    }
+}
@@ -4,18 +4,32 @@ import java.nio.file.Path;
 
 import alioth.command.Command;
 import alioth.exception.AliothException;
+import alioth.metrics.CommandExecuteEvent;
+import alioth.metrics.CommandParseEvent;
+import alioth.metrics.MetricsRegistry;
+import alioth.metrics.Phase;
+import alioth.parser.AliasRegistry;
 import alioth.parser.Parser;
 import alioth.storage.Storage;
 import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
 import alioth.ui.Ui;
 
 /**
  * A chatbot that can store tasks of different types and display them on request.
+ *
+ * Every response is timed and recorded in {@link MetricsRegistry#getDefault}, split into
+ * parsing, running the command, saving and formatting the reply. Parsing and running each
+ * command are also flight recorder events, for profiling with JFR.
  */
 public class Alioth {
     private final Ui ui;
     private final Storage storage;
-    private final TaskList tasks;
+    private final TaskWorkspace workspace;
+    private final AliasRegistry aliases;
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private boolean isExit;
 
     /**
      * Creates an instance of the chatbot using the given file path to load and save tasks.
@@ -23,26 +37,35 @@ public class Alioth {
      * @param filePath File path for the storage file.
      */
     public Alioth(Path filePath) {
-        assert filePath != null : "Storage path should not be null";
+        this(new Storage(filePath));
+    }
+
+    /**
+     * Creates an instance of the chatbot that loads and saves tasks through the given storage.
+     *
+     * @param storage Configured storage for the tasks.
+     */
+    public Alioth(Storage storage) {
+        assert storage != null : "Storage should not be null";
 
         ui = new Ui();
-        storage = new Storage(filePath);
+        this.storage = storage;
 
-        Parser.setStorage(storage);
+        aliases = new AliasRegistry(storage);
         try {
-            Parser.loadAliases();
+            aliases.load();
         } catch (AliothException e) {
             ui.showError(e.getMessage());
         }
 
         TaskList tempTasks;
         try {
-            tempTasks = new TaskList(storage.load());
+            tempTasks = TaskList.backedBy(storage.load());
         } catch (AliothException e) {
             ui.showError(e.getMessage());
             tempTasks = new TaskList();
         }
-        tasks = tempTasks;
+        workspace = new TaskWorkspace(tempTasks);
     }
 
     /**
@@ -63,13 +86,96 @@ public class Alioth {
      * @return The response message to display.
      */
     public String getResponse(String input) {
+        long start = System.nanoTime();
+        long saveStart = storage.getSaveNanos();
+        long formatStart = ui.getFormatNanos();
+        String commandWord = Parser.getResolvedCommandWord(input, aliases);
+        long parseEnd = 0;
+        boolean isError = false;
+
+        CommandParseEvent parseEvent = new CommandParseEvent();
+        CommandExecuteEvent executeEvent = new CommandExecuteEvent();
+        String reply;
         try {
-            Command command = Parser.parse(input);
-            command.execute(tasks, ui, storage);
-            return ui.consumeOutput();
+            parseEvent.begin();
+            Command command = Parser.parse(input, aliases, workspace);
+            parseEvent.end();
+            parseEnd = System.nanoTime();
+
+            executeEvent.begin();
+            command.execute(workspace.getTasks(), ui, storage);
+            workspace.recordChange(command.getChange());
+            isExit = command.isExit();
+            executeEvent.isSuccess = true;
+            reply = ui.consumeOutput();
         } catch (AliothException e) {
+            isError = true;
             ui.clearOutput();
-            return ui.formatError(e.getMessage());
+            reply = ui.formatError(e.getMessage());
+        }
+        commitEvents(parseEvent, executeEvent, commandWord, input.length(), parseEnd != 0);
+
+        long total = System.nanoTime() - start;
+        long save = storage.getSaveNanos() - saveStart;
+        long format = ui.getFormatNanos() - formatStart;
+        long parse = parseEnd == 0 ? total - save - format : parseEnd - start;
+        phaseNanos[Phase.PARSE.ordinal()] = parse;
+        phaseNanos[Phase.EXECUTE.ordinal()] = Math.max(total - parse - save - format, 0);
+        phaseNanos[Phase.SAVE.ordinal()] = save;
+        phaseNanos[Phase.FORMAT.ordinal()] = format;
+        phaseNanos[Phase.TOTAL.ordinal()] = total;
+        metrics.record(commandWord == null ? MetricsRegistry.UNKNOWN_COMMAND : commandWord, phaseNanos, isError);
+        return reply;
+    }
+
+    /**
+     * Commits the flight recorder events of one response, if they are being recorded.
+     * An execute event is only committed for a command that parsed.
+     */
+    private void commitEvents(CommandParseEvent parseEvent, CommandExecuteEvent executeEvent,
+            String commandWord, int inputLength, boolean isParsed) {
+        if (!isParsed) {
+            parseEvent.end();
+        }
+        if (parseEvent.shouldCommit()) {
+            parseEvent.commandWord = commandWord == null ? "" : commandWord;
+            parseEvent.inputLength = inputLength;
+            parseEvent.isSuccess = isParsed;
+            parseEvent.commit();
+        }
+        if (isParsed) {
+            executeEvent.end();
+            if (executeEvent.shouldCommit()) {
+                executeEvent.commandWord = commandWord;
+                executeEvent.taskCount = workspace.getTasks().size();
+                executeEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the last input that succeeded was a command to exit.
+     *
+     * @return True if the user has said goodbye.
+     */
+    public boolean isExit() {
+        return isExit;
+    }
+
+    /**
+     * Writes out any changes still queued in the storage and stops its background threads.
+     * This is used when the app closes without a bye command. A transaction still open is
+     * rolled back.
+     */
+    public void close() {
+        if (workspace.isInTransaction()) {
+            workspace.rollback();
+            storage.cancelBatch();
+        }
+        try {
+            storage.close();
+        } catch (AliothException e) {
+            ui.showError(e.getMessage());
         }
     }
 }
@@ -0,0 +1,195 @@
+package alioth;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import alioth.command.Command;
+import alioth.exception.AliothException;
+import alioth.parser.AliasRegistry;
+import alioth.parser.Parser;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.ui.Ui;
+
+/**
+ * Runs commands from a file or standard input without the GUI, for scripts and bulk imports.
+ *
+ * Commands are read one line at a time and run just as in the app, but their changes are
+ * saved together with one write of the whole list every few commands and at the end,
+ * instead of after every command. The script stops at a {@code bye} command.
+ * No save happens inside a transaction, and one still open at the end is rolled back.
+ */
+public class BatchRunner {
+    private final Storage storage;
+    private final TaskWorkspace workspace;
+    private final AliasRegistry aliases;
+    private final Ui ui = new Ui();
+    private final int saveInterval;
+    private final boolean isQuiet;
+
+    /**
+     * The outcome of a run.
+     *
+     * @param commandCount Number of commands run.
+     * @param errorCount Number of commands that failed.
+     * @param saveCount Number of times the task list was written.
+     * @param elapsedNanos Time taken, in nanoseconds.
+     */
+    public record Summary(int commandCount, int errorCount, int saveCount, long elapsedNanos) {
+        /**
+         * Returns the number of commands run per second.
+         *
+         * @return Throughput in commands per second.
+         */
+        public double commandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commandCount * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Ran %d commands (%d failed) in %.1f ms: %.0f commands/s, %d saves",
+                    commandCount, errorCount, elapsedNanos / 1e6, commandsPerSecond(), saveCount);
+        }
+    }
+
+    /**
+     * Creates a runner that loads its tasks and aliases from the given storage.
+     *
+     * @param storage Storage for the tasks.
+     * @param saveInterval Number of commands between saves, or 0 to save only at the end.
+     * @param isQuiet True to write only errors instead of every reply.
+     * @throws AliothException If the tasks or aliases cannot be loaded.
+     */
+    public BatchRunner(Storage storage, int saveInterval, boolean isQuiet) throws AliothException {
+        assert storage != null : "Storage should not be null";
+        assert saveInterval >= 0 : "Save interval should not be negative";
+
+        this.storage = storage;
+        this.workspace = new TaskWorkspace(TaskList.backedBy(storage.load()));
+        this.aliases = new AliasRegistry(storage);
+        this.aliases.load();
+        this.saveInterval = saveInterval;
+        this.isQuiet = isQuiet;
+    }
+
+    /**
+     * Runs every command from the input and writes the replies to the output.
+     *
+     * @param in Commands, one per line.
+     * @param out Where to write the replies.
+     * @return Summary of the run.
+     * @throws IOException If the input cannot be read or the output written.
+     * @throws AliothException If the tasks cannot be saved.
+     */
+    public Summary run(BufferedReader in, Writer out) throws IOException, AliothException {
+        long start = System.nanoTime();
+        int commandCount = 0;
+        int errorCount = 0;
+        int saveCount = 0;
+
+        storage.beginBatch();
+        boolean isBatchOpen = true;
+        try {
+            String input;
+            while ((input = in.readLine()) != null) {
+                if (input.isBlank()) {
+                    continue;
+                }
+                commandCount++;
+
+                boolean isExit = false;
+                try {
+                    Command command = Parser.parse(input, aliases, workspace);
+                    command.execute(workspace.getTasks(), ui, storage);
+                    workspace.recordChange(command.getChange());
+                    isExit = command.isExit();
+                    writeReply(out, ui.consumeOutput(), isQuiet);
+                } catch (AliothException e) {
+                    errorCount++;
+                    ui.clearOutput();
+                    writeReply(out, ui.formatError(e.getMessage()), false);
+                }
+                if (isExit) {
+                    break;
+                }
+
+                if (saveInterval > 0 && commandCount % saveInterval == 0 && !workspace.isInTransaction()) {
+                    isBatchOpen = false;
+                    saveCount += storage.endBatch(workspace.getTasks()) ? 1 : 0;
+                    storage.beginBatch();
+                    isBatchOpen = true;
+                }
+            }
+        } finally {
+            if (workspace.isInTransaction()) {
+                workspace.rollback();
+                storage.cancelBatch();
+            }
+            if (isBatchOpen) {
+                saveCount += storage.endBatch(workspace.getTasks()) ? 1 : 0;
+            }
+            out.flush();
+        }
+        return new Summary(commandCount, errorCount, saveCount, System.nanoTime() - start);
+    }
+
+    private static void writeReply(Writer out, String reply, boolean isQuiet) throws IOException {
+        if (isQuiet || reply.isEmpty()) {
+            return;
+        }
+        out.write(reply);
+        out.write(System.lineSeparator());
+    }
+
+    /**
+     * Runs a script and prints a summary to standard error.
+     * Usage: {@code [--save-every <n>] [--quiet] [--data <save file>] [script file]}.
+     * Without a script file, commands are read from standard input.
+     *
+     * @param args Command-line arguments.
+     * @throws IOException If the script cannot be read.
+     * @throws AliothException If the tasks cannot be loaded or saved.
+     */
+    public static void main(String[] args) throws IOException, AliothException {
+        int saveInterval = 0;
+        boolean isQuiet = false;
+        String dataPath = Paths.get("data", "alioth.txt").toString();
+        String scriptPath = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--save-every":
+                saveInterval = Integer.parseInt(args[++i]);
+                break;
+            case "--quiet":
+                isQuiet = true;
+                break;
+            case "--data":
+                dataPath = args[++i];
+                break;
+            default:
+                scriptPath = args[i];
+            }
+        }
+
+        Storage storage = new Storage(Paths.get(dataPath));
+        storage.setLazyLoad(true);
+        BatchRunner runner = new BatchRunner(storage, saveInterval, isQuiet);
+        try (BufferedReader in = scriptPath == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(scriptPath), StandardCharsets.UTF_8)) {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            Summary summary = runner.run(in, out);
+            System.err.println(summary);
+        } finally {
+            storage.close();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import alioth.message.Message;
 import alioth.storage.Storage;
 import alioth.task.Deadline;
 import alioth.task.Task;
+import alioth.task.TaskChange;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
 
@@ -55,8 +56,9 @@ public class AddDeadlineCommand extends Command {
             throw new AliothException(Message.DUPLICATE.getText());
         }
         tasks.add(task);
+        recordChange(TaskChange.added(task));
 
         ui.showAddTask(task, tasks.size());
-        storage.save(tasks.asList());
+        storage.recordAdd(task, tasks);
     }
 }
@@ -3,17 +3,19 @@ package alioth.command;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.List;
 
 import alioth.exception.AliothException;
 import alioth.message.Message;
 import alioth.storage.Storage;
 import alioth.task.Event;
 import alioth.task.Task;
+import alioth.task.TaskChange;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
 
 /**
- * Adds an event task.
+ * Adds an event task, warning about any existing events at overlapping times.
  */
 public class AddEventCommand extends Command {
     private static final DateTimeFormatter EVENT_INPUT_FORMAT =
@@ -67,13 +69,18 @@ public class AddEventCommand extends Command {
             throw new AliothException(Message.INVALID_EVENT.getText());
         }
 
-        Task task = new Event(description, from, to);
+        Event task = new Event(description, from, to);
         if (tasks.containsDuplicate(task)) {
             throw new AliothException(Message.DUPLICATE.getText());
         }
+        List<Task> conflicts = tasks.findConflicts(task);
         tasks.add(task);
+        recordChange(TaskChange.added(task));
 
         ui.showAddTask(task, tasks.size());
-        storage.save(tasks.asList());
+        if (!conflicts.isEmpty()) {
+            ui.showEventConflicts(conflicts);
+        }
+        storage.recordAdd(task, tasks);
     }
 }
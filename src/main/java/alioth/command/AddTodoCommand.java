@@ -4,6 +4,7 @@ import alioth.exception.AliothException;
 import alioth.message.Message;
 import alioth.storage.Storage;
 import alioth.task.Task;
+import alioth.task.TaskChange;
 import alioth.task.TaskList;
 import alioth.task.Todo;
 import alioth.ui.Ui;
@@ -31,7 +32,8 @@ public class AddTodoCommand extends Command {
         }
 
         tasks.add(task); //
+        recordChange(TaskChange.added(task));
         ui.showAddTask(task, tasks.size()); //
-        storage.save(tasks.asList()); //
+        storage.recordAdd(task, tasks); //
     }
 }
@@ -2,7 +2,7 @@ package alioth.command;
 
 import alioth.exception.AliothException;
 import alioth.message.Message;
-import alioth.parser.Parser;
+import alioth.parser.AliasRegistry;
 import alioth.storage.Storage;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
@@ -12,14 +12,17 @@ import alioth.ui.Ui;
  */
 public class AliasCommand extends Command {
     private final String args;
+    private final AliasRegistry aliases;
 
     /**
      * Creates an alias command with the given arguments.
      *
      * @param args User input arguments (expected: aliasWord commandWord).
+     * @param aliases Aliases to add to.
      */
-    public AliasCommand(String args) {
+    public AliasCommand(String args, AliasRegistry aliases) {
         this.args = args;
+        this.aliases = aliases;
     }
 
     @Override
@@ -37,7 +40,7 @@ public class AliasCommand extends Command {
         String aliasWord = parts[0].trim();
         String targetWord = parts[1].trim();
 
-        Parser.addAlias(aliasWord, targetWord);
+        aliases.add(aliasWord, targetWord);
         ui.showAliasAdded(aliasWord, targetWord);
     }
 }
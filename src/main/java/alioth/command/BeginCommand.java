@@ -0,0 +1,35 @@
+package alioth.command;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.ui.Ui;
+
+/**
+ * Begins a transaction, after which changes go to a private working copy of the tasks.
+ */
+public class BeginCommand extends Command {
+    private final TaskWorkspace workspace;
+
+    /**
+     * Creates a command that begins a transaction in the given workspace.
+     *
+     * @param workspace Workspace holding the tasks.
+     */
+    public BeginCommand(TaskWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
+        if (workspace.isInTransaction()) {
+            throw new AliothException(Message.TRANSACTION_ALREADY_OPEN.getText());
+        }
+
+        workspace.begin();
+        storage.beginBatch();
+        ui.showTransactionBegun();
+    }
+}
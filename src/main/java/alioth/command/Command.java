@@ -1,7 +1,11 @@
 package alioth.command;
 
+import java.util.List;
+
 import alioth.exception.AliothException;
 import alioth.storage.Storage;
+import alioth.task.Task;
+import alioth.task.TaskChange;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
 
@@ -9,6 +13,7 @@ import alioth.ui.Ui;
  * Represents an executable user command.
  */
 public abstract class Command {
+    private TaskChange change;
 
     /**
      * Executes the command.
@@ -20,6 +25,46 @@ public abstract class Command {
      */
     public abstract void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException;
 
+    /**
+     * Returns the change the last run of this command made to the tasks, so it can be undone.
+     *
+     * @return The change, or null if the command changed no tasks.
+     */
+    public TaskChange getChange() {
+        return change;
+    }
+
+    /**
+     * Records the change this command made to the tasks.
+     *
+     * @param change Change that reverses into the operation to undo it.
+     */
+    protected void recordChange(TaskChange change) {
+        this.change = change;
+    }
+
+    /**
+     * Persists a change that was just undone or redone, from the tasks it touched. Tasks of an
+     * addition or removal are either all back in the list or all out of it, and tasks of a
+     * marking keep the done flag they now have.
+     *
+     * @param change Change that was undone or redone.
+     * @param touched Tasks the undo or redo touched.
+     * @param tasks Task list afterwards.
+     * @param storage Storage to persist the change to.
+     * @throws AliothException If there is an IO problem.
+     */
+    protected static void recordUndoOrRedo(TaskChange change, List<Task> touched, TaskList tasks,
+            Storage storage) throws AliothException {
+        if (!change.isAdditionOrRemoval()) {
+            storage.recordDoneChange(touched, tasks);
+        } else if (!touched.isEmpty() && tasks.getById(touched.get(0).getId()) == touched.get(0)) {
+            storage.recordRestore(touched, tasks);
+        } else {
+            storage.recordDeleteAll(touched, tasks);
+        }
+    }
+
     /**
      * Indicates whether this command causes the program to exit.
      *
@@ -0,0 +1,35 @@
+package alioth.command;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.ui.Ui;
+
+/**
+ * Commits the open transaction, saving all of its changes with one write.
+ */
+public class CommitCommand extends Command {
+    private final TaskWorkspace workspace;
+
+    /**
+     * Creates a command that commits the transaction open in the given workspace.
+     *
+     * @param workspace Workspace holding the tasks.
+     */
+    public CommitCommand(TaskWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
+        if (!workspace.isInTransaction()) {
+            throw new AliothException(Message.NO_TRANSACTION.getText());
+        }
+
+        TaskList committed = workspace.commit();
+        storage.endBatch(committed);
+        ui.showTransactionCommitted(committed.size());
+    }
+}
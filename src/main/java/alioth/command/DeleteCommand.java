@@ -1,14 +1,17 @@
 package alioth.command;
 
+import java.util.List;
+
 import alioth.exception.AliothException;
 import alioth.parser.Parser;
 import alioth.storage.Storage;
 import alioth.task.Task;
+import alioth.task.TaskChange;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
 
 /**
- * Deletes a task from the list.
+ * Deletes a task, or several tasks at once, from the list.
  */
 public class DeleteCommand extends Command {
     private final String args;
@@ -16,7 +19,7 @@ public class DeleteCommand extends Command {
     /**
      * Creates a delete command with the given arguments.
      *
-     * @param args User input arguments (expected: task number).
+     * @param args User input arguments (expected: task numbers, ranges or ids, or done).
      */
     public DeleteCommand(String args) {
         this.args = args;
@@ -24,10 +27,18 @@ public class DeleteCommand extends Command {
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
-        int index = Parser.parseTaskIndex(tasks, args, "delete");
-        Task removed = tasks.remove(index);
+        int[] indices = Parser.parseTaskIndices(tasks, args, "delete");
+        if (indices.length == 1) {
+            Task removed = tasks.remove(indices[0]);
+            recordChange(TaskChange.removed(List.of(removed)));
+            ui.showDeleteTask(removed, tasks.size());
+            storage.recordDelete(indices[0], tasks);
+            return;
+        }
 
-        ui.showDeleteTask(removed, tasks.size());
-        storage.save(tasks.asList());
+        List<Task> removed = tasks.removeAll(indices);
+        recordChange(TaskChange.removed(removed));
+        ui.showDeleteTasks(removed, tasks.size());
+        storage.recordDeleteAll(removed, tasks);
     }
 }
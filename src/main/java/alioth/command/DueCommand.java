@@ -0,0 +1,57 @@
+package alioth.command;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Lists the next deadlines that are not done yet, starting from today.
+ */
+public class DueCommand extends Command {
+    private static final int DEFAULT_COUNT = 5;
+
+    private final String args;
+    private final Clock clock;
+
+    /**
+     * Creates a due command with the given arguments.
+     *
+     * @param args User input arguments (expected: optional number of deadlines to show).
+     */
+    public DueCommand(String args) {
+        this(args, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a due command that reads today's date from the given clock.
+     *
+     * @param args User input arguments (expected: optional number of deadlines to show).
+     * @param clock Clock that decides what day it is.
+     */
+    public DueCommand(String args, Clock clock) {
+        this.args = args;
+        this.clock = clock;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
+        int count = DEFAULT_COUNT;
+        if (!args.trim().isEmpty()) {
+            try {
+                count = Integer.parseInt(args.trim());
+            } catch (NumberFormatException e) {
+                throw new AliothException(Message.INVALID_DUE.getText());
+            }
+            if (count < 1) {
+                throw new AliothException(Message.INVALID_DUE.getText());
+            }
+        }
+
+        ui.showDueTasks(tasks.findDue(LocalDate.now(clock), count));
+    }
+}
@@ -1,5 +1,6 @@
 package alioth.command;
 
+import alioth.exception.AliothException;
 import alioth.storage.Storage;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
@@ -10,7 +11,8 @@ import alioth.ui.Ui;
 public class ExitCommand extends Command {
 
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
+        storage.flush();
         ui.showBye();
     }
 
@@ -8,14 +8,17 @@ import alioth.ui.Ui;
 
 /**
  * Finds tasks whose descriptions contain a keyword.
+ * A keyword starting with ~ also finds words that are spelt a little differently.
  */
 public class FindCommand extends Command {
+    private static final String FUZZY_PREFIX = "~";
+
     private final String args;
 
     /**
      * Creates a find command with the given arguments.
      *
-     * @param args User input arguments (expected: keyword).
+     * @param args User input arguments (expected: keyword or ~word).
      */
     public FindCommand(String args) {
         this.args = args;
@@ -28,6 +31,15 @@ public class FindCommand extends Command {
             throw new AliothException(Message.INVALID_FIND.getText());
         }
 
+        if (keyword.startsWith(FUZZY_PREFIX)) {
+            String word = keyword.substring(FUZZY_PREFIX.length());
+            if (word.isEmpty() || !word.chars().allMatch(Character::isLetterOrDigit)) {
+                throw new AliothException(Message.INVALID_FIND.getText());
+            }
+            ui.showMatchingTasks(tasks.findSimilar(word));
+            return;
+        }
+
         ui.showMatchingTasks(tasks.find(keyword));
     }
 }
@@ -2,7 +2,7 @@ package alioth.command;
 
 import java.util.Map;
 
-import alioth.parser.Parser;
+import alioth.parser.AliasRegistry;
 import alioth.storage.Storage;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
@@ -11,10 +11,20 @@ import alioth.ui.Ui;
  * Lists all user-defined aliases.
  */
 public class ListAliasesCommand extends Command {
+    private final AliasRegistry aliases;
+
+    /**
+     * Creates a command that lists the given aliases.
+     *
+     * @param aliases Aliases to list.
+     */
+    public ListAliasesCommand(AliasRegistry aliases) {
+        this.aliases = aliases;
+    }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) {
-        Map<String, String> aliases = Parser.getAliases();
-        ui.showAliases(aliases);
+        Map<String, String> aliasMap = aliases.getAliases();
+        ui.showAliases(aliasMap);
     }
 }
@@ -0,0 +1,57 @@
+package alioth.command;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Lists the events that are on at any time during a range.
+ */
+public class ListEventsCommand extends Command {
+    private static final DateTimeFormatter RANGE_INPUT_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+
+    private final String args;
+
+    /**
+     * Creates a list events command with the given arguments.
+     *
+     * @param args User input arguments (expected: /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm).
+     */
+    public ListEventsCommand(String args) {
+        this.args = args;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
+        String[] firstSplit = args.trim().split("^/from\\s+", 2);
+        if (firstSplit.length != 2 || !firstSplit[0].isEmpty()) {
+            throw new AliothException(Message.INVALID_EVENTS_RANGE.getText());
+        }
+
+        String[] secondSplit = firstSplit[1].split("\\s+/to\\s+", 2);
+        if (secondSplit.length != 2) {
+            throw new AliothException(Message.INVALID_EVENTS_RANGE.getText());
+        }
+
+        LocalDateTime from;
+        LocalDateTime to;
+        try {
+            from = LocalDateTime.parse(secondSplit[0].trim(), RANGE_INPUT_FORMAT);
+            to = LocalDateTime.parse(secondSplit[1].trim(), RANGE_INPUT_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new AliothException(Message.INVALID_EVENTS_RANGE.getText());
+        }
+        if (from.isAfter(to)) {
+            throw new AliothException(Message.EVENT_CHRONOLOGY.getText());
+        }
+
+        ui.showEventsBetween(tasks.findEventsBetween(from, to));
+    }
+}
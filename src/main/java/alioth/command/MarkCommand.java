@@ -1,30 +1,49 @@
 package alioth.command;
 
+import java.util.List;
+
 import alioth.exception.AliothException;
 import alioth.parser.Parser;
 import alioth.storage.Storage;
 import alioth.task.Task;
+import alioth.task.TaskChange;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
 
 /**
- * Marks a task as done.
+ * Marks a task, or several tasks at once, as done.
  */
 public class MarkCommand extends Command {
     private final String args;
 
+    /**
+     * Creates a mark command with the given arguments.
+     *
+     * @param args User input arguments (expected: task numbers, ranges or ids).
+     */
     public MarkCommand(String args) {
         this.args = args;
     }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
-        int index = Parser.parseTaskIndex(tasks, args, "mark");
+        int[] indices = Parser.parseTaskIndices(tasks, args, "mark");
+        boolean[] wasDone = new boolean[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            wasDone[i] = tasks.get(indices[i]).isDone();
+        }
 
-        Task task = tasks.get(index);
-        task.setDone(true);
+        if (indices.length == 1) {
+            Task task = tasks.setDone(indices[0], true);
+            recordChange(TaskChange.doneChanged(List.of(task), wasDone, true));
+            ui.showMarkTask(task);
+            storage.recordMark(indices[0], tasks);
+            return;
+        }
 
-        ui.showMarkTask(task);
-        storage.save(tasks.asList());
+        List<Task> marked = tasks.setDoneAll(indices, true);
+        recordChange(TaskChange.doneChanged(marked, wasDone, true));
+        ui.showMarkTasks(marked);
+        storage.recordDoneChange(marked, tasks);
     }
 }
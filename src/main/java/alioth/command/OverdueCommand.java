@@ -0,0 +1,36 @@
+package alioth.command;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Lists the deadlines that are not done and were due before today.
+ */
+public class OverdueCommand extends Command {
+    private final Clock clock;
+
+    /**
+     * Creates an overdue command using the system clock.
+     */
+    public OverdueCommand() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates an overdue command that reads today's date from the given clock.
+     *
+     * @param clock Clock that decides what day it is.
+     */
+    public OverdueCommand(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        ui.showOverdueTasks(tasks.findOverdue(LocalDate.now(clock)));
+    }
+}
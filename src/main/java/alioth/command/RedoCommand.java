@@ -0,0 +1,40 @@
+package alioth.command;
+
+import java.util.List;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.Task;
+import alioth.task.TaskChange;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.ui.Ui;
+
+/**
+ * Redoes the change undone most recently.
+ */
+public class RedoCommand extends Command {
+    private final TaskWorkspace workspace;
+
+    /**
+     * Creates a command that redoes a change in the given workspace.
+     *
+     * @param workspace Workspace holding the tasks and their history.
+     */
+    public RedoCommand(TaskWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
+        TaskChange change = workspace.getHistory().redo();
+        if (change == null) {
+            throw new AliothException(Message.NOTHING_TO_REDO.getText());
+        }
+
+        List<Task> touched = change.redo(tasks);
+        ui.showRedone(touched);
+        recordUndoOrRedo(change, touched, tasks, storage);
+    }
+}
@@ -0,0 +1,35 @@
+package alioth.command;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.ui.Ui;
+
+/**
+ * Rolls back the open transaction, throwing away all of its changes.
+ */
+public class RollbackCommand extends Command {
+    private final TaskWorkspace workspace;
+
+    /**
+     * Creates a command that rolls back the transaction open in the given workspace.
+     *
+     * @param workspace Workspace holding the tasks.
+     */
+    public RollbackCommand(TaskWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
+        if (!workspace.isInTransaction()) {
+            throw new AliothException(Message.NO_TRANSACTION.getText());
+        }
+
+        workspace.rollback();
+        storage.cancelBatch();
+        ui.showTransactionRolledBack();
+    }
+}
@@ -0,0 +1,58 @@
+package alioth.command;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.parser.QueryParser;
+import alioth.storage.Storage;
+import alioth.task.Query;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Searches task descriptions for words, phrases and boolean combinations of them,
+ * showing the most relevant matches first.
+ */
+public class SearchCommand extends Command {
+    private static final Pattern LIMIT_OPTION = Pattern.compile("(?:^|\\s)--limit(?:\\s+(\\S+)|$)");
+
+    private final String args;
+
+    /**
+     * Creates a search command with the given arguments.
+     *
+     * @param args User input arguments (expected: query, optionally with --limit k).
+     */
+    public SearchCommand(String args) {
+        this.args = args;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
+        int limit = 0;
+        String queryText = args;
+
+        Matcher matcher = LIMIT_OPTION.matcher(args);
+        if (matcher.find()) {
+            limit = parseLimit(matcher.group(1));
+            queryText = args.substring(0, matcher.start()) + " " + args.substring(matcher.end());
+        }
+
+        Query query = QueryParser.parse(queryText.trim());
+        ui.showRankedTasks(tasks.search(query, limit));
+    }
+
+    private static int parseLimit(String text) throws AliothException {
+        try {
+            int limit = Integer.parseInt(text);
+            if (limit > 0) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Falls through to the error below; text is null if no number was given.
+        }
+        throw new AliothException(Message.INVALID_SEARCH.getText());
+    }
+}
@@ -0,0 +1,27 @@
+package alioth.command;
+
+import alioth.metrics.MetricsRegistry;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Shows how many times each command has run and how long it took.
+ */
+public class StatsCommand extends Command {
+    private final MetricsRegistry metrics;
+
+    /**
+     * Creates a command that shows the given metrics.
+     *
+     * @param metrics Metrics to show.
+     */
+    public StatsCommand(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        ui.showStats(metrics.getCommandCount(), metrics.getReport());
+    }
+}
@@ -2,7 +2,7 @@ package alioth.command;
 
 import alioth.exception.AliothException;
 import alioth.message.Message;
-import alioth.parser.Parser;
+import alioth.parser.AliasRegistry;
 import alioth.storage.Storage;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
@@ -12,14 +12,17 @@ import alioth.ui.Ui;
  */
 public class UnaliasCommand extends Command {
     private final String args;
+    private final AliasRegistry aliases;
 
     /**
      * Creates an unalias command with the given arguments.
      *
      * @param args User input arguments.
+     * @param aliases Aliases to remove from.
      */
-    public UnaliasCommand(String args) {
+    public UnaliasCommand(String args, AliasRegistry aliases) {
         this.args = args;
+        this.aliases = aliases;
     }
 
     @Override
@@ -29,7 +32,7 @@ public class UnaliasCommand extends Command {
             throw new AliothException(Message.INVALID_UNALIAS.getText());
         }
 
-        Parser.removeAlias(aliasWord);
+        aliases.remove(aliasWord);
         ui.showAliasRemoved(aliasWord);
     }
 }
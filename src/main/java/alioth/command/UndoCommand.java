@@ -0,0 +1,40 @@
+package alioth.command;
+
+import java.util.List;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.Task;
+import alioth.task.TaskChange;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.ui.Ui;
+
+/**
+ * Undoes the most recent change to the tasks that has not been undone yet.
+ */
+public class UndoCommand extends Command {
+    private final TaskWorkspace workspace;
+
+    /**
+     * Creates a command that undoes a change in the given workspace.
+     *
+     * @param workspace Workspace holding the tasks and their history.
+     */
+    public UndoCommand(TaskWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
+        TaskChange change = workspace.getHistory().undo();
+        if (change == null) {
+            throw new AliothException(Message.NOTHING_TO_UNDO.getText());
+        }
+
+        List<Task> touched = change.undo(tasks);
+        ui.showUndone(touched);
+        recordUndoOrRedo(change, touched, tasks, storage);
+    }
+}
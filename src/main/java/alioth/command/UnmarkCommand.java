@@ -1,14 +1,17 @@
 package alioth.command;
 
+import java.util.List;
+
 import alioth.exception.AliothException;
 import alioth.parser.Parser;
 import alioth.storage.Storage;
 import alioth.task.Task;
+import alioth.task.TaskChange;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
 
 /**
- * Unmarks a task in the list as not done.
+ * Unmarks a task, or several tasks at once, in the list as not done.
  */
 public class UnmarkCommand extends Command {
     private final String args;
@@ -16,7 +19,7 @@ public class UnmarkCommand extends Command {
     /**
      * Creates an unmark command with the given arguments.
      *
-     * @param args User input arguments (expected: task number).
+     * @param args User input arguments (expected: task numbers, ranges or ids, or done).
      */
     public UnmarkCommand(String args) {
         this.args = args;
@@ -24,11 +27,23 @@ public class UnmarkCommand extends Command {
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws AliothException {
-        int index = Parser.parseTaskIndex(tasks, args, "unmark");
-        Task task = tasks.get(index);
-        task.setDone(false);
+        int[] indices = Parser.parseTaskIndices(tasks, args, "unmark");
+        boolean[] wasDone = new boolean[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            wasDone[i] = tasks.get(indices[i]).isDone();
+        }
+
+        if (indices.length == 1) {
+            Task task = tasks.setDone(indices[0], false);
+            recordChange(TaskChange.doneChanged(List.of(task), wasDone, false));
+            ui.showUnmarkTask(task);
+            storage.recordUnmark(indices[0], tasks);
+            return;
+        }
 
-        ui.showUnmarkTask(task);
-        storage.save(tasks.asList());
+        List<Task> unmarked = tasks.setDoneAll(indices, false);
+        recordChange(TaskChange.doneChanged(unmarked, wasDone, false));
+        ui.showUnmarkTasks(unmarked);
+        storage.recordDoneChange(unmarked, tasks);
     }
 }
@@ -2,8 +2,11 @@ package alioth.gui;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 import alioth.Alioth;
+import alioth.storage.DurabilityPolicy;
+import alioth.storage.Storage;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -14,7 +17,22 @@ import javafx.stage.Stage;
  * A GUI for Alioth using FXML.
  */
 public class MainApp extends Application {
-    private final Alioth alioth = new Alioth(Paths.get("data", "alioth.txt"));
+    private final Alioth alioth = new Alioth(createStorage());
+
+    /**
+     * Creates the storage for the desktop app, which journals each change instead of
+     * rewriting the whole save file, writes off the JavaFX thread, and decodes tasks
+     * only when they are first shown.
+     *
+     * @return Storage for data/alioth.txt.
+     */
+    private static Storage createStorage() {
+        Storage storage = new Storage(Paths.get("data", "alioth.txt"));
+        storage.setJournalMode(true);
+        storage.setLazyLoad(true);
+        storage.setWriteBehind(DurabilityPolicy.BOUNDED_LAG, Duration.ofMillis(200));
+        return storage;
+    }
 
     @Override
     public void start(Stage stage) {
@@ -35,4 +53,9 @@ public class MainApp extends Application {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        alioth.close();
+    }
 }
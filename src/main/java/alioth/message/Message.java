@@ -17,13 +17,19 @@ public enum Message {
     EVENT_CHRONOLOGY("How sad! Time is a fickle thing. "
             + "You cannot start a party after it has already ended, darling."),
     INVALID_MARK("Wait! I can only mark a task as done if you give me its royal number. "
-            + "Try: mark <number>"),
+            + "Try: mark <number>, mark #<id>, mark 1-5 or mark 1,4,9"),
     INVALID_UNMARK("Oh! Did you change your mind? "
-            + "Please use the task number so I can unmark it: unmark <number>"),
+            + "Please use the task number so I can unmark it: unmark <number>, unmark #<id> or unmark 1-5"),
     INVALID_DELETE("Goodbye, task! But I need to know which number to remove first. "
-            + "Try: delete <number>"),
+            + "Try: delete <number>, delete #<id>, delete 3-500 or delete done"),
+    NO_DONE_TASKS("Nothing to tidy away yet! None of your tasks are done."),
+    INVALID_EVENTS_RANGE("Let me check the royal calendar! Please tell me the time range using: "
+            + "events /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm"),
+    INVALID_DUE("Tick-tock! Tell me how many deadlines you would like to see, like: due 3"),
     INVALID_FIND("I can find anything! But you must give me a word to look for, like: "
-            + "find <keyword>"),
+            + "find <keyword> or find ~<word>"),
+    INVALID_SEARCH("Let us search the whole kingdom! Tell me what to look for, like: "
+            + "search ball AND (gown OR \"glass slipper\") NOT pumpkin --limit 5"),
 
     // Aliases
     INVALID_ALIAS("A new secret name! How exciting! Please use: alias <alias> <command>"),
@@ -34,8 +40,26 @@ public enum Message {
     ALIAS_IS_COMMAND_WORD("%s is a royal word already. You cannot change a king's command!"),
     UNKNOWN_ALIAS_TARGET("Heigh-ho! I don't know the command for: %s"),
 
+    // Transactions
+    TRANSACTION_ALREADY_OPEN("One secret plan at a time, darling! Please commit or rollback first."),
+    NO_TRANSACTION("There is no secret plan to finish! Start one with: begin"),
+    SESSION_COMMAND_UNAVAILABLE("Oh dear! That command only works when we chat, not here."),
+
+    // Undo and redo
+    NOTHING_TO_UNDO("There is nothing left to undo! The royal records are as old as I remember."),
+    NOTHING_TO_REDO("There is nothing to redo, darling! Only undone changes can be made again."),
+
+    // Server sessions
+    INVALID_USER_NAME("Welcome to the palace! Please tell me your name first, "
+            + "using up to 32 letters, digits, - or _"),
+    USER_ALREADY_CONNECTED("The royal records of %s are already open in another session."),
+
     DUPLICATE("Oh heavens! This task already exists in your royal records."),
-    SAVE_ERROR("Oh no! The magic mirror has clouded over. I could not save your tasks.");
+    SAVE_ERROR("Oh no! The magic mirror has clouded over. I could not save your tasks."),
+    UNREADABLE_SAVE_FILE("Oh no! Your royal records could not be read, so I kept them safe in %s "
+            + "and started a fresh list."),
+    SAVE_FILE_NOT_MOVED("Oh no! Your royal records in %s could not be read or kept safe, "
+            + "so I will not save over them.");
 
     private final String text;
 
@@ -0,0 +1,27 @@
+package alioth.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for writing the alias file.
+ */
+@Name("alioth.AliasSave")
+@Label("Alias Save")
+@Category({"Alioth", "Storage"})
+@StackTrace(false)
+public class AliasSaveEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Alias Count")
+    public int aliasCount;
+
+    @Label("Bytes Written")
+    @DataAmount(DataAmount.BYTES)
+    public long bytesWritten;
+}
@@ -0,0 +1,28 @@
+package alioth.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for running one command, including the saves it waits for.
+ */
+@Name("alioth.CommandExecute")
+@Label("Command Execute")
+@Category({"Alioth", "Command"})
+@Description("Running one command on the task list, including saving its changes")
+@StackTrace(false)
+public class CommandExecuteEvent extends Event {
+    @Label("Command Word")
+    public String commandWord;
+
+    @Label("Task Count")
+    @Description("Number of tasks after the command")
+    public int taskCount;
+
+    @Label("Succeeded")
+    public boolean isSuccess;
+}
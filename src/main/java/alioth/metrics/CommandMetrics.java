@@ -0,0 +1,67 @@
+package alioth.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts and latencies of one type of command.
+ */
+public class CommandMetrics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final Map<Phase, LatencyHistogram> latencies = new EnumMap<>(Phase.class);
+
+    /**
+     * Creates metrics with nothing recorded.
+     */
+    public CommandMetrics() {
+        for (Phase phase : Phase.values()) {
+            latencies.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Records one run of the command.
+     *
+     * @param phaseNanos Time spent in each phase, indexed by {@link Phase#ordinal}.
+     * @param isError True if the command failed.
+     */
+    void record(long[] phaseNanos, boolean isError) {
+        count.increment();
+        if (isError) {
+            errorCount.increment();
+        }
+        for (Phase phase : Phase.values()) {
+            latencies.get(phase).record(phaseNanos[phase.ordinal()]);
+        }
+    }
+
+    /**
+     * Returns the number of times the command ran.
+     *
+     * @return Count, including failures.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the number of times the command failed.
+     *
+     * @return Error count.
+     */
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    /**
+     * Returns the latencies of one phase of the command.
+     *
+     * @param phase Phase to look up.
+     * @return Histogram of the phase's latencies.
+     */
+    public LatencyHistogram getLatency(Phase phase) {
+        return latencies.get(phase);
+    }
+}
@@ -0,0 +1,30 @@
+package alioth.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for turning one input into a command.
+ */
+@Name("alioth.CommandParse")
+@Label("Command Parse")
+@Category({"Alioth", "Command"})
+@Description("Parsing one line of input into a command")
+@StackTrace(false)
+public class CommandParseEvent extends Event {
+    @Label("Command Word")
+    @Description("Command word after aliases are resolved, or empty if the input is not a command")
+    public String commandWord;
+
+    @Label("Input Length")
+    @DataAmount(DataAmount.BYTES)
+    public int inputLength;
+
+    @Label("Succeeded")
+    public boolean isSuccess;
+}
@@ -0,0 +1,129 @@
+package alioth.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies that many threads can record into without locking.
+ *
+ * Each power of two is split into four buckets, so a percentile is reported as the top of its
+ * bucket and is at most 25% above the true value. Every bucket is a {@link LongAdder}, which
+ * spreads updates from different threads over separate cells instead of contending on one.
+ * Latencies beyond about half an hour all fall into the last bucket.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 4;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT + 1) * SUB_BUCKETS - SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the bucket a latency falls into. Values below 4 have a bucket each; above that,
+     * the two bits after the highest one pick one of the four buckets of its power of two.
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return exponent * SUB_BUCKETS + subBucket - SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the largest latency in a bucket.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - 2)) - 1;
+    }
+
+    /**
+     * Adds one latency.
+     *
+     * @param nanos Latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        buckets[bucketOf(nanos)].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return Count.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of every latency recorded.
+     *
+     * @return Total in nanoseconds.
+     */
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Returns the largest latency recorded.
+     *
+     * @return Maximum in nanoseconds, or 0 if there are none.
+     */
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns an upper bound on the latency below which the given fraction of latencies fall.
+     * Latencies recorded while this runs may or may not be counted.
+     *
+     * @param fraction Fraction between 0 and 1, such as 0.99 for the 99th percentile.
+     * @return Latency in nanoseconds, or 0 if there are none.
+     */
+    public long percentile(double fraction) {
+        assert fraction >= 0 && fraction <= 1 : "Percentile fraction should be between 0 and 1";
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max((long) Math.ceil(fraction * total), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+}
@@ -0,0 +1,54 @@
+package alioth.metrics;
+
+/**
+ * The management interface of {@link MetricsRegistry}, for JMX tools such as JConsole.
+ * Latencies are in microseconds, and phases are named as in {@link Phase}.
+ */
+public interface MetricsMXBean {
+    /**
+     * Returns the number of commands run.
+     *
+     * @return Count of every command, including failures.
+     */
+    long getCommandCount();
+
+    /**
+     * Returns the number of commands that failed.
+     *
+     * @return Error count.
+     */
+    long getErrorCount();
+
+    /**
+     * Returns the command words that have run.
+     *
+     * @return Command words in alphabetical order.
+     */
+    String[] getCommandWords();
+
+    /**
+     * Returns the number of times one command ran.
+     *
+     * @param commandWord Command word.
+     * @return Count, or 0 if it has not run.
+     */
+    long countOf(String commandWord);
+
+    /**
+     * Returns a latency percentile of one phase of one command.
+     *
+     * @param commandWord Command word.
+     * @param phase Phase name, such as {@code TOTAL} or {@code SAVE}.
+     * @param fraction Fraction between 0 and 1, such as 0.99 for the 99th percentile.
+     * @return Latency in microseconds, or 0 if the command has not run.
+     */
+    double percentileMicros(String commandWord, String phase, double fraction);
+
+    /**
+     * Returns a table of every command's counts, total latency percentiles, and average time
+     * spent parsing, saving and formatting, all in microseconds.
+     *
+     * @return Report text.
+     */
+    String getReport();
+}
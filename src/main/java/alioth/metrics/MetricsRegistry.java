@@ -0,0 +1,144 @@
+package alioth.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counts and latencies of every type of command, kept while the program runs.
+ *
+ * Recording never takes a lock: looking up a command that has run before is a plain read of a
+ * concurrent map, and every count is a {@link LongAdder}. Reading the metrics sums the adders,
+ * so a report taken while commands run may be a moment out of date, but never blocks them.
+ * The registry every Alioth instance records into is registered with JMX as
+ * {@value #OBJECT_NAME}.
+ */
+public class MetricsRegistry implements MetricsMXBean {
+    /** Key for input whose command word is not a command. */
+    public static final String UNKNOWN_COMMAND = "(unknown)";
+    /** JMX name of the default registry. */
+    public static final String OBJECT_NAME = "alioth:type=Metrics";
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final ConcurrentMap<String, CommandMetrics> commands = new ConcurrentHashMap<>();
+
+    /**
+     * Holds the default registry, so it is only created and registered when first used.
+     */
+    private static class DefaultHolder {
+        private static final MetricsRegistry INSTANCE = createDefault();
+
+        private static MetricsRegistry createDefault() {
+            MetricsRegistry registry = new MetricsRegistry();
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                server.registerMBean(registry, new ObjectName(OBJECT_NAME));
+            } catch (JMException | SecurityException e) {
+                // The metrics still work without JMX, and the stats command still shows them.
+            }
+            return registry;
+        }
+    }
+
+    /**
+     * Returns the registry that every Alioth instance in this program records into.
+     *
+     * @return Default registry.
+     */
+    public static MetricsRegistry getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Records one command.
+     *
+     * @param commandWord Command word, after aliases are resolved.
+     * @param phaseNanos Time spent in each phase, indexed by {@link Phase#ordinal}.
+     * @param isError True if the command failed.
+     */
+    public void record(String commandWord, long[] phaseNanos, boolean isError) {
+        assert phaseNanos.length == Phase.values().length : "Every phase should have a time";
+        CommandMetrics metrics = commands.get(commandWord);
+        if (metrics == null) {
+            metrics = commands.computeIfAbsent(commandWord, word -> new CommandMetrics());
+        }
+        metrics.record(phaseNanos, isError);
+    }
+
+    /**
+     * Returns the metrics of one command.
+     *
+     * @param commandWord Command word.
+     * @return Its metrics, or null if it has not run.
+     */
+    public CommandMetrics get(String commandWord) {
+        return commands.get(commandWord);
+    }
+
+    /**
+     * Returns the metrics of every command that has run.
+     *
+     * @return Metrics by command word, in alphabetical order.
+     */
+    public Map<String, CommandMetrics> getAll() {
+        return new TreeMap<>(commands);
+    }
+
+    @Override
+    public long getCommandCount() {
+        return commands.values().stream().mapToLong(CommandMetrics::getCount).sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return commands.values().stream().mapToLong(CommandMetrics::getErrorCount).sum();
+    }
+
+    @Override
+    public String[] getCommandWords() {
+        return getAll().keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public long countOf(String commandWord) {
+        CommandMetrics metrics = commands.get(commandWord);
+        return metrics == null ? 0 : metrics.getCount();
+    }
+
+    @Override
+    public double percentileMicros(String commandWord, String phase, double fraction) {
+        CommandMetrics metrics = commands.get(commandWord);
+        if (metrics == null) {
+            return 0;
+        }
+        return metrics.getLatency(Phase.valueOf(phase.toUpperCase(Locale.ROOT))).percentile(fraction) / 1e3;
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder(String.format("%-10s %8s %7s %10s %10s %10s %10s %10s %10s%n",
+                "command", "count", "errors", "p50 us", "p99 us", "p99.9 us", "parse avg", "save avg", "format avg"));
+        getAll().forEach((commandWord, metrics) -> {
+            report.append(String.format("%-10s %8d %7d", commandWord, metrics.getCount(), metrics.getErrorCount()));
+            LatencyHistogram total = metrics.getLatency(Phase.TOTAL);
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(" %10.1f", total.percentile(percentile) / 1e3));
+            }
+            for (Phase phase : new Phase[] {Phase.PARSE, Phase.SAVE, Phase.FORMAT}) {
+                LatencyHistogram latency = metrics.getLatency(phase);
+                report.append(String.format(" %10.1f", latency.totalNanos() / 1e3 / Math.max(latency.count(), 1)));
+            }
+            report.append(System.lineSeparator());
+        });
+        return report.toString().stripTrailing();
+    }
+}
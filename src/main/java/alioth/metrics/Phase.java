@@ -0,0 +1,17 @@
+package alioth.metrics;
+
+/**
+ * A part of the time Alioth takes to answer one command.
+ */
+public enum Phase {
+    /** Turning the input into a command. */
+    PARSE,
+    /** Running the command, apart from saving and formatting. */
+    EXECUTE,
+    /** Waiting for the changes to be saved. */
+    SAVE,
+    /** Writing out task lists and building the reply. */
+    FORMAT,
+    /** The whole command, from input to reply. */
+    TOTAL
+}
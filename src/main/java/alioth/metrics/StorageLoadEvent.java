@@ -0,0 +1,34 @@
+package alioth.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for loading a save file and replaying its journal.
+ */
+@Name("alioth.StorageLoad")
+@Label("Storage Load")
+@Category({"Alioth", "Storage"})
+@Description("Reading the save file and replaying the journal records after it")
+@StackTrace(false)
+public class StorageLoadEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Task Count")
+    public int taskCount;
+
+    @Label("Bytes Read")
+    @Description("Size of the save file and journals")
+    @DataAmount(DataAmount.BYTES)
+    public long bytesRead;
+
+    @Label("Lazy")
+    @Description("Whether text tasks are decoded only when first used")
+    public boolean isLazy;
+}
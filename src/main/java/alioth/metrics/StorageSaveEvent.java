@@ -0,0 +1,42 @@
+package alioth.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for one write to a save file or its journal, on whichever
+ * thread makes it.
+ */
+@Name("alioth.StorageSave")
+@Label("Storage Save")
+@Category({"Alioth", "Storage"})
+@Description("Writing a snapshot of the tasks, or appending records to the journal")
+@StackTrace(false)
+public class StorageSaveEvent extends Event {
+    /** Kind of a write that replaces the save file. */
+    public static final String SNAPSHOT = "snapshot";
+    /** Kind of a write that folds the journal into a new save file in the background. */
+    public static final String COMPACTION = "compaction";
+    /** Kind of a write that appends to the journal. */
+    public static final String JOURNAL = "journal";
+
+    @Label("Path")
+    public String path;
+
+    @Label("Kind")
+    @Description("snapshot, compaction or journal")
+    public String kind;
+
+    @Label("Record Count")
+    @Description("Number of tasks in a snapshot, or of records appended to the journal")
+    public int recordCount;
+
+    @Label("Bytes Written")
+    @DataAmount(DataAmount.BYTES)
+    public long bytesWritten;
+}
@@ -0,0 +1,142 @@
+package alioth.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+
+/**
+ * Holds the aliases of one Alioth instance and saves them through its storage.
+ *
+ * The aliases are kept in an immutable map that every change replaces with an updated copy,
+ * so resolving an alias is a single lock-free read even while another thread changes them.
+ * Changes are made one at a time.
+ */
+public class AliasRegistry {
+    private final Storage storage;
+    private volatile Map<String, String> aliases = Map.of();
+
+    /**
+     * Creates an empty registry that does not save its aliases.
+     */
+    public AliasRegistry() {
+        this.storage = null;
+    }
+
+    /**
+     * Creates an empty registry that saves its aliases through the given storage.
+     *
+     * @param storage Storage whose alias file holds the aliases.
+     */
+    public AliasRegistry(Storage storage) {
+        assert storage != null : "Alias storage should not be null";
+        this.storage = storage;
+    }
+
+    /**
+     * Replaces the aliases with those saved in storage.
+     *
+     * @throws AliothException If loading aliases fails.
+     */
+    public synchronized void load() throws AliothException {
+        if (storage == null) {
+            return;
+        }
+
+        aliases = Map.copyOf(storage.loadAliases());
+    }
+
+    /**
+     * Returns the command word an alias stands for.
+     *
+     * @param word Word typed by the user.
+     * @return The command word for the alias, or the word itself if it is not an alias.
+     */
+    public String resolve(String word) {
+        return aliases.getOrDefault(word, word);
+    }
+
+    /**
+     * Adds an alias that maps {@code aliasWord} to {@code targetCommandWord}.
+     *
+     * @param aliasWord The alias to add.
+     * @param targetCommandWord The existing command word the alias maps to.
+     * @throws AliothException If the alias is invalid, clashes with a command word,
+     *                         already exists, or the target command is unknown.
+     */
+    public synchronized void add(String aliasWord, String targetCommandWord) throws AliothException {
+        String alias = aliasWord.trim();
+        String target = targetCommandWord.trim();
+
+        if (alias.isEmpty() || target.isEmpty()) {
+            throw new AliothException(Message.INVALID_ALIAS.getText());
+        }
+
+        if (!isValidAliasWord(alias) || !isValidAliasWord(target)) {
+            throw new AliothException(Message.INVALID_ALIAS_WORD.getText());
+        }
+
+        if (Parser.isCommandWord(alias)) {
+            throw new AliothException(Message.ALIAS_IS_COMMAND_WORD.format(alias));
+        }
+
+        if (aliases.containsKey(alias)) {
+            throw new AliothException(Message.ALIAS_ALREADY_EXISTS.format(alias));
+        }
+
+        if (!Parser.isCommandWord(target)) {
+            throw new AliothException(Message.UNKNOWN_ALIAS_TARGET.format(target));
+        }
+
+        Map<String, String> updated = new HashMap<>(aliases);
+        updated.put(alias, target);
+        aliases = Map.copyOf(updated);
+        save();
+    }
+
+    /**
+     * Removes an existing alias.
+     *
+     * @param aliasWord The alias to remove.
+     * @throws AliothException If the alias does not exist.
+     */
+    public synchronized void remove(String aliasWord) throws AliothException {
+        String alias = aliasWord.trim();
+
+        if (alias.isEmpty()) {
+            throw new AliothException(Message.INVALID_UNALIAS.getText());
+        }
+
+        if (!aliases.containsKey(alias)) {
+            throw new AliothException(Message.NO_SUCH_ALIAS.format(alias));
+        }
+
+        Map<String, String> updated = new HashMap<>(aliases);
+        updated.remove(alias);
+        aliases = Map.copyOf(updated);
+        save();
+    }
+
+    /**
+     * Returns the current aliases.
+     *
+     * @return An unmodifiable snapshot of the alias map.
+     */
+    public Map<String, String> getAliases() {
+        return aliases;
+    }
+
+    private void save() throws AliothException {
+        if (storage == null) {
+            return;
+        }
+
+        storage.saveAliases(aliases);
+    }
+
+    private static boolean isValidAliasWord(String word) {
+        return word.matches("[a-zA-Z]+");
+    }
+}
@@ -1,26 +1,36 @@
 package alioth.parser;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.BitSet;
 import java.util.Set;
 
 import alioth.command.AddDeadlineCommand;
 import alioth.command.AddEventCommand;
 import alioth.command.AddTodoCommand;
 import alioth.command.AliasCommand;
+import alioth.command.BeginCommand;
 import alioth.command.Command;
+import alioth.command.CommitCommand;
 import alioth.command.DeleteCommand;
+import alioth.command.DueCommand;
 import alioth.command.ExitCommand;
 import alioth.command.FindCommand;
 import alioth.command.ListAliasesCommand;
 import alioth.command.ListCommand;
+import alioth.command.ListEventsCommand;
 import alioth.command.MarkCommand;
+import alioth.command.OverdueCommand;
+import alioth.command.RedoCommand;
+import alioth.command.RollbackCommand;
+import alioth.command.SearchCommand;
+import alioth.command.StatsCommand;
 import alioth.command.UnaliasCommand;
+import alioth.command.UndoCommand;
 import alioth.command.UnmarkCommand;
 import alioth.exception.AliothException;
 import alioth.message.Message;
-import alioth.storage.Storage;
+import alioth.metrics.MetricsRegistry;
 import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
 
 /**
  * Parses user input into command objects.
@@ -28,66 +38,54 @@ import alioth.task.TaskList;
 public class Parser {
 
     private static final Set<String> COMMAND_WORDS = Set.of(
-            "bye", "list", "find", "mark", "unmark", "delete",
-            "todo", "deadline", "event",
-            "alias", "unalias", "aliases"
+            "bye", "list", "find", "search", "mark", "unmark", "delete",
+            "todo", "deadline", "event", "events", "due", "overdue",
+            "alias", "unalias", "aliases", "begin", "commit", "rollback",
+            "undo", "redo", "stats"
     );
 
-    private static final Map<String, String> ALIASES = new HashMap<>();
-    private static Storage storage;
-
     /**
      * Prevents instantiation of this utility class.
      */
     private Parser() {}
 
     /**
-     * Sets the storage used to load/save aliases.
-     *
-     * @param storage Storage instance.
-     */
-    public static void setStorage(Storage storage) {
-        assert storage != null : "Parser storage should not be null";
-        Parser.storage = storage;
-    }
-
-    /**
-     * Loads aliases from storage into memory.
+     * Parses the user input into a Command object, without any aliases.
      *
-     * @throws AliothException If loading aliases fails.
+     * @param input Full user input.
+     * @return The corresponding Command.
+     * @throws AliothException If the input is invalid or the command is unknown.
      */
-    public static void loadAliases() throws AliothException {
-        if (storage == null) {
-            return;
-        }
-
-        Map<String, String> loaded = storage.loadAliases();
-        ALIASES.clear();
-        ALIASES.putAll(loaded);
+    public static Command parse(String input) throws AliothException {
+        return parse(input, new AliasRegistry());
     }
 
     /**
-     * Saves current aliases to storage.
+     * Parses the user input into a Command object, without transactions.
      *
-     * @throws AliothException If saving aliases fails.
+     * @param input Full user input.
+     * @param aliases Aliases to resolve the command word with, which alias commands also change.
+     * @return The corresponding Command.
+     * @throws AliothException If the input is invalid or the command is unknown.
      */
-    private static void saveAliases() throws AliothException {
-        if (storage == null) {
-            return;
-        }
-
-        storage.saveAliases(getAliases());
+    public static Command parse(String input, AliasRegistry aliases) throws AliothException {
+        return parse(input, aliases, null);
     }
 
     /**
      * Parses the user input into a Command object.
      *
      * @param input Full user input.
+     * @param aliases Aliases to resolve the command word with, which alias commands also change.
+     * @param workspace Workspace that transaction, undo and redo commands work on, or null if
+     *                  they are not allowed.
      * @return The corresponding Command.
      * @throws AliothException If the input is invalid or the command is unknown.
      */
-    public static Command parse(String input) throws AliothException {
+    public static Command parse(String input, AliasRegistry aliases, TaskWorkspace workspace)
+            throws AliothException {
         assert input != null : "Parser.parse input should not be null";
+        assert aliases != null : "Parser.parse aliases should not be null";
 
         if (!input.equals(input.stripLeading())) {
             throw new AliothException(Message.LEADING_SPACES.getText());
@@ -96,7 +94,7 @@ public class Parser {
         String commandWord = getCommandWord(input);
         String args = getCommandArgs(input);
 
-        commandWord = resolveAlias(commandWord);
+        commandWord = aliases.resolve(commandWord);
 
         switch (commandWord) {
         case "bye":
@@ -105,6 +103,8 @@ public class Parser {
             return new ListCommand();
         case "find":
             return new FindCommand(args);
+        case "search":
+            return new SearchCommand(args);
         case "mark":
             return new MarkCommand(args);
         case "unmark":
@@ -117,95 +117,63 @@ public class Parser {
             return new AddDeadlineCommand(args);
         case "event":
             return new AddEventCommand(args);
+        case "events":
+            return new ListEventsCommand(args);
+        case "due":
+            return new DueCommand(args);
+        case "overdue":
+            return new OverdueCommand();
 
         case "alias":
-            return new AliasCommand(args);
+            return new AliasCommand(args, aliases);
         case "unalias":
-            return new UnaliasCommand(args);
+            return new UnaliasCommand(args, aliases);
         case "aliases":
-            return new ListAliasesCommand();
+            return new ListAliasesCommand(aliases);
+
+        case "begin":
+            return new BeginCommand(requireWorkspace(workspace));
+        case "commit":
+            return new CommitCommand(requireWorkspace(workspace));
+        case "rollback":
+            return new RollbackCommand(requireWorkspace(workspace));
+        case "undo":
+            return new UndoCommand(requireWorkspace(workspace));
+        case "redo":
+            return new RedoCommand(requireWorkspace(workspace));
+
+        case "stats":
+            return new StatsCommand(MetricsRegistry.getDefault());
 
         default:
             throw new AliothException(Message.UNKNOWN_COMMAND.getText());
         }
     }
 
-    private static String resolveAlias(String commandWord) {
-        return ALIASES.getOrDefault(commandWord, commandWord);
-    }
-
-    private static boolean isReservedCommandWord(String word) {
-        return COMMAND_WORDS.contains(word);
-    }
-
-    private static boolean isValidAliasWord(String word) {
-        return word.matches("[a-zA-Z]+");
-    }
-
-    /**
-     * Adds an alias that maps {@code aliasWord} to {@code targetCommandWord}.
-     *
-     * @param aliasWord The alias to add.
-     * @param targetCommandWord The existing command word the alias maps to.
-     * @throws AliothException If the alias is invalid, clashes with a command word,
-     *                         already exists, or the target command is unknown.
-     */
-    public static void addAlias(String aliasWord, String targetCommandWord) throws AliothException {
-        String alias = aliasWord.trim();
-        String target = targetCommandWord.trim();
-
-        if (alias.isEmpty() || target.isEmpty()) {
-            throw new AliothException(Message.INVALID_ALIAS.getText());
+    private static TaskWorkspace requireWorkspace(TaskWorkspace workspace) throws AliothException {
+        if (workspace == null) {
+            throw new AliothException(Message.SESSION_COMMAND_UNAVAILABLE.getText());
         }
-
-        if (!isValidAliasWord(alias) || !isValidAliasWord(target)) {
-            throw new AliothException(Message.INVALID_ALIAS_WORD.getText());
-        }
-
-        if (isReservedCommandWord(alias)) {
-            throw new AliothException(Message.ALIAS_IS_COMMAND_WORD.format(alias));
-        }
-
-        if (ALIASES.containsKey(alias)) {
-            throw new AliothException(Message.ALIAS_ALREADY_EXISTS.format(alias));
-        }
-
-        if (!COMMAND_WORDS.contains(target)) {
-            throw new AliothException(Message.UNKNOWN_ALIAS_TARGET.format(target));
-        }
-
-        ALIASES.put(alias, target);
-        saveAliases();
+        return workspace;
     }
 
     /**
-     * Removes an existing alias.
+     * Returns the built-in command word the input runs once aliases are resolved.
      *
-     * @param aliasWord The alias to remove.
-     * @throws AliothException If the alias does not exist.
+     * @param input Full user input.
+     * @param aliases Aliases to resolve the command word with.
+     * @return The command word, or null if the input does not start with one.
      */
-    public static void removeAlias(String aliasWord) throws AliothException {
-        String alias = aliasWord.trim();
-
-        if (alias.isEmpty()) {
-            throw new AliothException(Message.INVALID_UNALIAS.getText());
-        }
-
-        if (!ALIASES.containsKey(alias)) {
-            throw new AliothException(Message.NO_SUCH_ALIAS.format(alias));
-        }
-
-        ALIASES.remove(alias);
-        saveAliases();
+    public static String getResolvedCommandWord(String input, AliasRegistry aliases) {
+        String commandWord = aliases.resolve(getCommandWord(input));
+        return isCommandWord(commandWord) ? commandWord : null;
     }
 
     /**
-     * Returns an unmodifiable snapshot of current aliases.
-     *
-     * @return A copy of the alias map.
+     * Returns whether the word is one of the built-in command words.
      */
-    public static Map<String, String> getAliases() {
-        return Map.copyOf(ALIASES);
+    static boolean isCommandWord(String word) {
+        return COMMAND_WORDS.contains(word);
     }
 
     /**
@@ -269,19 +237,29 @@ public class Parser {
     }
 
     /**
-     * Parses and validates a 1-based task index from the given arguments.
+     * Parses and validates a 1-based task index, or a task id written as {@code #<id>},
+     * from the given arguments.
      *
-     * Ensures the parsed task number refers to an existing task in the
+     * Ensures the parsed task number or id refers to an existing task in the
      * provided {@code TaskList}, then converts it to a 0-based index for internal use.
      *
      * @param tasks The task list used to validate the index range.
-     * @param args The argument string expected to contain the task number.
+     * @param args The argument string expected to contain the task number or id.
      * @param commandWord The command word (used to construct error messages).
      * @return The validated 0-based task index.
      * @throws AliothException If the task number is missing, not an integer,
-     *                         or outside the valid range.
+     *                         or outside the valid range, or no task has the id.
      */
     public static int parseTaskIndex(TaskList tasks, String args, String commandWord) throws AliothException {
+        String trimmed = args.trim();
+        if (trimmed.startsWith("#")) {
+            int index = tasks.indexOfId(parseTaskNumber(trimmed.substring(1), commandWord));
+            if (index < 0) {
+                throw new AliothException(Message.invalidIndexCommand(commandWord).getText());
+            }
+            return index;
+        }
+
         int taskNumber = parseTaskNumber(args, commandWord);
 
         if (taskNumber < 1 || taskNumber > tasks.size()) {
@@ -290,4 +268,46 @@ public class Parser {
 
         return taskNumber - 1;
     }
+
+    /**
+     * Parses one or more tasks from the given arguments into 0-based indices.
+     *
+     * The arguments are either {@code done}, for every task that is done, or a comma-separated
+     * list of task numbers, ids written as {@code #<id>}, and ranges of task numbers written as
+     * {@code <first>-<last>}, such as {@code 1,4,9} or {@code 3-500}.
+     *
+     * @param tasks The task list used to validate the indices.
+     * @param args The argument string.
+     * @param commandWord The command word (used to construct error messages).
+     * @return The validated 0-based indices, in increasing order without repeats.
+     * @throws AliothException If any part is not a valid task number, range or id,
+     *                         or {@code done} is given but no task is done.
+     */
+    public static int[] parseTaskIndices(TaskList tasks, String args, String commandWord) throws AliothException {
+        String trimmed = args.trim();
+        if (trimmed.equals("done")) {
+            int[] indices = tasks.indicesOfDone();
+            if (indices.length == 0) {
+                throw new AliothException(Message.NO_DONE_TASKS.getText());
+            }
+            return indices;
+        }
+
+        BitSet selected = new BitSet(tasks.size());
+        for (String part : trimmed.split(",", -1)) {
+            int dash = part.indexOf('-');
+            if (dash <= 0) {
+                selected.set(parseTaskIndex(tasks, part, commandWord));
+                continue;
+            }
+
+            int first = parseTaskNumber(part.substring(0, dash), commandWord);
+            int last = parseTaskNumber(part.substring(dash + 1), commandWord);
+            if (first < 1 || first > last || last > tasks.size()) {
+                throw new AliothException(Message.invalidIndexCommand(commandWord).getText());
+            }
+            selected.set(first - 1, last);
+        }
+        return selected.stream().toArray();
+    }
 }
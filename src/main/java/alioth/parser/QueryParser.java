@@ -0,0 +1,142 @@
+package alioth.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.task.Query;
+
+/**
+ * Parses search queries such as {@code ball AND (gown OR "glass slipper") NOT pumpkin}.
+ *
+ * Words next to each other must all match, as if joined by AND. NOT binds tightest,
+ * then AND, then OR. Text in double quotes is matched as a phrase.
+ */
+public class QueryParser {
+    private static final String OPEN = "(";
+    private static final String CLOSE = ")";
+
+    private final List<String> tokens;
+    private int position;
+
+    private QueryParser(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parses a search query.
+     *
+     * @param text Query text.
+     * @return The parsed query.
+     * @throws AliothException If the query is empty or malformed.
+     */
+    public static Query parse(String text) throws AliothException {
+        assert text != null : "Query text should not be null";
+
+        QueryParser parser = new QueryParser(tokenize(text));
+        Query query = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw invalidSearch();
+        }
+        return query;
+    }
+
+    /**
+     * Splits the text into words, quoted phrases (kept with their opening quote) and parentheses.
+     */
+    private static List<String> tokenize(String text) throws AliothException {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw invalidSearch();
+                }
+                tokens.add(text.substring(i, end));
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end))
+                        && "()\"".indexOf(text.charAt(end)) < 0) {
+                    end++;
+                }
+                tokens.add(text.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private Query parseOr() throws AliothException {
+        Query query = parseAnd();
+        while (accept("OR")) {
+            query = Query.or(query, parseAnd());
+        }
+        return query;
+    }
+
+    private Query parseAnd() throws AliothException {
+        Query query = parseNot();
+        while (position < tokens.size() && !peek().equals("OR") && !peek().equals(CLOSE)) {
+            accept("AND");
+            query = Query.and(query, parseNot());
+        }
+        return query;
+    }
+
+    private Query parseNot() throws AliothException {
+        if (accept("NOT")) {
+            return Query.not(parseNot());
+        }
+        return parsePrimary();
+    }
+
+    private Query parsePrimary() throws AliothException {
+        if (position >= tokens.size()) {
+            throw invalidSearch();
+        }
+
+        String token = tokens.get(position++);
+        if (token.equals(OPEN)) {
+            Query query = parseOr();
+            if (!accept(CLOSE)) {
+                throw invalidSearch();
+            }
+            return query;
+        }
+        if (token.equals(CLOSE) || token.equals("AND") || token.equals("OR")) {
+            throw invalidSearch();
+        }
+
+        String words = token.startsWith("\"") ? token.substring(1) : token;
+        Query query = Query.words(words);
+        if (query == null) {
+            throw invalidSearch();
+        }
+        return query;
+    }
+
+    private String peek() {
+        return tokens.get(position);
+    }
+
+    private boolean accept(String token) {
+        if (position < tokens.size() && peek().equals(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private static AliothException invalidSearch() {
+        return new AliothException(Message.INVALID_SEARCH.getText());
+    }
+}
@@ -0,0 +1,217 @@
+package alioth.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import alioth.Alioth;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.ui.Ui;
+
+/**
+ * A headless server that lets many users talk to Alioth over line-based TCP connections
+ * on the local machine.
+ *
+ * The first line a client sends is the user's name. Every user gets their own Alioth,
+ * with its own save file and aliases in the data folder, and only one session per user
+ * may be open at a time. After that, each line is a command. Every reply, starting with
+ * the welcome message, ends with a line holding only a dot; reply lines that start with
+ * a dot get another dot in front, as in SMTP.
+ *
+ * Each session runs on its own virtual thread when the Java runtime has them, and on a
+ * thread from a cached pool otherwise, so idle sessions only cost a blocked thread.
+ */
+public class AliothServer {
+    private static final String END_OF_REPLY = ".";
+    private static final int BACKLOG = 1024;
+    private static final String USER_NAME_PATTERN = "[A-Za-z0-9_-]{1,32}";
+
+    private final Path dataDirectory;
+    private final Set<String> activeUsers = ConcurrentHashMap.newKeySet();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private ExecutorService sessions;
+    private ServerSocket serverSocket;
+    private Thread acceptor;
+
+    /**
+     * Creates a server that keeps each user's save files in the given folder.
+     *
+     * @param dataDirectory Folder for the save files.
+     */
+    public AliothServer(Path dataDirectory) {
+        assert dataDirectory != null : "Server data directory should not be null";
+        this.dataDirectory = dataDirectory;
+    }
+
+    /**
+     * Starts accepting connections on the loopback address.
+     *
+     * @param port Port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be opened.
+     */
+    public synchronized void start(int port) throws IOException {
+        assert serverSocket == null : "Server is already started";
+        serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        sessions = newSessionExecutor();
+        acceptor = new Thread(this::acceptConnections, "alioth-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return Port number.
+     */
+    public synchronized int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections, ends every session and waits for them to save their tasks.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void stop() throws InterruptedException {
+        synchronized (this) {
+            if (serverSocket == null) {
+                return;
+            }
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                // The acceptor stops either way.
+            }
+        }
+        acceptor.join();
+        for (Socket socket : openSockets) {
+            closeQuietly(socket);
+        }
+        sessions.shutdown();
+        while (!sessions.awaitTermination(1, TimeUnit.SECONDS)) {
+            // Sessions finish soon after their sockets close.
+        }
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread, or a cached pool of
+     * platform threads if this Java runtime has no virtual threads.
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "alioth-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void acceptConnections() {
+        while (true) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                return; // the server socket was closed
+            }
+            openSockets.add(socket);
+            sessions.execute(() -> runSession(socket));
+        }
+    }
+
+    private void runSession(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String userName = in.readLine();
+            if (userName == null) {
+                return;
+            }
+            userName = userName.trim();
+            if (!userName.matches(USER_NAME_PATTERN)) {
+                sendReply(out, new Ui().formatError(Message.INVALID_USER_NAME.getText()));
+                return;
+            }
+            if (!activeUsers.add(userName)) {
+                sendReply(out, new Ui().formatError(Message.USER_ALREADY_CONNECTED.format(userName)));
+                return;
+            }
+
+            try {
+                serve(userName, in, out);
+            } finally {
+                activeUsers.remove(userName);
+            }
+        } catch (IOException e) {
+            // The client went away or the server is stopping, so nothing more can be sent.
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private void serve(String userName, BufferedReader in, BufferedWriter out) throws IOException {
+        Alioth alioth = new Alioth(createStorage(userName));
+        try {
+            sendReply(out, alioth.getWelcomeMessage());
+            String input;
+            while ((input = in.readLine()) != null) {
+                sendReply(out, alioth.getResponse(input));
+                if (alioth.isExit()) {
+                    return;
+                }
+            }
+        } finally {
+            alioth.close();
+        }
+    }
+
+    /**
+     * Creates the storage for one user, which journals each change on the session's own thread.
+     */
+    private Storage createStorage(String userName) {
+        Storage storage = new Storage(dataDirectory.resolve(userName + ".txt"));
+        storage.setJournalMode(true);
+        storage.setLazyLoad(true);
+        return storage;
+    }
+
+    private static void sendReply(BufferedWriter out, String reply) throws IOException {
+        for (String line : reply.split("\\R")) {
+            if (line.startsWith(END_OF_REPLY)) {
+                out.write(END_OF_REPLY);
+            }
+            out.write(line);
+            out.write('\n');
+        }
+        out.write(END_OF_REPLY);
+        out.write('\n');
+        out.flush();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closing.
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package alioth.server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import alioth.exception.AliothException;
+import alioth.storage.Storage;
+import alioth.task.ConcurrentTaskList;
+
+/**
+ * Launches the JSON HTTP API for one save file, without the JavaFX app.
+ */
+public class ApiLauncher {
+    private static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Starts the API and keeps it running until the program is stopped.
+     *
+     * @param args Optional port to listen on, then optional path of the save file.
+     * @throws IOException If the port cannot be opened.
+     * @throws AliothException If the save file cannot be loaded.
+     */
+    public static void main(String[] args) throws IOException, AliothException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path filePath = args.length > 1 ? Paths.get(args[1]) : Paths.get("data", "alioth.txt");
+
+        Storage storage = new Storage(filePath);
+        storage.setJournalMode(true);
+        ConcurrentTaskList tasks = ConcurrentTaskList.backedBy(storage.load());
+
+        HttpApiServer api = new HttpApiServer(tasks, storage);
+        api.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop();
+            try {
+                storage.close();
+            } catch (AliothException e) {
+                System.err.println(e.getMessage());
+            }
+        }, "alioth-shutdown"));
+        System.out.println("Alioth's royal API is open at http://localhost:" + api.getPort() + "/tasks");
+    }
+}
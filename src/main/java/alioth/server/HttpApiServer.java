@@ -0,0 +1,264 @@
+package alioth.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import alioth.command.Command;
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.parser.Parser;
+import alioth.storage.Storage;
+import alioth.task.ConcurrentTaskList;
+import alioth.task.Task;
+import alioth.ui.Ui;
+
+/**
+ * An HTTP API that gives programs structured JSON access to one task list, on the loopback address.
+ *
+ * <ul>
+ * <li>{@code GET /tasks} lists the tasks, and {@code GET /tasks?find=<keyword>} finds them.</li>
+ * <li>{@code POST /tasks} adds the task described by the body, written as a {@code todo},
+ *     {@code deadline} or {@code event} command.</li>
+ * <li>{@code POST /tasks/<id>/mark}, {@code POST /tasks/<id>/unmark} and {@code DELETE /tasks/<id>}
+ *     change the task with that id.</li>
+ * <li>{@code POST /batch} runs the commands in the body, one per line, and saves them all at once.</li>
+ * </ul>
+ *
+ * Changes hold one lock, so a batch runs as a whole without other changes in between, while
+ * reads go straight to the concurrent task list. A batch also holds the list's write lock
+ * throughout, so reads see either none or all of it. Errors are returned as {@code {"error": ...}}.
+ * Each request runs on its own virtual thread when the Java runtime has them.
+ */
+public class HttpApiServer {
+    private static final int BACKLOG = 1024;
+    private static final Set<String> ADD_COMMAND_WORDS = Set.of("todo", "deadline", "event");
+
+    private final ConcurrentTaskList tasks;
+    private final Storage storage;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * A JSON reply and its HTTP status.
+     */
+    private record Reply(int status, String json) {
+        static Reply error(int status, String message) {
+            return new Reply(status, "{\"error\":" + TaskJson.string(message) + "}");
+        }
+    }
+
+    /**
+     * Creates an API for the given tasks, which saves changes through the given storage.
+     *
+     * @param tasks Tasks to serve.
+     * @param storage Storage the tasks were loaded from.
+     */
+    public HttpApiServer(ConcurrentTaskList tasks, Storage storage) {
+        assert tasks != null : "API tasks should not be null";
+        assert storage != null : "API storage should not be null";
+        this.tasks = tasks;
+        this.storage = storage;
+    }
+
+    /**
+     * Starts serving requests.
+     *
+     * @param port Port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be opened.
+     */
+    public synchronized void start(int port) throws IOException {
+        assert server == null : "API is already started";
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        executor = AliothServer.newSessionExecutor();
+        server.setExecutor(executor);
+        server.createContext("/tasks", exchange -> handle(exchange, this::routeTasks));
+        server.createContext("/batch", exchange -> handle(exchange, this::routeBatch));
+        server.start();
+    }
+
+    /**
+     * Returns the port the API listens on.
+     *
+     * @return Port number.
+     */
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops serving requests.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Routes one request to a reply.
+     */
+    private interface Route {
+        Reply apply(HttpExchange exchange, String body) throws AliothException;
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        try {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Reply reply;
+            try {
+                reply = route.apply(exchange, body);
+            } catch (AliothException e) {
+                reply = Reply.error(400, e.getMessage());
+            }
+
+            byte[] bytes = reply.json().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(reply.status(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Reply routeTasks(HttpExchange exchange, String body) throws AliothException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        // path[0] is empty and path[1] should be "tasks".
+        if (path.length < 2 || !path[1].equals("tasks")) {
+            return Reply.error(404, "No such resource: " + exchange.getRequestURI().getPath());
+        }
+        if (path.length == 2) {
+            if (method.equals("GET")) {
+                return listTasks(exchange.getRequestURI().getRawQuery());
+            }
+            if (method.equals("POST")) {
+                return addTask(body.strip());
+            }
+            return Reply.error(405, "Use GET or POST on /tasks");
+        }
+
+        int id;
+        try {
+            id = Integer.parseInt(path[2]);
+        } catch (NumberFormatException e) {
+            return Reply.error(404, "No such task: " + path[2]);
+        }
+        if (path.length == 3 && method.equals("DELETE")) {
+            return changeTask("delete", id);
+        }
+        if (path.length == 4 && method.equals("POST") && (path[3].equals("mark") || path[3].equals("unmark"))) {
+            return changeTask(path[3], id);
+        }
+        return Reply.error(405, "Use POST /tasks/<id>/mark, POST /tasks/<id>/unmark or DELETE /tasks/<id>");
+    }
+
+    private Reply listTasks(String rawQuery) {
+        String keyword = queryParameter(rawQuery, "find");
+        List<Task> results = keyword == null ? tasks.asList() : tasks.find(keyword);
+        return new Reply(200, "{\"tasks\":" + TaskJson.of(results) + "}");
+    }
+
+    private Reply addTask(String commandLine) throws AliothException {
+        if (!ADD_COMMAND_WORDS.contains(Parser.getCommandWord(commandLine))) {
+            return Reply.error(400, Message.UNKNOWN_COMMAND.getText());
+        }
+
+        Command command = Parser.parse(commandLine);
+        writeLock.lock();
+        try {
+            command.execute(tasks, new Ui(), storage);
+            Task added = tasks.get(tasks.size() - 1);
+            return new Reply(201, "{\"task\":" + TaskJson.of(added) + "}");
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Reply changeTask(String commandWord, int id) throws AliothException {
+        Command command = Parser.parse(commandWord + " #" + id);
+        writeLock.lock();
+        try {
+            Task task = tasks.getById(id);
+            if (task == null) {
+                return Reply.error(404, Message.invalidIndexCommand(commandWord).getText());
+            }
+            command.execute(tasks, new Ui(), storage);
+            return new Reply(200, "{\"task\":" + TaskJson.of(task) + "}");
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs every line of the body as a command, saving once at the end. A failed command
+     * does not stop the others. The reply has the outcome of each command and the final list.
+     */
+    private Reply routeBatch(HttpExchange exchange, String body) throws AliothException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            return Reply.error(405, "Use POST on /batch");
+        }
+
+        List<String> results = new ArrayList<>();
+        writeLock.lock();
+        try {
+            storage.beginBatch();
+            try {
+                tasks.beginBatch();
+                try {
+                    for (String line : body.split("\\R")) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        try {
+                            Parser.parse(line).execute(tasks, new Ui(), storage);
+                            results.add("{\"ok\":true}");
+                        } catch (AliothException e) {
+                            results.add("{\"ok\":false,\"error\":" + TaskJson.string(e.getMessage()) + "}");
+                        }
+                    }
+                } finally {
+                    tasks.endBatch();
+                }
+            } finally {
+                storage.endBatch(tasks);
+            }
+            return new Reply(200, "{\"results\":[" + String.join(",", results) + "],\"tasks\":"
+                    + TaskJson.of(tasks.asList()) + "}");
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the decoded value of a query parameter, or null if it is missing.
+     */
+    private static String queryParameter(String rawQuery, String name) {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (String pair : rawQuery.split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts[0].equals(name)) {
+                return parts.length == 2 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "";
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+package alioth.server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Launches Alioth as a headless server for many users, without the JavaFX app.
+ */
+public class ServerLauncher {
+    private static final int DEFAULT_PORT = 4242;
+
+    /**
+     * Starts the server and keeps it running until the program is stopped.
+     *
+     * @param args Optional port to listen on, then optional folder for the save files.
+     * @throws IOException If the port cannot be opened.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path dataDirectory = args.length > 1 ? Paths.get(args[1]) : Paths.get("data", "users");
+
+        AliothServer server = new AliothServer(dataDirectory);
+        server.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "alioth-shutdown"));
+        System.out.println("Alioth is receiving royal guests on port " + server.getPort());
+    }
+}
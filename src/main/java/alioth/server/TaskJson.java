@@ -0,0 +1,91 @@
+package alioth.server;
+
+import java.util.List;
+
+import alioth.task.Deadline;
+import alioth.task.Event;
+import alioth.task.Task;
+
+/**
+ * Writes tasks and messages as JSON for the HTTP API.
+ */
+final class TaskJson {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private TaskJson() {}
+
+    /**
+     * Returns a task as a JSON object with its id, type, description and done flag,
+     * plus its due date for a deadline or its start and end for an event, in ISO format.
+     */
+    static String of(Task task) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"id\":").append(task.getId());
+        if (task instanceof Deadline) {
+            json.append(",\"type\":\"deadline\"");
+        } else if (task instanceof Event) {
+            json.append(",\"type\":\"event\"");
+        } else {
+            json.append(",\"type\":\"todo\"");
+        }
+        json.append(",\"description\":").append(string(task.getDescription()));
+        json.append(",\"done\":").append(task.isDone());
+        if (task instanceof Deadline) {
+            json.append(",\"by\":").append(string(((Deadline) task).getBy().toString()));
+        } else if (task instanceof Event) {
+            json.append(",\"from\":").append(string(((Event) task).getFrom().toString()));
+            json.append(",\"to\":").append(string(((Event) task).getTo().toString()));
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Returns the tasks as a JSON array.
+     */
+    static String of(List<Task> tasks) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(of(tasks.get(i)));
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Returns the text as a JSON string, with quotes, backslashes and control characters escaped.
+     */
+    static String string(String text) {
+        StringBuilder json = new StringBuilder("\"");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '"':
+                json.append("\\\"");
+                break;
+            case '\\':
+                json.append("\\\\");
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            case '\r':
+                json.append("\\r");
+                break;
+            case '\t':
+                json.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
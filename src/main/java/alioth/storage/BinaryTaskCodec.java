@@ -0,0 +1,244 @@
+package alioth.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import alioth.task.Deadline;
+import alioth.task.Event;
+import alioth.task.Task;
+import alioth.task.Todo;
+
+/**
+ * Converts tasks to and from the compact binary snapshot format.
+ *
+ * Layout (all numbers are unsigned LEB128 varints unless noted):
+ * <pre>
+ * "ALTB" version seq
+ * stringCount { byteLength utf8Bytes }
+ * recordCount { (type &lt;&lt; 1 | done) idDelta descriptionIndex dates }
+ * </pre>
+ * The id delta is a zigzag varint of the task's id minus the previous record's id (0 before the
+ * first). Dates are zigzag varints: the epoch day for a deadline, and the epoch minutes (UTC)
+ * of the start and end for an event. Identical descriptions share one string table entry.
+ * Version 1 snapshots, which have no ids, can still be read.
+ */
+final class BinaryTaskCodec {
+    private static final byte[] MAGIC = {'A', 'L', 'T', 'B'};
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_IDS = 1;
+
+    private static final int TYPE_TODO = 0;
+    private static final int TYPE_DEADLINE = 1;
+    private static final int TYPE_EVENT = 2;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private BinaryTaskCodec() {}
+
+    /**
+     * Returns whether the buffer starts with the binary snapshot header.
+     * The buffer position is left unchanged.
+     *
+     * @param buffer Contents of a save file.
+     * @return True if the file is a binary snapshot.
+     */
+    static boolean hasHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(buffer.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the tasks as a binary snapshot.
+     *
+     * @param tasks Tasks to write.
+     * @param seq Last journal record covered by the snapshot, or 0.
+     * @param out Stream to write to.
+     * @throws IOException If writing fails.
+     */
+    static void write(List<Task> tasks, long seq, OutputStream out) throws IOException {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Task task : tasks) {
+            if (stringIndex.putIfAbsent(task.getDescription(), strings.size()) == null) {
+                strings.add(task.getDescription());
+            }
+        }
+
+        out.write(MAGIC);
+        writeVarLong(out, VERSION);
+        writeVarLong(out, seq);
+
+        writeVarLong(out, strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarLong(out, tasks.size());
+        int previousId = 0;
+        for (Task task : tasks) {
+            int type = typeOf(task);
+            writeVarLong(out, (type << 1) | (task.isDone() ? 1 : 0));
+            writeZigZag(out, (long) task.getId() - previousId);
+            previousId = task.getId();
+            writeVarLong(out, stringIndex.get(task.getDescription()));
+            if (type == TYPE_DEADLINE) {
+                writeZigZag(out, ((Deadline) task).getBy().toEpochDay());
+            } else if (type == TYPE_EVENT) {
+                Event event = (Event) task;
+                writeZigZag(out, toEpochMinute(event.getFrom()));
+                writeZigZag(out, toEpochMinute(event.getTo()));
+            }
+        }
+    }
+
+    /**
+     * Reads a binary snapshot, appending its tasks in order.
+     *
+     * @param buffer Contents of the save file, positioned at the header.
+     * @param tasks List to append the tasks to.
+     * @return Last journal record covered by the snapshot, or 0.
+     * @throws IOException If the snapshot is corrupted or of an unknown version.
+     */
+    static long read(ByteBuffer buffer, List<Task> tasks) throws IOException {
+        if (!hasHeader(buffer)) {
+            throw new IOException("Not a binary snapshot");
+        }
+        buffer.position(buffer.position() + MAGIC.length);
+
+        try {
+            long version = readVarLong(buffer);
+            if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            long seq = readVarLong(buffer);
+
+            String[] strings = new String[readCount(buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readCount(buffer)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int recordCount = readCount(buffer);
+            long id = 0;
+            for (int i = 0; i < recordCount; i++) {
+                long flags = readVarLong(buffer);
+                if (version != VERSION_WITHOUT_IDS) {
+                    id += readZigZag(buffer);
+                }
+                Task task = readTask(buffer, flags, strings);
+                if (id > 0 && id <= Integer.MAX_VALUE) {
+                    task.setSavedId((int) id);
+                }
+                tasks.add(task);
+            }
+            return seq;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | DateTimeException e) {
+            throw new IOException("Corrupted binary snapshot", e);
+        }
+    }
+
+    private static Task readTask(ByteBuffer buffer, long flags, String[] strings) throws IOException {
+        long stringIndex = readVarLong(buffer);
+        if (stringIndex < 0 || stringIndex >= strings.length) {
+            throw new IOException("Corrupted binary snapshot");
+        }
+        String description = strings[(int) stringIndex];
+
+        Task task;
+        switch ((int) (flags >>> 1)) {
+        case TYPE_TODO:
+            task = new Todo(description);
+            break;
+        case TYPE_DEADLINE:
+            task = new Deadline(description, LocalDate.ofEpochDay(readZigZag(buffer)));
+            break;
+        case TYPE_EVENT:
+            LocalDateTime from = fromEpochMinute(readZigZag(buffer));
+            LocalDateTime to = fromEpochMinute(readZigZag(buffer));
+            task = new Event(description, from, to);
+            break;
+        default:
+            throw new IOException("Unknown task type in binary snapshot");
+        }
+
+        task.setDone((flags & 1) == 1);
+        return task;
+    }
+
+    private static int typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return TYPE_DEADLINE;
+        }
+        if (task instanceof Event) {
+            return TYPE_EVENT;
+        }
+        return TYPE_TODO;
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static int readCount(ByteBuffer buffer) throws IOException {
+        long count = readVarLong(buffer);
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IOException("Corrupted binary snapshot");
+        }
+        return (int) count;
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted binary snapshot");
+    }
+
+    private static void writeZigZag(OutputStream out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static long readZigZag(ByteBuffer buffer) throws IOException {
+        long value = readVarLong(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
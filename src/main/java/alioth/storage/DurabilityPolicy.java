@@ -0,0 +1,13 @@
+package alioth.storage;
+
+/**
+ * Decides how long a caller waits for its change to reach the disk in write-behind mode.
+ */
+public enum DurabilityPolicy {
+    /** Waits until the change is written. Changes from concurrent callers share one write. */
+    SYNC,
+    /** Returns immediately. The change is written within one flush interval. */
+    ASYNC,
+    /** Returns immediately, unless unwritten changes are already older than one flush interval. */
+    BOUNDED_LAG
+}
@@ -0,0 +1,211 @@
+package alioth.storage;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import alioth.task.LazyTasks;
+import alioth.task.Task;
+
+/**
+ * A list of tasks backed by a text snapshot, which only decodes a task the first time it is read.
+ * Each task costs one long in the offset index and one int for its saved id, plus one slot in a
+ * cache of decoded tasks. A decoded task is kept in the cache so that every read returns the same
+ * object and changes made to it are not lost, so memory grows towards that of a fully decoded list
+ * as tasks are read. Tasks added or set later are simply held in the cache, and may be null.
+ *
+ * Reads may run concurrently with each other: when two readers decode the same record at once,
+ * only the first decoded task is cached and both readers get it. Changes to the list must not
+ * run concurrently with reads.
+ */
+final class LazyTaskList extends AbstractList<Task> implements RandomAccess, LazyTasks {
+    private static final long IN_MEMORY = -1;
+
+    private final ByteBuffer buffer;
+    private long[] records = new long[16];
+    private int[] ids = new int[16];
+    private AtomicReferenceArray<Task> tasks = new AtomicReferenceArray<>(16);
+    private int size;
+
+    /**
+     * Creates an empty list that decodes its indexed records from the given snapshot.
+     *
+     * @param buffer Contents of the save file. It must not change while the list is in use.
+     */
+    LazyTaskList(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Appends an undecoded record found by {@link TextTaskCodec#index}.
+     *
+     * @param offset Offset of the task line in the snapshot.
+     * @param length Length of the task line in bytes.
+     * @param savedId Id the task was saved with, or 0 if it has none.
+     */
+    void addRecord(int offset, int length, int savedId) {
+        ensureCapacity(size + 1);
+        records[size] = ((long) offset << 32) | length;
+        ids[size] = savedId;
+        size++;
+    }
+
+    /**
+     * Gives every task without a saved id, or with one out of order, the id after the task
+     * before it, so that ids increase in list order. Undecoded records are not decoded.
+     *
+     * @return True if any task got a new id.
+     */
+    boolean assignMissingIds() {
+        boolean isChanged = false;
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            int id = idAt(i);
+            if (id <= previous) {
+                id = previous + 1;
+                ids[i] = id;
+                Task task = tasks.get(i);
+                if (task != null) {
+                    task.setSavedId(id);
+                }
+                isChanged = true;
+            }
+            previous = id;
+        }
+        return isChanged;
+    }
+
+    /**
+     * Returns how many tasks have been decoded or added so far.
+     *
+     * @return Number of tasks held in memory.
+     */
+    int materializedCount() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (tasks.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        Task task = tasks.get(index);
+        if (task == null && records[index] != IN_MEMORY) {
+            long record = records[index];
+            Task decoded = TextTaskCodec.decode(buffer, (int) (record >>> 32), (int) record);
+            if (ids[index] > 0) {
+                decoded.setSavedId(ids[index]);
+            }
+            task = tasks.compareAndSet(index, null, decoded) ? decoded : tasks.get(index);
+        }
+        return task;
+    }
+
+    @Override
+    public int idAt(int index) {
+        Objects.checkIndex(index, size);
+        if (records[index] == IN_MEMORY) {
+            Task task = tasks.get(index);
+            return task == null ? 0 : task.getId();
+        }
+        return ids[index];
+    }
+
+    @Override
+    public long keyHashAt(int index) {
+        Objects.checkIndex(index, size);
+        if (records[index] == IN_MEMORY) {
+            return keyHashOf(tasks.get(index));
+        }
+        long record = records[index];
+        return TextTaskCodec.keyHash(buffer, (int) (record >>> 32), (int) record);
+    }
+
+    @Override
+    public long keyHashOf(Task task) {
+        return TextTaskCodec.keyHash(task);
+    }
+
+    @Override
+    public void removeNulls() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (records[i] == IN_MEMORY && tasks.get(i) == null) {
+                continue;
+            }
+            records[kept] = records[i];
+            ids[kept] = ids[i];
+            tasks.set(kept, tasks.get(i));
+            kept++;
+        }
+        for (int i = kept; i < size; i++) {
+            tasks.set(i, null);
+        }
+        if (kept < size) {
+            size = kept;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        tasks.set(index, task);
+        records[index] = IN_MEMORY;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(records, index, records, index + 1, size - index);
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        for (int i = size; i > index; i--) {
+            tasks.set(i, tasks.get(i - 1));
+        }
+        records[index] = IN_MEMORY;
+        tasks.set(index, task);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        System.arraycopy(records, index + 1, records, index, size - index - 1);
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        for (int i = index; i < size - 1; i++) {
+            tasks.set(i, tasks.get(i + 1));
+        }
+        size--;
+        tasks.set(size, null);
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > records.length) {
+            int newCapacity = Math.max(capacity, records.length + (records.length >> 1));
+            records = Arrays.copyOf(records, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+            AtomicReferenceArray<Task> newTasks = new AtomicReferenceArray<>(newCapacity);
+            for (int i = 0; i < size; i++) {
+                newTasks.set(i, tasks.get(i));
+            }
+            tasks = newTasks;
+        }
+    }
+}
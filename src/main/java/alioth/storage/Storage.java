@@ -1,37 +1,120 @@
 package alioth.storage;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import alioth.exception.AliothException;
 import alioth.message.Message;
-import alioth.task.Deadline;
-import alioth.task.Event;
+import alioth.metrics.AliasSaveEvent;
+import alioth.metrics.StorageLoadEvent;
+import alioth.metrics.StorageSaveEvent;
 import alioth.task.Task;
-import alioth.task.Todo;
+import alioth.task.TaskList;
 
 /**
  * Handles saving and loading tasks to/from the hard disk.
+ *
+ * In journal mode, each mutation is appended to a journal file next to the save file
+ * instead of rewriting the whole file. The journal is folded back into the save file
+ * (a snapshot) by a background thread once it grows as large as the task list itself.
+ * A change to one task is recorded by its position, and a change to many tasks at once,
+ * including an undo or redo, is recorded by their ids, which are saved with the tasks.
+ * Until tasks loaded without ids have been saved with their new ids, changes are saved by
+ * rewriting the whole file instead.
+ *
+ * Snapshots are written in the configured {@link StorageFormat}; loading detects the
+ * format from the file header. In lazy mode, a text save file is only indexed when loaded,
+ * and each task is decoded from a copy of the file the first time it is used.
+ *
+ * In write-behind mode, callers only queue their changes and a background writer thread
+ * performs every file write, coalescing bursts of changes into one write.
+ * Changes made between {@link #beginBatch} and {@link #endBatch} are saved together in one write.
+ * Batches may be nested, in which case only the outermost one saves.
+ *
+ * Every load, snapshot, journal append and alias save is a flight recorder event,
+ * recorded on the thread that does the work.
  */
 public class Storage {
-    private static final DateTimeFormatter EVENT_FILE_FORMAT =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm", Locale.ENGLISH);
+    /** Alias file that every instance shared before each save file got its own. */
+    private static final String LEGACY_ALIAS_FILE_NAME = "aliases.txt";
+
+    private static final String RECORD_ADD = "A";
+    private static final String RECORD_MARK = "M";
+    private static final String RECORD_UNMARK = "U";
+    private static final String RECORD_DELETE = "D";
+    private static final String RECORD_MARK_ALL = "MA";
+    private static final String RECORD_UNMARK_ALL = "UA";
+    private static final String RECORD_DELETE_ALL = "DA";
+    private static final String RECORD_RESTORE = "R";
+    /** Minimum number of journal records before a compaction is considered. */
+    private static final int MIN_COMPACTION_RECORDS = 1000;
+    /** Longest time closing waits for a running compaction to finish its snapshot. */
+    private static final Duration COMPACTION_TIMEOUT = Duration.ofSeconds(10);
+    /** Suffix of save files and journals that could not be loaded and were moved aside. */
+    private static final String CORRUPT_SUFFIX = ".corrupt";
 
-    private static final Path ALIAS_PATH = Paths.get("data", "aliases.txt");
     private final Path filePath;
+    private final Path journalPath;
+    private final Path rotatedJournalPath;
+    private final Path aliasPath;
+    private final LongAdder saveNanos = new LongAdder();
+
+    private StorageFormat format = StorageFormat.TEXT;
+    private boolean isJournalMode;
+    private boolean isLazyLoad;
+    private BufferedWriter journalWriter;
+    private long journalSeq;
+    private long snapshotSeq;
+    private int journalRecordCount;
+    private boolean isCompacting;
+    private int batchDepth;
+    private boolean hasBatchedChanges;
+    /** Whether loading gave some tasks ids the save file does not have yet. */
+    private boolean hasUnsavedIds;
+    /** Whether the save file could not be read nor moved aside, so writing would overwrite it. */
+    private boolean isReadOnly;
+    private ExecutorService compactor;
+    private WriteBehindWriter<PendingWrite> writer;
+
+    /**
+     * A change queued for the write-behind thread: either one journal line,
+     * or a snapshot of the whole list.
+     */
+    private static class PendingWrite {
+        private final String journalLine;
+        private final List<Task> snapshot;
+        private final long seq;
+        private final boolean isCompaction;
+
+        private PendingWrite(String journalLine, List<Task> snapshot, long seq, boolean isCompaction) {
+            this.journalLine = journalLine;
+            this.snapshot = snapshot;
+            this.seq = seq;
+            this.isCompaction = isCompaction;
+        }
+    }
+
     /**
      * Creates a storage that saves to the given relative path.
      *
@@ -40,39 +123,259 @@ public class Storage {
     public Storage(Path filePath) {
         assert filePath != null : "Storage filePath should not be null";
         this.filePath = filePath;
+        this.journalPath = filePath.resolveSibling(filePath.getFileName() + ".journal");
+        this.rotatedJournalPath = filePath.resolveSibling(filePath.getFileName() + ".journal.1");
+        this.aliasPath = filePath.resolveSibling(filePath.getFileName() + ".aliases");
+    }
+
+    /**
+     * Sets the format used for every later snapshot of the save file.
+     *
+     * @param format Snapshot format.
+     */
+    public synchronized void setFormat(StorageFormat format) {
+        assert format != null : "Storage format should not be null";
+        this.format = format;
+    }
+
+    /**
+     * Enables or disables journal mode.
+     * When disabled, every mutation rewrites the whole save file.
+     *
+     * @param isEnabled True to append mutations to a journal instead.
+     */
+    public synchronized void setJournalMode(boolean isEnabled) {
+        isJournalMode = isEnabled;
+    }
+
+    /**
+     * Enables or disables lazy loading. When enabled, loading a text save file only
+     * indexes where each task is, and each task is decoded the first time it is used.
+     * The file is read into memory once, so later saves do not affect the index.
+     *
+     * @param isEnabled True to decode tasks on first use.
+     */
+    public synchronized void setLazyLoad(boolean isEnabled) {
+        isLazyLoad = isEnabled;
+    }
+
+    /**
+     * Moves all file writes onto a background writer thread.
+     *
+     * @param policy How long a caller waits for its change to reach the disk.
+     * @param flushInterval How long a change may wait to be batched with later ones.
+     */
+    public synchronized void setWriteBehind(DurabilityPolicy policy, Duration flushInterval) {
+        assert writer == null : "Write-behind mode is already enabled";
+        writer = new WriteBehindWriter<>(this::writeBatch, policy, flushInterval, "alioth-writer");
+    }
+
+    /**
+     * Writes out every change that is still queued and waits for it to finish.
+     *
+     * @throws AliothException If there is an IO problem.
+     */
+    public void flush() throws AliothException {
+        WriteBehindWriter<PendingWrite> currentWriter;
+        synchronized (this) {
+            currentWriter = writer;
+        }
+        if (currentWriter != null) {
+            currentWriter.flush();
+        }
+    }
+
+    /**
+     * Flushes queued changes and stops the background threads, waiting a bounded time for a
+     * running compaction to finish. Changes made afterwards are written directly by the caller.
+     *
+     * @throws AliothException If there is an IO problem.
+     */
+    public void close() throws AliothException {
+        WriteBehindWriter<PendingWrite> currentWriter;
+        synchronized (this) {
+            currentWriter = writer;
+            writer = null;
+        }
+        if (currentWriter != null) {
+            currentWriter.close();
+        }
+
+        ExecutorService currentCompactor;
+        synchronized (this) {
+            currentCompactor = compactor;
+            compactor = null;
+        }
+        if (currentCompactor != null) {
+            // Waited for outside the lock, which the compaction takes to replace the save file.
+            currentCompactor.shutdown();
+            try {
+                currentCompactor.awaitTermination(COMPACTION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (this) {
+            try {
+                closeJournalWriter();
+            } catch (IOException e) {
+                throw new AliothException(Message.SAVE_ERROR.getText());
+            }
+        }
     }
 
     /**
-     * Loads tasks from disk.
+     * Loads tasks from disk, replaying any journal records written after the snapshot.
      * If the file does not exist, returns an empty list.
      *
      * @return List of tasks loaded from file.
-     * @throws AliothException If there is an IO problem or corrupted data (optional handling).
+     * @throws AliothException If the tasks cannot be read, after moving the files aside.
      */
-    public List<Task> load() throws AliothException {
-        if (!Files.exists(filePath)) {
-            return new ArrayList<>();
+    public synchronized List<Task> load() throws AliothException {
+        StorageLoadEvent event = new StorageLoadEvent();
+        event.begin();
+        List<Task> tasks = new ArrayList<>();
+        snapshotSeq = 0;
+
+        try {
+            if (Files.exists(filePath)) {
+                tasks = readSnapshot();
+            }
+
+            journalSeq = snapshotSeq;
+            journalRecordCount = 0;
+            replayJournal(rotatedJournalPath, tasks);
+            replayJournal(journalPath, tasks);
+            hasUnsavedIds = assignMissingIds(tasks);
+            isReadOnly = false;
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = filePath.toString();
+                event.taskCount = tasks.size();
+                event.bytesRead = sizeOf(filePath) + sizeOf(rotatedJournalPath) + sizeOf(journalPath);
+                event.isLazy = isLazyLoad;
+                event.commit();
+            }
+        } catch (IOException e) {
+            throw new AliothException(keepUnreadableFiles());
         }
+        return tasks;
+    }
 
-        List<String> lines;
+    /**
+     * Moves the save file and its journals aside after they could not be loaded, so that saving
+     * the fresh list the caller starts with does not overwrite the only copy of the tasks.
+     * If they cannot be moved, this storage refuses to write until it loads successfully.
+     *
+     * @return Message telling the user where the unreadable tasks were kept.
+     */
+    private String keepUnreadableFiles() {
         try {
-            lines = Files.readAllLines(filePath, StandardCharsets.UTF_8);
+            Path kept = filePath;
+            for (Path path : List.of(journalPath, rotatedJournalPath, filePath)) {
+                Path moved = moveAside(path);
+                kept = moved != null ? moved : kept;
+            }
+            snapshotSeq = 0;
+            journalSeq = 0;
+            return Message.UNREADABLE_SAVE_FILE.format(kept);
         } catch (IOException e) {
-            throw new AliothException(Message.SAVE_ERROR.getText());
+            isReadOnly = true;
+            return Message.SAVE_FILE_NOT_MOVED.format(filePath);
         }
+    }
 
-        List<Task> tasks = new ArrayList<>();
-        for (String line : lines) {
-            Task task = parseLineToTask(line);
-            if (task != null) {
-                tasks.add(task);
+    /**
+     * Renames the file to the first free name ending in {@value #CORRUPT_SUFFIX}.
+     *
+     * @return The new path, or null if the file does not exist.
+     */
+    private static Path moveAside(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        Path target = path.resolveSibling(path.getFileName() + CORRUPT_SUFFIX);
+        for (int i = 1; Files.exists(target); i++) {
+            target = path.resolveSibling(path.getFileName() + CORRUPT_SUFFIX + "." + i);
+        }
+        return Files.move(path, target);
+    }
+
+    /**
+     * Gives every task without a saved id, or with one out of order, the id after the task
+     * before it, so that ids increase in list order. Tasks saved before ids were kept get
+     * their ids in list order, as they did when loaded.
+     *
+     * @return True if any task got a new id.
+     */
+    private static boolean assignMissingIds(List<Task> tasks) {
+        if (tasks instanceof LazyTaskList) {
+            return ((LazyTaskList) tasks).assignMissingIds();
+        }
+        boolean isChanged = false;
+        int previous = 0;
+        for (Task task : tasks) {
+            if (task.getId() <= previous) {
+                task.setSavedId(previous + 1);
+                isChanged = true;
             }
+            previous = task.getId();
+        }
+        return isChanged;
+    }
+
+    private static long sizeOf(Path path) throws IOException {
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    /**
+     * Reads a snapshot in either format and records the last journal record it covers.
+     * The file is memory-mapped and decoded in place instead of being copied onto the heap first.
+     * In lazy mode, a text snapshot is only indexed, and each task is decoded on first access.
+     * The tasks are then decoded long after loading, so the file is read onto the heap instead:
+     * a mapping stays open until it is garbage collected, and a mapped file cannot be replaced
+     * on Windows, so the next save would fail.
+     *
+     * @return Tasks in the snapshot.
+     */
+    private List<Task> readSnapshot() throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Save file is too large to map: " + size + " bytes");
+            }
+
+            ByteBuffer buffer = isLazyLoad ? readFully(channel, (int) size)
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (BinaryTaskCodec.hasHeader(buffer)) {
+                List<Task> tasks = new ArrayList<>();
+                snapshotSeq = BinaryTaskCodec.read(buffer, tasks);
+                return tasks;
+            }
+            if (isLazyLoad) {
+                LazyTaskList tasks = new LazyTaskList(buffer);
+                snapshotSeq = TextTaskCodec.index(buffer, tasks);
+                return tasks;
+            }
+            List<Task> tasks = new ArrayList<>();
+            snapshotSeq = TextTaskCodec.read(buffer, tasks);
+            return tasks;
         }
-        return tasks;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // keep reading until the whole file is in the buffer
+        }
+        return buffer.flip();
     }
 
     /**
      * Saves tasks to disk. Creates the folder/file if needed.
+     * Any journal records are folded into the new file.
      *
      * @param tasks Tasks to save.
      * @throws AliothException If there is an IO problem.
@@ -80,170 +383,662 @@ public class Storage {
     public void save(List<Task> tasks) throws AliothException {
         assert tasks != null : "Tasks list to save should not be null";
 
+        long start = System.nanoTime();
         try {
-            Path parent = filePath.getParent();
-            if (parent != null) {
-                Files.createDirectories(parent); // creates ./data if missing
+            WriteBehindWriter<PendingWrite> currentWriter;
+            long ticket;
+            synchronized (this) {
+                currentWriter = writer;
+                ticket = writeSnapshotOrEnqueue(tasks);
+            }
+            if (currentWriter != null) {
+                currentWriter.await(ticket);
             }
+        } finally {
+            saveNanos.add(System.nanoTime() - start);
+        }
+    }
 
-            List<String> lines = tasks.stream()
-                    .map(this::convertTaskToLine)
-                    .toList();
+    /**
+     * Writes a snapshot of the tasks, or queues it in write-behind mode.
+     * The caller must hold the lock, and must only wait for a queued snapshot after releasing it,
+     * since the writer thread needs the lock to replace the save file.
+     *
+     * @return Ticket of the queued snapshot, or 0 if it was written directly.
+     */
+    private long writeSnapshotOrEnqueue(List<Task> tasks) throws AliothException {
+        checkWritable();
+        boolean hasJournal = isJournalMode || journalSeq > 0
+                || Files.exists(journalPath) || Files.exists(rotatedJournalPath);
+        long seq = hasJournal ? journalSeq : 0;
+        hasUnsavedIds = false;
 
-            Files.write(filePath, lines, StandardCharsets.UTF_8);
+        if (writer != null) {
+            return writer.enqueue(new PendingWrite(null, tasks, seq, false));
+        }
+        try {
+            writeFullSnapshot(tasks, seq);
         } catch (IOException e) {
             throw new AliothException(Message.SAVE_ERROR.getText());
         }
+        return 0;
+    }
+
+    private void checkWritable() throws AliothException {
+        if (isReadOnly) {
+            throw new AliothException(Message.SAVE_FILE_NOT_MOVED.format(filePath));
+        }
     }
 
     /**
-     * Converts one saved line into a Task object.
-     * If line is corrupted, we skip it by returning null.
+     * Returns the total time callers have spent waiting for changes to be saved,
+     * whether to the journal or by rewriting the save file.
      *
-     * @param line Line from save file.
-     * @return Task or null if line is invalid.
+     * @return Time in nanoseconds since this storage was created.
      */
-    private Task parseLineToTask(String line) {
-        String[] parts = splitLine(line);
-        if (parts == null) {
-            return null;
+    public long getSaveNanos() {
+        return saveNanos.sum();
+    }
+
+    /**
+     * Persists the addition of a task that was appended to the end of the list.
+     *
+     * @param task Task that was added.
+     * @param tasks Task list after the addition.
+     * @throws AliothException If there is an IO problem.
+     */
+    public void recordAdd(Task task, TaskList tasks) throws AliothException {
+        record(List.of(RECORD_ADD + " | " + TextTaskCodec.convertTaskToLine(task)), tasks);
+    }
+
+    /**
+     * Persists the marking of a task as done.
+     *
+     * @param index 0-based index of the marked task.
+     * @param tasks Task list after the change.
+     * @throws AliothException If there is an IO problem.
+     */
+    public void recordMark(int index, TaskList tasks) throws AliothException {
+        record(List.of(RECORD_MARK + " | " + index), tasks);
+    }
+
+    /**
+     * Persists the marking of a task as not done.
+     *
+     * @param index 0-based index of the unmarked task.
+     * @param tasks Task list after the change.
+     * @throws AliothException If there is an IO problem.
+     */
+    public void recordUnmark(int index, TaskList tasks) throws AliothException {
+        record(List.of(RECORD_UNMARK + " | " + index), tasks);
+    }
+
+    /**
+     * Persists the removal of a task.
+     *
+     * @param index 0-based index the task had before it was removed.
+     * @param tasks Task list after the removal.
+     * @throws AliothException If there is an IO problem.
+     */
+    public void recordDelete(int index, TaskList tasks) throws AliothException {
+        record(List.of(RECORD_DELETE + " | " + index), tasks);
+    }
+
+    /**
+     * Persists the marking of several tasks as done or not done, with the flag each has now.
+     * The tasks done and the tasks not done each take one journal record listing their ids.
+     *
+     * @param changed Tasks whose done flag was changed.
+     * @param tasks Task list after the change.
+     * @throws AliothException If there is an IO problem.
+     */
+    public void recordDoneChange(List<Task> changed, TaskList tasks) throws AliothException {
+        List<Task> done = changed.stream().filter(Task::isDone).toList();
+        List<Task> notDone = changed.stream().filter(task -> !task.isDone()).toList();
+        List<String> bodies = new ArrayList<>(2);
+        if (!done.isEmpty()) {
+            bodies.add(RECORD_MARK_ALL + " | " + idsOf(done));
         }
+        if (!notDone.isEmpty()) {
+            bodies.add(RECORD_UNMARK_ALL + " | " + idsOf(notDone));
+        }
+        record(bodies, tasks);
+    }
 
-        String type = parts[0].trim();
-        Boolean isDone = parseDoneFlag(parts[1].trim());
-        String description = parts[2].trim();
+    /**
+     * Persists the removal of several tasks, as one journal record listing their ids.
+     *
+     * @param removed Tasks that were removed.
+     * @param tasks Task list after the removal.
+     * @throws AliothException If there is an IO problem.
+     */
+    public void recordDeleteAll(List<Task> removed, TaskList tasks) throws AliothException {
+        record(removed.isEmpty() ? List.of() : List.of(RECORD_DELETE_ALL + " | " + idsOf(removed)), tasks);
+    }
 
-        if (isDone == null || description.isEmpty()) {
-            return null;
+    /**
+     * Persists putting removed tasks back in the list, as one journal record for each task
+     * with its id, written together. Replaying a record puts the task back in its place by id.
+     *
+     * @param restored Tasks that were put back.
+     * @param tasks Task list after the change.
+     * @throws AliothException If there is an IO problem.
+     */
+    public void recordRestore(List<Task> restored, TaskList tasks) throws AliothException {
+        List<String> bodies = new ArrayList<>(restored.size());
+        for (Task task : restored) {
+            bodies.add(RECORD_RESTORE + " | " + TextTaskCodec.convertTaskToLine(task));
         }
+        record(bodies, tasks);
+    }
 
-        Task task = createTaskFromParts(type, description, parts);
-        if (task == null) {
-            return null;
+    private static String idsOf(List<Task> tasks) {
+        return tasks.stream().map(task -> String.valueOf(task.getId())).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Starts a batch of changes. Until {@link #endBatch} is called, changes are not
+     * persisted one by one; the caller must not let other threads change the tasks meanwhile.
+     * A batch started inside another one is saved as part of the outer batch.
+     */
+    public synchronized void beginBatch() {
+        if (batchDepth == 0) {
+            hasBatchedChanges = false;
         }
+        batchDepth++;
+    }
 
-        task.setDone(isDone);
-        return task;
+    /**
+     * Ends the current batch. Ending the outermost batch saves every change in it with
+     * a single write of the whole list.
+     *
+     * @param tasks Task list after the batch.
+     * @return True if the changes were saved.
+     * @throws AliothException If there is an IO problem.
+     */
+    public boolean endBatch(TaskList tasks) throws AliothException {
+        synchronized (this) {
+            assert batchDepth > 0 : "No batch is open";
+            batchDepth--;
+            if (batchDepth > 0 || !hasBatchedChanges) {
+                return false;
+            }
+        }
+        save(tasks.asList());
+        return true;
     }
 
-    private String[] splitLine(String line) {
-        String[] parts = line.split(" \\| ");
-        if (parts.length < 3) {
-            return null;
+    /**
+     * Ends the current batch without saving, for changes that were thrown away.
+     * Changes already made in an outer batch are still saved when it ends.
+     */
+    public synchronized void cancelBatch() {
+        assert batchDepth > 0 : "No batch is open";
+        batchDepth--;
+        if (batchDepth == 0) {
+            hasBatchedChanges = false;
         }
-        return parts;
     }
 
-    private Boolean parseDoneFlag(String doneFlag) {
-        if (doneFlag.equals("1")) {
+    /**
+     * Appends the journal records in one write, or rewrites the save file when journal mode
+     * is off or some ids are not saved yet. In write-behind mode the records or snapshot are
+     * queued instead.
+     */
+    private void record(List<String> bodies, TaskList tasks) throws AliothException {
+        if (bodies.isEmpty() || deferToBatch()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            WriteBehindWriter<PendingWrite> currentWriter;
+            long ticket;
+            synchronized (this) {
+                currentWriter = writer;
+                ticket = isJournalMode && !hasUnsavedIds
+                        ? appendOrEnqueue(bodies, tasks)
+                        : writeSnapshotOrEnqueue(tasks.asList());
+            }
+            if (currentWriter != null) {
+                currentWriter.await(ticket);
+            }
+        } finally {
+            saveNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Notes a change made inside a batch, which is saved when the batch ends.
+     *
+     * @return True if a batch is open.
+     */
+    private synchronized boolean deferToBatch() {
+        if (batchDepth > 0) {
+            hasBatchedChanges = true;
             return true;
         }
-        if (doneFlag.equals("0")) {
-            return false;
+        return false;
+    }
+
+    /**
+     * Appends journal records in one write, or queues them in write-behind mode, and starts
+     * a compaction once the journal is large enough. The caller must hold the lock.
+     *
+     * @return Ticket of the last queued record, or 0 if they were appended directly.
+     */
+    private long appendOrEnqueue(List<String> bodies, TaskList tasks) throws AliothException {
+        checkWritable();
+        List<String> lines = new ArrayList<>(bodies.size());
+        long ticket = 0;
+        for (String body : bodies) {
+            journalSeq++;
+            journalRecordCount++;
+            String line = journalSeq + " | " + body;
+            lines.add(line);
+            if (writer != null) {
+                ticket = writer.enqueue(new PendingWrite(line, null, journalSeq, false));
+            }
         }
-        return null;
+        if (writer == null) {
+            try {
+                appendJournal(lines);
+            } catch (IOException e) {
+                throw new AliothException(Message.SAVE_ERROR.getText());
+            }
+        }
+
+        if (!isCompacting && journalRecordCount >= Math.max(MIN_COMPACTION_RECORDS, tasks.size())) {
+            startCompaction(tasks.asList());
+        }
+        return ticket;
     }
 
-    private Task createTaskFromParts(String type, String description, String[] parts) {
-        if (type.equals("T")) {
-            return createTodo(description, parts);
+    /**
+     * Starts folding the journal into a snapshot of the given tasks without blocking the caller.
+     * Without write-behind the journal is rotated right away and a background thread writes
+     * the snapshot; with write-behind the writer thread does both in order with the appends.
+     */
+    private void startCompaction(List<Task> snapshot) throws AliothException {
+        isCompacting = true;
+        journalRecordCount = 0;
+        long seq = journalSeq;
+
+        if (writer != null) {
+            writer.enqueue(new PendingWrite(null, snapshot, seq, true));
+            return;
         }
-        if (type.equals("D")) {
-            return createDeadline(description, parts);
+
+        try {
+            rotateJournal();
+        } catch (IOException e) {
+            isCompacting = false;
+            throw new AliothException(Message.SAVE_ERROR.getText());
         }
-        if (type.equals("E")) {
-            return createEvent(description, parts);
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "alioth-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
-        return null;
+        compactor.execute(() -> compact(snapshot, seq));
     }
 
-    private Task createTodo(String description, String[] parts) {
-        if (parts.length != 3) {
-            return null;
+    /**
+     * Moves the journal aside so later records go to a fresh journal.
+     * A journal left aside by an interrupted compaction is kept, since the next
+     * snapshot covers its records as well.
+     */
+    private void rotateJournal() throws IOException {
+        closeJournalWriter();
+        if (Files.exists(journalPath) && !Files.exists(rotatedJournalPath)) {
+            Files.move(journalPath, rotatedJournalPath);
         }
-        return new Todo(description);
     }
 
-    private Task createDeadline(String description, String[] parts) {
-        if (parts.length != 4) {
-            return null;
+    /**
+     * Writes the snapshot and drops the rotated journal, whose records are all covered by it.
+     * Task flags may already reflect later mark/unmark records, which is harmless because
+     * those records are replayed on top of the snapshot and setting a flag is idempotent.
+     */
+    private void compact(List<Task> snapshot, long seq) {
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        try {
+            Path temp = writeTempSnapshot(snapshot, seq);
+            long bytesWritten = event.isEnabled() ? Files.size(temp) : 0;
+            synchronized (this) {
+                if (seq > snapshotSeq) {
+                    replaceSaveFile(temp);
+                    snapshotSeq = seq;
+                    Files.deleteIfExists(rotatedJournalPath);
+                } else {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            commitSaveEvent(event, StorageSaveEvent.COMPACTION, snapshot.size(), bytesWritten);
+        } catch (IOException e) {
+            // The journal still holds every record, so the next compaction simply tries again.
+        } finally {
+            synchronized (this) {
+                isCompacting = false;
+            }
         }
-        String byString = parts[3].trim();
-        if (byString.isEmpty()) {
-            return null;
+    }
+
+    /**
+     * Performs one batch of queued writes on the write-behind thread.
+     * Everything queued before the last full snapshot is covered by it and skipped,
+     * and consecutive journal lines are appended in a single write.
+     */
+    private void writeBatch(List<PendingWrite> batch) throws IOException {
+        int start = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            PendingWrite write = batch.get(i);
+            if (write.snapshot != null && !write.isCompaction) {
+                writeFullSnapshot(write.snapshot, write.seq);
+                start = i + 1;
+                break;
+            }
+        }
+        if (start > 0 && hasCompaction(batch.subList(0, start))) {
+            synchronized (this) {
+                isCompacting = false;
+            }
         }
 
-        try {
-            LocalDate by = LocalDate.parse(byString); // yyyy-MM-dd
-            return new Deadline(description, by);
-        } catch (DateTimeParseException e) {
-            return null;
+        List<String> lines = new ArrayList<>();
+        for (PendingWrite write : batch.subList(start, batch.size())) {
+            if (write.journalLine != null) {
+                lines.add(write.journalLine);
+                continue;
+            }
+            appendJournal(lines);
+            lines.clear();
+            rotateJournal();
+            compact(write.snapshot, write.seq);
         }
+        appendJournal(lines);
     }
 
-    private Task createEvent(String description, String[] parts) {
-        if (parts.length != 5) {
-            return null;
+    private boolean hasCompaction(List<PendingWrite> writes) {
+        return writes.stream().anyMatch(write -> write.isCompaction);
+    }
+
+    /**
+     * Appends the lines to the journal and flushes them to the file.
+     */
+    private void appendJournal(List<String> lines) throws IOException {
+        if (lines.isEmpty()) {
+            return;
         }
 
-        String fromString = parts[3].trim();
-        String toString = parts[4].trim();
-        if (fromString.isEmpty() || toString.isEmpty()) {
-            return null;
+        if (journalWriter == null) {
+            createParentDirectories(journalPath);
+            journalWriter = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        for (String line : lines) {
+            journalWriter.write(line);
+            journalWriter.newLine();
+        }
+        journalWriter.flush();
+
+        if (event.isEnabled()) {
+            long bytesWritten = 0;
+            for (String line : lines) {
+                bytesWritten += line.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+            }
+            commitSaveEvent(event, StorageSaveEvent.JOURNAL, lines.size(), bytesWritten);
         }
+    }
+
+    /**
+     * Commits the flight recorder event of one write, if it is being recorded.
+     */
+    private void commitSaveEvent(StorageSaveEvent event, String kind, int recordCount, long bytesWritten) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = filePath.toString();
+            event.kind = kind;
+            event.recordCount = recordCount;
+            event.bytesWritten = bytesWritten;
+            event.commit();
+        }
+    }
+
+    /**
+     * Replaces the save file with the given tasks. A non-zero sequence number means
+     * the tasks include every journal record so far, so the journal is dropped.
+     */
+    private void writeFullSnapshot(List<Task> tasks, long seq) throws IOException {
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        Path temp = writeTempSnapshot(tasks, seq);
+        long bytesWritten = event.isEnabled() ? Files.size(temp) : 0;
+        synchronized (this) {
+            replaceSaveFile(temp);
+            if (seq > 0) {
+                snapshotSeq = Math.max(snapshotSeq, seq);
+                discardJournal();
+            }
+        }
+        commitSaveEvent(event, StorageSaveEvent.SNAPSHOT, tasks.size(), bytesWritten);
+    }
+
 
+    private void replaceSaveFile(Path temp) throws IOException {
         try {
-            LocalDateTime from = LocalDateTime.parse(fromString, EVENT_FILE_FORMAT);
-            LocalDateTime to = LocalDateTime.parse(toString, EVENT_FILE_FORMAT);
-            return new Event(description, from, to);
-        } catch (DateTimeParseException e) {
-            return null;
+            Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
     /**
-     * Converts a Task into one line for saving.
-     *
-     * @param task Task to convert.
-     * @return String line to write into save file.
+     * Writes the tasks to a temporary file next to the save file, so the save file is
+     * only ever replaced as a whole.
      */
-    private String convertTaskToLine(Task task) {
-        String doneFlag = task.isDone() ? "1" : "0";
-        String desc = task.getDescription().replace("|", "-");
+    private Path writeTempSnapshot(List<Task> tasks, long seq) throws IOException {
+        createParentDirectories(filePath);
+        Path temp = Files.createTempFile(filePath.toAbsolutePath().getParent(),
+                filePath.getFileName().toString(), ".tmp");
 
-        if (task instanceof Todo) {
-            return "T | " + doneFlag + " | " + desc;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            if (format == StorageFormat.BINARY) {
+                BinaryTaskCodec.write(tasks, seq, out);
+            } else {
+                TextTaskCodec.write(tasks, seq, out);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
         }
+        return temp;
+    }
 
-        if (task instanceof Deadline) {
-            Deadline d = (Deadline) task;
-            return "D | " + doneFlag + " | " + desc + " | " + d.getBy();
+    private void discardJournal() throws IOException {
+        closeJournalWriter();
+        Files.deleteIfExists(journalPath);
+        Files.deleteIfExists(rotatedJournalPath);
+        journalRecordCount = 0;
+    }
+
+    private void closeJournalWriter() throws IOException {
+        if (journalWriter != null) {
+            journalWriter.close();
+            journalWriter = null;
         }
+    }
 
-        if (task instanceof Event) {
-            Event e = (Event) task;
-            return "E | " + doneFlag + " | " + desc
-                    + " | " + e.getFrom().format(EVENT_FILE_FORMAT)
-                    + " | " + e.getTo().format(EVENT_FILE_FORMAT);
+    private void createParentDirectories(Path path) throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent); // creates ./data if missing
         }
+    }
 
-        return "T | " + doneFlag + " | " + desc;
+    /**
+     * Applies the journal records in the given file that are newer than the snapshot.
+     * Records that do not apply cleanly (e.g. a torn last line) are skipped.
+     */
+    private void replayJournal(Path path, List<Task> tasks) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String[] parts = line.split(" \\| ", 3);
+            if (parts.length != 3) {
+                continue;
+            }
+
+            long seq = parseSeq(parts[0]);
+            if (seq <= journalSeq) {
+                continue; // already in the snapshot, or a record written twice by a retried write
+            }
+
+            applyRecord(parts[1], parts[2], tasks);
+            journalSeq = Math.max(journalSeq, seq);
+            journalRecordCount++;
+        }
+    }
+
+    private void applyRecord(String type, String body, List<Task> tasks) {
+        switch (type) {
+        case RECORD_ADD:
+            Task added = TextTaskCodec.parseLineToTask(body);
+            if (added != null) {
+                tasks.add(added);
+            }
+            return;
+        case RECORD_RESTORE:
+            restore(TextTaskCodec.parseLineToTask(body), tasks);
+            return;
+        case RECORD_MARK_ALL:
+        case RECORD_UNMARK_ALL:
+            for (int index : indicesOfIds(body, tasks)) {
+                tasks.get(index).setDone(type.equals(RECORD_MARK_ALL));
+            }
+            return;
+        case RECORD_DELETE_ALL:
+            int[] indices = indicesOfIds(body, tasks);
+            for (int i = indices.length - 1; i >= 0; i--) {
+                tasks.remove(indices[i]);
+            }
+            return;
+        default:
+            break;
+        }
+
+        int index = (int) parseSeq(body);
+        if (index < 0 || index >= tasks.size()) {
+            return;
+        }
+
+        switch (type) {
+        case RECORD_MARK:
+            tasks.get(index).setDone(true);
+            break;
+        case RECORD_UNMARK:
+            tasks.get(index).setDone(false);
+            break;
+        case RECORD_DELETE:
+            tasks.remove(index);
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Puts a task back in its place by id, replacing any task with the same id, which a
+     * compaction snapshot taken after the task was put back may already hold.
+     */
+    private static void restore(Task task, List<Task> tasks) {
+        if (task == null || task.getId() <= 0) {
+            return;
+        }
+        int index = binarySearchId(tasks, task.getId());
+        if (index >= 0) {
+            tasks.set(index, task);
+        } else {
+            tasks.add(-index - 1, task);
+        }
+    }
+
+    /**
+     * Returns the indices of the tasks with the ids listed in a record, in increasing order,
+     * skipping ids no task has.
+     */
+    private int[] indicesOfIds(String body, List<Task> tasks) {
+        return Arrays.stream(body.split(","))
+                .mapToLong(this::parseSeq)
+                .filter(id -> id > 0 && id <= Integer.MAX_VALUE)
+                .mapToInt(id -> binarySearchId(tasks, (int) id))
+                .filter(index -> index >= 0)
+                .sorted()
+                .distinct()
+                .toArray();
     }
 
     /**
-     * Loads aliases from disk.
-     * If the aliases file does not exist, returns an empty map.
+     * Finds a task by id in tasks whose ids increase in list order, without decoding
+     * more than a few tasks of a lazily loaded list.
+     *
+     * @return Index of the task, or {@code -(insertion point) - 1} if no task has the id.
+     */
+    private static int binarySearchId(List<Task> tasks, int id) {
+        LazyTaskList lazyTasks = tasks instanceof LazyTaskList ? (LazyTaskList) tasks : null;
+        int low = 0;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = lazyTasks != null ? lazyTasks.idAt(middle) : tasks.get(middle).getId();
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Parses a non-negative number, returning -1 if the text is not one.
+     */
+    private long parseSeq(String text) {
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Loads aliases from the alias file next to the save file.
+     * If it does not exist yet, reads the old shared {@code aliases.txt} in the same folder instead,
+     * and if neither exists, returns an empty map.
      *
      * @return Map of alias word to command word.
      * @throws AliothException If there is an IO problem reading the aliases file.
      */
     public Map<String, String> loadAliases() throws AliothException {
-        if (!Files.exists(ALIAS_PATH)) {
+        Path path = aliasPath;
+        if (!Files.exists(path)) {
+            path = filePath.resolveSibling(LEGACY_ALIAS_FILE_NAME);
+        }
+        if (!Files.exists(path)) {
             return new HashMap<>();
         }
 
         try {
-            return Files.readAllLines(ALIAS_PATH, StandardCharsets.UTF_8).stream()
+            return Files.readAllLines(path, StandardCharsets.UTF_8).stream()
                     .map(line -> line.split(" \\| ", 2))
                     .filter(parts -> parts.length == 2)
                     .collect(Collectors.toMap(
@@ -256,20 +1051,33 @@ public class Storage {
     }
 
     /**
-     * Saves aliases to disk. Creates the folder/file if needed.
+     * Saves aliases to the alias file next to the save file. Creates the folder/file if needed.
      *
      * @param aliases Map of alias word to command word.
      * @throws AliothException If there is an IO problem writing the aliases file.
      */
     public void saveAliases(Map<String, String> aliases) throws AliothException {
+        AliasSaveEvent event = new AliasSaveEvent();
+        event.begin();
         try {
-            Files.createDirectories(ALIAS_PATH.getParent());
+            Path parent = aliasPath.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
 
             List<String> lines = aliases.entrySet().stream()
                     .map(e -> e.getKey() + " | " + e.getValue())
                     .toList();
 
-            Files.write(ALIAS_PATH, lines, StandardCharsets.UTF_8);
+            Files.write(aliasPath, lines, StandardCharsets.UTF_8);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = aliasPath.toString();
+                event.aliasCount = aliases.size();
+                event.bytesWritten = Files.size(aliasPath);
+                event.commit();
+            }
         } catch (IOException e) {
             throw new AliothException(Message.SAVE_ERROR.getText());
         }
@@ -0,0 +1,12 @@
+package alioth.storage;
+
+/**
+ * File format used when writing a snapshot of the task list.
+ * Loading detects the format from the file header, so either format can be read back.
+ */
+public enum StorageFormat {
+    /** Human-readable, pipe-delimited lines. Suitable for import and export. */
+    TEXT,
+    /** Compact, versioned binary records that load without any text parsing. */
+    BINARY
+}
@@ -0,0 +1,730 @@
+package alioth.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import alioth.task.Deadline;
+import alioth.task.Event;
+import alioth.task.Task;
+import alioth.task.Todo;
+
+/**
+ * Converts tasks to and from the human-readable, pipe-delimited line format.
+ * This format is used for text save files and for the records in the journal.
+ * Each line starts with the task's id; lines saved before ids were kept start with the type,
+ * and their tasks get ids in list order when loaded.
+ *
+ * Whole files are decoded straight from their bytes: fields are found by scanning for
+ * the " | " separator and common dates are read digit by digit. Anything unusual falls
+ * back to the String-based parsing, so both paths accept exactly the same lines.
+ */
+final class TextTaskCodec {
+    /** Marks the header line of a snapshot that records the last journal record it contains. */
+    static final String SEQ_HEADER = "#seq | ";
+
+    private static final DateTimeFormatter EVENT_FILE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm", Locale.ENGLISH);
+
+    private static final byte[] SEQ_HEADER_BYTES = SEQ_HEADER.getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_FIELDS = 6;
+    /** Longest id field that is read as an id; longer numbers cannot be ids and are ignored. */
+    private static final int MAX_ID_DIGITS = 9;
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 20;
+    private static final long KEY_HASH_SEED = 0xCBF29CE484222325L;
+    private static final long KEY_HASH_PRIME = 0x100000001B3L;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private TextTaskCodec() {}
+
+    /**
+     * Writes the tasks as a text snapshot, one line per task.
+     *
+     * @param tasks Tasks to write.
+     * @param seq Last journal record covered by the snapshot, or 0 to omit the header.
+     * @param out Stream to write to. It is flushed but not closed.
+     * @throws IOException If writing fails.
+     */
+    static void write(List<Task> tasks, long seq, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (seq > 0) {
+            writer.write(SEQ_HEADER + seq);
+            writer.newLine();
+        }
+        for (Task task : tasks) {
+            writer.write(convertTaskToLine(task));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads a text snapshot, appending its valid tasks in order. Corrupted lines are skipped.
+     * Large snapshots are split into chunks at line boundaries and decoded in parallel.
+     *
+     * @param buffer Contents of the save file.
+     * @param tasks List to append the tasks to.
+     * @return Last journal record covered by the snapshot, or 0 if there is no header.
+     */
+    static long read(ByteBuffer buffer, List<Task> tasks) {
+        boolean isParallel = ForkJoinPool.getCommonPoolParallelism() > 1;
+        return read(buffer, tasks, isParallel ? PARALLEL_CHUNK_SIZE : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads a text snapshot, decoding chunks of about {@code chunkSize} bytes in parallel
+     * on the common ForkJoinPool. The tasks are appended in file order.
+     */
+    static long read(ByteBuffer buffer, List<Task> tasks, int chunkSize) {
+        assert chunkSize > 0 : "Chunk size should be positive";
+
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (limit - position <= chunkSize) {
+            Chunk chunk = readChunk(buffer, position, limit);
+            tasks.addAll(chunk.tasks);
+            return Math.max(chunk.seq, 0);
+        }
+
+        List<ForkJoinTask<Chunk>> chunks = new ArrayList<>();
+        while (position < limit) {
+            int end = nextLineStart(buffer, (int) Math.min((long) position + chunkSize, limit), limit);
+            ByteBuffer view = buffer.duplicate();
+            int from = position;
+            chunks.add(ForkJoinPool.commonPool().submit(() -> readChunk(view, from, end)));
+            position = end;
+        }
+
+        long seq = 0;
+        for (ForkJoinTask<Chunk> chunk : chunks) {
+            Chunk result = chunk.join();
+            tasks.addAll(result.tasks);
+            if (result.seq != Chunk.NO_HEADER) {
+                seq = result.seq;
+            }
+        }
+        return seq;
+    }
+
+    /**
+     * Returns the start of the first line beginning at or after {@code from}.
+     */
+    private static int nextLineStart(ByteBuffer buffer, int from, int limit) {
+        int position = from;
+        while (position < limit && buffer.get(position - 1) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Tasks decoded from one run of whole lines, and the last header seen in it.
+     */
+    private static class Chunk {
+        static final long NO_HEADER = -1;
+
+        final List<Task> tasks = new ArrayList<>();
+        long seq = NO_HEADER;
+    }
+
+    private static Chunk readChunk(ByteBuffer buffer, int position, int limit) {
+        Chunk chunk = new Chunk();
+        forEachLine(buffer, position, limit, (line, length, offset) -> {
+            if (startsWith(line, length, SEQ_HEADER_BYTES)) {
+                chunk.seq = parseLong(line, SEQ_HEADER_BYTES.length, length);
+                return;
+            }
+            Task task = decodeLine(line, length);
+            if (task != null) {
+                chunk.tasks.add(task);
+            }
+        });
+        return chunk;
+    }
+
+    /**
+     * Indexes a text snapshot without decoding it, appending the offset of every valid
+     * task line to the lazy list. Corrupted lines are skipped, exactly as {@link #read} does.
+     *
+     * @param buffer Contents of the save file.
+     * @param tasks Lazy list to append the records to.
+     * @return Last journal record covered by the snapshot, or 0 if there is no header.
+     */
+    static long index(ByteBuffer buffer, LazyTaskList tasks) {
+        long[] seq = {0};
+        int[] starts = new int[MAX_FIELDS];
+        int[] ends = new int[MAX_FIELDS];
+        forEachLine(buffer, buffer.position(), buffer.limit(), (line, length, offset) -> {
+            if (startsWith(line, length, SEQ_HEADER_BYTES)) {
+                seq[0] = parseLong(line, SEQ_HEADER_BYTES.length, length);
+                return;
+            }
+            int fieldCount = splitFields(line, length, starts, ends);
+            int savedId = savedIdOf(line, fieldCount, starts, ends);
+            if (isValidTask(line, dropIdField(line, fieldCount, starts, ends), starts, ends)) {
+                tasks.addRecord(offset, length, savedId);
+            }
+        });
+        return seq[0];
+    }
+
+    /**
+     * Decodes the task line at the given offset, as recorded by {@link #index}.
+     *
+     * @param buffer Contents of the save file.
+     * @param offset Offset of the line.
+     * @param length Length of the line in bytes.
+     * @return The task on that line.
+     */
+    static Task decode(ByteBuffer buffer, int offset, int length) {
+        byte[] line = new byte[length];
+        buffer.get(offset, line, 0, length);
+        Task task = decodeLine(line, length);
+        assert task != null : "Indexed line should be a valid task";
+        return task;
+    }
+
+    /**
+     * Returns the identity hash of the task line at the given offset without decoding the task.
+     * It hashes the type, the done flag and the bytes of the description, then the dates as
+     * the values they decode to, so it equals {@link #keyHash(Task)} of the decoded task.
+     *
+     * @param buffer Contents of the save file.
+     * @param offset Offset of the line, as recorded by {@link #index}.
+     * @param length Length of the line in bytes.
+     * @return Identity hash of the task on that line.
+     */
+    static long keyHash(ByteBuffer buffer, int offset, int length) {
+        byte[] line = new byte[length];
+        buffer.get(offset, line, 0, length);
+        int[] starts = new int[MAX_FIELDS];
+        int[] ends = new int[MAX_FIELDS];
+        int fieldCount = dropIdField(line, splitFields(line, length, starts, ends), starts, ends);
+        assert hasValidPrefix(line, fieldCount, starts, ends) : "Indexed line should be a valid task";
+
+        byte type = line[starts[0]];
+        long hash = hashPrefix(type, line[starts[1]] == '1');
+        for (int i = starts[2]; i < ends[2]; i++) {
+            hash = hashByte(hash, line[i]);
+        }
+        if (type == 'D') {
+            hash = hashLong(hash, decodeDate(line, starts[3], ends[3]).toEpochDay());
+        } else if (type == 'E') {
+            hash = hashLong(hash, epochMinute(decodeDateTime(line, starts[3], ends[3])));
+            hash = hashLong(hash, epochMinute(decodeDateTime(line, starts[4], ends[4])));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the identity hash of a task, as {@link #keyHash(ByteBuffer, int, int)} computes it
+     * for a saved line. Tasks that look identical in the list have equal hashes.
+     *
+     * @param task Task to hash.
+     * @return Identity hash of the task.
+     */
+    static long keyHash(Task task) {
+        byte type = task instanceof Deadline ? (byte) 'D' : task instanceof Event ? (byte) 'E' : (byte) 'T';
+        long hash = hashPrefix(type, task.isDone());
+        for (byte b : task.getDescription().getBytes(StandardCharsets.UTF_8)) {
+            hash = hashByte(hash, b);
+        }
+        if (task instanceof Deadline) {
+            hash = hashLong(hash, ((Deadline) task).getBy().toEpochDay());
+        } else if (task instanceof Event) {
+            hash = hashLong(hash, epochMinute(((Event) task).getFrom()));
+            hash = hashLong(hash, epochMinute(((Event) task).getTo()));
+        }
+        return hash;
+    }
+
+    private static long hashPrefix(byte type, boolean isDone) {
+        return hashByte(hashByte(KEY_HASH_SEED, type), isDone ? 1 : 0);
+    }
+
+    private static long hashByte(long hash, int value) {
+        return (hash ^ (value & 0xFF)) * KEY_HASH_PRIME;
+    }
+
+    private static long hashLong(long hash, long value) {
+        return (hash ^ value) * KEY_HASH_PRIME;
+    }
+
+    private static long epochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Receives each line of a snapshot as a scratch copy of its bytes,
+     * which is only valid until the next line is visited.
+     */
+    private interface LineVisitor {
+        void visit(byte[] line, int length, int offset);
+    }
+
+    private static void forEachLine(ByteBuffer buffer, int position, int limit, LineVisitor visitor) {
+        byte[] line = new byte[256];
+
+        while (position < limit) {
+            int end = position;
+            while (end < limit && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+                end++;
+            }
+
+            int length = end - position;
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            buffer.get(position, line, 0, length);
+            visitor.visit(line, length, position);
+
+            position = end;
+            if (position < limit && buffer.get(position) == '\r') {
+                position++;
+            }
+            if (position < limit && buffer.get(position) == '\n') {
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Decodes one line of UTF-8 bytes into a Task, or returns null if the line is corrupted.
+     * Accepts exactly the lines {@link #parseLineToTask(String)} accepts.
+     */
+    private static Task decodeLine(byte[] line, int length) {
+        int[] starts = new int[MAX_FIELDS];
+        int[] ends = new int[MAX_FIELDS];
+        int fieldCount = splitFields(line, length, starts, ends);
+        int savedId = savedIdOf(line, fieldCount, starts, ends);
+        fieldCount = dropIdField(line, fieldCount, starts, ends);
+        if (!hasValidPrefix(line, fieldCount, starts, ends)) {
+            return null;
+        }
+
+        byte doneFlag = line[starts[1]];
+        String description = new String(line, starts[2], ends[2] - starts[2], StandardCharsets.UTF_8);
+        Task task;
+        switch (line[starts[0]]) {
+        case 'T':
+            task = fieldCount == 3 ? new Todo(description) : null;
+            break;
+        case 'D':
+            LocalDate by = fieldCount == 4 ? decodeDate(line, starts[3], ends[3]) : null;
+            task = by == null ? null : new Deadline(description, by);
+            break;
+        case 'E':
+            LocalDateTime from = fieldCount == 5 ? decodeDateTime(line, starts[3], ends[3]) : null;
+            LocalDateTime to = fieldCount == 5 ? decodeDateTime(line, starts[4], ends[4]) : null;
+            task = from == null || to == null ? null : new Event(description, from, to);
+            break;
+        default:
+            task = null;
+            break;
+        }
+
+        if (task != null) {
+            task.setDone(doneFlag == '1');
+            if (savedId > 0) {
+                task.setSavedId(savedId);
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Returns whether {@link #decodeLine} would decode a line with the given fields,
+     * without creating the task. The id field must already be dropped.
+     */
+    private static boolean isValidTask(byte[] line, int fieldCount, int[] starts, int[] ends) {
+        if (!hasValidPrefix(line, fieldCount, starts, ends)) {
+            return false;
+        }
+
+        switch (line[starts[0]]) {
+        case 'T':
+            return fieldCount == 3;
+        case 'D':
+            return fieldCount == 4 && isValidDate(line, starts[3], ends[3]);
+        case 'E':
+            return fieldCount == 5 && isValidDateTime(line, starts[3], ends[3])
+                    && isValidDateTime(line, starts[4], ends[4]);
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Finds the trimmed fields of a line, mirroring String.split(" \\| "), which also drops
+     * trailing empty fields.
+     *
+     * @return Number of fields, or -1 if there are more than MAX_FIELDS.
+     */
+    private static int splitFields(byte[] line, int length, int[] starts, int[] ends) {
+        int fieldIndex = 0;
+        int fieldCount = 0;
+        int fieldStart = 0;
+        int i = 0;
+        while (i <= length) {
+            boolean isFieldEnd = i == length
+                    || i + 2 < length && line[i] == ' ' && line[i + 1] == '|' && line[i + 2] == ' ';
+            if (!isFieldEnd) {
+                i++;
+                continue;
+            }
+
+            if (i > fieldStart) {
+                if (fieldIndex >= MAX_FIELDS) {
+                    return -1;
+                }
+                fieldCount = fieldIndex + 1;
+            }
+            if (fieldIndex < MAX_FIELDS) {
+                starts[fieldIndex] = fieldStart;
+                ends[fieldIndex] = i;
+            }
+            fieldIndex++;
+            fieldStart = i + 3;
+            i += 3;
+        }
+
+        for (int f = 0; f < fieldCount; f++) {
+            while (starts[f] < ends[f] && (line[starts[f]] & 0xFF) <= ' ') {
+                starts[f]++;
+            }
+            while (ends[f] > starts[f] && (line[ends[f] - 1] & 0xFF) <= ' ') {
+                ends[f]--;
+            }
+        }
+        return fieldCount;
+    }
+
+    /**
+     * Returns the id a line was saved with, or 0 if it has none. Lines saved before ids were
+     * kept start with the type instead, and numbers too long to be ids are ignored.
+     */
+    private static int savedIdOf(byte[] line, int fieldCount, int[] starts, int[] ends) {
+        if (fieldCount < 1 || !isIdField(line, starts[0], ends[0]) || ends[0] - starts[0] > MAX_ID_DIGITS) {
+            return 0;
+        }
+        return digits(line, starts[0], ends[0] - starts[0]);
+    }
+
+    /**
+     * Removes the id field that lines start with, if there is one, so that the type is
+     * always the first field.
+     *
+     * @return Number of fields left, or -1 if there were too many.
+     */
+    private static int dropIdField(byte[] line, int fieldCount, int[] starts, int[] ends) {
+        if (fieldCount < 1 || !isIdField(line, starts[0], ends[0])) {
+            return fieldCount;
+        }
+        System.arraycopy(starts, 1, starts, 0, fieldCount - 1);
+        System.arraycopy(ends, 1, ends, 0, fieldCount - 1);
+        return fieldCount - 1;
+    }
+
+    private static boolean isIdField(byte[] line, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (line[i] < '0' || line[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the line has a one-letter type, a 0/1 done flag and a description.
+     */
+    private static boolean hasValidPrefix(byte[] line, int fieldCount, int[] starts, int[] ends) {
+        if (fieldCount < 3 || ends[0] - starts[0] != 1 || ends[1] - starts[1] != 1 || starts[2] == ends[2]) {
+            return false;
+        }
+        byte doneFlag = line[starts[1]];
+        return doneFlag == '0' || doneFlag == '1';
+    }
+
+    private static boolean isValidDate(byte[] line, int start, int end) {
+        if (end - start == 10 && line[start + 4] == '-' && line[start + 7] == '-') {
+            int year = digits(line, start, 4);
+            int month = digits(line, start + 5, 2);
+            int day = digits(line, start + 8, 2);
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1) {
+                return day <= Month.of(month).length(Year.isLeap(year));
+            }
+        }
+        return decodeDate(line, start, end) != null;
+    }
+
+    private static boolean isValidDateTime(byte[] line, int start, int end) {
+        if (end - start == 15 && line[start + 4] == '-' && line[start + 7] == '-' && line[start + 10] == ' ') {
+            int year = digits(line, start, 4);
+            int month = digits(line, start + 5, 2);
+            int day = digits(line, start + 8, 2);
+            int hour = digits(line, start + 11, 2);
+            int minute = digits(line, start + 13, 2);
+            if (year >= 1 && month >= 1 && month <= 12 && day >= 1 && day <= 28
+                    && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59) {
+                return true;
+            }
+        }
+        return decodeDateTime(line, start, end) != null;
+    }
+
+    /**
+     * Decodes a yyyy-MM-dd date, or returns null if it is invalid.
+     */
+    private static LocalDate decodeDate(byte[] line, int start, int end) {
+        if (start == end) {
+            return null;
+        }
+        if (end - start == 10 && line[start + 4] == '-' && line[start + 7] == '-') {
+            int year = digits(line, start, 4);
+            int month = digits(line, start + 5, 2);
+            int day = digits(line, start + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (DateTimeException e) {
+                    return null;
+                }
+            }
+        }
+
+        try {
+            return LocalDate.parse(new String(line, start, end - start, StandardCharsets.UTF_8));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes a yyyy-MM-dd HHmm date/time, or returns null if it is invalid.
+     */
+    private static LocalDateTime decodeDateTime(byte[] line, int start, int end) {
+        if (start == end) {
+            return null;
+        }
+        if (end - start == 15 && line[start + 4] == '-' && line[start + 7] == '-' && line[start + 10] == ' ') {
+            int year = digits(line, start, 4);
+            int month = digits(line, start + 5, 2);
+            int day = digits(line, start + 8, 2);
+            int hour = digits(line, start + 11, 2);
+            int minute = digits(line, start + 13, 2);
+            if (year >= 1 && month >= 1 && month <= 12 && day >= 1 && day <= 28
+                    && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+
+        // Rarer values (e.g. day 29-31, which the formatter resolves leniently) take the slow path.
+        try {
+            return LocalDateTime.parse(new String(line, start, end - start, StandardCharsets.UTF_8),
+                    EVENT_FILE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the value of {@code count} ASCII digits, or -1 if any byte is not a digit.
+     */
+    private static int digits(byte[] line, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static long parseLong(byte[] line, int start, int end) {
+        try {
+            return Long.parseLong(new String(line, start, end - start, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static boolean startsWith(byte[] line, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (line[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts one saved line into a Task object.
+     * If line is corrupted, we skip it by returning null.
+     *
+     * @param line Line from save file.
+     * @return Task or null if line is invalid.
+     */
+    static Task parseLineToTask(String line) {
+        String[] parts = line.split(" \\| ");
+        int savedId = 0;
+        if (isIdField(parts[0].trim())) {
+            String id = parts[0].trim();
+            savedId = id.length() <= MAX_ID_DIGITS ? Integer.parseInt(id) : 0;
+            parts = Arrays.copyOfRange(parts, 1, parts.length);
+        }
+        if (parts.length < 3) {
+            return null;
+        }
+
+        String type = parts[0].trim();
+        Boolean isDone = parseDoneFlag(parts[1].trim());
+        String description = parts[2].trim();
+
+        if (isDone == null || description.isEmpty()) {
+            return null;
+        }
+
+        Task task = createTaskFromParts(type, description, parts);
+        if (task == null) {
+            return null;
+        }
+
+        task.setDone(isDone);
+        if (savedId > 0) {
+            task.setSavedId(savedId);
+        }
+        return task;
+    }
+
+    private static boolean isIdField(String field) {
+        return !field.isEmpty() && field.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+
+    private static Boolean parseDoneFlag(String doneFlag) {
+        if (doneFlag.equals("1")) {
+            return true;
+        }
+        if (doneFlag.equals("0")) {
+            return false;
+        }
+        return null;
+    }
+
+    private static Task createTaskFromParts(String type, String description, String[] parts) {
+        if (type.equals("T")) {
+            return createTodo(description, parts);
+        }
+        if (type.equals("D")) {
+            return createDeadline(description, parts);
+        }
+        if (type.equals("E")) {
+            return createEvent(description, parts);
+        }
+        return null;
+    }
+
+    private static Task createTodo(String description, String[] parts) {
+        if (parts.length != 3) {
+            return null;
+        }
+        return new Todo(description);
+    }
+
+    private static Task createDeadline(String description, String[] parts) {
+        if (parts.length != 4) {
+            return null;
+        }
+        String byString = parts[3].trim();
+        if (byString.isEmpty()) {
+            return null;
+        }
+
+        try {
+            LocalDate by = LocalDate.parse(byString); // yyyy-MM-dd
+            return new Deadline(description, by);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Task createEvent(String description, String[] parts) {
+        if (parts.length != 5) {
+            return null;
+        }
+
+        String fromString = parts[3].trim();
+        String toString = parts[4].trim();
+        if (fromString.isEmpty() || toString.isEmpty()) {
+            return null;
+        }
+
+        try {
+            LocalDateTime from = LocalDateTime.parse(fromString, EVENT_FILE_FORMAT);
+            LocalDateTime to = LocalDateTime.parse(toString, EVENT_FILE_FORMAT);
+            return new Event(description, from, to);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a Task into one line for saving, starting with its id if it has one.
+     *
+     * @param task Task to convert.
+     * @return String line to write into save file.
+     */
+    static String convertTaskToLine(Task task) {
+        String id = task.getId() > 0 ? task.getId() + " | " : "";
+        return id + convertTaskToFields(task);
+    }
+
+    private static String convertTaskToFields(Task task) {
+        String doneFlag = task.isDone() ? "1" : "0";
+        String desc = task.getDescription().replace("|", "-");
+
+        if (task instanceof Todo) {
+            return "T | " + doneFlag + " | " + desc;
+        }
+
+        if (task instanceof Deadline) {
+            Deadline d = (Deadline) task;
+            return "D | " + doneFlag + " | " + desc + " | " + d.getBy();
+        }
+
+        if (task instanceof Event) {
+            Event e = (Event) task;
+            return "E | " + doneFlag + " | " + desc
+                    + " | " + e.getFrom().format(EVENT_FILE_FORMAT)
+                    + " | " + e.getTo().format(EVENT_FILE_FORMAT);
+        }
+
+        return "T | " + doneFlag + " | " + desc;
+    }
+}
@@ -0,0 +1,228 @@
+package alioth.storage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+
+/**
+ * Writes queued changes on one background thread, so callers do not wait for the disk.
+ * Every change queued while a write is due or in progress goes out together in the next write.
+ *
+ * @param <T> Type of the queued changes.
+ */
+class WriteBehindWriter<T> {
+    private static final long NONE = -1;
+
+    /**
+     * Writes one batch of queued changes, in the order they were queued.
+     *
+     * @param <T> Type of the queued changes.
+     */
+    interface BatchWriter<T> {
+        void write(List<T> batch) throws IOException;
+    }
+
+    private final BatchWriter<T> batchWriter;
+    private final DurabilityPolicy policy;
+    private final long intervalNanos;
+    private final Thread thread;
+
+    private final List<T> pending = new ArrayList<>();
+    private long pendingSinceNanos = NONE;
+    private long inFlightSinceNanos = NONE;
+    private long queuedTicket;
+    private long writtenTicket;
+    private boolean isFlushRequested;
+    private boolean isClosed;
+    private IOException error;
+
+    /**
+     * Creates a writer and starts its background thread.
+     *
+     * @param batchWriter Performs the actual writes.
+     * @param policy How long callers wait for their change to be written.
+     * @param flushInterval How long a change may wait to be batched with later ones.
+     * @param threadName Name of the background thread.
+     */
+    WriteBehindWriter(BatchWriter<T> batchWriter, DurabilityPolicy policy, Duration flushInterval,
+            String threadName) {
+        assert batchWriter != null && policy != null : "Writer and policy should not be null";
+        assert !flushInterval.isNegative() : "Flush interval should not be negative";
+
+        this.batchWriter = batchWriter;
+        this.policy = policy;
+        this.intervalNanos = flushInterval.toNanos();
+        this.thread = new Thread(this::run, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a change without waiting for it to be written.
+     *
+     * @param change Change to write.
+     * @return Ticket to pass to {@link #await(long)}.
+     */
+    synchronized long enqueue(T change) {
+        if (isClosed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+
+        if (pending.isEmpty()) {
+            pendingSinceNanos = System.nanoTime();
+        }
+        pending.add(change);
+        notifyAll();
+        return ++queuedTicket;
+    }
+
+    /**
+     * Waits for the change with the given ticket as long as the durability policy requires.
+     *
+     * @param ticket Ticket returned by {@link #enqueue(Object)}.
+     * @throws AliothException If the background writes are failing.
+     */
+    synchronized void await(long ticket) throws AliothException {
+        switch (policy) {
+        case SYNC:
+            waitUntilWritten(ticket);
+            break;
+        case BOUNDED_LAG:
+            while (error == null && lagNanos() > intervalNanos) {
+                isFlushRequested = true;
+                notifyAll();
+                waitUninterruptibly();
+            }
+            break;
+        default:
+            break;
+        }
+
+        if (error != null) {
+            throw new AliothException(Message.SAVE_ERROR.getText());
+        }
+    }
+
+    /**
+     * Writes every queued change now and waits for it to finish.
+     *
+     * @throws AliothException If the write fails.
+     */
+    synchronized void flush() throws AliothException {
+        waitUntilWritten(queuedTicket);
+    }
+
+    /**
+     * Flushes the queued changes and stops the background thread.
+     *
+     * @throws AliothException If the final write fails.
+     */
+    void close() throws AliothException {
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            waitUntilWritten(queuedTicket);
+        }
+        thread.interrupt();
+    }
+
+    private void waitUntilWritten(long ticket) throws AliothException {
+        while (writtenTicket < ticket) {
+            if (error != null) {
+                throw new AliothException(Message.SAVE_ERROR.getText());
+            }
+            isFlushRequested = true;
+            notifyAll();
+            waitUninterruptibly();
+        }
+    }
+
+    private void waitUninterruptibly() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns how long the oldest change that is not yet on disk has been waiting.
+     */
+    private long lagNanos() {
+        long oldest = inFlightSinceNanos != NONE ? inFlightSinceNanos : pendingSinceNanos;
+        if (oldest == NONE) {
+            return 0;
+        }
+        return System.nanoTime() - oldest;
+    }
+
+    /**
+     * Returns how long the background thread should sleep before the next write.
+     * A failed write is retried after a full interval even if a flush was requested.
+     */
+    private long nanosUntilDue() {
+        if (pending.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        if (isFlushRequested && error == null) {
+            return 0;
+        }
+        return intervalNanos - (System.nanoTime() - pendingSinceNanos);
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                List<T> batch;
+                long batchTicket;
+                synchronized (this) {
+                    long waitNanos = nanosUntilDue();
+                    while (waitNanos > 0) {
+                        if (waitNanos == Long.MAX_VALUE) {
+                            wait();
+                        } else {
+                            TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+                        }
+                        waitNanos = nanosUntilDue();
+                    }
+
+                    batch = new ArrayList<>(pending);
+                    batchTicket = queuedTicket;
+                    pending.clear();
+                    inFlightSinceNanos = pendingSinceNanos;
+                    pendingSinceNanos = NONE;
+                    isFlushRequested = false;
+                }
+
+                IOException failure = null;
+                try {
+                    batchWriter.write(batch);
+                } catch (IOException e) {
+                    failure = e;
+                }
+
+                synchronized (this) {
+                    if (failure == null) {
+                        writtenTicket = batchTicket;
+                        error = null;
+                    } else {
+                        pending.addAll(0, batch);
+                        pendingSinceNanos = System.nanoTime();
+                        error = failure;
+                    }
+                    inFlightSinceNanos = NONE;
+                    notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Interrupted by close() once every queued change has been written.
+        }
+    }
+}
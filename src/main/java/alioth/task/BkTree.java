@@ -0,0 +1,118 @@
+package alioth.task;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A BK-tree of words, which finds every word within a given edit distance of a query
+ * while comparing it against only a small part of the vocabulary.
+ *
+ * Each child is stored under its Levenshtein distance from its parent. By the triangle
+ * inequality, a search for words within k of the query only needs to visit the children
+ * whose distance is within k of the query's distance to the parent.
+ */
+final class BkTree {
+    private Node root;
+    private int size;
+
+    private static class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+
+    /**
+     * Adds a word. Adding a word that is already in the tree does nothing.
+     *
+     * @param word Word to add.
+     */
+    void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Adds every word within the given edit distance of the query to the result list.
+     *
+     * @param query Word to look for.
+     * @param maxDistance Largest edit distance to accept.
+     * @param results List to add the matching words to.
+     */
+    void collectWithin(String query, int maxDistance, List<String> results) {
+        if (root == null) {
+            return;
+        }
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(query, node.word);
+            if (distance <= maxDistance) {
+                results.add(node.word);
+            }
+            for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                Node child = node.children.get(d);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of words in the tree.
+     *
+     * @return Number of words.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the Levenshtein distance between two words.
+     */
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
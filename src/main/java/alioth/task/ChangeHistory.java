@@ -0,0 +1,86 @@
+package alioth.task;
+
+/**
+ * The most recent changes to a task list, for undo and redo.
+ *
+ * The changes are kept in a ring buffer of fixed capacity, so once it is full each new change
+ * pushes out the oldest one. Undone changes stay in the buffer until a new change replaces them.
+ */
+public class ChangeHistory {
+    private final TaskChange[] changes;
+    /** Position the next change is written to; the newest change that can be undone is just before it. */
+    private int top;
+    private int undoCount;
+    private int redoCount;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param capacity Number of changes to keep.
+     */
+    public ChangeHistory(int capacity) {
+        assert capacity > 0 : "History capacity should be positive";
+        this.changes = new TaskChange[capacity];
+    }
+
+    private ChangeHistory(ChangeHistory other) {
+        this.changes = other.changes.clone();
+        this.top = other.top;
+        this.undoCount = other.undoCount;
+        this.redoCount = other.redoCount;
+    }
+
+    /**
+     * Records a new change, after which the undone changes can no longer be redone.
+     *
+     * @param change Change that was just made.
+     */
+    public void record(TaskChange change) {
+        assert change != null : "Recorded change should not be null";
+        changes[top] = change;
+        top = (top + 1) % changes.length;
+        undoCount = Math.min(undoCount + 1, changes.length);
+        redoCount = 0;
+    }
+
+    /**
+     * Takes the newest change that can be undone.
+     *
+     * @return The change to undo, or null if there is none.
+     */
+    public TaskChange undo() {
+        if (undoCount == 0) {
+            return null;
+        }
+        top = (top - 1 + changes.length) % changes.length;
+        undoCount--;
+        redoCount++;
+        return changes[top];
+    }
+
+    /**
+     * Takes the change undone last.
+     *
+     * @return The change to redo, or null if there is none.
+     */
+    public TaskChange redo() {
+        if (redoCount == 0) {
+            return null;
+        }
+        TaskChange change = changes[top];
+        top = (top + 1) % changes.length;
+        redoCount--;
+        undoCount++;
+        return change;
+    }
+
+    /**
+     * Returns a copy of this history, which is as large as its capacity rather than any task list.
+     * The copy shares the changes themselves, which never change once made.
+     *
+     * @return Independent copy.
+     */
+    public ChangeHistory copy() {
+        return new ChangeHistory(this);
+    }
+}
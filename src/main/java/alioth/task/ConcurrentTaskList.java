@@ -0,0 +1,263 @@
+package alioth.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A task list that other threads, such as an autosave or metrics thread, can read safely
+ * while commands change it.
+ *
+ * Changes hold a write lock, so they happen one at a time, and queries hold a read lock, so
+ * any number of them run at once. {@link #size} only reads one field, so it first tries an
+ * optimistic read, which takes no lock and is retried under the read lock if a change happened
+ * meanwhile. Queries that walk the slots, the Fenwick tree or an index never do so without the
+ * read lock, since a change could leave those half updated under a reader.
+ *
+ * A batch holds the write lock from {@link #beginBatch} to {@link #endBatch}, so other threads
+ * see either none or all of its changes. The thread running the batch changes and reads the list
+ * without taking the lock again, since a StampedLock is not reentrant.
+ *
+ * Reads must never change the list, so the first read that needs an index builds it under
+ * the write lock. Other reads of a lazily loaded list only decode the tasks they return, and
+ * the duplicate index is built without decoding any; the search, event and deadline indexes
+ * decode every task when they are built.
+ */
+public class ConcurrentTaskList extends TaskList {
+    private final StampedLock lock = new StampedLock();
+    /** Bit set of the {@link TaskList.Index} values that are built, by ordinal. */
+    private volatile int builtIndexes;
+    /** Thread running a batch, which holds the write lock until the batch ends. */
+    private volatile Thread batchThread;
+    private long batchStamp;
+
+    /**
+     * Creates an empty task list.
+     */
+    public ConcurrentTaskList() {
+        super();
+    }
+
+    /**
+     * Creates a task list by copying the given list of tasks.
+     *
+     * @param tasks The list of tasks to copy from.
+     */
+    public ConcurrentTaskList(List<Task> tasks) {
+        super(tasks);
+    }
+
+    private ConcurrentTaskList(List<Task> tasks, LazyTasks lazyTasks) {
+        super(tasks, lazyTasks);
+    }
+
+    /**
+     * Creates a task list that uses the given mutable list directly instead of copying it.
+     *
+     * @param tasks The list to take over. The caller should not use it afterwards.
+     * @return Task list backed by the given list.
+     */
+    public static ConcurrentTaskList backedBy(List<Task> tasks) {
+        assert tasks != null : "Backing task list should not be null";
+        return new ConcurrentTaskList(tasks, lazyTasksOf(tasks));
+    }
+
+    /**
+     * Starts a batch of changes on this thread, holding the write lock until {@link #endBatch},
+     * so that other threads never see the list with only some of the changes made.
+     */
+    public void beginBatch() {
+        assert !isInBatch() : "A batch is already open on this thread";
+        long stamp = lock.writeLock();
+        batchStamp = stamp;
+        batchThread = Thread.currentThread();
+    }
+
+    /**
+     * Ends the batch started on this thread, letting other threads read and change the list again.
+     */
+    public void endBatch() {
+        assert isInBatch() : "No batch is open on this thread";
+        batchThread = null;
+        lock.unlockWrite(batchStamp);
+    }
+
+    private boolean isInBatch() {
+        return batchThread == Thread.currentThread();
+    }
+
+    @Override
+    public void add(Task task) {
+        write(() -> {
+            super.add(task);
+            return null;
+        });
+    }
+
+    @Override
+    public void restore(Task task) {
+        write(() -> {
+            super.restore(task);
+            return null;
+        });
+    }
+
+    @Override
+    public Task remove(int index) {
+        return write(() -> super.remove(index));
+    }
+
+    @Override
+    public Task setDone(int index, boolean isDone) {
+        return write(() -> super.setDone(index, isDone));
+    }
+
+    @Override
+    public List<Task> removeAll(int[] indices) {
+        return write(() -> super.removeAll(indices));
+    }
+
+    @Override
+    public List<Task> setDoneAll(int[] indices, boolean isDone) {
+        return write(() -> super.setDoneAll(indices, isDone));
+    }
+
+    @Override
+    public int[] indicesOfDone() {
+        return read(null, super::indicesOfDone);
+    }
+
+    @Override
+    public Task get(int index) {
+        return read(null, () -> super.get(index));
+    }
+
+    @Override
+    public int size() {
+        if (isInBatch()) {
+            return super.size();
+        }
+        long stamp = lock.tryOptimisticRead();
+        int size = super.size();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                size = super.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public List<Task> find(String keyword) {
+        Index index = TrigramIndex.canSearch(keyword) ? Index.TRIGRAMS : null;
+        return read(index, () -> super.find(keyword));
+    }
+
+    @Override
+    public List<Task> asList() {
+        return read(null, super::asList);
+    }
+
+    @Override
+    public Task getById(int id) {
+        return read(null, () -> super.getById(id));
+    }
+
+    @Override
+    public int indexOfId(int id) {
+        return read(null, () -> super.indexOfId(id));
+    }
+
+    @Override
+    public TaskList copy() {
+        return read(null, super::copy);
+    }
+
+    @Override
+    public List<Task> findSimilar(String word) {
+        return read(Index.WORDS, () -> super.findSimilar(word));
+    }
+
+    @Override
+    public List<Task> search(Query query, int limit) {
+        return read(Index.WORDS, () -> super.search(query, limit));
+    }
+
+    @Override
+    public List<Task> findEventsBetween(LocalDateTime from, LocalDateTime to) {
+        return read(Index.EVENTS, () -> super.findEventsBetween(from, to));
+    }
+
+    @Override
+    public List<Task> findConflicts(Event event) {
+        return read(Index.EVENTS, () -> super.findConflicts(event));
+    }
+
+    @Override
+    public List<Task> findDue(LocalDate today, int limit) {
+        return read(Index.DEADLINES, () -> super.findDue(today, limit));
+    }
+
+    @Override
+    public List<Task> findOverdue(LocalDate today) {
+        return read(Index.DEADLINES, () -> super.findOverdue(today));
+    }
+
+    @Override
+    public boolean containsDuplicate(Task newTask) {
+        return read(Index.KEYS, () -> super.containsDuplicate(newTask));
+    }
+
+    private <T> T write(Supplier<T> writer) {
+        if (isInBatch()) {
+            return writer.get();
+        }
+        long stamp = lock.writeLock();
+        try {
+            return writer.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Runs the reader under the read lock, after building the index it needs, if any.
+     */
+    private <T> T read(Index index, Supplier<T> reader) {
+        prepare(index);
+        if (isInBatch()) {
+            return reader.get();
+        }
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Builds the given index once, so that reads never change the list.
+     */
+    private void prepare(Index index) {
+        if (index == null || isBuilt(index)) {
+            return;
+        }
+        write(() -> {
+            if (!isBuilt(index)) {
+                buildIndex(index);
+                builtIndexes |= 1 << index.ordinal();
+            }
+            return null;
+        });
+    }
+
+    private boolean isBuilt(Index index) {
+        return (builtIndexes & (1 << index.ordinal())) != 0;
+    }
+}
@@ -0,0 +1,69 @@
+package alioth.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The deadlines that are not done yet, bucketed by due date in a sorted map.
+ * Each bucket keeps its deadlines in list order.
+ */
+final class DeadlineIndex {
+    private final TreeMap<Long, List<Deadline>> byEpochDay = new TreeMap<>();
+
+    /**
+     * Adds a deadline if it is not done.
+     *
+     * @param deadline Deadline to add.
+     */
+    void add(Deadline deadline) {
+        if (deadline.isDone()) {
+            return;
+        }
+
+        List<Deadline> bucket = byEpochDay.computeIfAbsent(deadline.getBy().toEpochDay(), day -> new ArrayList<>());
+        int position = bucket.size();
+        while (position > 0 && bucket.get(position - 1).id > deadline.id) {
+            position--; // a deadline unmarked again goes back to its place in list order
+        }
+        bucket.add(position, deadline);
+    }
+
+    /**
+     * Removes a deadline, if it is in the index.
+     *
+     * @param deadline Deadline to remove.
+     */
+    void remove(Deadline deadline) {
+        long day = deadline.getBy().toEpochDay();
+        List<Deadline> bucket = byEpochDay.get(day);
+        if (bucket != null && bucket.remove(deadline) && bucket.isEmpty()) {
+            byEpochDay.remove(day);
+        }
+    }
+
+    /**
+     * Adds up to {@code limit} deadlines due on or after the given day to the result list,
+     * earliest first.
+     */
+    void collectFrom(long epochDay, int limit, List<Task> results) {
+        for (List<Deadline> bucket : byEpochDay.tailMap(epochDay, true).values()) {
+            for (Deadline deadline : bucket) {
+                if (results.size() >= limit) {
+                    return;
+                }
+                results.add(deadline);
+            }
+        }
+    }
+
+    /**
+     * Adds every deadline due before the given day to the result list, earliest first.
+     */
+    void collectBefore(long epochDay, List<Task> results) {
+        for (Map.Entry<Long, List<Deadline>> entry : byEpochDay.headMap(epochDay, false).entrySet()) {
+            results.addAll(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package alioth.task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * An interval tree of events, which finds the events overlapping a time range in
+ * O(log n + k) time for k results.
+ *
+ * It is a treap ordered by start time (then id), where every node also records the
+ * latest end time in its subtree. A search skips every subtree that ends before the
+ * range starts, and every right subtree once the start times pass the end of the range.
+ */
+final class EventIntervalTree {
+    private final Random random = new Random();
+    private Node root;
+
+    private static class Node {
+        private final Event event;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private LocalDateTime maxTo;
+
+        private Node(Event event, int priority) {
+            this.event = event;
+            this.priority = priority;
+            this.maxTo = event.getTo();
+        }
+
+        private void update() {
+            maxTo = event.getTo();
+            if (left != null && left.maxTo.isAfter(maxTo)) {
+                maxTo = left.maxTo;
+            }
+            if (right != null && right.maxTo.isAfter(maxTo)) {
+                maxTo = right.maxTo;
+            }
+        }
+    }
+
+    /**
+     * Adds an event. Its id must not change while it is in the tree.
+     *
+     * @param event Event to add.
+     */
+    void add(Event event) {
+        root = insert(root, new Node(event, random.nextInt()));
+    }
+
+    /**
+     * Removes an event.
+     *
+     * @param event Event to remove.
+     */
+    void remove(Event event) {
+        root = delete(root, event);
+    }
+
+    /**
+     * Adds the events that overlap the range to the result list, in order of start time.
+     *
+     * @param from Start of the range.
+     * @param to End of the range.
+     * @param isTouchingIncluded True to include events that only touch the range at one instant.
+     * @param results List to add the overlapping events to.
+     */
+    void collectOverlapping(LocalDateTime from, LocalDateTime to, boolean isTouchingIncluded,
+            List<Task> results) {
+        collect(root, from, to, isTouchingIncluded, results);
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, boolean isTouchingIncluded,
+            List<Task> results) {
+        if (node == null || !endsAfter(node.maxTo, from, isTouchingIncluded)) {
+            return;
+        }
+
+        collect(node.left, from, to, isTouchingIncluded, results);
+        Event event = node.event;
+        if (!endsAfter(to, event.getFrom(), isTouchingIncluded)) {
+            return; // this event and everything to its right start after the range
+        }
+        if (endsAfter(event.getTo(), from, isTouchingIncluded)) {
+            results.add(event);
+        }
+        collect(node.right, from, to, isTouchingIncluded, results);
+    }
+
+    /**
+     * Returns whether {@code end} is after {@code start}, or at the same instant if touching counts.
+     */
+    private static boolean endsAfter(LocalDateTime end, LocalDateTime start, boolean isTouchingIncluded) {
+        return isTouchingIncluded ? !end.isBefore(start) : end.isAfter(start);
+    }
+
+    private static int compare(Event a, Event b) {
+        int byStart = a.getFrom().compareTo(b.getFrom());
+        return byStart != 0 ? byStart : Integer.compare(a.id, b.id);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+
+        if (compare(added.event, node.event) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, Event event) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = compare(event, node.event);
+        if (comparison < 0) {
+            node.left = delete(node.left, event);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, event);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, event);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, event);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+}
@@ -0,0 +1,99 @@
+package alioth.task;
+
+import java.util.Arrays;
+
+/**
+ * A Fenwick tree over the slots of a task list, counting which slots still hold a task.
+ * It turns a position in the list into a slot, and a slot back into a position, in
+ * O(log n) time, so removing a task never shifts the others.
+ *
+ * Slots are numbered from 1 and each holds a count of 0 or 1. Slots can only be appended.
+ */
+final class FenwickTree {
+    /** {@code tree[i]} is the sum of the slots in {@code (i - lowestOneBit(i), i]}. Index 0 is unused. */
+    private int[] tree;
+    private int size;
+
+    /**
+     * Creates a tree of the given number of slots, each holding one task.
+     *
+     * @param size Number of slots.
+     */
+    FenwickTree(int size) {
+        tree = new int[Math.max(size, 15) + 1];
+        for (int i = 1; i <= size; i++) {
+            tree[i] = Integer.lowestOneBit(i);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Appends a slot holding the given count.
+     *
+     * @param value Count of the new slot, 0 or 1.
+     */
+    void append(int value) {
+        if (size + 1 == tree.length) {
+            tree = Arrays.copyOf(tree, tree.length * 2);
+        }
+        size++;
+        // The new node covers the slots after its lowest bit, all of which are already in the tree.
+        tree[size] = value + prefixSum(size - 1) - prefixSum(size - Integer.lowestOneBit(size));
+    }
+
+    /**
+     * Adds to the count of a slot.
+     *
+     * @param slot Slot to change, from 1.
+     * @param delta Amount to add.
+     */
+    void add(int slot, int delta) {
+        assert slot >= 1 && slot <= size : "Slot should be in the tree";
+        for (int i = slot; i <= size; i += Integer.lowestOneBit(i)) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the total count of the slots up to and including the given one.
+     *
+     * @param slot Last slot to count, or 0 for none.
+     * @return Sum of the counts.
+     */
+    int prefixSum(int slot) {
+        int sum = 0;
+        for (int i = slot; i > 0; i -= Integer.lowestOneBit(i)) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the first slot whose prefix sum reaches the given count, which is the slot
+     * of the k-th task when every count is 0 or 1.
+     *
+     * @param k Count to reach, from 1 to the total count.
+     * @return The slot, from 1.
+     */
+    int findKth(int k) {
+        assert k >= 1 && k <= prefixSum(size) : "Count should be reachable";
+        int slot = 0;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next <= size && tree[next] < k) {
+                slot = next;
+                k -= tree[next];
+            }
+        }
+        return slot + 1;
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return Number of slots.
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,94 @@
+package alioth.task;
+
+/**
+ * A hash table from task ids to the slots of a task list holding them, so a task is found
+ * by its id in O(1) time.
+ *
+ * It uses open addressing with linear probing over two int arrays, so it holds no boxed keys.
+ * Ids are never removed one by one; the task list builds a new table when it compacts its slots.
+ */
+final class IdTable {
+    /** Id stored in empty cells. Real ids start from 1. */
+    private static final int EMPTY = 0;
+
+    private int[] ids;
+    private int[] slots;
+    private int size;
+
+    /**
+     * Creates a table with room for the given number of ids before it has to grow.
+     *
+     * @param expectedSize Expected number of ids.
+     */
+    IdTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        ids = new int[capacity];
+        slots = new int[capacity];
+    }
+
+    /**
+     * Maps an id to a slot, replacing the slot it was mapped to before.
+     *
+     * @param id Id of a task, from 1.
+     * @param slot Slot holding the task.
+     */
+    void put(int id, int slot) {
+        assert id != EMPTY : "Ids should start from 1";
+        int cell = cellOf(id);
+        if (ids[cell] == EMPTY) {
+            if ((size + 1) * 2 > ids.length) {
+                resize(ids.length * 2);
+                cell = cellOf(id);
+            }
+            ids[cell] = id;
+            size++;
+        }
+        slots[cell] = slot;
+    }
+
+    /**
+     * Returns the slot an id is mapped to.
+     *
+     * @param id Id of a task.
+     * @return The slot, or 0 if the id is not in the table.
+     */
+    int get(int id) {
+        int cell = cellOf(id);
+        return ids[cell] == EMPTY ? 0 : slots[cell];
+    }
+
+    /**
+     * Returns the number of ids in the table.
+     *
+     * @return Number of ids.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the cell holding the id, or the empty cell where it would go.
+     */
+    private int cellOf(int id) {
+        int mask = ids.length - 1;
+        int hash = id * 0x9E3779B9;
+        int cell = (hash ^ (hash >>> 16)) & mask;
+        while (ids[cell] != EMPTY && ids[cell] != id) {
+            cell = (cell + 1) & mask;
+        }
+        return cell;
+    }
+
+    private void resize(int capacity) {
+        int[] oldIds = ids;
+        int[] oldSlots = slots;
+        ids = new int[capacity];
+        slots = new int[capacity];
+        size = 0;
+        for (int cell = 0; cell < oldIds.length; cell++) {
+            if (oldIds[cell] != EMPTY) {
+                put(oldIds[cell], oldSlots[cell]);
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package alioth.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * An inverted index from the words of the task descriptions to the tasks containing them,
+ * which answers {@link Query} searches ranked by BM25 relevance.
+ *
+ * Descriptions are split into lower-case words at every character that is not a letter
+ * or digit. Tasks are mostly added in increasing id order, which appends to the end of each
+ * postings list; a task put back after removal is inserted in its place instead.
+ *
+ * The vocabulary is also kept in a {@link BkTree} for typo-tolerant lookups. Words whose
+ * last task is removed stay in the tree until it is rebuilt, which happens once such
+ * words make up half of it.
+ */
+final class InvertedIndex {
+    /** BM25 term frequency saturation. */
+    private static final double K1 = 1.2;
+    /** BM25 document length normalisation. */
+    private static final double B = 0.75;
+    /** Higher scores first, then earlier tasks first. */
+    private static final Comparator<ScoredTask> BY_RELEVANCE = Comparator
+            .comparingDouble((ScoredTask scored) -> -scored.score)
+            .thenComparingInt(scored -> scored.id);
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private BkTree vocabulary = new BkTree();
+    private final Map<Integer, Task> tasksById = new HashMap<>();
+    private final Map<Integer, Integer> lengthsById = new HashMap<>();
+    private final BitSet ids = new BitSet();
+    private long totalLength;
+
+    /**
+     * Sorted ids of the tasks containing one word, with the number of times it occurs in each.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int[] counts = new int[4];
+        private int size;
+
+        void add(int id, int count) {
+            int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            assert position < 0 || position == size : "A task should be indexed only once";
+            if (position < 0) {
+                position = -position - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(counts, position, counts, position + 1, size - position);
+            ids[position] = id;
+            counts[position] = count;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                System.arraycopy(counts, position + 1, counts, position, size - position - 1);
+                size--;
+            }
+        }
+
+        int countFor(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            return position >= 0 ? counts[position] : 0;
+        }
+    }
+
+    /**
+     * A matching task and its relevance score.
+     */
+    private static class ScoredTask {
+        private final int id;
+        private final double score;
+
+        private ScoredTask(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Splits text into lower-case words.
+     *
+     * @param text Text to split.
+     * @return Words in the order they appear.
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Indexes a task. This is fastest when its id is larger than that of every task indexed.
+     *
+     * @param task Task to index.
+     */
+    void add(Task task) {
+        List<String> words = tokenize(task.getDescription());
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : words) {
+            counts.merge(word, 1, Integer::sum);
+        }
+        counts.forEach((word, count) -> postings.computeIfAbsent(word, w -> {
+            vocabulary.add(w);
+            return new Postings();
+        }).add(task.id, count));
+
+        tasksById.put(task.id, task);
+        lengthsById.put(task.id, words.size());
+        ids.set(task.id);
+        totalLength += words.size();
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task Task to remove.
+     */
+    void remove(Task task) {
+        if (tasksById.remove(task.id) == null) {
+            return;
+        }
+        for (String word : tokenize(task.getDescription())) {
+            Postings wordPostings = postings.get(word);
+            if (wordPostings != null) {
+                wordPostings.remove(task.id);
+                if (wordPostings.size == 0) {
+                    postings.remove(word);
+                }
+            }
+        }
+        totalLength -= lengthsById.remove(task.id);
+        ids.clear(task.id);
+
+        if (vocabulary.size() > 2 * postings.size()) {
+            vocabulary = new BkTree();
+            postings.keySet().forEach(vocabulary::add);
+        }
+    }
+
+    /**
+     * Returns the ids of every indexed task. The caller may modify the result.
+     */
+    BitSet allIds() {
+        return (BitSet) ids.clone();
+    }
+
+    /**
+     * Returns the ids of the tasks containing the word. The caller may modify the result.
+     */
+    BitSet idsWithTerm(String term) {
+        BitSet result = new BitSet();
+        Postings termPostings = postings.get(term);
+        if (termPostings != null) {
+            for (int i = 0; i < termPostings.size; i++) {
+                result.set(termPostings.ids[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tasks containing a word within the given edit distance of the query word,
+     * in increasing id order.
+     *
+     * @param word Lower-case word to look for.
+     * @param maxDistance Largest edit distance to accept.
+     * @return Matching tasks.
+     */
+    List<Task> findSimilar(String word, int maxDistance) {
+        List<String> similarWords = new ArrayList<>();
+        vocabulary.collectWithin(word, maxDistance, similarWords);
+
+        BitSet matches = new BitSet();
+        for (String similarWord : similarWords) {
+            matches.or(idsWithTerm(similarWord)); // empty for words that are no longer used
+        }
+
+        List<Task> results = new ArrayList<>();
+        for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+            results.add(tasksById.get(id));
+        }
+        return results;
+    }
+
+    /**
+     * Returns whether the task's description contains the words next to each other, in order.
+     */
+    boolean containsPhrase(int id, List<String> phrase) {
+        List<String> words = tokenize(tasksById.get(id).getDescription());
+        return Collections.indexOfSubList(words, phrase) >= 0;
+    }
+
+    /**
+     * Returns the tasks matching the query, most relevant first. Ties keep list order.
+     *
+     * @param query Query to answer.
+     * @param limit Maximum number of results, or 0 for all of them. Only this many
+     *     results are kept while scoring.
+     * @return Matching tasks.
+     */
+    List<Task> search(Query query, int limit) {
+        BitSet matches = query.match(this);
+        List<String> terms = new ArrayList<>();
+        query.collectScoredTerms(terms);
+        double averageLength = tasksById.isEmpty() ? 0 : (double) totalLength / tasksById.size();
+
+        List<ScoredTask> ranked = new ArrayList<>();
+        if (limit > 0) {
+            // Keep only the best `limit` matches seen so far, least relevant at the head.
+            PriorityQueue<ScoredTask> best = new PriorityQueue<>(
+                    Math.min(limit, matches.cardinality()) + 1, BY_RELEVANCE.reversed());
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                best.add(new ScoredTask(id, score(id, terms, averageLength)));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            ranked.addAll(best);
+        } else {
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                ranked.add(new ScoredTask(id, score(id, terms, averageLength)));
+            }
+        }
+        ranked.sort(BY_RELEVANCE);
+
+        List<Task> results = new ArrayList<>(ranked.size());
+        for (ScoredTask scored : ranked) {
+            results.add(tasksById.get(scored.id));
+        }
+        return results;
+    }
+
+    private double score(int id, List<String> terms, double averageLength) {
+        int taskCount = tasksById.size();
+        int length = lengthsById.get(id);
+        double score = 0;
+        for (String term : terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+            int count = termPostings.countFor(id);
+            if (count == 0) {
+                continue;
+            }
+            double idf = Math.log(1 + (taskCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+            double norm = K1 * (1 - B + B * length / averageLength);
+            score += idf * count * (K1 + 1) / (count + norm);
+        }
+        return score;
+    }
+}
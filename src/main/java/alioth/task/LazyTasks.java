@@ -0,0 +1,40 @@
+package alioth.task;
+
+/**
+ * A list of tasks that are only decoded from their saved form when first read, which a
+ * {@link TaskList} can be backed by. It can tell each task's id and what the task is without
+ * decoding it, so the task list's own bookkeeping does not decode the whole list.
+ */
+public interface LazyTasks {
+    /**
+     * Returns the id of the task at the given index, without decoding it.
+     * Ids increase in list order.
+     *
+     * @param index Index of the task.
+     * @return Id of the task, or 0 if the entry is null.
+     */
+    int idAt(int index);
+
+    /**
+     * Returns the identity hash of the task at the given index, without decoding it.
+     * It equals {@link #keyHashOf} of the decoded task.
+     *
+     * @param index Index of the task.
+     * @return Hash of the task's type, description, done flag and dates.
+     */
+    long keyHashAt(int index);
+
+    /**
+     * Returns the identity hash of a task, computed the same way as {@link #keyHashAt}.
+     * Tasks that look identical in the list have equal hashes.
+     *
+     * @param task Task to hash.
+     * @return Hash of the task's type, description, done flag and dates.
+     */
+    long keyHashOf(Task task);
+
+    /**
+     * Removes every null entry, keeping the other tasks in order without decoding them.
+     */
+    void removeNulls();
+}
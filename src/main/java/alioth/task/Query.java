@@ -0,0 +1,188 @@
+package alioth.task;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A boolean search query over task descriptions, built from words, phrases,
+ * and the AND, OR and NOT operators. Matching ignores case and punctuation.
+ */
+public abstract class Query {
+
+    /**
+     * Prevents subclasses outside this class.
+     */
+    private Query() {}
+
+    /**
+     * Creates a query for the given text. One word matches descriptions containing that word;
+     * several words match descriptions containing them next to each other, in order.
+     *
+     * @param text Words to look for.
+     * @return The query, or null if the text has no words.
+     */
+    public static Query words(String text) {
+        List<String> terms = InvertedIndex.tokenize(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        return terms.size() == 1 ? new Term(terms.get(0)) : new Phrase(terms);
+    }
+
+    /**
+     * Creates a query matching descriptions that match both queries.
+     *
+     * @param left First query.
+     * @param right Second query.
+     * @return The combined query.
+     */
+    public static Query and(Query left, Query right) {
+        return new And(left, right);
+    }
+
+    /**
+     * Creates a query matching descriptions that match either query.
+     *
+     * @param left First query.
+     * @param right Second query.
+     * @return The combined query.
+     */
+    public static Query or(Query left, Query right) {
+        return new Or(left, right);
+    }
+
+    /**
+     * Creates a query matching descriptions that do not match the given query.
+     *
+     * @param query Query to exclude.
+     * @return The negated query.
+     */
+    public static Query not(Query query) {
+        return new Not(query);
+    }
+
+    /**
+     * Returns the ids of the matching tasks.
+     */
+    abstract BitSet match(InvertedIndex index);
+
+    /**
+     * Adds the terms that contribute to the relevance score, which are those not under a NOT.
+     */
+    abstract void collectScoredTerms(List<String> terms);
+
+    private static final class Term extends Query {
+        private final String term;
+
+        private Term(String term) {
+            this.term = term;
+        }
+
+        @Override
+        BitSet match(InvertedIndex index) {
+            return index.idsWithTerm(term);
+        }
+
+        @Override
+        void collectScoredTerms(List<String> terms) {
+            terms.add(term);
+        }
+    }
+
+    private static final class Phrase extends Query {
+        private final List<String> terms;
+
+        private Phrase(List<String> terms) {
+            this.terms = terms;
+        }
+
+        @Override
+        BitSet match(InvertedIndex index) {
+            BitSet ids = index.idsWithTerm(terms.get(0));
+            for (int i = 1; i < terms.size(); i++) {
+                ids.and(index.idsWithTerm(terms.get(i)));
+            }
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                if (!index.containsPhrase(id, terms)) {
+                    ids.clear(id);
+                }
+            }
+            return ids;
+        }
+
+        @Override
+        void collectScoredTerms(List<String> terms) {
+            terms.addAll(this.terms);
+        }
+    }
+
+    private static final class And extends Query {
+        private final Query left;
+        private final Query right;
+
+        private And(Query left, Query right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        BitSet match(InvertedIndex index) {
+            BitSet ids = left.match(index);
+            if (right instanceof Not) {
+                ids.andNot(((Not) right).query.match(index));
+            } else {
+                ids.and(right.match(index));
+            }
+            return ids;
+        }
+
+        @Override
+        void collectScoredTerms(List<String> terms) {
+            left.collectScoredTerms(terms);
+            right.collectScoredTerms(terms);
+        }
+    }
+
+    private static final class Or extends Query {
+        private final Query left;
+        private final Query right;
+
+        private Or(Query left, Query right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        BitSet match(InvertedIndex index) {
+            BitSet ids = left.match(index);
+            ids.or(right.match(index));
+            return ids;
+        }
+
+        @Override
+        void collectScoredTerms(List<String> terms) {
+            left.collectScoredTerms(terms);
+            right.collectScoredTerms(terms);
+        }
+    }
+
+    private static final class Not extends Query {
+        private final Query query;
+
+        private Not(Query query) {
+            this.query = query;
+        }
+
+        @Override
+        BitSet match(InvertedIndex index) {
+            BitSet ids = index.allIds();
+            ids.andNot(query.match(index));
+            return ids;
+        }
+
+        @Override
+        void collectScoredTerms(List<String> terms) {
+            // Excluded terms do not make a match more relevant.
+        }
+    }
+}
@@ -7,6 +7,9 @@ public class Task {
     private final String description;
     private boolean isDone;
 
+    /** Stable id given by the TaskList that holds this task or saved with it, or 0 before it has one. */
+    int id;
+
     /**
      * Creates a new task with the given description.
      * The task is not done by default.
@@ -28,6 +31,28 @@ public class Task {
         isDone = status;
     }
 
+    /**
+     * Returns the id the task list gave this task. Ids are saved with the tasks,
+     * so a task keeps its id across restarts.
+     *
+     * @return Id of the task, or 0 if it is not in a task list.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gives a loaded task the id it was saved with. This must happen before the task
+     * is added to a task list or shown to other threads; a task list gives every other
+     * task its id when the task is added.
+     *
+     * @param id Saved id of the task, from 1.
+     */
+    public void setSavedId(int id) {
+        assert id > 0 : "Saved ids should start from 1";
+        this.id = id;
+    }
+
     /**
      * Returns the description of this task.
      *
@@ -0,0 +1,181 @@
+package alioth.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A change a command made to a task list, kept as the operation that reverses it.
+ *
+ * A change holds only the tasks it touched and finds them by id, so it takes memory in
+ * proportion to its own size rather than the list's, and still applies to a copy of the list
+ * made by {@link TaskList#copy}. Changes must be undone and redone in order, newest first.
+ *
+ * A change never changes after it is made, and keeps its own copies of the tasks it puts back
+ * rather than tasks any list holds, so a history copied when a transaction begins can be shared
+ * with the transaction safely.
+ */
+public abstract class TaskChange {
+
+    /**
+     * Returns a change that added a task.
+     *
+     * @param task Task that was added.
+     * @return The change.
+     */
+    public static TaskChange added(Task task) {
+        return new Removal(List.of(TaskList.copyOf(task)), true);
+    }
+
+    /**
+     * Returns a change that removed tasks.
+     *
+     * @param tasks Tasks that were removed, in list order.
+     * @return The change.
+     */
+    public static TaskChange removed(List<Task> tasks) {
+        return new Removal(tasks.stream().map(TaskList::copyOf).toList(), false);
+    }
+
+    /**
+     * Returns a change that marked tasks as done or not done.
+     *
+     * @param tasks Tasks that were updated, in list order.
+     * @param wasDone Whether each task was done before the change.
+     * @param isDone Whether the tasks are done after the change.
+     * @return The change.
+     */
+    public static TaskChange doneChanged(List<Task> tasks, boolean[] wasDone, boolean isDone) {
+        assert tasks.size() == wasDone.length : "Every task should have its old done flag";
+        int[] ids = tasks.stream().mapToInt(Task::getId).toArray();
+        return new DoneChange(ids, wasDone.clone(), isDone);
+    }
+
+    /**
+     * Returns whether the change added or removed tasks, rather than marking them.
+     *
+     * @return True for an addition or removal.
+     */
+    public abstract boolean isAdditionOrRemoval();
+
+    /**
+     * Reverses the change.
+     *
+     * @param tasks Task list the change was made to, as it was right after the change.
+     * @return The tasks the change touched.
+     */
+    public abstract List<Task> undo(TaskList tasks);
+
+    /**
+     * Makes the change again after it was undone.
+     *
+     * @param tasks Task list the change was undone in, as it was right after the undo.
+     * @return The tasks the change touched.
+     */
+    public abstract List<Task> redo(TaskList tasks);
+
+    /**
+     * Returns the indices of the tasks with the given ids, which are in increasing order.
+     */
+    private static int[] indicesOf(TaskList tasks, int[] ids) {
+        int[] indices = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            indices[i] = tasks.indexOfId(ids[i]);
+            assert indices[i] >= 0 : "Changed task should still be in the list";
+        }
+        return indices;
+    }
+
+    /**
+     * Adding or removing tasks, which is undone by doing the opposite. Copies of the tasks as
+     * they were when the change was made are put back, so they come back exactly as they were,
+     * since every later change to them is undone first.
+     */
+    private static final class Removal extends TaskChange {
+        private final List<Task> tasks;
+        private final boolean isAddition;
+
+        private Removal(List<Task> tasks, boolean isAddition) {
+            this.tasks = tasks;
+            this.isAddition = isAddition;
+        }
+
+        @Override
+        public boolean isAdditionOrRemoval() {
+            return true;
+        }
+
+        @Override
+        public List<Task> undo(TaskList list) {
+            return isAddition ? remove(list) : restore(list);
+        }
+
+        @Override
+        public List<Task> redo(TaskList list) {
+            return isAddition ? restore(list) : remove(list);
+        }
+
+        private List<Task> remove(TaskList list) {
+            int[] ids = tasks.stream().mapToInt(Task::getId).toArray();
+            return list.removeAll(indicesOf(list, ids));
+        }
+
+        private List<Task> restore(TaskList list) {
+            List<Task> restored = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                Task copy = TaskList.copyOf(task);
+                list.restore(copy);
+                restored.add(copy);
+            }
+            return restored;
+        }
+    }
+
+    /**
+     * Marking tasks as done or not done, which is undone by giving each its old flag back.
+     */
+    private static final class DoneChange extends TaskChange {
+        private final int[] ids;
+        private final boolean[] wasDone;
+        private final boolean isDone;
+
+        private DoneChange(int[] ids, boolean[] wasDone, boolean isDone) {
+            this.ids = ids;
+            this.wasDone = wasDone;
+            this.isDone = isDone;
+        }
+
+        @Override
+        public boolean isAdditionOrRemoval() {
+            return false;
+        }
+
+        @Override
+        public List<Task> undo(TaskList list) {
+            int[] indices = indicesOf(list, ids);
+            List<Task> updated = new ArrayList<>(ids.length);
+            updated.addAll(list.setDoneAll(select(indices, true), true));
+            updated.addAll(list.setDoneAll(select(indices, false), false));
+            return updated;
+        }
+
+        @Override
+        public List<Task> redo(TaskList list) {
+            return list.setDoneAll(indicesOf(list, ids), isDone);
+        }
+
+        /**
+         * Returns the indices of the tasks whose old done flag is the given one.
+         */
+        private int[] select(int[] indices, boolean isDoneBefore) {
+            int[] selected = new int[indices.length];
+            int count = 0;
+            for (int i = 0; i < indices.length; i++) {
+                if (wasDone[i] == isDoneBefore) {
+                    selected[count++] = indices[i];
+                }
+            }
+            return Arrays.copyOf(selected, count);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package alioth.task;
+
+import java.util.function.IntPredicate;
+
+/**
+ * A hash table from the identity hash of each task to its id, used to find duplicates.
+ * Different tasks may share a hash, so every id found for a hash is only a candidate
+ * that the caller still has to compare.
+ *
+ * It uses open addressing with linear probing over two primitive arrays, so it holds no
+ * task objects and no boxed keys. Removing an entry shifts the rest of its run back
+ * instead of leaving a marker behind.
+ */
+final class TaskKeyIndex {
+    /** Id stored in empty cells. Real ids start from 1. */
+    private static final int EMPTY = 0;
+
+    private long[] hashes;
+    private int[] ids;
+    private int size;
+
+    /**
+     * Creates an index with room for the given number of tasks before it has to grow.
+     *
+     * @param expectedSize Expected number of tasks.
+     */
+    TaskKeyIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        hashes = new long[capacity];
+        ids = new int[capacity];
+    }
+
+    /**
+     * Adds a task.
+     *
+     * @param hash Identity hash of the task.
+     * @param id Id of the task, from 1.
+     */
+    void add(long hash, int id) {
+        assert id != EMPTY : "Indexed ids should start from 1";
+        if ((size + 1) * 2 > ids.length) {
+            resize(ids.length * 2);
+        }
+        int mask = ids.length - 1;
+        int cell = homeOf(hash);
+        while (ids[cell] != EMPTY) {
+            cell = (cell + 1) & mask;
+        }
+        hashes[cell] = hash;
+        ids[cell] = id;
+        size++;
+    }
+
+    /**
+     * Removes a task that was added with the given hash. If the hash does not match any
+     * entry of the task, every entry is checked instead.
+     *
+     * @param hash Identity hash the task was added with.
+     * @param id Id of the task.
+     */
+    void remove(long hash, int id) {
+        int mask = ids.length - 1;
+        for (int cell = homeOf(hash); ids[cell] != EMPTY; cell = (cell + 1) & mask) {
+            if (ids[cell] == id && hashes[cell] == hash) {
+                removeAt(cell);
+                return;
+            }
+        }
+        for (int cell = 0; cell < ids.length; cell++) {
+            if (ids[cell] == id) {
+                removeAt(cell);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns whether any task with the given hash passes the test.
+     *
+     * @param hash Identity hash to look up.
+     * @param isMatch Test applied to the id of each task with that hash.
+     * @return True if a task passed the test.
+     */
+    boolean anyMatch(long hash, IntPredicate isMatch) {
+        int mask = ids.length - 1;
+        for (int cell = homeOf(hash); ids[cell] != EMPTY; cell = (cell + 1) & mask) {
+            if (hashes[cell] == hash && isMatch.test(ids[cell])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of tasks in the index.
+     *
+     * @return Number of tasks.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Empties a cell, moving later entries of the same run back into it when their home
+     * cell allows, so that no lookup stops early at the new gap.
+     */
+    private void removeAt(int gap) {
+        int mask = ids.length - 1;
+        int cell = gap;
+        while (true) {
+            cell = (cell + 1) & mask;
+            if (ids[cell] == EMPTY) {
+                break;
+            }
+            int home = homeOf(hashes[cell]);
+            if (((cell - home) & mask) >= ((cell - gap) & mask)) {
+                hashes[gap] = hashes[cell];
+                ids[gap] = ids[cell];
+                gap = cell;
+            }
+        }
+        ids[gap] = EMPTY;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldHashes = hashes;
+        int[] oldIds = ids;
+        hashes = new long[capacity];
+        ids = new int[capacity];
+        size = 0;
+        for (int cell = 0; cell < oldIds.length; cell++) {
+            if (oldIds[cell] != EMPTY) {
+                add(oldHashes[cell], oldIds[cell]);
+            }
+        }
+    }
+
+    private int homeOf(long hash) {
+        long mixed = hash * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & (ids.length - 1);
+    }
+}
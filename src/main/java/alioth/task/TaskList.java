@@ -1,19 +1,90 @@
 package alioth.task;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Represents a list of tasks and provides operations to manage them.
+ *
+ * Duplicate checks use a hash index of every task's identity, built on the first check
+ * and kept up to date by {@link #add}, {@link #remove} and {@link #setDone}. Changing a
+ * task's done flag directly, instead of through {@link #setDone}, leaves the index stale.
+ * When the list is backed by {@link LazyTasks}, the hashes are read from the saved tasks,
+ * so building the index decodes none of them; only tasks whose hash matches are decoded.
+ *
+ * Substring searches use a trigram index, ranked searches use an inverted index of words,
+ * time range queries use an interval tree of the events, and due dates use a sorted index
+ * of the deadlines that are not done. Each is built on first use.
+ *
+ * Each task gets an id when it is added, one more than the last id the list gave out, and
+ * keeps it as tasks before it are removed. Ids are saved with the tasks, so they also stay the
+ * same across restarts, where ids continue from the largest saved one. Tasks loaded without ids,
+ * from files saved before ids were kept, get ids in list order. A task should belong to only
+ * one TaskList.
+ *
+ * The tasks are kept in slots in list order. Removing a task only empties its slot, and a
+ * Fenwick tree over the slots turns positions into slots, so looking up, marking or removing
+ * a task by position takes O(log n) time; a hash table from ids to slots finds a task by id
+ * in O(1) time. Once more slots are empty than hold tasks, the empty ones are compacted away,
+ * so memory and full scans grow with the tasks in the list, not with every task ever added.
+ *
+ * No method calls another public method, so a subclass such as {@link ConcurrentTaskList}
+ * can wrap each of them in a lock.
  */
 public class TaskList {
-    private final List<Task> tasks;
+    /** Fewest empty slots worth compacting, so small lists are not compacted on every removal. */
+    private static final int MIN_EMPTY_SLOTS_TO_COMPACT = 32;
+
+    /** Slot {@code s} is element {@code s - 1}: a task in list order, or null once it is removed. */
+    private final List<Task> slots;
+    private final LazyTasks lazyTasks;
+    /** Id of the task in each slot, negated once the task is removed. */
+    private int[] slotIds;
+    private IdTable slotsById;
+    private FenwickTree liveSlots;
+    private int size;
+    private int nextId;
+    private TaskKeyIndex keyIndex;
+    private TrigramIndex trigramIndex;
+    private InvertedIndex wordIndex;
+    private EventIntervalTree eventTree;
+    private DeadlineIndex deadlineIndex;
+
+    /**
+     * The indexes that are built on first use.
+     */
+    enum Index {
+        KEYS, TRIGRAMS, WORDS, EVENTS, DEADLINES
+    }
+
+    /**
+     * The parts of a task that its displayed form shows, so two tasks have equal keys
+     * exactly when they look identical in the list. Event times are shown to the minute.
+     */
+    private record TaskKey(Class<?> type, String description, boolean isDone,
+            LocalDate by, LocalDateTime from, LocalDateTime to) {
+        static TaskKey of(Task task) {
+            LocalDate by = task instanceof Deadline ? ((Deadline) task).getBy() : null;
+            LocalDateTime from = null;
+            LocalDateTime to = null;
+            if (task instanceof Event) {
+                from = ((Event) task).getFrom().truncatedTo(ChronoUnit.MINUTES);
+                to = ((Event) task).getTo().truncatedTo(ChronoUnit.MINUTES);
+            }
+            return new TaskKey(task.getClass(), task.getDescription(), task.isDone(), by, from, to);
+        }
+    }
 
     /**
      * Creates an empty task list.
      */
     public TaskList() {
-        tasks = new ArrayList<>();
+        this(new ArrayList<>(), null);
     }
 
     /**
@@ -22,8 +93,57 @@ public class TaskList {
      * @param tasks The list of tasks to copy from.
      */
     public TaskList(List<Task> tasks) {
-        assert tasks != null : "Task list to copy should not be null";
-        this.tasks = new ArrayList<>(tasks);
+        this(new ArrayList<>(tasks), null);
+    }
+
+    /**
+     * Creates a task list backed by the given list, keeping the ids its tasks already have.
+     * Tasks without an id, or with one out of order, get the id after the task before them.
+     * Only {@link #backedBy} and the other constructors call this, so that no caller has to
+     * tell a backing list from one to copy.
+     *
+     * @param tasks The list to take over.
+     * @param lazyTasks The same list if its tasks are decoded on first use, whose ids are
+     *     then read without decoding the tasks, or null.
+     */
+    TaskList(List<Task> tasks, LazyTasks lazyTasks) {
+        assert lazyTasks == null || lazyTasks == tasks : "Lazy tasks should be the backing list";
+        this.slots = tasks;
+        this.lazyTasks = lazyTasks;
+        this.slotIds = new int[Math.max(16, tasks.size())];
+        int previous = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            int id = lazyTasks != null ? lazyTasks.idAt(i) : tasks.get(i).id;
+            if (id <= previous) {
+                assert lazyTasks == null : "Lazily loaded tasks should already have increasing ids";
+                id = previous + 1;
+                tasks.get(i).id = id;
+            }
+            slotIds[i] = id;
+            previous = id;
+        }
+        this.nextId = previous + 1;
+        this.size = tasks.size();
+        resetSlots();
+    }
+
+    /**
+     * Creates a task list that uses the given mutable list directly instead of copying it,
+     * so a lazily loaded list is not decoded up front.
+     *
+     * @param tasks The list to take over. The caller should not use it afterwards.
+     * @return Task list backed by the given list.
+     */
+    public static TaskList backedBy(List<Task> tasks) {
+        assert tasks != null : "Backing task list should not be null";
+        return new TaskList(tasks, lazyTasksOf(tasks));
+    }
+
+    /**
+     * Returns the list as {@link LazyTasks} if its tasks are decoded on first use, or null.
+     */
+    static LazyTasks lazyTasksOf(List<Task> tasks) {
+        return tasks instanceof LazyTasks ? (LazyTasks) tasks : null;
     }
 
     /**
@@ -33,7 +153,67 @@ public class TaskList {
      */
     public void add(Task task) {
         assert task != null : "TaskList should not add null task";
-        tasks.add(task);
+        slots.add(task);
+        if (slots.size() > slotIds.length) {
+            slotIds = Arrays.copyOf(slotIds, slotIds.length * 2);
+        }
+        task.id = nextId++;
+        slotIds[slots.size() - 1] = task.id;
+        slotsById.put(task.id, slots.size());
+        liveSlots.append(1);
+        size++;
+        if (keyIndex != null) {
+            addKey(task);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.add(task);
+        }
+        if (wordIndex != null) {
+            wordIndex.add(task);
+        }
+        if (eventTree != null && task instanceof Event) {
+            eventTree.add((Event) task);
+        }
+        if (deadlineIndex != null && task instanceof Deadline) {
+            deadlineIndex.add((Deadline) task);
+        }
+    }
+
+    /**
+     * Puts a removed task back in its place in the list, keeping its id. It goes back into its
+     * old slot if that is still empty, or into a new slot if the slots were compacted since.
+     * Every index that is built takes the task back in place, without being rebuilt.
+     *
+     * @param task Task that was removed from this list.
+     */
+    public void restore(Task task) {
+        assert task != null : "TaskList should not restore null task";
+        assert task.id >= 1 && task.id < nextId && liveSlotOf(task.id) == 0
+                : "Restored task should have been removed from this list";
+        int slot = slotsById.get(task.id);
+        if (slot != 0) {
+            slots.set(slot - 1, task);
+            slotIds[slot - 1] = task.id;
+            liveSlots.add(slot, 1);
+        } else {
+            insertSlot(task);
+        }
+        size++;
+        if (keyIndex != null) {
+            addKey(task);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.add(task);
+        }
+        if (wordIndex != null) {
+            wordIndex.add(task);
+        }
+        if (eventTree != null && task instanceof Event) {
+            eventTree.add((Event) task);
+        }
+        if (deadlineIndex != null && task instanceof Deadline) {
+            deadlineIndex.add((Deadline) task);
+        }
     }
 
     /**
@@ -43,7 +223,140 @@ public class TaskList {
      * @return The task at the given index.
      */
     public Task get(int index) {
-        return tasks.get(index);
+        return taskAt(slotOf(index));
+    }
+
+    /**
+     * Returns the task with the given id.
+     *
+     * @param id Id of the task.
+     * @return The task, or null if no task in the list has that id.
+     */
+    public Task getById(int id) {
+        int slot = liveSlotOf(id);
+        return slot == 0 ? null : taskAt(slot);
+    }
+
+    /**
+     * Returns the index of the task with the given id.
+     *
+     * @param id Id of the task.
+     * @return Index of the task, or -1 if no task in the list has that id.
+     */
+    public int indexOfId(int id) {
+        int slot = liveSlotOf(id);
+        return slot == 0 ? -1 : liveSlots.prefixSum(slot) - 1;
+    }
+
+    /**
+     * Returns the slot of the task with the given id, or 0 if no task in the list has that id.
+     */
+    private int liveSlotOf(int id) {
+        int slot = id >= 1 ? slotsById.get(id) : 0;
+        return slot != 0 && slotIds[slot - 1] > 0 ? slot : 0;
+    }
+
+    private int slotOf(int index) {
+        Objects.checkIndex(index, size);
+        return liveSlots.findKth(index + 1);
+    }
+
+    private int[] slotsOf(int[] indices) {
+        int[] result = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            assert i == 0 || indices[i] > indices[i - 1] : "Indices should be increasing";
+            result[i] = slotOf(indices[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the task in a slot that is not empty.
+     */
+    private Task taskAt(int slot) {
+        return slots.get(slot - 1);
+    }
+
+    /**
+     * Returns the tasks in list order.
+     */
+    private List<Task> liveTasks() {
+        List<Task> tasks = new ArrayList<>(size);
+        for (int slot = 1; slot <= slots.size(); slot++) {
+            if (slotIds[slot - 1] > 0) {
+                tasks.add(taskAt(slot));
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Empties the slot of a task that is being removed.
+     */
+    private void emptySlot(int slot) {
+        slots.set(slot - 1, null);
+        slotIds[slot - 1] = -slotIds[slot - 1];
+        liveSlots.add(slot, -1);
+        size--;
+    }
+
+    /**
+     * Compacts the slots once more of them are empty than hold tasks.
+     */
+    private void compactIfSparse() {
+        int emptySlots = slots.size() - size;
+        if (emptySlots >= MIN_EMPTY_SLOTS_TO_COMPACT && emptySlots > size) {
+            compact();
+        }
+    }
+
+    /**
+     * Drops the empty slots, so that every slot holds a task. Tasks are not decoded.
+     */
+    private void compact() {
+        if (lazyTasks != null) {
+            lazyTasks.removeNulls();
+        } else {
+            slots.removeIf(Objects::isNull);
+        }
+        int kept = 0;
+        for (int i = 0; i < slotIds.length && kept < size; i++) {
+            if (slotIds[i] > 0) {
+                slotIds[kept++] = slotIds[i];
+            }
+        }
+        assert kept == size && slots.size() == size : "Every task should keep a slot";
+        resetSlots();
+    }
+
+    /**
+     * Puts a removed task into a new slot among the others, by its id, after compacting
+     * the slots so that the Fenwick tree can be rebuilt with every slot full.
+     */
+    private void insertSlot(Task task) {
+        compact();
+        int position = Arrays.binarySearch(slotIds, 0, slots.size(), task.id);
+        assert position < 0 : "Restored task should not be in the list";
+        position = -position - 1;
+
+        slots.add(position, task);
+        if (slots.size() > slotIds.length) {
+            slotIds = Arrays.copyOf(slotIds, slotIds.length * 2);
+        }
+        System.arraycopy(slotIds, position, slotIds, position + 1, slots.size() - 1 - position);
+        slotIds[position] = task.id;
+        resetSlots();
+    }
+
+    /**
+     * Rebuilds the Fenwick tree and the id table for slots that all hold a task.
+     */
+    private void resetSlots() {
+        liveSlots = new FenwickTree(slots.size());
+        slotsById = new IdTable(slots.size());
+        for (int slot = 1; slot <= slots.size(); slot++) {
+            slotsById.put(slotIds[slot - 1], slot);
+        }
     }
 
     /**
@@ -53,7 +366,138 @@ public class TaskList {
      * @return The removed task.
      */
     public Task remove(int index) {
-        return tasks.remove(index);
+        int slot = slotOf(index);
+        Task removed = taskAt(slot);
+        emptySlot(slot);
+        if (keyIndex != null) {
+            removeKey(removed);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.remove(removed);
+        }
+        if (wordIndex != null) {
+            wordIndex.remove(removed);
+        }
+        if (eventTree != null && removed instanceof Event) {
+            eventTree.remove((Event) removed);
+        }
+        if (deadlineIndex != null && removed instanceof Deadline) {
+            deadlineIndex.remove((Deadline) removed);
+        }
+        compactIfSparse();
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at the given indices in one pass, finding them all before any is removed.
+     *
+     * @param indices Indices of the tasks to remove, in increasing order without repeats.
+     * @return The removed tasks, in list order.
+     */
+    public List<Task> removeAll(int[] indices) {
+        int[] removedSlots = slotsOf(indices);
+        List<Task> removed = new ArrayList<>(removedSlots.length);
+        for (int slot : removedSlots) {
+            Task task = taskAt(slot);
+            emptySlot(slot);
+            if (keyIndex != null) {
+                removeKey(task);
+            }
+            if (trigramIndex != null) {
+                trigramIndex.remove(task);
+            }
+            if (wordIndex != null) {
+                wordIndex.remove(task);
+            }
+            if (eventTree != null && task instanceof Event) {
+                eventTree.remove((Event) task);
+            }
+            if (deadlineIndex != null && task instanceof Deadline) {
+                deadlineIndex.remove((Deadline) task);
+            }
+            removed.add(task);
+        }
+        compactIfSparse();
+        return removed;
+    }
+
+    /**
+     * Marks the task at the given index as done or not done.
+     *
+     * @param index Index of the task to update.
+     * @param isDone True to mark as done, false to mark as not done.
+     * @return The updated task.
+     */
+    public Task setDone(int index, boolean isDone) {
+        Task task = taskAt(slotOf(index));
+        if (keyIndex != null) {
+            removeKey(task);
+        }
+        if (deadlineIndex != null && task instanceof Deadline) {
+            deadlineIndex.remove((Deadline) task);
+        }
+
+        task.setDone(isDone);
+
+        if (keyIndex != null) {
+            addKey(task);
+        }
+        if (deadlineIndex != null && task instanceof Deadline) {
+            deadlineIndex.add((Deadline) task);
+        }
+        return task;
+    }
+
+    /**
+     * Marks the tasks at the given indices as done or not done.
+     *
+     * @param indices Indices of the tasks to update, in increasing order without repeats.
+     * @param isDone True to mark as done, false to mark as not done.
+     * @return The updated tasks, in list order.
+     */
+    public List<Task> setDoneAll(int[] indices, boolean isDone) {
+        List<Task> updated = new ArrayList<>(indices.length);
+        for (int slot : slotsOf(indices)) {
+            Task task = taskAt(slot);
+            if (keyIndex != null) {
+                removeKey(task);
+            }
+            if (deadlineIndex != null && task instanceof Deadline) {
+                deadlineIndex.remove((Deadline) task);
+            }
+
+            task.setDone(isDone);
+
+            if (keyIndex != null) {
+                addKey(task);
+            }
+            if (deadlineIndex != null && task instanceof Deadline) {
+                deadlineIndex.add((Deadline) task);
+            }
+            updated.add(task);
+        }
+        return updated;
+    }
+
+    /**
+     * Returns the indices of the tasks that are done.
+     *
+     * @return Indices of the done tasks, in increasing order.
+     */
+    public int[] indicesOfDone() {
+        int[] indices = new int[size];
+        int count = 0;
+        int index = 0;
+        for (int slot = 1; slot <= slots.size(); slot++) {
+            if (slotIds[slot - 1] <= 0) {
+                continue;
+            }
+            if (taskAt(slot).isDone()) {
+                indices[count++] = index;
+            }
+            index++;
+        }
+        return Arrays.copyOf(indices, count);
     }
 
     /**
@@ -63,37 +507,269 @@ public class TaskList {
      * @return List of matching tasks.
      */
     public List<Task> find(String keyword) {
-        return tasks.stream()
-                .filter(task -> task.getDescription().contains(keyword))
-                .toList();
+        if (!TrigramIndex.canSearch(keyword)) {
+            return liveTasks().stream()
+                    .filter(task -> task.getDescription().contains(keyword))
+                    .toList();
+        }
+
+        return trigramIndex().find(keyword);
+    }
+
+    private TrigramIndex trigramIndex() {
+        if (trigramIndex == null) {
+            trigramIndex = new TrigramIndex();
+            liveTasks().forEach(trigramIndex::add);
+        }
+        return trigramIndex;
+    }
+
+    /**
+     * Returns the tasks containing a word that is spelt like the given word, allowing
+     * one typo for words of up to five letters and two for longer words.
+     * Matching ignores case, and the tasks are returned in list order.
+     *
+     * @param word Single word to search for.
+     * @return List of matching tasks.
+     */
+    public List<Task> findSimilar(String word) {
+        List<String> words = InvertedIndex.tokenize(word);
+        assert words.size() == 1 : "Fuzzy find expects a single word";
+
+        String target = words.get(0);
+        int maxDistance = target.length() <= 2 ? 0 : target.length() <= 5 ? 1 : 2;
+        return wordIndex().findSimilar(target, maxDistance);
+    }
+
+    /**
+     * Returns the tasks matching the query, most relevant first.
+     *
+     * @param query Query to answer.
+     * @param limit Maximum number of results, or 0 for all of them.
+     * @return List of matching tasks.
+     */
+    public List<Task> search(Query query, int limit) {
+        assert query != null : "Search query should not be null";
+        assert limit >= 0 : "Search limit should not be negative";
+
+        return wordIndex().search(query, limit);
+    }
+
+    private InvertedIndex wordIndex() {
+        if (wordIndex == null) {
+            wordIndex = new InvertedIndex();
+            liveTasks().forEach(wordIndex::add);
+        }
+        return wordIndex;
+    }
+
+    /**
+     * Returns the events that are on at any time in the given range, including events
+     * that start or end exactly at its bounds, in order of start time.
+     *
+     * @param from Start of the range.
+     * @param to End of the range.
+     * @return List of events in the range.
+     */
+    public List<Task> findEventsBetween(LocalDateTime from, LocalDateTime to) {
+        assert !from.isAfter(to) : "Range should not end before it starts";
+
+        List<Task> results = new ArrayList<>();
+        eventTree().collectOverlapping(from, to, true, results);
+        return results;
+    }
+
+    /**
+     * Returns the other events in the list whose times overlap the given event's.
+     * Events that merely end when the given one starts, or start when it ends, do not conflict.
+     *
+     * @param event Event to check.
+     * @return List of conflicting events, in order of start time.
+     */
+    public List<Task> findConflicts(Event event) {
+        List<Task> results = new ArrayList<>();
+        eventTree().collectOverlapping(event.getFrom(), event.getTo(), false, results);
+        results.remove(event);
+        return results;
+    }
+
+    private EventIntervalTree eventTree() {
+        if (eventTree == null) {
+            eventTree = new EventIntervalTree();
+            for (Task task : liveTasks()) {
+                if (task instanceof Event) {
+                    eventTree.add((Event) task);
+                }
+            }
+        }
+        return eventTree;
+    }
+
+    /**
+     * Returns the deadlines that are not done and are due on or after the given day,
+     * earliest first. Deadlines due on the same day keep their list order.
+     *
+     * @param today First day to include.
+     * @param limit Maximum number of deadlines to return.
+     * @return List of upcoming deadlines.
+     */
+    public List<Task> findDue(LocalDate today, int limit) {
+        assert limit > 0 : "Due limit should be positive";
+
+        List<Task> results = new ArrayList<>();
+        deadlineIndex().collectFrom(today.toEpochDay(), limit, results);
+        return results;
+    }
+
+    /**
+     * Returns the deadlines that are not done and were due before the given day, earliest first.
+     *
+     * @param today First day that is not overdue.
+     * @return List of overdue deadlines.
+     */
+    public List<Task> findOverdue(LocalDate today) {
+        List<Task> results = new ArrayList<>();
+        deadlineIndex().collectBefore(today.toEpochDay(), results);
+        return results;
+    }
+
+    private DeadlineIndex deadlineIndex() {
+        if (deadlineIndex == null) {
+            deadlineIndex = new DeadlineIndex();
+            for (Task task : liveTasks()) {
+                if (task instanceof Deadline) {
+                    deadlineIndex.add((Deadline) task);
+                }
+            }
+        }
+        return deadlineIndex;
     }
+
     /**
      * Returns the number of tasks in the task list.
      *
      * @return Number of tasks.
      */
     public int size() {
-        return tasks.size();
+        return size;
     }
 
     /**
-     * Returns the underlying list of tasks.
+     * Returns how many slots the list holds, including the empty ones left by removals.
+     *
+     * @return Number of slots.
+     */
+    int slotCount() {
+        return slots.size();
+    }
+
+    /**
+     * Returns a copy of the tasks in list order.
      *
      * @return The list of tasks.
      */
     public List<Task> asList() {
-        return new ArrayList<>(tasks);
+        return liveTasks();
+    }
+
+    /**
+     * Returns a copy of this list holding copies of its tasks, so that changing the copy
+     * or its tasks leaves this list as it is. Every task keeps its id in the copy.
+     *
+     * @return Independent copy of the list.
+     */
+    public TaskList copy() {
+        List<Task> copies = new ArrayList<>(size);
+        for (Task task : liveTasks()) {
+            copies.add(copyOf(task));
+        }
+
+        TaskList copy = new TaskList(copies, null);
+        copy.nextId = nextId;
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the task with the same id, which no list holds.
+     */
+    static Task copyOf(Task task) {
+        Task copy;
+        if (task instanceof Deadline) {
+            copy = new Deadline(task.getDescription(), ((Deadline) task).getBy());
+        } else if (task instanceof Event) {
+            copy = new Event(task.getDescription(), ((Event) task).getFrom(), ((Event) task).getTo());
+        } else if (task instanceof Todo) {
+            copy = new Todo(task.getDescription());
+        } else {
+            copy = new Task(task.getDescription());
+        }
+        copy.setDone(task.isDone());
+        copy.id = task.id;
+        return copy;
     }
 
     /**
      * Checks if a task already exists in the royal records to prevent duplicates.
-     * It compares the string representation of the new task with existing ones.
+     * Two tasks are identical if their string representations would be equal.
      *
      * @param newTask The task to check for in the kingdom.
      * @return True if an identical task is already in the list, false otherwise.
      */
     public boolean containsDuplicate(Task newTask) {
-        return tasks.stream().anyMatch(task ->
-                task.toString().equals(newTask.toString())); //
+        TaskKey key = TaskKey.of(newTask);
+        return keyIndex().anyMatch(keyHashOf(newTask), id -> TaskKey.of(taskAt(liveSlotOf(id))).equals(key));
+    }
+
+    private TaskKeyIndex keyIndex() {
+        if (keyIndex == null) {
+            keyIndex = new TaskKeyIndex(size);
+            for (int slot = 1; slot <= slots.size(); slot++) {
+                if (slotIds[slot - 1] > 0) {
+                    long hash = lazyTasks != null ? lazyTasks.keyHashAt(slot - 1) : keyHashOf(taskAt(slot));
+                    keyIndex.add(hash, slotIds[slot - 1]);
+                }
+            }
+        }
+        return keyIndex;
+    }
+
+    private long keyHashOf(Task task) {
+        return lazyTasks != null ? lazyTasks.keyHashOf(task) : TaskKey.of(task).hashCode();
+    }
+
+    /**
+     * Builds the given index if it is not built yet, so that from then on only {@link #add},
+     * {@link #remove} and {@link #setDone} change it.
+     *
+     * @param index Index to build.
+     */
+    void buildIndex(Index index) {
+        switch (index) {
+        case KEYS:
+            keyIndex();
+            break;
+        case TRIGRAMS:
+            trigramIndex();
+            break;
+        case WORDS:
+            wordIndex();
+            break;
+        case EVENTS:
+            eventTree();
+            break;
+        case DEADLINES:
+            deadlineIndex();
+            break;
+        default:
+            throw new AssertionError("Unknown index: " + index);
+        }
+    }
+
+    private void addKey(Task task) {
+        keyIndex.add(keyHashOf(task), task.id);
+    }
+
+    private void removeKey(Task task) {
+        keyIndex.remove(keyHashOf(task), task.id);
     }
 }
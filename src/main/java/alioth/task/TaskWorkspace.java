@@ -0,0 +1,100 @@
+package alioth.task;
+
+/**
+ * Holds the task list of one Alioth instance with the history of its recent changes,
+ * and a private working copy of it while a transaction is open.
+ *
+ * Commands should always run on {@link #getTasks}, so that inside a transaction they
+ * change only the working copy. Committing makes the working copy the task list, and
+ * rolling back throws it away, leaving the task list and its history as they were when
+ * the transaction began.
+ */
+public class TaskWorkspace {
+    /** Number of changes that can be undone. */
+    private static final int HISTORY_CAPACITY = 100;
+
+    private TaskList tasks;
+    private TaskList workingCopy;
+    private ChangeHistory history = new ChangeHistory(HISTORY_CAPACITY);
+    private ChangeHistory historyBeforeTransaction;
+
+    /**
+     * Creates a workspace for the given tasks, with no transaction open.
+     *
+     * @param tasks Committed tasks.
+     */
+    public TaskWorkspace(TaskList tasks) {
+        assert tasks != null : "Workspace tasks should not be null";
+        this.tasks = tasks;
+    }
+
+    /**
+     * Returns the tasks that commands should run on.
+     *
+     * @return The working copy while a transaction is open, or the committed tasks otherwise.
+     */
+    public TaskList getTasks() {
+        return workingCopy != null ? workingCopy : tasks;
+    }
+
+    /**
+     * Returns the history of recent changes, for undo and redo.
+     *
+     * @return Change history.
+     */
+    public ChangeHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Records a change a command made, if it made one.
+     *
+     * @param change Change to record, or null for none.
+     */
+    public void recordChange(TaskChange change) {
+        if (change != null) {
+            history.record(change);
+        }
+    }
+
+    /**
+     * Returns whether a transaction is open.
+     *
+     * @return True between {@link #begin} and {@link #commit} or {@link #rollback}.
+     */
+    public boolean isInTransaction() {
+        return workingCopy != null;
+    }
+
+    /**
+     * Opens a transaction by copying the committed tasks.
+     */
+    public void begin() {
+        assert workingCopy == null : "A transaction is already open";
+        workingCopy = tasks.copy();
+        historyBeforeTransaction = history.copy();
+    }
+
+    /**
+     * Closes the transaction, keeping every change made in it.
+     *
+     * @return The committed tasks, which now include the changes.
+     */
+    public TaskList commit() {
+        assert workingCopy != null : "No transaction is open";
+        tasks = workingCopy;
+        workingCopy = null;
+        historyBeforeTransaction = null;
+        return tasks;
+    }
+
+    /**
+     * Closes the transaction, throwing away every change made in it.
+     */
+    public void rollback() {
+        assert workingCopy != null : "No transaction is open";
+        workingCopy = null;
+        history = historyBeforeTransaction;
+        historyBeforeTransaction = null;
+    }
+}
@@ -0,0 +1,159 @@
+package alioth.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index from every three-character substring (trigram) of the task descriptions
+ * to the ids of the tasks containing it. A substring query intersects the postings of its
+ * trigrams, then checks each remaining candidate exactly.
+ *
+ * Postings are sorted int arrays. Tasks are mostly added in increasing id order, which lets
+ * each add append to the end of its postings; a task put back after removal is inserted
+ * in its place instead.
+ */
+final class TrigramIndex {
+    /** Length of the substrings that are indexed. Shorter keywords cannot use the index. */
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Integer, Task> tasksById = new HashMap<>();
+
+    /**
+     * Sorted ids of the tasks whose descriptions contain one trigram.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                position = -position - 1;
+            } else if (position < size) {
+                return; // trigram occurs more than once in the same description
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    /**
+     * Returns whether the keyword is long enough to be looked up in the index.
+     *
+     * @param keyword Keyword to search for.
+     * @return True if {@link #find} can answer the query.
+     */
+    static boolean canSearch(String keyword) {
+        return keyword.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Indexes a task. This is fastest when its id is larger than that of every task indexed.
+     *
+     * @param task Task to index.
+     */
+    void add(Task task) {
+        tasksById.put(task.id, task);
+        String description = task.getDescription();
+        for (int i = 0; i + GRAM_LENGTH <= description.length(); i++) {
+            postings.computeIfAbsent(gramAt(description, i), gram -> new Postings()).add(task.id);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task Task to remove.
+     */
+    void remove(Task task) {
+        if (tasksById.remove(task.id) == null) {
+            return;
+        }
+        String description = task.getDescription();
+        for (int i = 0; i + GRAM_LENGTH <= description.length(); i++) {
+            long gram = gramAt(description, i);
+            Postings ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(task.id);
+                if (ids.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain the keyword, in increasing id order.
+     *
+     * @param keyword Keyword to search for, at least {@link #GRAM_LENGTH} characters long.
+     * @return List of matching tasks.
+     */
+    List<Task> find(String keyword) {
+        assert canSearch(keyword) : "Keyword is too short for the trigram index";
+
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= keyword.length(); i++) {
+            grams.add(gramAt(keyword, i));
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (long gram : grams) {
+            Postings ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.size));
+
+        // Walk the shortest postings and probe the others, so the work is bounded by the rarest trigram.
+        Postings rarest = lists.get(0);
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < rarest.size; i++) {
+            int id = rarest.ids[i];
+            if (isInAll(lists, id)) {
+                Task task = tasksById.get(id);
+                if (task.getDescription().contains(keyword)) {
+                    matches.add(task);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean isInAll(List<Postings> lists, int id) {
+        for (int j = 1; j < lists.size(); j++) {
+            if (!lists.get(j).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long gramAt(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+}
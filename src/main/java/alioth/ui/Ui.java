@@ -16,6 +16,7 @@ public class Ui {
 
     private final Scanner scanner;
     private final StringBuilder output;
+    private long formatNanos;
 
     /**
      * Creates a UI that reads input from standard input.
@@ -71,11 +72,23 @@ public class Ui {
      * @return Output content since the last consume.
      */
     public String consumeOutput() {
+        long start = System.nanoTime();
         String text = output.toString().stripTrailing();
         output.setLength(0);
+        formatNanos += System.nanoTime() - start;
         return text;
     }
 
+    /**
+     * Returns the total time spent writing out task lists and building replies, which are
+     * the parts of the output that grow with the number of tasks.
+     *
+     * @return Time in nanoseconds since this UI was created.
+     */
+    public long getFormatNanos() {
+        return formatNanos;
+    }
+
     /**
      * Clears the current output buffer without returning the text.
      */
@@ -139,18 +152,21 @@ public class Ui {
     }
 
     /**
-     * Prints tasks in a standard numbered list block.
+     * Prints tasks in a standard numbered list block, each followed by its id if it has one.
      *
      * @param header Header text to show above the list.
      * @param tasks Tasks to display.
      */
     private void showTaskList(String header, List<Task> tasks) {
+        long start = System.nanoTime();
         showLine();
         addLine(header);
         for (int i = 0; i < tasks.size(); i++) {
-            addLine((i + 1) + ". " + tasks.get(i));
+            Task task = tasks.get(i);
+            addLine((i + 1) + ". " + task + (task.getId() > 0 ? " (#" + task.getId() + ")" : ""));
         }
         showLine();
+        formatNanos += System.nanoTime() - start;
     }
 
     /**
@@ -169,6 +185,51 @@ public class Ui {
         showTaskList("I found these matching tasks in the garden:", tasks);
     }
 
+    /**
+     * Shows search results, most relevant first.
+     *
+     * @param tasks Matching tasks in order of relevance.
+     */
+    public void showRankedTasks(List<Task> tasks) {
+        showTaskList("Mirror, mirror! Here are the best matches in the kingdom:", tasks);
+    }
+
+    /**
+     * Shows the events that are on during a time range.
+     *
+     * @param events Events in order of start time.
+     */
+    public void showEventsBetween(List<Task> events) {
+        showTaskList("Here is everything on the royal calendar at that time:", events);
+    }
+
+    /**
+     * Shows the next deadlines that are not done yet.
+     *
+     * @param deadlines Deadlines in order of due date.
+     */
+    public void showDueTasks(List<Task> deadlines) {
+        showTaskList("The clock is ticking! These are due next:", deadlines);
+    }
+
+    /**
+     * Shows the deadlines that have passed without being done.
+     *
+     * @param deadlines Deadlines in order of due date.
+     */
+    public void showOverdueTasks(List<Task> deadlines) {
+        showTaskList("Oh dear, the clock has struck midnight on these:", deadlines);
+    }
+
+    /**
+     * Warns that a newly added event overlaps existing ones.
+     *
+     * @param events Overlapping events in order of start time.
+     */
+    public void showEventConflicts(List<Task> events) {
+        showTaskList("Careful, darling! You cannot be at two balls at once. This clashes with:", events);
+    }
+
     /**
      * Prints confirmation after adding a task.
      *
@@ -222,6 +283,45 @@ public class Ui {
         showLine();
     }
 
+    /**
+     * Prints confirmation after deleting several tasks at once.
+     *
+     * @param tasks Tasks that were removed.
+     * @param size Current number of tasks in the list.
+     */
+    public void showDeleteTasks(List<Task> tasks, int size) {
+        showLine();
+        addLine("Let it go! I have removed these " + tasks.size() + " tasks for you:");
+        tasks.forEach(task -> addLine("  " + task));
+        addLine("Your path is clearer now with " + size + " tasks left.");
+        showLine();
+    }
+
+    /**
+     * Prints confirmation after marking several tasks as done at once.
+     *
+     * @param tasks Tasks that were marked.
+     */
+    public void showMarkTasks(List<Task> tasks) {
+        showLine();
+        addLine("Hooray! Dreams come true! I marked these " + tasks.size() + " tasks as done:");
+        tasks.forEach(task -> addLine("  " + task));
+        addLine("You are doing such a wonderful job!");
+        showLine();
+    }
+
+    /**
+     * Prints confirmation after unmarking several tasks at once.
+     *
+     * @param tasks Tasks that were unmarked.
+     */
+    public void showUnmarkTasks(List<Task> tasks) {
+        showLine();
+        addLine("Oh! I have marked these " + tasks.size() + " tasks as not done yet:");
+        tasks.forEach(task -> addLine("  " + task));
+        showLine();
+    }
+
     /**
      * Shows a confirmation message after adding an alias.
      *
@@ -242,6 +342,53 @@ public class Ui {
         showMessage("The magic is gone! " + aliasWord + " is no longer a secret name.");
     }
 
+    /**
+     * Prints confirmation after undoing a change.
+     *
+     * @param tasks Tasks the undone change touched.
+     */
+    public void showUndone(List<Task> tasks) {
+        showLine();
+        addLine("Tick-tock, the clock turns back! I undid the change to:");
+        tasks.forEach(task -> addLine("  " + task));
+        showLine();
+    }
+
+    /**
+     * Prints confirmation after redoing a change.
+     *
+     * @param tasks Tasks the redone change touched.
+     */
+    public void showRedone(List<Task> tasks) {
+        showLine();
+        addLine("Once more, with feeling! I redid the change to:");
+        tasks.forEach(task -> addLine("  " + task));
+        showLine();
+    }
+
+    /**
+     * Shows a confirmation message after a transaction begins.
+     */
+    public void showTransactionBegun() {
+        showMessage("Let us plan in secret! Your changes are kept aside until you commit or rollback.");
+    }
+
+    /**
+     * Shows a confirmation message after a transaction is committed.
+     *
+     * @param size Number of tasks in the list after the commit.
+     */
+    public void showTransactionCommitted(int size) {
+        showMessage("It is written in the royal records! Now you have " + size + " tasks in the list.");
+    }
+
+    /**
+     * Shows a confirmation message after a transaction is rolled back.
+     */
+    public void showTransactionRolledBack() {
+        showMessage("As if by magic, every change since begin has vanished!");
+    }
+
     /**
      * Shows all current aliases.
      *
@@ -259,4 +406,18 @@ public class Ui {
         }
         showLine();
     }
+
+    /**
+     * Shows how many times each command has run and how long it took.
+     *
+     * @param commandCount Number of commands run so far.
+     * @param report Table of counts and latencies.
+     */
+    public void showStats(long commandCount, String report) {
+        if (commandCount == 0) {
+            showMessage("The royal ledger is empty. No commands have been run yet!");
+            return;
+        }
+        addBlock("The royal ledger of every command so far (times in microseconds):", report);
+    }
 }
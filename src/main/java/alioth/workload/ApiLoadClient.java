@@ -0,0 +1,120 @@
+package alioth.workload;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends requests to the JSON HTTP API from several threads and measures how long each kind takes.
+ *
+ * Each thread repeats the same round: it adds a task, finds it, marks it by its id, and deletes
+ * it again, so the list keeps its size however long the run is. Every tenth round also sends a
+ * batch of new tasks. Latencies are grouped by request kind, as the replay groups them by command.
+ */
+public class ApiLoadClient {
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int ROUNDS_PER_BATCH = 10;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final URI base;
+    private final int batchSize;
+
+    /**
+     * Creates a client for the API at the given address.
+     *
+     * @param base Address of the API, such as {@code http://localhost:8080}.
+     * @param batchSize Number of tasks added by each batch request.
+     */
+    public ApiLoadClient(URI base, int batchSize) {
+        assert batchSize > 0 : "Batches should add at least one task";
+        this.base = base;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Runs rounds of requests on the given number of threads.
+     *
+     * @param threadCount Number of threads sending requests at once.
+     * @param roundCount Number of rounds each thread runs.
+     * @return Latencies of the requests, by kind, and the time the whole run took.
+     * @throws IOException If a request fails or the API answers with an unexpected status.
+     */
+    public WorkloadReplayer.Report run(int threadCount, int roundCount) throws IOException {
+        ExecutorService threads = Executors.newFixedThreadPool(threadCount);
+        try {
+            long start = System.nanoTime();
+            List<Future<Map<String, LatencyRecorder>>> results = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                String prefix = "load " + t + " ";
+                results.add(threads.submit(() -> runRounds(prefix, roundCount)));
+            }
+
+            Map<String, LatencyRecorder> latencies = new TreeMap<>();
+            for (Future<Map<String, LatencyRecorder>> result : results) {
+                result.get().forEach((kind, recorder) ->
+                        latencies.computeIfAbsent(kind, k -> new LatencyRecorder()).addAll(recorder));
+            }
+            return new WorkloadReplayer.Report(latencies, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Load run was interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private Map<String, LatencyRecorder> runRounds(String prefix, int roundCount)
+            throws IOException, InterruptedException {
+        Map<String, LatencyRecorder> latencies = new TreeMap<>();
+        for (int round = 0; round < roundCount; round++) {
+            String description = prefix + "task " + round;
+            String added = send(latencies, "add", "POST", "/tasks", "todo " + description, 201);
+            Matcher id = ID.matcher(added);
+            if (!id.find()) {
+                throw new IOException("Added task has no id: " + added);
+            }
+            send(latencies, "find", "GET", "/tasks?find=" + description.replace(' ', '+'), "", 200);
+            send(latencies, "mark", "POST", "/tasks/" + id.group(1) + "/mark", "", 200);
+            send(latencies, "delete", "DELETE", "/tasks/" + id.group(1), "", 200);
+
+            if (round % ROUNDS_PER_BATCH == 0) {
+                StringBuilder batch = new StringBuilder();
+                for (int i = 0; i < batchSize; i++) {
+                    batch.append("todo ").append(prefix).append("batch ").append(round).append(' ').append(i)
+                            .append('\n');
+                }
+                send(latencies, "batch", "POST", "/batch", batch.toString(), 200);
+            }
+        }
+        return latencies;
+    }
+
+    private String send(Map<String, LatencyRecorder> latencies, String kind, String method, String path,
+            String body, int expectedStatus) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve(path))
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        latencies.computeIfAbsent(kind, k -> new LatencyRecorder()).record(System.nanoTime() - start);
+        if (response.statusCode() != expectedStatus) {
+            throw new IOException(method + " " + path + " returned " + response.statusCode() + ": "
+                    + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,78 @@
+package alioth.workload;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples and reports their percentiles.
+ *
+ * Every sample is kept, so the percentiles are exact; a million samples take 8 MB.
+ */
+public class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+    private boolean isSorted = true;
+
+    /**
+     * Adds one sample.
+     *
+     * @param nanos Latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        isSorted = false;
+    }
+
+    /**
+     * Adds every sample of another recorder.
+     *
+     * @param other Recorder to copy the samples from.
+     */
+    public void addAll(LatencyRecorder other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(count + other.count, count * 2));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        isSorted = false;
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return Sample count.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the smallest sample that is at least as large as the given fraction of all samples.
+     *
+     * @param fraction Fraction between 0 and 1, such as 0.99 for the 99th percentile.
+     * @return Latency in nanoseconds, or 0 if there are no samples.
+     */
+    public long percentile(double fraction) {
+        assert fraction >= 0 && fraction <= 1 : "Percentile fraction should be between 0 and 1";
+        if (count == 0) {
+            return 0;
+        }
+        if (!isSorted) {
+            Arrays.sort(samples, 0, count);
+            isSorted = true;
+        }
+        int rank = (int) Math.ceil(fraction * count);
+        return samples[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Returns the largest sample.
+     *
+     * @return Latency in nanoseconds, or 0 if there are no samples.
+     */
+    public long max() {
+        return percentile(1);
+    }
+}
@@ -0,0 +1,162 @@
+package alioth.workload;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Opens many sessions to the TCP server at once, most of them idle, and measures how long
+ * the active ones wait for each reply.
+ *
+ * Every idle session logs in and then waits. Each active session, on its own thread, repeats
+ * the same round: it adds a task, finds it, marks it and deletes it again, so its list keeps
+ * its size however long the run is. At the end every idle session lists its tasks once, to
+ * check it was kept open and served the whole time. Latencies are grouped by command word.
+ */
+public class SessionLoadClient {
+    private static final String END_OF_REPLY = ".";
+    /** The list size in the reply to an added task, which is also the new task's index. */
+    private static final Pattern SIZE = Pattern.compile("has (\\d+) tasks");
+
+    private final int port;
+
+    /**
+     * Creates a client for the server listening on the given loopback port.
+     *
+     * @param port Port of the server.
+     */
+    public SessionLoadClient(int port) {
+        this.port = port;
+    }
+
+    /**
+     * A connection logged in as one user, which sends one command at a time.
+     */
+    private class Session implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        private Session(String userName, Map<String, LatencyRecorder> latencies) throws IOException {
+            long start = System.nanoTime();
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            String welcome = send(userName);
+            latencies.computeIfAbsent("connect", k -> new LatencyRecorder()).record(System.nanoTime() - start);
+            if (!welcome.contains("Alioth")) {
+                close();
+                throw new IOException(userName + " was not welcomed: " + welcome);
+            }
+        }
+
+        private String send(Map<String, LatencyRecorder> latencies, String kind, String line) throws IOException {
+            long start = System.nanoTime();
+            String reply = send(line);
+            latencies.computeIfAbsent(kind, k -> new LatencyRecorder()).record(System.nanoTime() - start);
+            return reply;
+        }
+
+        private String send(String line) throws IOException {
+            out.write(line + "\n");
+            out.flush();
+            StringBuilder reply = new StringBuilder();
+            String replyLine;
+            while ((replyLine = in.readLine()) != null && !replyLine.equals(END_OF_REPLY)) {
+                reply.append(replyLine).append('\n');
+            }
+            if (replyLine == null) {
+                throw new IOException("Server closed the session during: " + line);
+            }
+            return reply.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Opens the idle sessions, then runs the active ones each on its own thread.
+     *
+     * @param idleCount Number of sessions that only log in and wait.
+     * @param activeCount Number of sessions sending commands at once.
+     * @param roundCount Number of rounds each active session runs.
+     * @return Latencies of the commands, by word, and the time the whole run took.
+     * @throws IOException If a session cannot connect, or the server closes it or replies wrongly.
+     */
+    public WorkloadReplayer.Report run(int idleCount, int activeCount, int roundCount) throws IOException {
+        Map<String, LatencyRecorder> latencies = new TreeMap<>();
+        List<Session> idleSessions = new ArrayList<>();
+        ExecutorService threads = Executors.newFixedThreadPool(activeCount);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < idleCount; i++) {
+                idleSessions.add(new Session("idle" + i, latencies));
+            }
+
+            List<Future<Map<String, LatencyRecorder>>> results = new ArrayList<>();
+            for (int i = 0; i < activeCount; i++) {
+                String userName = "active" + i;
+                results.add(threads.submit(() -> runRounds(userName, roundCount)));
+            }
+            for (Future<Map<String, LatencyRecorder>> result : results) {
+                result.get().forEach((kind, recorder) ->
+                        latencies.computeIfAbsent(kind, k -> new LatencyRecorder()).addAll(recorder));
+            }
+
+            for (Session session : idleSessions) {
+                String tasks = session.send(latencies, "list", "list");
+                if (!tasks.contains("tasks")) {
+                    throw new IOException("Idle session was not served: " + tasks);
+                }
+            }
+            return new WorkloadReplayer.Report(latencies, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Session run was interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } finally {
+            threads.shutdownNow();
+            for (Session session : idleSessions) {
+                session.close();
+            }
+        }
+    }
+
+    private Map<String, LatencyRecorder> runRounds(String userName, int roundCount) throws IOException {
+        Map<String, LatencyRecorder> latencies = new TreeMap<>();
+        try (Session session = new Session(userName, latencies)) {
+            for (int round = 0; round < roundCount; round++) {
+                String description = userName + " task " + round;
+                String added = session.send(latencies, "todo", "todo " + description);
+                Matcher size = SIZE.matcher(added);
+                if (!size.find()) {
+                    throw new IOException(userName + " could not add a task: " + added);
+                }
+                session.send(latencies, "find", "find " + description);
+                session.send(latencies, "mark", "mark " + size.group(1));
+                session.send(latencies, "delete", "delete " + size.group(1));
+            }
+            session.send("bye");
+        }
+        return latencies;
+    }
+}
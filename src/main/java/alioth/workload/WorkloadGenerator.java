@@ -0,0 +1,208 @@
+package alioth.workload;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import alioth.task.Deadline;
+import alioth.task.Event;
+import alioth.task.Task;
+import alioth.task.Todo;
+
+/**
+ * Generates large task lists and traces of commands that look like real use.
+ *
+ * Descriptions are built from a vocabulary of made-up words whose popularity follows a Zipf
+ * distribution, so a few words are in many tasks and most are in few. Find and search keywords
+ * are drawn the same way, so popular words are searched for most. Each description ends with
+ * a number, so no two generated tasks are duplicates. About 60% of the tasks are todos, 25%
+ * deadlines due within a year of the base date, and 15% events; a third of them are done.
+ *
+ * A trace is a mix of reads ({@code find}, {@code search}, {@code due}, {@code events},
+ * {@code overdue} and {@code list}) and writes (adding, marking, unmarking and deleting tasks),
+ * with task numbers that stay valid as the trace changes the list.
+ */
+public class WorkloadGenerator {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final String[] SYLLABLES = {
+        "ba", "lo", "mi", "ra", "ne", "to", "su", "ka", "di", "fe", "go", "li", "po", "ze", "vu", "an",
+    };
+    private static final int VOCABULARY_SIZE = 2000;
+    private static final int NEW_TASK_NUMBER_START = 1_000_000_000;
+
+    private final Random random;
+    private final double writeRatio;
+    private final LocalDate baseDate;
+    private final String[] vocabulary = new String[VOCABULARY_SIZE];
+    private final double[] cumulativeWeights = new double[VOCABULARY_SIZE];
+    private int nextNewTaskNumber = NEW_TASK_NUMBER_START;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed Seed for the random choices, so the same settings give the same output.
+     * @param writeRatio Fraction of trace commands that change the list, between 0 and 1.
+     * @param skew Zipf exponent for word popularity; 0 makes every word equally popular.
+     * @param baseDate Date that deadlines and events are spread around.
+     */
+    public WorkloadGenerator(long seed, double writeRatio, double skew, LocalDate baseDate) {
+        assert writeRatio >= 0 && writeRatio <= 1 : "Write ratio should be between 0 and 1";
+        assert skew >= 0 : "Skew should not be negative";
+        this.random = new Random(seed);
+        this.writeRatio = writeRatio;
+        this.baseDate = baseDate;
+
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY_SIZE; rank++) {
+            vocabulary[rank] = wordFor(rank);
+            total += 1 / Math.pow(rank + 1, skew);
+            cumulativeWeights[rank] = total;
+        }
+    }
+
+    /**
+     * Returns a made-up word that is different for every rank.
+     */
+    private static String wordFor(int rank) {
+        StringBuilder word = new StringBuilder();
+        int rest = rank;
+        do {
+            word.append(SYLLABLES[rest % SYLLABLES.length]);
+            rest /= SYLLABLES.length;
+        } while (rest > 0);
+        return word.append(SYLLABLES[rank % 7]).toString();
+    }
+
+    /**
+     * Returns a word from the vocabulary, popular words more often.
+     */
+    String nextWord() {
+        double target = random.nextDouble() * cumulativeWeights[VOCABULARY_SIZE - 1];
+        int low = 0;
+        int high = VOCABULARY_SIZE - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return vocabulary[low];
+    }
+
+    private String nextDescription(int number) {
+        StringBuilder description = new StringBuilder();
+        int wordCount = 3 + random.nextInt(4);
+        for (int i = 0; i < wordCount; i++) {
+            description.append(nextWord()).append(' ');
+        }
+        return description.append(number).toString();
+    }
+
+    private LocalDate nextDate() {
+        return baseDate.plusDays(random.nextInt(730) - 365);
+    }
+
+    private LocalDateTime nextStart() {
+        return nextDate().atTime(8 + random.nextInt(10), random.nextInt(4) * 15);
+    }
+
+    /**
+     * Generates a list of tasks.
+     *
+     * @param count Number of tasks.
+     * @return The tasks.
+     */
+    public List<Task> generateTasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = nextDescription(i);
+            int kind = random.nextInt(20);
+            Task task;
+            if (kind < 12) {
+                task = new Todo(description);
+            } else if (kind < 17) {
+                task = new Deadline(description, nextDate());
+            } else {
+                LocalDateTime from = nextStart();
+                task = new Event(description, from, from.plusMinutes(30 + random.nextInt(8) * 15));
+            }
+            task.setDone(random.nextInt(3) == 0);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Generates a trace of commands to run on a list of the given size.
+     *
+     * @param count Number of commands.
+     * @param initialSize Number of tasks in the list before the first command.
+     * @return The commands, one per line.
+     */
+    public List<String> generateTrace(int count, int initialSize) {
+        List<String> trace = new ArrayList<>(count);
+        int size = initialSize;
+        for (int i = 0; i < count; i++) {
+            boolean isWrite = random.nextDouble() < writeRatio;
+            String command = isWrite ? nextWrite(size) : nextRead();
+            if (command.startsWith("todo") || command.startsWith("deadline") || command.startsWith("event ")) {
+                size++;
+            } else if (command.startsWith("delete")) {
+                size--;
+            }
+            trace.add(command);
+        }
+        return trace;
+    }
+
+    private String nextRead() {
+        int kind = random.nextInt(100);
+        if (kind < 55) {
+            return "find " + nextWord();
+        } else if (kind < 70) {
+            return "search " + nextWord() + (random.nextBoolean() ? " AND " : " OR ") + nextWord() + " --limit 10";
+        } else if (kind < 80) {
+            return "due " + (1 + random.nextInt(10));
+        } else if (kind < 95) {
+            LocalDate day = nextDate();
+            return "events /from " + day.atStartOfDay().format(DATE_TIME_FORMAT)
+                    + " /to " + day.atTime(23, 59).format(DATE_TIME_FORMAT);
+        } else if (kind < 99) {
+            return "overdue";
+        } else {
+            return "list";
+        }
+    }
+
+    private String nextWrite(int size) {
+        int kind = random.nextInt(100);
+        if (size == 0 || kind < 40) {
+            String description = nextDescription(nextNewTaskNumber++);
+            int taskKind = random.nextInt(20);
+            if (taskKind < 12) {
+                return "todo " + description;
+            } else if (taskKind < 17) {
+                return "deadline " + description + " /by " + nextDate().format(DATE_FORMAT);
+            } else {
+                LocalDateTime from = nextStart();
+                return "event " + description + " /from " + from.format(DATE_TIME_FORMAT)
+                        + " /to " + from.plusHours(1).format(DATE_TIME_FORMAT);
+            }
+        }
+
+        int taskNumber = 1 + random.nextInt(size);
+        if (kind < 65) {
+            return "mark " + taskNumber;
+        } else if (kind < 80) {
+            return "unmark " + taskNumber;
+        } else {
+            return "delete " + taskNumber;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package alioth.workload;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import alioth.Alioth;
+import alioth.parser.Parser;
+
+/**
+ * Replays a trace of commands through {@link Alioth#getResponse} and measures how long each one takes.
+ *
+ * Commands are timed one at a time, including the save each change makes, and grouped by their
+ * command word, so the report shows where the slow commands are rather than only the average.
+ */
+public class WorkloadReplayer {
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    /**
+     * The latencies measured in a replay.
+     *
+     * @param latencies Latencies of the commands, by command word.
+     * @param elapsedNanos Time taken by the whole replay, in nanoseconds.
+     */
+    public record Report(Map<String, LatencyRecorder> latencies, long elapsedNanos) {
+        /**
+         * Returns the number of commands replayed.
+         *
+         * @return Command count.
+         */
+        public int commandCount() {
+            return latencies.values().stream().mapToInt(LatencyRecorder::count).sum();
+        }
+
+        /**
+         * Returns the number of commands replayed per second.
+         *
+         * @return Throughput in commands per second.
+         */
+        public double commandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commandCount() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Returns a table with the count, p50, p99, p99.9 and maximum latency of each command word,
+         * in microseconds, followed by the overall throughput.
+         */
+        @Override
+        public String toString() {
+            StringBuilder table = new StringBuilder(String.format("%-10s %10s %10s %10s %10s %10s%n",
+                    "command", "count", "p50 us", "p99 us", "p99.9 us", "max us"));
+            latencies.forEach((commandWord, recorder) -> {
+                table.append(String.format("%-10s %10d", commandWord, recorder.count()));
+                for (double percentile : PERCENTILES) {
+                    table.append(String.format(" %10.1f", recorder.percentile(percentile) / 1e3));
+                }
+                table.append(String.format(" %10.1f%n", recorder.max() / 1e3));
+            });
+            return table.append(String.format("Replayed %d commands in %.1f ms: %.0f commands/s",
+                    commandCount(), elapsedNanos / 1e6, commandsPerSecond())).toString();
+        }
+    }
+
+    /**
+     * Replays every command in the trace.
+     *
+     * @param alioth Chatbot to send the commands to.
+     * @param trace Commands, in order.
+     * @return Latencies of the commands.
+     */
+    public static Report replay(Alioth alioth, List<String> trace) {
+        Map<String, LatencyRecorder> latencies = new TreeMap<>();
+        long start = System.nanoTime();
+        for (String input : trace) {
+            if (input.isBlank()) {
+                continue;
+            }
+            long commandStart = System.nanoTime();
+            alioth.getResponse(input);
+            long latency = System.nanoTime() - commandStart;
+            latencies.computeIfAbsent(Parser.getCommandWord(input), word -> new LatencyRecorder()).record(latency);
+        }
+        return new Report(latencies, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,307 @@
+package alioth.workload;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import alioth.Alioth;
+import alioth.exception.AliothException;
+import alioth.server.AliothServer;
+import alioth.server.HttpApiServer;
+import alioth.storage.Storage;
+import alioth.storage.StorageFormat;
+import alioth.task.ConcurrentTaskList;
+
+/**
+ * Generates workloads and replays them, to measure command latency on large task lists.
+ *
+ * <ul>
+ * <li>{@code generate [--tasks <n>] [--commands <n>] [--write-ratio <r>] [--skew <s>] [--seed <n>]
+ *     [--format text|binary] [--out <folder>]} writes a save file {@code tasks.txt} and a trace
+ *     {@code trace.txt} into the folder.</li>
+ * <li>{@code replay [--data <save file>] [--trace <trace file>] [--format text|binary] [--journal]
+ *     [--lazy]} replays the trace on a copy of the save file and prints the latency of each
+ *     command type.</li>
+ * <li>{@code api [--data <save file>] [--threads <n>] [--rounds <n>] [--batch <n>] [--url <address>]}
+ *     sends requests to the JSON HTTP API from several threads and prints the latency of each
+ *     request type. Without {@code --url}, it starts the API on a copy of the save file.</li>
+ * <li>{@code sessions [--idle <n>] [--active <n>] [--rounds <n>] [--port <n>]} keeps many TCP sessions
+ *     open while a few of them send commands, and prints the latency of each command word. Without
+ *     {@code --port}, it starts a server on an empty data folder.</li>
+ * </ul>
+ */
+public class WorkloadTool {
+    private static final String DEFAULT_FOLDER = "workload";
+    private static final String DATA_FILE_NAME = "tasks.txt";
+    private static final String TRACE_FILE_NAME = "trace.txt";
+
+    /**
+     * Settings for generating and replaying a workload, filled in from the command line.
+     */
+    static class Options {
+        int taskCount = 100_000;
+        int commandCount = 100_000;
+        double writeRatio = 0.1;
+        double skew = 1.0;
+        long seed = 42;
+        StorageFormat format = StorageFormat.TEXT;
+        Path folder = Paths.get(DEFAULT_FOLDER);
+        Path dataPath;
+        Path tracePath;
+        boolean isJournalMode;
+        boolean isLazyLoad;
+        int threadCount = 8;
+        int roundCount = 1000;
+        int batchSize = 100;
+        URI apiUri;
+        int idleCount = 2000;
+        int activeCount = 200;
+        int port;
+
+        static Options parse(String[] args, int start) {
+            Options options = new Options();
+            for (int i = start; i < args.length; i++) {
+                switch (args[i]) {
+                case "--tasks":
+                    options.taskCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--commands":
+                    options.commandCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--write-ratio":
+                    options.writeRatio = Double.parseDouble(args[++i]);
+                    break;
+                case "--skew":
+                    options.skew = Double.parseDouble(args[++i]);
+                    break;
+                case "--seed":
+                    options.seed = Long.parseLong(args[++i]);
+                    break;
+                case "--format":
+                    options.format = StorageFormat.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    break;
+                case "--out":
+                    options.folder = Paths.get(args[++i]);
+                    break;
+                case "--data":
+                    options.dataPath = Paths.get(args[++i]);
+                    break;
+                case "--trace":
+                    options.tracePath = Paths.get(args[++i]);
+                    break;
+                case "--journal":
+                    options.isJournalMode = true;
+                    break;
+                case "--lazy":
+                    options.isLazyLoad = true;
+                    break;
+                case "--threads":
+                    options.threadCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--rounds":
+                    options.roundCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--batch":
+                    options.batchSize = Integer.parseInt(args[++i]);
+                    break;
+                case "--url":
+                    options.apiUri = URI.create(args[++i]);
+                    break;
+                case "--idle":
+                    options.idleCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--active":
+                    options.activeCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--port":
+                    options.port = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (options.dataPath == null) {
+                options.dataPath = options.folder.resolve(DATA_FILE_NAME);
+            }
+            if (options.tracePath == null) {
+                options.tracePath = options.folder.resolve(TRACE_FILE_NAME);
+            }
+            return options;
+        }
+    }
+
+    /**
+     * Writes a generated save file and trace.
+     *
+     * @param options Sizes, mix and where to write.
+     * @throws IOException If the trace cannot be written.
+     * @throws AliothException If the save file cannot be written.
+     */
+    static void generate(Options options) throws IOException, AliothException {
+        WorkloadGenerator generator = new WorkloadGenerator(options.seed, options.writeRatio, options.skew,
+                LocalDate.now());
+        Storage storage = new Storage(options.dataPath);
+        storage.setFormat(options.format);
+        storage.save(generator.generateTasks(options.taskCount));
+        storage.close();
+
+        Files.createDirectories(options.tracePath.toAbsolutePath().getParent());
+        Files.write(options.tracePath, generator.generateTrace(options.commandCount, options.taskCount),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replays a trace on a copy of a save file, so the save file can be replayed again.
+     *
+     * @param options Files and storage settings.
+     * @return Latencies of the commands.
+     * @throws IOException If the files cannot be read or copied.
+     */
+    static WorkloadReplayer.Report replay(Options options) throws IOException {
+        List<String> trace = Files.readAllLines(options.tracePath, StandardCharsets.UTF_8);
+        Path folder = Files.createTempDirectory("alioth-replay");
+        try {
+            Path dataCopy = folder.resolve(DATA_FILE_NAME);
+            Files.copy(options.dataPath, dataCopy);
+
+            Storage storage = new Storage(dataCopy);
+            storage.setFormat(options.format);
+            storage.setJournalMode(options.isJournalMode);
+            storage.setLazyLoad(options.isLazyLoad);
+
+            long loadStart = System.nanoTime();
+            Alioth alioth = new Alioth(storage);
+            System.err.printf("Loaded %s in %.1f ms%n", options.dataPath, (System.nanoTime() - loadStart) / 1e6);
+            try {
+                return WorkloadReplayer.replay(alioth, trace);
+            } finally {
+                alioth.close();
+            }
+        } finally {
+            deleteRecursively(folder);
+        }
+    }
+
+    /**
+     * Sends requests to the JSON HTTP API. Without an address, it starts the API on a copy
+     * of the save file, or on an empty list if there is no save file, and stops it afterwards.
+     *
+     * @param options Address or save file, and the number of threads, rounds and batch size.
+     * @return Latencies of the requests.
+     * @throws IOException If the files cannot be copied or a request fails.
+     * @throws AliothException If the save file cannot be loaded.
+     */
+    static WorkloadReplayer.Report api(Options options) throws IOException, AliothException {
+        if (options.apiUri != null) {
+            return new ApiLoadClient(options.apiUri, options.batchSize).run(options.threadCount, options.roundCount);
+        }
+
+        Path folder = Files.createTempDirectory("alioth-api");
+        try {
+            Path dataCopy = folder.resolve(DATA_FILE_NAME);
+            if (Files.exists(options.dataPath)) {
+                Files.copy(options.dataPath, dataCopy);
+            }
+            Storage storage = new Storage(dataCopy);
+            storage.setJournalMode(true);
+            HttpApiServer server = new HttpApiServer(ConcurrentTaskList.backedBy(storage.load()), storage);
+            server.start(0);
+            try {
+                URI uri = URI.create("http://localhost:" + server.getPort());
+                return new ApiLoadClient(uri, options.batchSize).run(options.threadCount, options.roundCount);
+            } finally {
+                server.stop();
+                storage.close();
+            }
+        } finally {
+            deleteRecursively(folder);
+        }
+    }
+
+    /**
+     * Opens sessions to the TCP server. Without a port, it starts a server on an empty data
+     * folder and stops it afterwards.
+     *
+     * @param options Port, and the number of idle and active sessions and rounds.
+     * @return Latencies of the commands.
+     * @throws IOException If the server cannot be started or a session fails.
+     */
+    static WorkloadReplayer.Report sessions(Options options) throws IOException {
+        if (options.port != 0) {
+            return new SessionLoadClient(options.port).run(options.idleCount, options.activeCount,
+                    options.roundCount);
+        }
+
+        Path folder = Files.createTempDirectory("alioth-sessions");
+        try {
+            AliothServer server = new AliothServer(folder);
+            server.start(0);
+            try {
+                return new SessionLoadClient(server.getPort()).run(options.idleCount, options.activeCount,
+                        options.roundCount);
+            } finally {
+                stopServer(server);
+            }
+        } finally {
+            deleteRecursively(folder);
+        }
+    }
+
+    private static void stopServer(AliothServer server) throws IOException {
+        try {
+            server.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Stopping the server was interrupted", e);
+        }
+    }
+
+    private static void deleteRecursively(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code generate}, {@code replay}, {@code api} or {@code sessions} with the options that follow it.
+     *
+     * @param args Command-line arguments.
+     * @throws IOException If a file cannot be read or written.
+     * @throws AliothException If the save file cannot be written.
+     */
+    public static void main(String[] args) throws IOException, AliothException {
+        if (args.length == 0 || !List.of("generate", "replay", "api", "sessions").contains(args[0])) {
+            System.err.println("Usage: generate [--tasks n] [--commands n] [--write-ratio r] [--skew s] [--seed n]"
+                    + " [--format text|binary] [--out folder]");
+            System.err.println("       replay [--data file] [--trace file] [--format text|binary]"
+                    + " [--journal] [--lazy]");
+            System.err.println("       api [--data file] [--threads n] [--rounds n] [--batch n] [--url address]");
+            System.err.println("       sessions [--idle n] [--active n] [--rounds n] [--port n]");
+            System.exit(1);
+        }
+
+        Options options = Options.parse(args, 1);
+        if (args[0].equals("generate")) {
+            long start = System.nanoTime();
+            generate(options);
+            System.err.printf("Wrote %d tasks to %s and %d commands to %s in %.1f s%n", options.taskCount,
+                    options.dataPath, options.commandCount, options.tracePath, (System.nanoTime() - start) / 1e9);
+        } else if (args[0].equals("replay")) {
+            System.out.println(replay(options));
+        } else if (args[0].equals("api")) {
+            System.out.println(api(options));
+        } else {
+            System.out.println(sessions(options));
+        }
+    }
+}
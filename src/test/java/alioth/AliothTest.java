@@ -1,13 +1,22 @@
 package alioth;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import alioth.exception.AliothException;
+import alioth.metrics.MetricsRegistry;
+import alioth.metrics.Phase;
+import alioth.storage.Storage;
+import alioth.task.Task;
+
 /**
  * Integration tests for the Alioth chatbot.
  */
@@ -56,4 +65,116 @@ public class AliothTest {
         assertTrue(response.contains("Oh dear! A princess loves a tidy room."));
         assertTrue(response.contains("~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~"));
     }
+
+    /**
+     * Tests that two chatbots in the same program do not share aliases.
+     */
+    @Test
+    public void getResponse_aliasInOtherInstance_notShared() {
+        Alioth other = new Alioth(tempDir.resolve("other-test.txt"));
+        alioth.getResponse("alias ls list");
+
+        assertTrue(alioth.getResponse("ls").contains("Here are the tasks"));
+        assertTrue(other.getResponse("ls").contains("never heard of that command"));
+    }
+
+    /**
+     * Tests that the changes in a transaction are saved with one write when it is committed.
+     */
+    @Test
+    public void getResponse_committedTransaction_savedOnce() throws Exception {
+        AtomicInteger saveCount = new AtomicInteger();
+        Path path = tempDir.resolve("transaction-test.txt");
+        Alioth counted = new Alioth(new Storage(path) {
+            @Override
+            public void save(List<Task> tasks) throws AliothException {
+                saveCount.incrementAndGet();
+                super.save(tasks);
+            }
+        });
+
+        counted.getResponse("begin");
+        for (int i = 0; i < 12; i++) {
+            counted.getResponse("todo task " + i);
+        }
+        counted.getResponse("mark 3");
+        counted.getResponse("delete 1");
+        assertEquals(0, saveCount.get());
+        assertTrue(counted.getResponse("begin").contains("One secret plan at a time"));
+
+        assertTrue(counted.getResponse("commit").contains("Now you have 11 tasks"));
+        assertEquals(1, saveCount.get());
+        assertEquals(11, new Storage(path).load().size());
+        assertTrue(counted.getResponse("list").contains("2. [T][X] task 2 (#3)"));
+    }
+
+    /**
+     * Tests that rolling back a transaction restores the tasks without saving.
+     */
+    @Test
+    public void getResponse_rolledBackTransaction_tasksRestored() {
+        alioth.getResponse("todo ball");
+        String before = alioth.getResponse("list");
+
+        alioth.getResponse("begin");
+        alioth.getResponse("mark 1");
+        alioth.getResponse("todo gown");
+        assertTrue(alioth.getResponse("list").contains("2. [T][ ] gown"));
+        alioth.getResponse("rollback");
+
+        assertEquals(before, alioth.getResponse("list"));
+        assertTrue(alioth.getResponse("commit").contains("There is no secret plan"));
+        assertEquals(before, new Alioth(testPath).getResponse("list"));
+    }
+
+    /**
+     * Tests that a mistaken delete can be undone and redone, and that undo survives a transaction.
+     */
+    @Test
+    public void getResponse_undoRedo_changesReversed() {
+        alioth.getResponse("todo ball");
+        alioth.getResponse("todo gown");
+        alioth.getResponse("todo slipper");
+        String before = alioth.getResponse("list");
+
+        alioth.getResponse("delete 2");
+        assertTrue(alioth.getResponse("undo").contains("[T][ ] gown"));
+        assertEquals(before, alioth.getResponse("list"));
+        alioth.getResponse("redo");
+        assertTrue(alioth.getResponse("list").contains("2. [T][ ] slipper (#3)"));
+
+        alioth.getResponse("begin");
+        alioth.getResponse("undo");
+        alioth.getResponse("mark 1");
+        alioth.getResponse("commit");
+        alioth.getResponse("undo");
+        assertEquals(before, alioth.getResponse("list"));
+        assertEquals(before, new Alioth(testPath).getResponse("list"));
+    }
+
+    /**
+     * Tests that every response is counted under its command word, with failures counted as errors,
+     * and that the stats command shows them.
+     */
+    @Test
+    public void getResponse_commands_recordedInMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        long todoCount = metrics.countOf("todo");
+        long listCount = metrics.countOf("list");
+        long unknownCount = metrics.countOf(MetricsRegistry.UNKNOWN_COMMAND);
+        long errorCount = metrics.getErrorCount();
+
+        alioth.getResponse("todo ball");
+        alioth.getResponse("todo");
+        alioth.getResponse("alias ls list");
+        alioth.getResponse("ls");
+        alioth.getResponse("dance");
+
+        assertEquals(todoCount + 2, metrics.countOf("todo"));
+        assertEquals(listCount + 1, metrics.countOf("list"));
+        assertEquals(unknownCount + 1, metrics.countOf(MetricsRegistry.UNKNOWN_COMMAND));
+        assertEquals(errorCount + 2, metrics.getErrorCount());
+        assertTrue(metrics.get("todo").getLatency(Phase.SAVE).totalNanos() > 0);
+        assertTrue(alioth.getResponse("stats").contains("todo"));
+    }
 }
@@ -0,0 +1,70 @@
+package alioth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.storage.Storage;
+
+/**
+ * Tests for BatchRunner to verify scripts run like the app and save in batches.
+ */
+public class BatchRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BatchRunner.Summary run(Path filePath, String script, int saveInterval, boolean isQuiet,
+            StringWriter out) throws Exception {
+        BatchRunner runner = new BatchRunner(new Storage(filePath), saveInterval, isQuiet);
+        return runner.run(new BufferedReader(new StringReader(script)), out);
+    }
+
+    /**
+     * Tests that every command runs, errors are reported, and the tasks are saved once at the end.
+     */
+    @Test
+    public void run_script_savedOnceAtEnd() throws Exception {
+        Path filePath = tempDir.resolve("batch.txt");
+        StringWriter out = new StringWriter();
+        BatchRunner.Summary summary = run(filePath,
+                "todo ball\ntodo gown\n\nmark 1\ndance\nalias ls list\nls\n", 0, false, out);
+
+        assertEquals(6, summary.commandCount());
+        assertEquals(1, summary.errorCount());
+        assertEquals(1, summary.saveCount());
+        assertTrue(out.toString().contains("never heard of that command"));
+        assertTrue(out.toString().contains("1. [T][X] ball"));
+        assertEquals("[[T][X] ball, [T][ ] gown]", new Storage(filePath).load().toString());
+    }
+
+    /**
+     * Tests that the tasks are saved every few commands, and that the script stops at bye.
+     */
+    @Test
+    public void run_saveIntervalAndBye_savedPeriodically() throws Exception {
+        Path filePath = tempDir.resolve("periodic.txt");
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            script.append("todo task ").append(i).append('\n');
+        }
+        script.append("bye\ntodo after bye\n");
+
+        StringWriter out = new StringWriter();
+        BatchRunner.Summary summary = run(filePath, script.toString(), 10, true, out);
+
+        assertEquals(26, summary.commandCount());
+        assertEquals(3, summary.saveCount());
+        assertEquals("", out.toString());
+        assertEquals(25, new Storage(filePath).load().size());
+        assertFalse(summary.toString().isEmpty());
+    }
+}
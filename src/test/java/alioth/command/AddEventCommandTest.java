@@ -1,7 +1,9 @@
 package alioth.command;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -94,4 +96,22 @@ public class AddEventCommandTest {
         AddEventCommand wrongDate = new AddEventCommand("Party /from today /to tomorrow");
         assertThrows(AliothException.class, () -> wrongDate.execute(tasks, ui, storage));
     }
+
+    /**
+     * Tests that an overlapping event is added with a warning, but a back-to-back one is not flagged.
+     */
+    @Test
+    public void execute_overlappingEvent_warnsAboutConflict() throws AliothException {
+        new AddEventCommand("Royal Ball /from 2026-02-20 1800 /to 2026-02-20 2200").execute(tasks, ui, storage);
+        ui.consumeOutput();
+
+        new AddEventCommand("Fireworks /from 2026-02-20 2100 /to 2026-02-20 2300").execute(tasks, ui, storage);
+        String output = ui.consumeOutput();
+        assertEquals(2, tasks.size());
+        assertTrue(output.contains("clashes with"));
+        assertTrue(output.contains("Royal Ball"));
+
+        new AddEventCommand("Sleep /from 2026-02-20 2300 /to 2026-02-21 0800").execute(tasks, ui, storage);
+        assertFalse(ui.consumeOutput().contains("clashes with"));
+    }
 }
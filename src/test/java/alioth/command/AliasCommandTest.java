@@ -11,7 +11,7 @@ import org.junit.jupiter.api.Test;
 
 import alioth.exception.AliothException;
 import alioth.message.Message;
-import alioth.parser.Parser;
+import alioth.parser.AliasRegistry;
 import alioth.storage.Storage;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
@@ -23,25 +23,26 @@ public class AliasCommandTest {
     private TaskList tasks;
     private Ui ui;
     private Storage storage;
+    private AliasRegistry aliases;
 
     @BeforeEach
     public void setUp() {
         tasks = new TaskList();
         ui = new Ui();
         storage = new Storage(Paths.get("data", "test-aliases.txt"));
-        Parser.setStorage(storage);
+        aliases = new AliasRegistry(storage);
     }
 
     /**
-     * Tests that a valid alias is correctly added to the Parser.
+     * Tests that a valid alias is correctly added to the registry.
      */
     @Test
     public void execute_validAlias_success() throws AliothException {
-        AliasCommand command = new AliasCommand("ls list");
+        AliasCommand command = new AliasCommand("ls list", aliases);
         command.execute(tasks, ui, storage);
 
-        assertTrue(Parser.getAliases().containsKey("ls"));
-        assertEquals("list", Parser.getAliases().get("ls"));
+        assertTrue(aliases.getAliases().containsKey("ls"));
+        assertEquals("list", aliases.getAliases().get("ls"));
     }
 
     /**
@@ -49,7 +50,7 @@ public class AliasCommandTest {
      */
     @Test
     public void execute_unknownTarget_exceptionThrown() {
-        AliasCommand command = new AliasCommand("dance jump");
+        AliasCommand command = new AliasCommand("dance jump", aliases);
 
         AliothException e = assertThrows(AliothException.class, () ->
                 command.execute(tasks, ui, storage));
@@ -61,7 +62,7 @@ public class AliasCommandTest {
      */
     @Test
     public void execute_reservedWordAlias_exceptionThrown() {
-        AliasCommand command = new AliasCommand("todo list");
+        AliasCommand command = new AliasCommand("todo list", aliases);
 
         AliothException e = assertThrows(AliothException.class, () ->
                 command.execute(tasks, ui, storage));
@@ -73,7 +74,7 @@ public class AliasCommandTest {
      */
     @Test
     public void execute_incompleteArgs_exceptionThrown() {
-        AliasCommand command = new AliasCommand("ls");
+        AliasCommand command = new AliasCommand("ls", aliases);
 
         AliothException e = assertThrows(AliothException.class, () ->
                 command.execute(tasks, ui, storage));
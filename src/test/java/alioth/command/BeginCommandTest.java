@@ -0,0 +1,70 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.ui.Ui;
+
+/**
+ * Tests for BeginCommand to verify that changes after it go to a working copy.
+ */
+public class BeginCommandTest {
+    @TempDir
+    Path tempDir;
+
+    private TaskList tasks;
+    private TaskWorkspace workspace;
+    private Ui ui;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        workspace = new TaskWorkspace(tasks);
+        ui = new Ui();
+        storage = new Storage(tempDir.resolve("begin.txt"));
+    }
+
+    /**
+     * Tests that beginning a transaction opens a working copy and holds back saves.
+     */
+    @Test
+    public void execute_noTransaction_workingCopyOpened() throws AliothException {
+        new BeginCommand(workspace).execute(tasks, ui, storage);
+
+        assertTrue(workspace.isInTransaction());
+        assertNotSame(tasks, workspace.getTasks());
+        assertTrue(ui.consumeOutput().contains("Let us plan in secret!"));
+
+        new AddTodoCommand("ball").execute(workspace.getTasks(), ui, storage);
+        assertEquals(0, tasks.size());
+        assertFalse(Files.exists(tempDir.resolve("begin.txt")));
+    }
+
+    /**
+     * Tests that a second begin before commit or rollback is refused.
+     */
+    @Test
+    public void execute_transactionOpen_exceptionThrown() throws AliothException {
+        new BeginCommand(workspace).execute(tasks, ui, storage);
+
+        AliothException e = assertThrows(AliothException.class, () ->
+                new BeginCommand(workspace).execute(workspace.getTasks(), ui, storage));
+        assertEquals(Message.TRANSACTION_ALREADY_OPEN.getText(), e.getMessage());
+    }
+}
@@ -0,0 +1,66 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.ui.Ui;
+
+/**
+ * Tests for CommitCommand to verify that a transaction's changes are kept and saved.
+ */
+public class CommitCommandTest {
+    @TempDir
+    Path tempDir;
+
+    private TaskWorkspace workspace;
+    private Ui ui;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        workspace = new TaskWorkspace(new TaskList());
+        ui = new Ui();
+        storage = new Storage(tempDir.resolve("commit.txt"));
+    }
+
+    /**
+     * Tests that committing keeps the changes and saves them.
+     */
+    @Test
+    public void execute_openTransaction_changesSaved() throws AliothException {
+        new BeginCommand(workspace).execute(workspace.getTasks(), ui, storage);
+        new AddTodoCommand("ball").execute(workspace.getTasks(), ui, storage);
+        new AddTodoCommand("gown").execute(workspace.getTasks(), ui, storage);
+        ui.clearOutput();
+
+        new CommitCommand(workspace).execute(workspace.getTasks(), ui, storage);
+
+        assertFalse(workspace.isInTransaction());
+        assertEquals(2, workspace.getTasks().size());
+        assertEquals(2, new Storage(tempDir.resolve("commit.txt")).load().size());
+        assertTrue(ui.consumeOutput().contains("Now you have 2 tasks"));
+    }
+
+    /**
+     * Tests that committing without a transaction is refused.
+     */
+    @Test
+    public void execute_noTransaction_exceptionThrown() {
+        AliothException e = assertThrows(AliothException.class, () ->
+                new CommitCommand(workspace).execute(workspace.getTasks(), ui, storage));
+        assertEquals(Message.NO_TRANSACTION.getText(), e.getMessage());
+    }
+}
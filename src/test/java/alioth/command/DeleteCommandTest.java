@@ -74,4 +74,38 @@ public class DeleteCommandTest {
         assertThrows(AliothException.class, () ->
                 command.execute(tasks, ui, storage));
     }
+
+    /**
+     * Tests that a range and a list of tasks are removed together and saved once.
+     */
+    @Test
+    public void execute_rangeAndList_removedTogether() throws AliothException {
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(new Todo("scroll " + i));
+        }
+        new DeleteCommand("2-4,9,3").execute(tasks, ui, storage);
+
+        assertEquals(6, tasks.size());
+        assertEquals("scroll 5", tasks.get(1).getDescription());
+        assertEquals("scroll 10", tasks.get(5).getDescription());
+        assertEquals(tasks.asList().toString(), new Storage(TEST_PATH).load().toString());
+    }
+
+    /**
+     * Tests that every done task is removed by delete done.
+     */
+    @Test
+    public void execute_done_doneTasksRemoved() throws AliothException {
+        for (int i = 1; i <= 5; i++) {
+            tasks.add(new Todo("scroll " + i));
+        }
+        tasks.setDone(0, true);
+        tasks.setDone(3, true);
+        new DeleteCommand("done").execute(tasks, ui, storage);
+
+        assertEquals("[[T][ ] scroll 2, [T][ ] scroll 3, [T][ ] scroll 5]", tasks.asList().toString());
+        AliothException e = assertThrows(AliothException.class, () ->
+                new DeleteCommand("done").execute(tasks, ui, storage));
+        assertEquals(Message.NO_DONE_TASKS.getText(), e.getMessage());
+    }
 }
@@ -0,0 +1,81 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.Deadline;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Tests for DueCommand to verify upcoming deadlines are listed in date order.
+ */
+public class DueCommandTest {
+    private static final Clock CLOCK = Clock.fixed(
+            LocalDate.of(2026, 2, 20).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    private TaskList tasks;
+    private Ui ui;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        ui = new Ui();
+        storage = new Storage(Paths.get("data", "test-due.txt"));
+
+        tasks.add(new Deadline("essay", LocalDate.of(2026, 3, 1)));
+        tasks.add(new Deadline("tax", LocalDate.of(2026, 2, 1)));
+        tasks.add(new Deadline("slipper", LocalDate.of(2026, 2, 20)));
+    }
+
+    /**
+     * Tests that only the requested number of upcoming deadlines are shown, earliest first.
+     */
+    @Test
+    public void execute_withCount_showsEarliestDeadlines() throws AliothException {
+        new DueCommand("1", CLOCK).execute(tasks, ui, storage);
+
+        String output = ui.consumeOutput();
+        assertTrue(output.contains("1. [D][ ] slipper"));
+        assertFalse(output.contains("essay"));
+        assertFalse(output.contains("tax"));
+    }
+
+    /**
+     * Tests that every upcoming deadline is shown when no count is given.
+     */
+    @Test
+    public void execute_noCount_showsUpcomingDeadlines() throws AliothException {
+        new DueCommand("", CLOCK).execute(tasks, ui, storage);
+
+        String output = ui.consumeOutput();
+        assertTrue(output.contains("2. [D][ ] essay"));
+        assertFalse(output.contains("tax"));
+    }
+
+    /**
+     * Tests that an invalid count throws a princess exception.
+     */
+    @Test
+    public void execute_invalidCount_exceptionThrown() {
+        for (String args : new String[] {"0", "-1", "soon"}) {
+            AliothException e = assertThrows(AliothException.class, () ->
+                    new DueCommand(args, CLOCK).execute(tasks, ui, storage));
+            assertEquals(Message.INVALID_DUE.getText(), e.getMessage());
+        }
+    }
+}
@@ -2,20 +2,27 @@ package alioth.command;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import alioth.exception.AliothException;
+import alioth.storage.DurabilityPolicy;
 import alioth.storage.Storage;
 import alioth.task.TaskList;
+import alioth.task.Todo;
 import alioth.ui.Ui;
 
 /**
  * Tests for ExitCommand to ensure the application signals for termination correctly.
  */
 public class ExitCommandTest {
+    private static final Path TEST_PATH = Paths.get("data", "test-exit.txt");
     private TaskList tasks;
     private Ui ui;
     private Storage storage;
@@ -24,7 +31,13 @@ public class ExitCommandTest {
     public void setUp() {
         tasks = new TaskList();
         ui = new Ui();
-        storage = new Storage(Paths.get("data", "test-exit.txt"));
+        storage = new Storage(TEST_PATH);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        storage.close();
+        Files.deleteIfExists(TEST_PATH);
     }
 
     /**
@@ -47,4 +60,17 @@ public class ExitCommandTest {
         String output = ui.consumeOutput();
         assertTrue(output.contains("Goodbye for now!"), "The royal farewell should be shown.");
     }
+
+    /**
+     * Tests that saves still queued in write-behind mode are written before exiting.
+     */
+    @Test
+    public void execute_writeBehind_flushesPendingSaves() throws AliothException {
+        storage.setWriteBehind(DurabilityPolicy.ASYNC, Duration.ofSeconds(30));
+        tasks.add(new Todo("Pack the carriage"));
+        storage.save(tasks.asList());
+
+        new ExitCommand().execute(tasks, ui, storage);
+        assertTrue(Files.exists(TEST_PATH), "Pending saves should be flushed on exit.");
+    }
 }
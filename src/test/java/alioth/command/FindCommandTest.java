@@ -74,4 +74,33 @@ public class FindCommandTest {
         assertTrue(output.contains("royal ball"));
         assertTrue(output.contains("royal dinner"));
     }
+
+    /**
+     * Tests that a fuzzy keyword finds a misspelt word, but not words that differ too much.
+     */
+    @Test
+    public void execute_fuzzyKeyword_toleratesTypos() throws AliothException {
+        new FindCommand("~gardn").execute(tasks, ui, storage);
+        String output = ui.consumeOutput();
+        assertTrue(output.contains("garden walk"));
+        assertFalse(output.contains("royal ball"));
+
+        new FindCommand("~ROYL").execute(tasks, ui, storage);
+        assertTrue(ui.consumeOutput().contains("royal ball"));
+
+        new FindCommand("~rxyxl").execute(tasks, ui, storage);
+        assertFalse(ui.consumeOutput().contains("royal ball"));
+    }
+
+    /**
+     * Tests that a fuzzy keyword must be a single word.
+     */
+    @Test
+    public void execute_fuzzyPhrase_exceptionThrown() {
+        for (String args : new String[] {"~", "~royal ball", "~ball!"}) {
+            AliothException e = assertThrows(AliothException.class, () ->
+                    new FindCommand(args).execute(tasks, ui, storage));
+            assertEquals(Message.INVALID_FIND.getText(), e.getMessage());
+        }
+    }
 }
@@ -8,7 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import alioth.exception.AliothException;
-import alioth.parser.Parser;
+import alioth.parser.AliasRegistry;
 import alioth.storage.Storage;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
@@ -20,16 +20,14 @@ public class ListAliasesCommandTest {
     private TaskList tasks;
     private Ui ui;
     private Storage storage;
+    private AliasRegistry aliases;
 
     @BeforeEach
-    public void setUp() throws AliothException {
+    public void setUp() {
         tasks = new TaskList();
         ui = new Ui();
         storage = new Storage(Paths.get("data", "test-aliases-list.txt"));
-        Parser.setStorage(storage);
-
-        // Clear any existing aliases in the static Parser before each test
-        Parser.removeAlias("ls");
+        aliases = new AliasRegistry(storage);
     }
 
     /**
@@ -37,8 +35,8 @@ public class ListAliasesCommandTest {
      */
     @Test
     public void execute_withAliases_showsInUi() throws AliothException {
-        Parser.addAlias("ls", "list");
-        ListAliasesCommand command = new ListAliasesCommand();
+        aliases.add("ls", "list");
+        ListAliasesCommand command = new ListAliasesCommand(aliases);
         command.execute(tasks, ui, storage);
 
         String output = ui.consumeOutput();
@@ -51,7 +49,7 @@ public class ListAliasesCommandTest {
      */
     @Test
     public void execute_noAliases_showsEmptyMessage() {
-        ListAliasesCommand command = new ListAliasesCommand();
+        ListAliasesCommand command = new ListAliasesCommand(aliases);
         command.execute(tasks, ui, storage);
 
         String output = ui.consumeOutput();
@@ -0,0 +1,71 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.Deadline;
+import alioth.task.Event;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Tests for ListEventsCommand to verify range filtering and input validation.
+ */
+public class ListEventsCommandTest {
+    private TaskList tasks;
+    private Ui ui;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        ui = new Ui();
+        storage = new Storage(Paths.get("data", "test-events.txt"));
+
+        tasks.add(new Event("royal ball", LocalDateTime.of(2026, 2, 20, 18, 0), LocalDateTime.of(2026, 2, 20, 22, 0)));
+        tasks.add(new Event("tea party", LocalDateTime.of(2026, 2, 20, 14, 0), LocalDateTime.of(2026, 2, 20, 16, 0)));
+        tasks.add(new Deadline("return slipper", LocalDate.of(2026, 2, 20)));
+    }
+
+    /**
+     * Tests that only events on during the range are listed, in order of start time.
+     */
+    @Test
+    public void execute_validRange_listsOverlappingEvents() throws AliothException {
+        new ListEventsCommand("/from 2026-02-20 1500 /to 2026-02-20 1800").execute(tasks, ui, storage);
+
+        String output = ui.consumeOutput();
+        assertTrue(output.contains("1. [E][ ] tea party"));
+        assertTrue(output.contains("2. [E][ ] royal ball"));
+        assertFalse(output.contains("return slipper"));
+    }
+
+    /**
+     * Tests that malformed ranges throw a princess exception.
+     */
+    @Test
+    public void execute_invalidRange_exceptionThrown() {
+        for (String args : new String[] {"", "/from 2026-02-20 1500", "/to 2026-02-20 1800",
+            "/from tomorrow /to 2026-02-20 1800", "x /from 2026-02-20 1500 /to 2026-02-20 1800"}) {
+            AliothException e = assertThrows(AliothException.class, () ->
+                    new ListEventsCommand(args).execute(tasks, ui, storage));
+            assertEquals(Message.INVALID_EVENTS_RANGE.getText(), e.getMessage());
+        }
+
+        AliothException e = assertThrows(AliothException.class, () ->
+                new ListEventsCommand("/from 2026-02-21 1500 /to 2026-02-20 1800").execute(tasks, ui, storage));
+        assertEquals(Message.EVENT_CHRONOLOGY.getText(), e.getMessage());
+    }
+}
@@ -78,4 +78,19 @@ public class MarkCommandTest {
         // This verifies the save method was called without crashing
         assertTrue(Files.exists(TEST_PATH), "Storage should save the updated list.");
     }
+
+    /**
+     * Tests that a list of tasks is marked together.
+     */
+    @Test
+    public void execute_list_allMarked() throws AliothException {
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(new Todo("dream " + i));
+        }
+        new MarkCommand("1,4,9").execute(tasks, ui, storage);
+
+        assertEquals(3, tasks.indicesOfDone().length);
+        assertTrue(tasks.get(8).isDone());
+        assertTrue(ui.consumeOutput().contains("I marked these 3 tasks as done"));
+    }
 }
@@ -0,0 +1,44 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import alioth.storage.Storage;
+import alioth.task.Deadline;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Tests for OverdueCommand to verify only missed deadlines are listed.
+ */
+public class OverdueCommandTest {
+
+    /**
+     * Tests that undone deadlines before today are shown, but not done or upcoming ones.
+     */
+    @Test
+    public void execute_mixedDeadlines_showsMissedOnly() {
+        Clock clock = Clock.fixed(LocalDate.of(2026, 2, 20).atStartOfDay().toInstant(ZoneOffset.UTC),
+                ZoneOffset.UTC);
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("tax", LocalDate.of(2026, 2, 1)));
+        tasks.add(new Deadline("rent", LocalDate.of(2026, 1, 1)));
+        tasks.add(new Deadline("slipper", LocalDate.of(2026, 2, 20)));
+        tasks.setDone(1, true);
+        Ui ui = new Ui();
+
+        new OverdueCommand(clock).execute(tasks, ui, new Storage(Paths.get("data", "test-overdue.txt")));
+
+        String output = ui.consumeOutput();
+        assertTrue(output.contains("1. [D][ ] tax"));
+        assertFalse(output.contains("rent"));
+        assertFalse(output.contains("slipper"));
+    }
+}
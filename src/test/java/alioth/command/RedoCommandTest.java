@@ -0,0 +1,70 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.ui.Ui;
+
+/**
+ * Tests for RedoCommand to verify that undone changes are made again.
+ */
+public class RedoCommandTest {
+    @TempDir
+    Path tempDir;
+
+    private TaskWorkspace workspace;
+    private Ui ui;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        workspace = new TaskWorkspace(new TaskList());
+        ui = new Ui();
+        storage = new Storage(tempDir.resolve("redo.txt"));
+    }
+
+    private void run(Command command) throws AliothException {
+        command.execute(workspace.getTasks(), ui, storage);
+        workspace.recordChange(command.getChange());
+    }
+
+    /**
+     * Tests that redoing an undone mark marks the tasks again.
+     */
+    @Test
+    public void execute_afterUndo_changeMadeAgain() throws AliothException {
+        run(new AddTodoCommand("ball"));
+        run(new AddTodoCommand("gown"));
+        run(new MarkCommand("1-2"));
+        run(new UndoCommand(workspace));
+        assertEquals(0, workspace.getTasks().indicesOfDone().length);
+
+        run(new RedoCommand(workspace));
+        assertEquals(2, workspace.getTasks().indicesOfDone().length);
+        assertEquals("[[T][X] ball, [T][X] gown]", new Storage(tempDir.resolve("redo.txt")).load().toString());
+    }
+
+    /**
+     * Tests that a new change means the undone change can no longer be redone.
+     */
+    @Test
+    public void execute_newChangeAfterUndo_exceptionThrown() throws AliothException {
+        run(new AddTodoCommand("ball"));
+        run(new UndoCommand(workspace));
+        run(new AddTodoCommand("gown"));
+
+        AliothException e = assertThrows(AliothException.class, () -> run(new RedoCommand(workspace)));
+        assertEquals(Message.NOTHING_TO_REDO.getText(), e.getMessage());
+    }
+}
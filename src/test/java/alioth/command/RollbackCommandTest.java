@@ -0,0 +1,96 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.task.Todo;
+import alioth.ui.Ui;
+
+/**
+ * Tests for RollbackCommand to verify that a transaction's changes are thrown away.
+ */
+public class RollbackCommandTest {
+    @TempDir
+    Path tempDir;
+
+    private TaskList tasks;
+    private TaskWorkspace workspace;
+    private Ui ui;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        tasks.add(new Todo("ball"));
+        workspace = new TaskWorkspace(tasks);
+        ui = new Ui();
+        storage = new Storage(tempDir.resolve("rollback.txt"));
+    }
+
+    private void run(Command command) throws AliothException {
+        command.execute(workspace.getTasks(), ui, storage);
+        workspace.recordChange(command.getChange());
+    }
+
+    /**
+     * Tests that rolling back restores the tasks and saves nothing.
+     */
+    @Test
+    public void execute_openTransaction_changesDiscarded() throws AliothException {
+        new BeginCommand(workspace).execute(tasks, ui, storage);
+        new MarkCommand("1").execute(workspace.getTasks(), ui, storage);
+        new DeleteCommand("1").execute(workspace.getTasks(), ui, storage);
+        ui.clearOutput();
+
+        new RollbackCommand(workspace).execute(workspace.getTasks(), ui, storage);
+
+        assertFalse(workspace.isInTransaction());
+        assertEquals(tasks, workspace.getTasks());
+        assertEquals("[[T][ ] ball]", tasks.asList().toString());
+        assertFalse(Files.exists(tempDir.resolve("rollback.txt")));
+        assertTrue(ui.consumeOutput().contains("vanished"));
+    }
+
+    /**
+     * Tests that a task put back by redo inside a rolled-back transaction does not carry the
+     * transaction's changes into the history kept from before it.
+     */
+    @Test
+    public void execute_redoneTaskChangedInTransaction_historyUnchanged() throws AliothException {
+        workspace = new TaskWorkspace(new TaskList());
+        run(new AddTodoCommand("x"));
+        run(new UndoCommand(workspace));
+        run(new BeginCommand(workspace));
+        run(new RedoCommand(workspace));
+        run(new MarkCommand("1"));
+        run(new RollbackCommand(workspace));
+
+        run(new RedoCommand(workspace));
+
+        assertEquals("[[T][ ] x]", workspace.getTasks().asList().toString());
+    }
+
+    /**
+     * Tests that rolling back without a transaction is refused.
+     */
+    @Test
+    public void execute_noTransaction_exceptionThrown() {
+        AliothException e = assertThrows(AliothException.class, () ->
+                new RollbackCommand(workspace).execute(tasks, ui, storage));
+        assertEquals(Message.NO_TRANSACTION.getText(), e.getMessage());
+    }
+}
@@ -0,0 +1,75 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.TaskList;
+import alioth.task.Todo;
+import alioth.ui.Ui;
+
+/**
+ * Tests for SearchCommand to verify ranked output and the --limit option.
+ */
+public class SearchCommandTest {
+    private TaskList tasks;
+    private Ui ui;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        ui = new Ui();
+        storage = new Storage(Paths.get("data", "test-search.txt"));
+
+        tasks.add(new Todo("garden walk to the royal ball after the long royal parade"));
+        tasks.add(new Todo("royal ball"));
+        tasks.add(new Todo("polish crown"));
+    }
+
+    /**
+     * Tests that the most relevant task is listed first.
+     */
+    @Test
+    public void execute_query_showsMostRelevantFirst() throws AliothException {
+        new SearchCommand("royal ball").execute(tasks, ui, storage);
+
+        String output = ui.consumeOutput();
+        assertTrue(output.contains("1. [T][ ] royal ball"));
+        assertTrue(output.contains("2. [T][ ] garden walk"));
+        assertFalse(output.contains("polish crown"));
+    }
+
+    /**
+     * Tests that --limit keeps only the best matches, wherever it appears.
+     */
+    @Test
+    public void execute_limitOption_showsTopMatches() throws AliothException {
+        new SearchCommand("--limit 1 royal").execute(tasks, ui, storage);
+
+        String output = ui.consumeOutput();
+        assertTrue(output.contains("1. [T][ ] royal ball"));
+        assertFalse(output.contains("2."));
+    }
+
+    /**
+     * Tests that a missing or invalid limit throws a princess exception.
+     */
+    @Test
+    public void execute_invalidLimit_exceptionThrown() {
+        for (String args : new String[] {"royal --limit", "royal --limit 0", "royal --limit x"}) {
+            AliothException e = assertThrows(AliothException.class, () ->
+                    new SearchCommand(args).execute(tasks, ui, storage));
+            assertEquals(Message.INVALID_SEARCH.getText(), e.getMessage());
+        }
+    }
+}
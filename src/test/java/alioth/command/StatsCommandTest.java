@@ -0,0 +1,44 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import alioth.metrics.MetricsRegistry;
+import alioth.metrics.Phase;
+import alioth.task.TaskList;
+import alioth.ui.Ui;
+
+/**
+ * Tests for StatsCommand to verify the metrics are shown.
+ */
+public class StatsCommandTest {
+
+    /**
+     * Tests that a registry with nothing in it says so.
+     */
+    @Test
+    public void execute_noCommands_showsEmptyLedger() {
+        Ui ui = new Ui();
+        new StatsCommand(new MetricsRegistry()).execute(new TaskList(), ui, null);
+
+        assertTrue(ui.consumeOutput().contains("The royal ledger is empty"));
+    }
+
+    /**
+     * Tests that each command that has run gets a row.
+     */
+    @Test
+    public void execute_someCommands_showsEachCommand() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.record("todo", new long[Phase.values().length], false);
+        metrics.record("find", new long[Phase.values().length], true);
+        Ui ui = new Ui();
+        new StatsCommand(metrics).execute(new TaskList(), ui, null);
+
+        String output = ui.consumeOutput();
+        assertTrue(output.contains("The royal ledger of every command so far"));
+        assertTrue(output.contains("todo"));
+        assertTrue(output.contains("find"));
+    }
+}
@@ -12,7 +12,7 @@ import org.junit.jupiter.api.Test;
 
 import alioth.exception.AliothException;
 import alioth.message.Message;
-import alioth.parser.Parser;
+import alioth.parser.AliasRegistry;
 import alioth.storage.Storage;
 import alioth.task.TaskList;
 import alioth.ui.Ui;
@@ -24,18 +24,17 @@ public class UnaliasCommandTest {
     private TaskList tasks;
     private Ui ui;
     private Storage storage;
+    private AliasRegistry aliases;
 
     @BeforeEach
     public void setUp() throws AliothException {
         tasks = new TaskList();
         ui = new Ui();
         storage = new Storage(Paths.get("data", "test-unalias.txt"));
-        Parser.setStorage(storage);
+        aliases = new AliasRegistry(storage);
 
-        // Ensure the parser has a known alias to remove
-        if (!Parser.getAliases().containsKey("ls")) {
-            Parser.addAlias("ls", "list");
-        }
+        // Ensure the registry has a known alias to remove
+        aliases.add("ls", "list");
     }
 
     /**
@@ -43,10 +42,10 @@ public class UnaliasCommandTest {
      */
     @Test
     public void execute_validAlias_success() throws AliothException {
-        UnaliasCommand command = new UnaliasCommand("ls");
+        UnaliasCommand command = new UnaliasCommand("ls", aliases);
         command.execute(tasks, ui, storage);
 
-        assertFalse(Parser.getAliases().containsKey("ls"), "Alias should be removed from the Parser.");
+        assertFalse(aliases.getAliases().containsKey("ls"), "Alias should be removed from the registry.");
         assertTrue(ui.consumeOutput().contains("no longer a secret name"), "UI should confirm removal.");
     }
 
@@ -55,7 +54,7 @@ public class UnaliasCommandTest {
      */
     @Test
     public void execute_nonExistentAlias_exceptionThrown() {
-        UnaliasCommand command = new UnaliasCommand("magicWord");
+        UnaliasCommand command = new UnaliasCommand("magicWord", aliases);
 
         AliothException e = assertThrows(AliothException.class, () ->
                 command.execute(tasks, ui, storage));
@@ -67,7 +66,7 @@ public class UnaliasCommandTest {
      */
     @Test
     public void execute_emptyArgs_exceptionThrown() {
-        UnaliasCommand command = new UnaliasCommand("   ");
+        UnaliasCommand command = new UnaliasCommand("   ", aliases);
 
         AliothException e = assertThrows(AliothException.class, () ->
                 command.execute(tasks, ui, storage));
@@ -0,0 +1,98 @@
+package alioth.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+import alioth.task.Task;
+import alioth.task.TaskList;
+import alioth.task.TaskWorkspace;
+import alioth.task.Todo;
+import alioth.ui.Ui;
+
+/**
+ * Tests for UndoCommand to verify that changes are reversed and saved.
+ */
+public class UndoCommandTest {
+    @TempDir
+    Path tempDir;
+
+    private TaskWorkspace workspace;
+    private Ui ui;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("ball"));
+        tasks.add(new Todo("gown"));
+        workspace = new TaskWorkspace(tasks);
+        ui = new Ui();
+        storage = new Storage(tempDir.resolve("undo.txt"));
+    }
+
+    private void run(Command command) throws AliothException {
+        command.execute(workspace.getTasks(), ui, storage);
+        workspace.recordChange(command.getChange());
+    }
+
+    /**
+     * Tests that undoing a delete brings the task back and saves it.
+     */
+    @Test
+    public void execute_afterDelete_taskRestored() throws AliothException {
+        run(new DeleteCommand("1"));
+        ui.clearOutput();
+        run(new UndoCommand(workspace));
+
+        assertEquals("[[T][ ] ball, [T][ ] gown]", workspace.getTasks().asList().toString());
+        assertEquals("[[T][ ] ball, [T][ ] gown]", new Storage(tempDir.resolve("undo.txt")).load().toString());
+        assertTrue(ui.consumeOutput().contains("I undid the change to:"));
+    }
+
+    /**
+     * Tests that in journal mode, undoing and redoing deletes and marks of several tasks only
+     * appends journal records, which restore the same tasks with the same ids when loaded.
+     */
+    @Test
+    public void execute_journalMode_recordsReplayed() throws AliothException {
+        workspace = new TaskWorkspace(new TaskList());
+        storage.setJournalMode(true);
+        for (String description : List.of("ball", "gown", "slipper")) {
+            run(new AddTodoCommand(description));
+        }
+        run(new MarkCommand("2,3"));
+        run(new DeleteCommand("1-2"));
+        run(new UndoCommand(workspace));
+        run(new UndoCommand(workspace));
+        run(new RedoCommand(workspace));
+        storage.close();
+
+        assertFalse(Files.exists(tempDir.resolve("undo.txt")), "Only the journal should be written.");
+        List<Task> loaded = new Storage(tempDir.resolve("undo.txt")).load();
+        assertEquals(workspace.getTasks().asList().toString(), loaded.toString());
+        assertEquals("[[T][ ] ball, [T][X] gown, [T][X] slipper]", loaded.toString());
+        assertEquals(List.of(1, 2, 3), loaded.stream().map(Task::getId).toList());
+    }
+
+    /**
+     * Tests that undo with nothing to undo is refused.
+     */
+    @Test
+    public void execute_emptyHistory_exceptionThrown() {
+        AliothException e = assertThrows(AliothException.class, () -> run(new UndoCommand(workspace)));
+        assertEquals(Message.NOTHING_TO_UNDO.getText(), e.getMessage());
+    }
+}
@@ -84,4 +84,21 @@ public class UnmarkCommandTest {
 
         assertTrue(Files.exists(TEST_PATH), "The task list should be saved after unmarking.");
     }
+
+    /**
+     * Tests that a range of done tasks is unmarked together.
+     */
+    @Test
+    public void execute_range_allUnmarked() throws AliothException {
+        for (int i = 1; i <= 5; i++) {
+            Todo todo = new Todo("party " + i);
+            todo.setDone(true);
+            tasks.add(todo);
+        }
+        new UnmarkCommand("2-4").execute(tasks, ui, storage);
+
+        assertEquals(2, tasks.indicesOfDone().length);
+        assertTrue(tasks.get(0).isDone());
+        assertTrue(tasks.get(4).isDone());
+    }
 }
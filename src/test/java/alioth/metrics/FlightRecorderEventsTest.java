@@ -0,0 +1,99 @@
+package alioth.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.Alioth;
+import alioth.storage.Storage;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests that the command pipeline emits its flight recorder events with their fields filled in.
+ */
+public class FlightRecorderEventsTest {
+    private static final String[] EVENT_NAMES = {
+        "alioth.CommandParse", "alioth.CommandExecute", "alioth.StorageLoad", "alioth.StorageSave", "alioth.AliasSave",
+    };
+
+    @TempDir
+    Path tempDir;
+
+    private List<RecordedEvent> record(Runnable work) throws Exception {
+        Path dump = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : EVENT_NAMES) {
+                recording.enable(name).withoutThreshold();
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(dump);
+        }
+        return RecordingFile.readAllEvents(dump);
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+    }
+
+    /**
+     * Tests that a session records parsing, running, loading, saving and alias events.
+     */
+    @Test
+    public void getResponse_session_eventsRecorded() throws Exception {
+        Path filePath = tempDir.resolve("alioth.txt");
+        List<RecordedEvent> events = record(() -> {
+            Storage storage = new Storage(filePath);
+            storage.setJournalMode(true);
+            Alioth alioth = new Alioth(storage);
+            alioth.getResponse("todo ball");
+            alioth.getResponse("todo gown");
+            alioth.getResponse("mark 1,2");
+            alioth.getResponse("alias ls list");
+            alioth.getResponse("dance");
+            alioth.getResponse("begin");
+            alioth.getResponse("todo slipper");
+            alioth.getResponse("commit");
+            alioth.close();
+        });
+
+        List<RecordedEvent> parses = named(events, "alioth.CommandParse");
+        assertEquals(8, parses.size());
+        assertEquals("todo", parses.get(0).getString("commandWord"));
+        assertEquals(9, parses.get(0).getInt("inputLength"));
+        assertTrue(parses.get(0).getBoolean("isSuccess"));
+        assertEquals("", parses.get(4).getString("commandWord"));
+        assertFalse(parses.get(4).getBoolean("isSuccess"));
+
+        List<RecordedEvent> executes = named(events, "alioth.CommandExecute");
+        assertEquals(7, executes.size());
+        assertEquals("mark", executes.get(2).getString("commandWord"));
+        assertEquals(2, executes.get(2).getInt("taskCount"));
+        assertTrue(executes.get(2).getBoolean("isSuccess"));
+
+        assertEquals(1, named(events, "alioth.StorageLoad").size());
+        assertEquals(filePath.toString(), named(events, "alioth.StorageLoad").get(0).getString("path"));
+
+        List<RecordedEvent> saves = named(events, "alioth.StorageSave");
+        assertEquals("[journal, journal, journal, snapshot]",
+                saves.stream().map(event -> event.getString("kind")).toList().toString());
+        assertTrue(saves.stream().allMatch(event -> event.getLong("bytesWritten") > 0));
+        assertEquals(1, saves.get(2).getInt("recordCount"));
+        assertEquals(3, saves.get(3).getInt("recordCount"));
+
+        RecordedEvent aliasSave = named(events, "alioth.AliasSave").get(0);
+        assertEquals(1, aliasSave.getInt("aliasCount"));
+        assertEquals("ls | list".length() + System.lineSeparator().length(), aliasSave.getLong("bytesWritten"));
+    }
+}
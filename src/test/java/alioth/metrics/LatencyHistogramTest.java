@@ -0,0 +1,77 @@
+package alioth.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for LatencyHistogram to verify latencies land in the right buckets and percentiles stay close.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that every latency falls into a bucket whose upper bound is at least as large,
+     * and the previous bucket's upper bound is smaller.
+     */
+    @Test
+    public void bucketOf_latencies_withinBucketBounds() {
+        for (long nanos : new long[] {0, 1, 3, 4, 7, 8, 9, 1000, 123_456, 1L << 40, (1L << 41) - 1}) {
+            int bucket = LatencyHistogram.bucketOf(nanos);
+            assertTrue(LatencyHistogram.upperBoundOf(bucket) >= nanos, "upper bound of " + nanos);
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(bucket - 1) < nanos, "previous bound of " + nanos);
+            }
+        }
+        assertEquals(LatencyHistogram.bucketOf(1L << 41), LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    /**
+     * Tests that percentiles are at most a quarter above the exact value, and never above the maximum.
+     */
+    @Test
+    public void percentile_thousandLatencies_withinQuarter() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(500_500_000, histogram.totalNanos());
+        assertEquals(1_000_000, histogram.maxNanos());
+        for (double fraction : new double[] {0.5, 0.99, 0.999}) {
+            long exact = (long) Math.ceil(fraction * 1000) * 1000;
+            long reported = histogram.percentile(fraction);
+            assertTrue(reported >= exact && reported <= exact * 1.25, fraction + ": " + reported);
+        }
+        assertEquals(1_000_000, histogram.percentile(1));
+        assertEquals(0, new LatencyHistogram().percentile(0.99));
+    }
+
+    /**
+     * Tests that latencies recorded from many threads at once are all counted.
+     */
+    @Test
+    public void record_manyThreads_allCounted() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.count());
+        assertEquals(9_999, histogram.maxNanos());
+    }
+}
@@ -0,0 +1,62 @@
+package alioth.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for MetricsRegistry to verify commands are counted per word and reported through JMX.
+ */
+public class MetricsRegistryTest {
+
+    /**
+     * Tests that counts, errors and phase latencies are kept per command word.
+     */
+    @Test
+    public void record_twoCommands_keptApart() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.record("find", new long[] {1000, 2000, 0, 3000, 6000}, false);
+        registry.record("find", new long[] {1000, 0, 0, 0, 1000}, true);
+        registry.record("todo", new long[] {500, 500, 8000, 1000, 10_000}, false);
+
+        assertEquals(3, registry.getCommandCount());
+        assertEquals(1, registry.getErrorCount());
+        assertEquals("[find, todo]", Arrays.toString(registry.getCommandWords()));
+        assertEquals(2, registry.countOf("find"));
+        assertEquals(0, registry.countOf("list"));
+        assertNull(registry.get("list"));
+
+        CommandMetrics todo = registry.get("todo");
+        assertEquals(8000, todo.getLatency(Phase.SAVE).totalNanos());
+        assertEquals(10.0, registry.percentileMicros("todo", "total", 0.5));
+        assertEquals(1, registry.get("find").getErrorCount());
+
+        String report = registry.getReport();
+        assertTrue(report.startsWith("command"));
+        assertTrue(report.contains("find"));
+        assertTrue(report.contains("todo"));
+    }
+
+    /**
+     * Tests that the default registry is shared and registered with the platform MBean server.
+     */
+    @Test
+    public void getDefault_registeredWithJmx() throws Exception {
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        assertSame(registry, MetricsRegistry.getDefault());
+
+        ObjectName name = new ObjectName(MetricsRegistry.OBJECT_NAME);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        registry.record("list", new long[Phase.values().length], false);
+        long count = (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "CommandCount");
+        assertTrue(count >= 1);
+    }
+}
@@ -0,0 +1,98 @@
+package alioth.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.storage.Storage;
+
+/**
+ * Tests for AliasRegistry to verify alias resolution and per-instance alias files.
+ */
+public class AliasRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that aliases resolve to their command words and other words resolve to themselves.
+     */
+    @Test
+    public void resolve_aliasAndPlainWord_success() throws AliothException {
+        AliasRegistry aliases = new AliasRegistry();
+        aliases.add("ls", "list");
+
+        assertEquals("list", aliases.resolve("ls"));
+        assertEquals("todo", aliases.resolve("todo"));
+        assertEquals(Map.of("ls", "list"), aliases.getAliases());
+    }
+
+    /**
+     * Tests that a snapshot taken before a change does not see it.
+     */
+    @Test
+    public void getAliases_afterChange_snapshotUnchanged() throws AliothException {
+        AliasRegistry aliases = new AliasRegistry();
+        aliases.add("ls", "list");
+        Map<String, String> snapshot = aliases.getAliases();
+
+        aliases.remove("ls");
+        assertEquals(Map.of("ls", "list"), snapshot);
+        assertTrue(aliases.getAliases().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.put("bye", "bye"));
+    }
+
+    /**
+     * Tests that each save file keeps its own aliases, which are loaded back later.
+     */
+    @Test
+    public void load_twoSaveFiles_keepSeparateAliases() throws AliothException {
+        AliasRegistry first = new AliasRegistry(new Storage(tempDir.resolve("first.txt")));
+        AliasRegistry second = new AliasRegistry(new Storage(tempDir.resolve("second.txt")));
+        first.add("ls", "list");
+        second.add("ls", "bye");
+
+        AliasRegistry reloaded = new AliasRegistry(new Storage(tempDir.resolve("first.txt")));
+        reloaded.load();
+        assertEquals(Map.of("ls", "list"), reloaded.getAliases());
+        assertTrue(Files.exists(tempDir.resolve("second.txt.aliases")));
+    }
+
+    /**
+     * Tests that aliases from the old shared alias file are loaded until the save file has its own.
+     */
+    @Test
+    public void load_legacyAliasFile_success() throws Exception {
+        Files.write(tempDir.resolve("aliases.txt"), List.of("ls | list"));
+        AliasRegistry aliases = new AliasRegistry(new Storage(tempDir.resolve("tasks.txt")));
+
+        aliases.load();
+        assertEquals("list", aliases.resolve("ls"));
+
+        aliases.add("bb", "bye");
+        aliases.load();
+        assertEquals(Map.of("ls", "list", "bb", "bye"), aliases.getAliases());
+    }
+
+    /**
+     * Tests that an alias that already exists is rejected.
+     */
+    @Test
+    public void add_existingAlias_exceptionThrown() throws AliothException {
+        AliasRegistry aliases = new AliasRegistry();
+        aliases.add("ls", "list");
+
+        AliothException e = assertThrows(AliothException.class, () -> aliases.add("ls", "bye"));
+        assertEquals(Message.ALIAS_ALREADY_EXISTS.format("ls"), e.getMessage());
+    }
+}
@@ -1,15 +1,19 @@
 package alioth.parser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
+
 import org.junit.jupiter.api.Test;
 
 import alioth.command.AddTodoCommand;
 import alioth.command.Command;
 import alioth.command.ExitCommand;
 import alioth.command.ListCommand;
+import alioth.command.StatsCommand;
 import alioth.exception.AliothException;
 import alioth.message.Message;
 import alioth.task.TaskList;
@@ -63,6 +67,23 @@ public class ParserTest {
                 Parser.parseTaskIndex(tasks, "0", "mark"));
     }
 
+    /**
+     * Tests that a task id is resolved to the task's current index, even after earlier tasks are removed.
+     */
+    @Test
+    public void parseTaskIndex_taskId_resolvesToIndex() throws Exception {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("First task"));
+        tasks.add(new Todo("Second task"));
+        tasks.remove(0);
+
+        assertEquals(0, Parser.parseTaskIndex(tasks, " #2 ", "mark"));
+        assertThrows(AliothException.class, () ->
+                Parser.parseTaskIndex(tasks, "#1", "delete"));
+        assertThrows(AliothException.class, () ->
+                Parser.parseTaskIndex(tasks, "#", "unmark"));
+    }
+
     /**
      * Tests that basic commands are parsed into their correct Command types.
      */
@@ -107,4 +128,58 @@ public class ParserTest {
                 Parser.parse("dance"));
         assertEquals(Message.UNKNOWN_COMMAND.getText(), e.getMessage());
     }
+
+    /**
+     * Tests that transaction commands are refused where there are no transactions.
+     */
+    @Test
+    public void parse_beginWithoutWorkspace_exceptionThrown() {
+        AliothException e = assertThrows(AliothException.class, () -> Parser.parse("begin"));
+        assertEquals(Message.SESSION_COMMAND_UNAVAILABLE.getText(), e.getMessage());
+    }
+
+    /**
+     * Tests that lists, ranges and ids are merged into increasing indices without repeats.
+     */
+    @Test
+    public void parseTaskIndices_listsAndRanges_sortedIndices() throws Exception {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+
+        assertEquals("[0, 2, 3, 4, 8]",
+                Arrays.toString(Parser.parseTaskIndices(tasks, "9, 3-5,1,#4", "delete")));
+        assertEquals("[6]", Arrays.toString(Parser.parseTaskIndices(tasks, "7", "delete")));
+    }
+
+    /**
+     * Tests that bad ranges and empty parts throw the command's error.
+     */
+    @Test
+    public void parseTaskIndices_invalidRange_exceptionThrown() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("task"));
+        tasks.add(new Todo("other task"));
+
+        for (String args : new String[] {"2-1", "1-3", "0-1", "1,,2", "1-", "-1", "1-x"}) {
+            AliothException e = assertThrows(AliothException.class, () ->
+                    Parser.parseTaskIndices(tasks, args, "delete"));
+            assertEquals(Message.INVALID_DELETE.getText(), e.getMessage());
+        }
+    }
+
+    /**
+     * Tests that the stats command parses, and that the command word of an input is resolved through aliases.
+     */
+    @Test
+    public void getResolvedCommandWord_aliasAndUnknown_resolved() throws Exception {
+        assertTrue(Parser.parse("stats") instanceof StatsCommand);
+
+        AliasRegistry aliases = new AliasRegistry();
+        aliases.add("ls", "list");
+        assertEquals("list", Parser.getResolvedCommandWord("ls", aliases));
+        assertEquals("find", Parser.getResolvedCommandWord("find book", aliases));
+        assertNull(Parser.getResolvedCommandWord("dance now", aliases));
+    }
 }
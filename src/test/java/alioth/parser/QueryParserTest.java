@@ -0,0 +1,69 @@
+package alioth.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+import alioth.task.Task;
+import alioth.task.TaskList;
+import alioth.task.Todo;
+
+/**
+ * Tests for QueryParser to verify operator precedence, phrases and malformed queries.
+ */
+public class QueryParserTest {
+    private TaskList tasks;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        tasks.add(new Todo("royal ball"));
+        tasks.add(new Todo("ball gown"));
+        tasks.add(new Todo("glass slipper"));
+        tasks.add(new Todo("pumpkin carriage"));
+    }
+
+    private List<String> search(String query) throws AliothException {
+        return tasks.search(QueryParser.parse(query), 0).stream()
+                .map(Task::getDescription)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Tests that adjacent words must all match and OR binds more loosely than AND.
+     */
+    @Test
+    public void parse_precedence_andBeforeOr() throws AliothException {
+        assertEquals(List.of("royal ball"), search("ball royal"));
+        assertEquals(List.of("glass slipper", "royal ball"), search("ball royal OR slipper"));
+        assertEquals(List.of("ball gown", "glass slipper"), search("(royal OR slipper OR gown) NOT royal"));
+    }
+
+    /**
+     * Tests that quoted phrases must match in order and quoted operators are plain words.
+     */
+    @Test
+    public void parse_phrases_matchInOrder() throws AliothException {
+        assertEquals(List.of("glass slipper"), search("\"glass slipper\""));
+        assertEquals(List.of(), search("\"slipper glass\""));
+        assertEquals(List.of(), search("\"OR\""));
+    }
+
+    /**
+     * Tests that malformed queries are rejected with the search usage message.
+     */
+    @Test
+    public void parse_malformedQuery_exceptionThrown() {
+        for (String query : List.of("", "ball AND", "OR ball", "(ball", "ball)", "\"ball", "!!!")) {
+            AliothException e = assertThrows(AliothException.class, () -> QueryParser.parse(query), query);
+            assertEquals(Message.INVALID_SEARCH.getText(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package alioth.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for AliothServer to verify sessions are served independently over TCP.
+ */
+public class AliothServerTest {
+    private static final int IDLE_SESSIONS = 40;
+    private static final int ACTIVE_SESSIONS = 20;
+    private static final int COMMANDS_PER_SESSION = 10;
+
+    @TempDir
+    Path tempDir;
+
+    private AliothServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new AliothServer(tempDir);
+        server.start(0);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        server.stop();
+    }
+
+    /**
+     * A test client that sends one line at a time and reads back the whole reply.
+     */
+    private class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        }
+
+        String send(String line) throws IOException {
+            out.print(line + "\n");
+            out.flush();
+            StringBuilder reply = new StringBuilder();
+            String replyLine;
+            while ((replyLine = in.readLine()) != null && !replyLine.equals(".")) {
+                reply.append(replyLine.startsWith("..") ? replyLine.substring(1) : replyLine).append('\n');
+            }
+            return reply.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Tests that a session greets the user, runs commands and ends on bye.
+     */
+    @Test
+    public void session_commands_repliedInOrder() throws IOException {
+        try (Client client = new Client()) {
+            assertTrue(client.send("snow").contains("Salutations! I am Alioth"));
+            assertTrue(client.send("todo bake royal cake").contains("[T][ ] bake royal cake"));
+            assertTrue(client.send("list").contains("1. [T][ ] bake royal cake"));
+            client.send("bye");
+            assertEquals(null, client.in.readLine());
+        }
+    }
+
+    /**
+     * Tests that users keep their own tasks and aliases, which are saved between sessions.
+     */
+    @Test
+    public void sessions_differentUsers_keepSeparateData() throws IOException {
+        try (Client snow = new Client(); Client belle = new Client()) {
+            snow.send("snow");
+            belle.send("belle");
+            snow.send("todo eat apple");
+            snow.send("alias ls list");
+            belle.send("todo read book");
+
+            assertTrue(belle.send("ls").contains("never heard of that command"));
+            String belleTasks = belle.send("list");
+            assertTrue(belleTasks.contains("read book"));
+            assertTrue(!belleTasks.contains("eat apple"));
+            snow.send("bye");
+        }
+
+        try (Client snow = new Client()) {
+            snow.send("snow");
+            String tasks = snow.send("ls");
+            assertTrue(tasks.contains("eat apple"));
+            assertTrue(!tasks.contains("read book"));
+        }
+    }
+
+    /**
+     * Tests that a second session for a user who is already connected, or a bad name, is refused.
+     */
+    @Test
+    public void session_duplicateOrInvalidUser_refused() throws IOException {
+        try (Client first = new Client(); Client second = new Client(); Client invalid = new Client()) {
+            first.send("snow");
+            assertTrue(second.send("snow").contains("already open in another session"));
+            assertTrue(invalid.send("../snow").contains("tell me your name first"));
+        }
+    }
+
+    /**
+     * Tests that idle sessions stay connected while active sessions run commands at the same
+     * time, and that every reply goes to the right session.
+     */
+    @Test
+    public void sessions_idleAndActive_allServed() throws Exception {
+        List<Client> idleClients = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(ACTIVE_SESSIONS);
+        try {
+            for (int i = 0; i < IDLE_SESSIONS; i++) {
+                Client client = new Client();
+                idleClients.add(client);
+                client.send("idle" + i);
+            }
+
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < ACTIVE_SESSIONS; i++) {
+                String user = "active" + i;
+                results.add(clients.submit(() -> {
+                    try (Client client = new Client()) {
+                        client.send(user);
+                        for (int c = 0; c < COMMANDS_PER_SESSION; c++) {
+                            client.send("todo " + user + " task " + c);
+                        }
+                        String list = client.send("list");
+                        return list.contains(COMMANDS_PER_SESSION + ". [T][ ] " + user + " task ")
+                                && list.lines().filter(line -> line.contains(" task "))
+                                        .allMatch(line -> line.contains(user + " task "));
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+
+            // Every idle session is still being served.
+            for (Client client : idleClients) {
+                assertTrue(client.send("list").contains("Here are the tasks"));
+            }
+        } finally {
+            clients.shutdownNow();
+            for (Client client : idleClients) {
+                client.close();
+            }
+        }
+    }
+}
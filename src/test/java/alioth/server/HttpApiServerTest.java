@@ -0,0 +1,154 @@
+package alioth.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.exception.AliothException;
+import alioth.storage.Storage;
+import alioth.task.ConcurrentTaskList;
+import alioth.task.Task;
+
+/**
+ * Tests for HttpApiServer to verify its JSON replies and that batches save once and apply as a whole.
+ */
+public class HttpApiServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final AtomicInteger saveCount = new AtomicInteger();
+    private Path filePath;
+    private HttpApiServer api;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        filePath = tempDir.resolve("api.txt");
+        Storage storage = new Storage(filePath) {
+            @Override
+            public void save(List<Task> tasks) throws AliothException {
+                saveCount.incrementAndGet();
+                super.save(tasks);
+            }
+        };
+        api = new HttpApiServer(new ConcurrentTaskList(), storage);
+        api.start(0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        api.stop();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + api.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Tests adding, listing, finding, marking and deleting tasks.
+     */
+    @Test
+    public void tasks_crudRequests_returnJson() throws Exception {
+        HttpResponse<String> added = send("POST", "/tasks", "deadline return \"book\" /by 2026-03-01");
+        assertEquals(201, added.statusCode());
+        assertEquals("{\"task\":{\"id\":1,\"type\":\"deadline\",\"description\":\"return \\\"book\\\"\","
+                + "\"done\":false,\"by\":\"2026-03-01\"}}", added.body());
+        send("POST", "/tasks", "todo bake royal cake");
+
+        assertEquals(200, send("POST", "/tasks/2/mark", "").statusCode());
+        String found = send("GET", "/tasks?find=royal%20cake", "").body();
+        assertEquals("{\"tasks\":[{\"id\":2,\"type\":\"todo\",\"description\":\"bake royal cake\","
+                + "\"done\":true}]}", found);
+
+        assertEquals(200, send("DELETE", "/tasks/1", "").statusCode());
+        assertEquals(404, send("DELETE", "/tasks/1", "").statusCode());
+        assertTrue(send("GET", "/tasks", "").body().startsWith("{\"tasks\":[{\"id\":2,"));
+    }
+
+    /**
+     * Tests that invalid requests are answered with an error object.
+     */
+    @Test
+    public void tasks_invalidRequests_returnErrors() throws Exception {
+        HttpResponse<String> notAdd = send("POST", "/tasks", "list");
+        assertEquals(400, notAdd.statusCode());
+        assertTrue(notAdd.body().startsWith("{\"error\":"));
+
+        assertEquals(400, send("POST", "/tasks", "deadline no date").statusCode());
+        assertEquals(405, send("PUT", "/tasks", "").statusCode());
+        assertEquals(404, send("POST", "/tasks/abc/mark", "").statusCode());
+    }
+
+    /**
+     * Tests that a batch runs every command, reports each outcome, and saves only once.
+     */
+    @Test
+    public void batch_severalCommands_savedOnce() throws Exception {
+        int savesBefore = saveCount.get();
+        HttpResponse<String> reply = send("POST", "/batch",
+                "todo ball\ntodo gown\n\nmark 1\ndelete 9\ntodo slipper\n");
+
+        assertEquals(200, reply.statusCode());
+        assertTrue(reply.body().startsWith("{\"results\":[{\"ok\":true},{\"ok\":true},{\"ok\":true},"
+                + "{\"ok\":false,\"error\":"));
+        assertTrue(reply.body().contains("\"description\":\"slipper\""));
+        assertEquals(savesBefore + 1, saveCount.get());
+        assertEquals(3, new Storage(filePath).load().size());
+    }
+
+    /**
+     * Tests that a reader listing the tasks while a batch runs sees either none or all of the batch.
+     */
+    @Test
+    public void batch_concurrentReader_seesWholeBatch() throws Exception {
+        int batchSize = 2000;
+        StringBuilder batch = new StringBuilder();
+        for (int i = 0; i < batchSize; i++) {
+            batch.append("todo carriage ").append(i).append('\n');
+        }
+
+        AtomicBoolean isBatchDone = new AtomicBoolean();
+        CountDownLatch isReading = new CountDownLatch(1);
+        Set<Long> seenSizes = ConcurrentHashMap.newKeySet();
+        Thread reader = new Thread(() -> {
+            try {
+                while (!isBatchDone.get()) {
+                    String body = send("GET", "/tasks", "").body();
+                    seenSizes.add(body.chars().filter(c -> c == '{').count() - 1);
+                    isReading.countDown();
+                }
+            } catch (Exception e) {
+                seenSizes.add(-1L);
+            }
+        });
+        reader.start();
+        isReading.await();
+        assertEquals(200, send("POST", "/batch", batch.toString()).statusCode());
+        isBatchDone.set(true);
+        reader.join();
+
+        seenSizes.removeAll(Set.of(0L, (long) batchSize));
+        assertTrue(seenSizes.isEmpty(), "Reader saw a partly applied batch: " + seenSizes);
+    }
+}
@@ -0,0 +1,93 @@
+package alioth.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import alioth.task.Deadline;
+import alioth.task.Event;
+import alioth.task.Task;
+import alioth.task.Todo;
+
+/**
+ * Tests for BinaryTaskCodec to verify the binary snapshot round-trips every task type.
+ */
+public class BinaryTaskCodecTest {
+
+    private byte[] encode(List<Task> tasks, long seq) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryTaskCodec.write(tasks, seq, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Tests that every task type, its done flag and the sequence number survive a round trip.
+     */
+    @Test
+    public void writeRead_allTaskTypes_roundTrip() throws Exception {
+        Todo todo = new Todo("sing | dance 👑");
+        todo.setDone(true);
+        List<Task> tasks = List.of(todo,
+                new Deadline("return slipper", LocalDate.of(1969, 7, 20)),
+                new Event("royal ball", LocalDateTime.of(2026, 2, 20, 18, 0),
+                        LocalDateTime.of(2026, 2, 21, 2, 30)));
+
+        List<Task> loaded = new ArrayList<>();
+        long seq = BinaryTaskCodec.read(ByteBuffer.wrap(encode(tasks, 42)), loaded);
+
+        assertEquals(42, seq);
+        assertEquals(3, loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i).toString());
+        }
+    }
+
+    /**
+     * Tests that repeated descriptions are stored once in the string table.
+     */
+    @Test
+    public void write_repeatedDescriptions_storedOnce() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(new Todo("water the enchanted roses"));
+        }
+
+        String encoded = new String(encode(tasks, 0), StandardCharsets.UTF_8);
+        assertEquals(encoded.indexOf("enchanted"), encoded.lastIndexOf("enchanted"));
+    }
+
+    /**
+     * Tests that only binary snapshots are recognised by their header.
+     */
+    @Test
+    public void hasHeader_textAndBinary_detectedCorrectly() throws Exception {
+        assertTrue(BinaryTaskCodec.hasHeader(ByteBuffer.wrap(encode(List.of(), 0))));
+        assertFalse(BinaryTaskCodec.hasHeader(
+                ByteBuffer.wrap("T | 0 | read".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Tests that a truncated snapshot is reported instead of silently loading part of it.
+     */
+    @Test
+    public void read_truncatedSnapshot_exceptionThrown() throws Exception {
+        byte[] encoded = encode(List.of(new Deadline("return book", LocalDate.of(2026, 2, 20))), 0);
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+        assertThrows(IOException.class, () ->
+                BinaryTaskCodec.read(ByteBuffer.wrap(truncated), new ArrayList<>()));
+    }
+}
@@ -0,0 +1,88 @@
+package alioth.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import alioth.task.Task;
+import alioth.task.Todo;
+
+/**
+ * Tests for LazyTaskList to verify indexed and added tasks stay in order as the list changes.
+ */
+public class LazyTaskListTest {
+
+    private LazyTaskList index(String text) {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        LazyTaskList tasks = new LazyTaskList(buffer);
+        TextTaskCodec.index(buffer, tasks);
+        return tasks;
+    }
+
+    /**
+     * Tests that adding and removing around undecoded records keeps every task in place.
+     */
+    @Test
+    public void addRemove_mixedRecords_keepsOrder() {
+        LazyTaskList tasks = index("T | 0 | a\nT | 1 | b\nT | 0 | c\n");
+
+        tasks.add(1, new Todo("new"));
+        assertEquals("[T][ ] c", tasks.remove(3).toString());
+        tasks.add(new Todo("last"));
+
+        assertEquals("[[T][ ] a, [T][ ] new, [T][X] b, [T][ ] last]", tasks.toString());
+    }
+
+    /**
+     * Tests that replacing a task leaves the other records undecoded.
+     */
+    @Test
+    public void set_undecodedRecord_replacesTask() {
+        LazyTaskList tasks = index("T | 0 | a\r\nT | 0 | b");
+
+        tasks.set(0, new Todo("z"));
+
+        assertEquals(1, tasks.materializedCount());
+        assertEquals("[T][ ] z", tasks.get(0).toString());
+        assertEquals("[T][ ] b", tasks.get(1).toString());
+    }
+
+    /**
+     * Tests that readers decoding the same records at once all get the same task objects.
+     */
+    @Test
+    public void get_concurrentReaders_returnSameTask() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append("T | 0 | task ").append(i).append('\n');
+        }
+        LazyTaskList tasks = index(text.toString());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Task[]>> reads = new ArrayList<>();
+            for (int reader = 0; reader < 4; reader++) {
+                reads.add(executor.submit(() -> tasks.toArray(new Task[0])));
+            }
+            Task[] first = reads.get(0).get();
+            for (Future<Task[]> read : reads) {
+                Task[] other = read.get();
+                for (int i = 0; i < first.length; i++) {
+                    assertSame(first[i], other[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(2000, tasks.materializedCount());
+    }
+}
@@ -1,24 +1,36 @@
 package alioth.storage;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import alioth.exception.AliothException;
+import alioth.task.ConcurrentTaskList;
 import alioth.task.Deadline;
 import alioth.task.Event;
 import alioth.task.Task;
+import alioth.task.TaskList;
 import alioth.task.Todo;
 
 /**
@@ -132,4 +144,474 @@ public class StorageTest {
             Locale.setDefault(originalLocale);
         }
     }
+
+    /**
+     * Tests that journal records are replayed on top of the snapshot when loading.
+     */
+    @Test
+    public void load_journalMode_replaysRecords() throws Exception {
+        storage.setJournalMode(true);
+        TaskList tasks = new TaskList();
+        for (String description : List.of("sweep hall", "feed horses", "sew gown")) {
+            Task task = new Todo(description);
+            tasks.add(task);
+            storage.recordAdd(task, tasks);
+        }
+        tasks.get(2).setDone(true);
+        storage.recordMark(2, tasks);
+        tasks.remove(0);
+        storage.recordDelete(0, tasks);
+
+        assertFalse(Files.exists(testFilePath), "Journal mode should not rewrite the save file.");
+
+        List<Task> loaded = new Storage(testFilePath).load();
+        assertEquals(2, loaded.size());
+        assertEquals("[T][ ] feed horses", loaded.get(0).toString());
+        assertEquals("[T][X] sew gown", loaded.get(1).toString());
+    }
+
+    /**
+     * Tests that a full save folds the journal into the save file.
+     */
+    @Test
+    public void save_journalMode_discardsJournal() throws Exception {
+        storage.setJournalMode(true);
+        TaskList tasks = new TaskList();
+        Task task = new Todo("polish crown");
+        tasks.add(task);
+        storage.recordAdd(task, tasks);
+
+        storage.save(tasks.asList());
+        tasks.get(0).setDone(true);
+        storage.recordMark(0, tasks);
+
+        List<Task> loaded = new Storage(testFilePath).load();
+        assertEquals(1, loaded.size());
+        assertEquals("[T][X] polish crown", loaded.get(0).toString());
+    }
+
+    /**
+     * Tests that the journal is compacted into a snapshot once it grows large.
+     */
+    @Test
+    public void record_manyRecords_compactsJournal() throws Exception {
+        storage.setJournalMode(true);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 2500; i++) {
+            Task task = new Todo("task " + i);
+            tasks.add(task);
+            storage.recordAdd(task, tasks);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Files.exists(testFilePath) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.exists(testFilePath), "A snapshot should be written in the background.");
+
+        List<Task> loaded = new Storage(testFilePath).load();
+        assertEquals(2500, loaded.size());
+        assertEquals("task 2499", loaded.get(2499).getDescription());
+    }
+
+    /**
+     * Tests that closing waits for a running compaction, so its snapshot is on disk afterwards.
+     */
+    @Test
+    public void close_duringCompaction_waitsForSnapshot() throws Exception {
+        storage.setJournalMode(true);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 1000; i++) {
+            Task task = new Todo("task " + i);
+            tasks.add(task);
+            storage.recordAdd(task, tasks);
+        }
+        storage.close();
+
+        assertTrue(Files.exists(testFilePath), "The compaction snapshot should be written before close returns.");
+        assertFalse(Files.exists(testFilePath.resolveSibling(testFilePath.getFileName() + ".journal.1")));
+        assertEquals(1000, new Storage(testFilePath).load().size());
+    }
+
+    /**
+     * Tests that write-behind saves are coalesced and written out by flush.
+     */
+    @Test
+    public void save_writeBehind_writtenOnFlush() throws Exception {
+        storage.setWriteBehind(DurabilityPolicy.ASYNC, Duration.ofSeconds(30));
+        storage.save(List.of(new Todo("first draft")));
+        storage.save(List.of(new Todo("first draft"), new Todo("second draft")));
+        assertFalse(Files.exists(testFilePath), "ASYNC saves should not block on the disk.");
+
+        storage.flush();
+        List<Task> loaded = new Storage(testFilePath).load();
+        assertEquals(2, loaded.size());
+        storage.close();
+    }
+
+    /**
+     * Tests that journal records queued in write-behind mode survive a reload after close.
+     */
+    @Test
+    public void record_writeBehindJournal_persistedOnClose() throws Exception {
+        storage.setJournalMode(true);
+        storage.setWriteBehind(DurabilityPolicy.BOUNDED_LAG, Duration.ofMillis(50));
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 50; i++) {
+            Task task = new Todo("chore " + i);
+            tasks.add(task);
+            storage.recordAdd(task, tasks);
+        }
+        tasks.remove(10);
+        storage.recordDelete(10, tasks);
+        storage.close();
+
+        List<Task> loaded = new Storage(testFilePath).load();
+        assertEquals(49, loaded.size());
+        assertEquals("chore 11", loaded.get(10).getDescription());
+    }
+
+    /**
+     * Tests that a change saved through the writer thread with journal mode off does not
+     * wait for the writer while holding the lock the writer needs to replace the save file.
+     */
+    @Test
+    public void record_writeBehindSyncWithoutJournal_doesNotDeadlock() throws Exception {
+        storage.setWriteBehind(DurabilityPolicy.SYNC, Duration.ofMillis(10));
+        TaskList tasks = new TaskList();
+        Task task = new Todo("water plants");
+        tasks.add(task);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                storage.recordAdd(task, tasks);
+                tasks.setDone(0, true);
+                storage.recordMark(0, tasks);
+                return null;
+            }).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        storage.close();
+
+        List<Task> loaded = new Storage(testFilePath).load();
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+    }
+
+    /**
+     * Tests that binary snapshots are detected on load, and text can be written again afterwards.
+     */
+    @Test
+    public void saveLoad_binaryFormat_detectedByHeader() throws Exception {
+        List<Task> tasks = List.of(new Todo("borrow book"),
+                new Deadline("return book", LocalDate.of(2026, 2, 20)));
+        storage.setFormat(StorageFormat.BINARY);
+        storage.save(tasks);
+
+        List<Task> loaded = new Storage(testFilePath).load();
+        assertEquals(2, loaded.size());
+        assertEquals(tasks.get(1).toString(), loaded.get(1).toString());
+
+        storage.setFormat(StorageFormat.TEXT);
+        storage.save(loaded);
+        assertEquals("1 | T | 0 | borrow book",
+                Files.readAllLines(testFilePath, StandardCharsets.UTF_8).get(0));
+    }
+
+    /**
+     * Tests that a truncated binary snapshot is moved aside rather than overwritten by the next save.
+     */
+    @Test
+    public void load_truncatedBinarySnapshot_keepsFile() throws Exception {
+        storage.setFormat(StorageFormat.BINARY);
+        storage.save(List.of(new Todo("borrow book"), new Todo("return book")));
+        byte[] saved = Files.readAllBytes(testFilePath);
+        byte[] truncated = Arrays.copyOf(saved, saved.length - 3);
+        Files.write(testFilePath, truncated);
+
+        Storage reloaded = new Storage(testFilePath);
+        AliothException e = assertThrows(AliothException.class, reloaded::load);
+        Path kept = testFilePath.resolveSibling(testFilePath.getFileName() + ".corrupt");
+        assertTrue(e.getMessage().contains(kept.toString()), e.getMessage());
+
+        reloaded.save(List.of(new Todo("fresh start")));
+        assertArrayEquals(truncated, Files.readAllBytes(kept));
+        assertEquals(1, new Storage(testFilePath).load().size());
+    }
+
+    /**
+     * Tests that ids are saved with the tasks, so they stay the same after a restart in every
+     * save format and mode, and new tasks continue from the largest saved id.
+     */
+    @Test
+    public void load_tasksRemovedBeforeSave_keepIds() throws Exception {
+        for (StorageFormat format : StorageFormat.values()) {
+            for (boolean isJournalMode : new boolean[] {false, true}) {
+                for (boolean isLazyLoad : new boolean[] {false, true}) {
+                    Path path = tempDir.resolve("ids-" + format + "-" + isJournalMode + "-" + isLazyLoad + ".txt");
+                    Storage first = new Storage(path);
+                    first.setFormat(format);
+                    first.setJournalMode(isJournalMode);
+                    TaskList tasks = new TaskList();
+                    for (String description : List.of("sweep hall", "feed horses", "sew gown")) {
+                        Task task = new Todo(description);
+                        tasks.add(task);
+                        first.recordAdd(task, tasks);
+                    }
+                    tasks.remove(0);
+                    first.recordDelete(0, tasks);
+                    first.close();
+
+                    Storage second = new Storage(path);
+                    second.setLazyLoad(isLazyLoad);
+                    TaskList loaded = TaskList.backedBy(second.load());
+                    String mode = format + " journal=" + isJournalMode + " lazy=" + isLazyLoad;
+                    assertEquals("[T][ ] feed horses", loaded.getById(2).toString(), mode);
+                    assertEquals("[T][ ] sew gown", loaded.getById(3).toString(), mode);
+                    assertNull(loaded.getById(1), mode);
+
+                    Task task = new Todo("polish slipper");
+                    loaded.add(task);
+                    assertEquals(4, task.getId(), mode);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that changes to several tasks are journaled by id and replayed onto both eager and
+     * lazy lists, putting restored tasks back in their places.
+     */
+    @Test
+    public void load_bulkRecords_replayedById() throws Exception {
+        storage.setJournalMode(true);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 6; i++) {
+            Task task = new Todo("task " + i);
+            tasks.add(task);
+            storage.recordAdd(task, tasks);
+        }
+        storage.recordDoneChange(tasks.setDoneAll(new int[] {0, 2, 5}, true), tasks);
+        List<Task> removed = tasks.removeAll(new int[] {1, 2, 4});
+        storage.recordDeleteAll(removed, tasks);
+        storage.recordDoneChange(tasks.setDoneAll(new int[] {0}, false), tasks);
+        tasks.restore(removed.get(1));
+        storage.recordRestore(List.of(removed.get(1)), tasks);
+        storage.close();
+
+        assertFalse(Files.exists(testFilePath), "Bulk changes should only be journaled.");
+        for (boolean isLazyLoad : new boolean[] {false, true}) {
+            Storage reloaded = new Storage(testFilePath);
+            reloaded.setLazyLoad(isLazyLoad);
+            List<Task> loaded = reloaded.load();
+            assertEquals(tasks.asList().toString(), loaded.toString());
+            assertEquals(List.of(1, 3, 4, 6), loaded.stream().map(Task::getId).toList());
+        }
+    }
+
+    /**
+     * Tests that tasks loaded without ids are saved with their new ids before the journal
+     * refers to any of them by id.
+     */
+    @Test
+    public void record_loadedWithoutIds_rewritesSaveFileFirst() throws Exception {
+        Files.write(testFilePath, List.of("T | 0 | sweep hall", "T | 0 | feed horses", "T | 0 | sew gown"),
+                StandardCharsets.UTF_8);
+        storage.setJournalMode(true);
+        TaskList tasks = TaskList.backedBy(storage.load());
+
+        storage.recordDeleteAll(tasks.removeAll(new int[] {0, 1}), tasks);
+        assertEquals(List.of("3 | T | 0 | sew gown"), Files.readAllLines(testFilePath, StandardCharsets.UTF_8)
+                .stream().filter(line -> !line.startsWith("#")).toList());
+
+        storage.recordDoneChange(tasks.setDoneAll(new int[] {0}, true), tasks);
+        assertTrue(Files.readAllLines(testFilePath, StandardCharsets.UTF_8).contains("3 | T | 0 | sew gown"),
+                "Later changes should only be journaled.");
+        assertEquals("[[T][X] sew gown]", new Storage(testFilePath).load().toString());
+        assertEquals(3, new Storage(testFilePath).load().get(0).getId());
+    }
+
+    /**
+     * Tests that lines saved before ids were kept are still read, and numbered in list order.
+     */
+    @Test
+    public void load_linesWithoutIds_numberedInOrder() throws Exception {
+        Files.write(testFilePath, List.of(
+                "T | 0 | sweep hall",
+                "5 | T | 1 | feed horses",
+                "D | 0 | return book | 2026-02-20"), StandardCharsets.UTF_8);
+
+        for (boolean isLazyLoad : new boolean[] {false, true}) {
+            storage.setLazyLoad(isLazyLoad);
+            List<Task> loaded = storage.load();
+            assertEquals(3, loaded.size());
+            assertEquals(1, loaded.get(0).getId());
+            assertEquals(5, loaded.get(1).getId());
+            assertEquals("[T][X] feed horses", loaded.get(1).toString());
+            assertEquals(6, loaded.get(2).getId());
+        }
+    }
+
+    /**
+     * Tests that lazy loading skips the same corrupted lines and decodes tasks on first access.
+     */
+    @Test
+    public void load_lazyMode_decodesOnFirstAccess() throws Exception {
+        Files.write(testFilePath, List.of(
+                "T | 1 | valid todo",
+                "X | 0 | unknown type",
+                "D | 0 | return book | 2026-02-30",
+                "E | 0 | royal ball | 2026-02-20 1800 | 2026-02-20 2200",
+                "D | 0 | return book | 2026-02-20"), StandardCharsets.UTF_8);
+        List<Task> eager = storage.load();
+
+        storage.setLazyLoad(true);
+        List<Task> lazy = storage.load();
+
+        assertEquals(3, lazy.size());
+        assertEquals(0, ((LazyTaskList) lazy).materializedCount());
+        assertEquals(eager.get(1).toString(), lazy.get(1).toString());
+        assertEquals(1, ((LazyTaskList) lazy).materializedCount());
+        assertEquals(eager.toString(), lazy.toString());
+    }
+
+    /**
+     * Tests that duplicate checks on a lazily loaded list decode only the tasks whose hash matches,
+     * and that a save can replace the file while the lazy list still reads from it.
+     */
+    @Test
+    public void containsDuplicate_lazyMode_decodesOnlyMatches() throws Exception {
+        Files.write(testFilePath, List.of(
+                "T | 1 | valid todo",
+                "D | 0 | return book | 2026-02-20",
+                "E | 0 | royal ball | 2026-02-20 1800 | 2026-02-20 2200",
+                "T | 0 | sweep hall"), StandardCharsets.UTF_8);
+        storage.setLazyLoad(true);
+        List<Task> lazy = storage.load();
+        TaskList tasks = TaskList.backedBy(lazy);
+
+        assertFalse(tasks.containsDuplicate(new Todo("feed horses")));
+        assertEquals(0, ((LazyTaskList) lazy).materializedCount());
+        assertTrue(tasks.containsDuplicate(new Deadline("return book", LocalDate.of(2026, 2, 20))));
+        assertTrue(tasks.containsDuplicate(new Event("royal ball",
+                LocalDateTime.of(2026, 2, 20, 18, 0), LocalDateTime.of(2026, 2, 20, 22, 0))));
+        assertFalse(tasks.containsDuplicate(new Todo("valid todo")));
+        assertEquals(2, ((LazyTaskList) lazy).materializedCount());
+
+        List<Task> lazyForThreads = storage.load();
+        ConcurrentTaskList sharedTasks = ConcurrentTaskList.backedBy(lazyForThreads);
+        assertFalse(sharedTasks.containsDuplicate(new Todo("feed horses")));
+        assertEquals(4, sharedTasks.size());
+        assertEquals(0, ((LazyTaskList) lazyForThreads).materializedCount());
+
+        storage.save(tasks.asList());
+        assertEquals(tasks.asList().toString(), new Storage(testFilePath).load().toString());
+    }
+
+    /**
+     * Tests that journal records are replayed onto a lazily loaded list and saved again.
+     */
+    @Test
+    public void load_lazyModeWithJournal_replaysRecords() throws Exception {
+        storage.save(List.of(new Todo("sweep hall"), new Todo("feed horses"), new Todo("sew gown")));
+        storage.setJournalMode(true);
+        storage.setLazyLoad(true);
+        TaskList tasks = TaskList.backedBy(storage.load());
+
+        tasks.get(2).setDone(true);
+        storage.recordMark(2, tasks);
+        tasks.remove(0);
+        storage.recordDelete(0, tasks);
+        Task task = new Todo("polish slipper");
+        tasks.add(task);
+        storage.recordAdd(task, tasks);
+
+        Storage reloaded = new Storage(testFilePath);
+        reloaded.setLazyLoad(true);
+        List<Task> loaded = reloaded.load();
+        assertEquals(3, loaded.size());
+        assertEquals("[T][X] sew gown", loaded.get(1).toString());
+        assertEquals("[T][ ] polish slipper", loaded.get(2).toString());
+
+        reloaded.save(loaded);
+        assertEquals(loaded.toString(), new Storage(testFilePath).load().toString());
+    }
+
+    /**
+     * Tests that changes in a batch are written together when it ends, in both save modes.
+     */
+    @Test
+    public void endBatch_severalChanges_writtenOnce() throws Exception {
+        for (boolean isJournalMode : new boolean[] {false, true}) {
+            Path path = tempDir.resolve("batch-" + isJournalMode + ".txt");
+            Storage batchStorage = new Storage(path);
+            batchStorage.setJournalMode(isJournalMode);
+            TaskList tasks = new TaskList();
+
+            batchStorage.beginBatch();
+            for (String description : List.of("ball", "gown", "slipper")) {
+                Todo todo = new Todo(description);
+                tasks.add(todo);
+                batchStorage.recordAdd(todo, tasks);
+            }
+            tasks.setDone(0, true);
+            batchStorage.recordMark(0, tasks);
+            assertFalse(Files.exists(path));
+
+            batchStorage.endBatch(tasks);
+            assertEquals(tasks.asList().toString(), new Storage(path).load().toString());
+        }
+    }
+
+    /**
+     * Tests that a nested batch is saved with the outer batch, and that a cancelled batch is not saved.
+     */
+    @Test
+    public void endBatch_nestedAndCancelled_savedOnlyByOutermost() throws Exception {
+        Path path = tempDir.resolve("nested.txt");
+        Storage batchStorage = new Storage(path);
+        TaskList tasks = new TaskList();
+
+        batchStorage.beginBatch();
+        Todo todo = new Todo("ball");
+        tasks.add(todo);
+        batchStorage.recordAdd(todo, tasks);
+        batchStorage.cancelBatch();
+        assertFalse(Files.exists(path));
+
+        batchStorage.beginBatch();
+        batchStorage.beginBatch();
+        batchStorage.recordMark(0, tasks);
+        assertFalse(batchStorage.endBatch(tasks));
+        assertFalse(Files.exists(path));
+        assertTrue(batchStorage.endBatch(tasks));
+        assertEquals(tasks.asList().toString(), new Storage(path).load().toString());
+    }
+
+    /**
+     * Tests that time spent saving is counted for both full saves and journal records, but not for batched changes.
+     */
+    @Test
+    public void getSaveNanos_savesAndJournal_counted() throws Exception {
+        TaskList tasks = new TaskList();
+        Todo todo = new Todo("ball");
+        tasks.add(todo);
+        assertEquals(0, storage.getSaveNanos());
+
+        storage.save(tasks.asList());
+        long afterSave = storage.getSaveNanos();
+        assertTrue(afterSave > 0);
+
+        storage.setJournalMode(true);
+        storage.recordMark(0, tasks);
+        long afterRecord = storage.getSaveNanos();
+        assertTrue(afterRecord > afterSave);
+
+        storage.beginBatch();
+        storage.recordUnmark(0, tasks);
+        assertEquals(afterRecord, storage.getSaveNanos());
+        storage.cancelBatch();
+    }
 }
@@ -0,0 +1,197 @@
+package alioth.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import alioth.task.Deadline;
+import alioth.task.Event;
+import alioth.task.Task;
+import alioth.task.Todo;
+
+/**
+ * Tests for TextTaskCodec to verify whole files decode the same way as single lines.
+ */
+public class TextTaskCodecTest {
+
+    private List<Task> decode(String text) {
+        List<Task> tasks = new ArrayList<>();
+        TextTaskCodec.read(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), tasks);
+        return tasks;
+    }
+
+    /**
+     * Tests that every task type, its done flag and the sequence number survive a round trip.
+     */
+    @Test
+    public void writeRead_allTaskTypes_roundTrip() throws Exception {
+        Todo todo = new Todo("sing and dance 👑");
+        todo.setDone(true);
+        List<Task> tasks = List.of(todo,
+                new Deadline("return slipper", LocalDate.of(1969, 7, 20)),
+                new Event("royal ball", LocalDateTime.of(2026, 2, 20, 18, 0),
+                        LocalDateTime.of(2026, 2, 21, 2, 30)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TextTaskCodec.write(tasks, 42, out);
+        List<Task> loaded = new ArrayList<>();
+        long seq = TextTaskCodec.read(ByteBuffer.wrap(out.toByteArray()), loaded);
+
+        assertEquals(42, seq);
+        assertEquals(3, loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i).toString());
+        }
+    }
+
+    /**
+     * Tests that the file decoder and indexer accept and reject exactly the lines the line parser does.
+     */
+    @Test
+    public void read_unusualLines_matchesLineParser() {
+        String[] lines = {
+            "T | 1 | read book",
+            "  T |  0  |  padded  ",
+            "T | 0 | trailing | ",
+            "T | 0 | trailing |  | ",
+            "T | 0 | a | b",
+            "T | 2 | bad flag",
+            "X | 0 | bad type",
+            "T | 0 | ",
+            "T | 0 |    ",
+            " | 0 | no type",
+            "T|0|no spaces",
+            "",
+            "D | 0 | return book | 2026-02-20",
+            "D | 0 | leap day | 2024-02-29",
+            "D | 0 | not leap | 2023-02-29",
+            "D | 0 | bad month | 2026-13-01",
+            "D | 0 | signed year | +12026-02-20",
+            "D | 0 | short date | 2026-2-20",
+            "D | 0 | no date | ",
+            "E | 0 | party | 2026-02-20 1800 | 2026-02-20 2300",
+            "E | 1 | clamped day | 2026-02-30 1800 | 2026-04-31 0900",
+            "E | 0 | bad hour | 2026-02-20 2400 | 2026-02-20 2300",
+            "E | 0 | year zero | 0000-01-01 0000 | 2026-02-20 2300",
+            "E | 0 | missing end | 2026-02-20 1800",
+            "E | 0 | six | 2026-02-20 1800 | 2026-02-20 2300 | extra",
+            "12 | T | 1 | with id",
+            " 7 | E | 0 | with id | 2026-02-20 1800 | 2026-02-20 2300",
+            "0 | T | 0 | zero id",
+            "-3 | T | 0 | negative id",
+            "1234567890 | T | 0 | long id",
+            "12 | 0 | id without type",
+            "12 |",
+        };
+
+        for (String line : lines) {
+            Task expected = TextTaskCodec.parseLineToTask(line);
+            List<Task> decoded = decode(line);
+            LazyTaskList indexed = new LazyTaskList(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+            TextTaskCodec.index(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)), indexed);
+            assertEquals(decoded.size(), indexed.size(), line);
+            if (expected == null) {
+                assertEquals(0, decoded.size(), line);
+            } else {
+                assertEquals(1, decoded.size(), line);
+                assertEquals(expected.toString(), decoded.get(0).toString(), line);
+                assertEquals(expected.getId(), decoded.get(0).getId(), line);
+                assertEquals(expected.getId(), indexed.idAt(0), line);
+            }
+        }
+    }
+
+    /**
+     * Tests that ids are written in front of each line and read back by every decoder.
+     */
+    @Test
+    public void writeRead_tasksWithIds_keepIds() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        TextTaskCodec.read(ByteBuffer.wrap("4 | T | 0 | a\nT | 0 | b\n".getBytes(StandardCharsets.UTF_8)), tasks);
+        assertEquals(4, tasks.get(0).getId());
+        assertEquals(0, tasks.get(1).getId());
+        assertEquals("4 | T | 0 | a", TextTaskCodec.convertTaskToLine(tasks.get(0)));
+        assertEquals("T | 0 | b", TextTaskCodec.convertTaskToLine(tasks.get(1)));
+        assertEquals(4, TextTaskCodec.parseLineToTask("4 | T | 0 | a").getId());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TextTaskCodec.write(tasks, 0, out);
+        byte[] bytes = out.toByteArray();
+        LazyTaskList indexed = new LazyTaskList(ByteBuffer.wrap(bytes));
+        TextTaskCodec.index(ByteBuffer.wrap(bytes), indexed);
+        assertEquals(4, indexed.idAt(0));
+        assertEquals(0, indexed.idAt(1));
+        assertEquals(4, indexed.get(0).getId());
+        assertEquals(TextTaskCodec.keyHash(new Todo("a")), indexed.keyHashAt(0));
+    }
+
+    /**
+     * Tests that the hash of a saved line equals the hash of the task it decodes to,
+     * including for dates that only the slower parser accepts.
+     */
+    @Test
+    public void keyHash_savedLine_matchesDecodedTask() {
+        String[] lines = {
+            "T | 1 | sing and dance 👑",
+            "T | 0 |   padded  ",
+            "D | 0 | return book | 2026-02-20",
+            "E | 0 | royal ball | 2026-02-20 1800 | 2026-02-20 2200",
+            "E | 1 | late ball | 2026-01-31 2330 | 2026-02-30 0100",
+        };
+        for (String line : lines) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Task task = TextTaskCodec.decode(buffer, 0, bytes.length);
+            assertEquals(TextTaskCodec.keyHash(task), TextTaskCodec.keyHash(buffer, 0, bytes.length), line);
+        }
+        assertNotEquals(TextTaskCodec.keyHash(new Todo("a")),
+                TextTaskCodec.keyHash(new Deadline("a", LocalDate.of(2026, 2, 20))));
+    }
+
+    /**
+     * Tests that every line ending is accepted and a bad header is ignored.
+     */
+    @Test
+    public void read_mixedLineEndings_readsEveryLine() {
+        List<Task> tasks = decode("#seq | oops\r\nT | 0 | a\rT | 1 | b\n\nT | 0 | c");
+
+        assertEquals(3, tasks.size());
+        assertEquals("[T][X] b", tasks.get(1).toString());
+        assertEquals("[T][ ] c", tasks.get(2).toString());
+    }
+
+    /**
+     * Tests that decoding in many small chunks keeps file order and the last header.
+     */
+    @Test
+    public void read_smallChunks_matchesSequentialRead() {
+        StringBuilder text = new StringBuilder("#seq | 7\n");
+        for (int i = 0; i < 500; i++) {
+            text.append(i % 3 == 0 ? "D | 1 | task " + i + " | 2026-02-20" : "T | 0 | task " + i);
+            text.append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        text.append("#seq | 9\nnot a task\nT | 0 | last");
+        ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Task> sequential = new ArrayList<>();
+        long sequentialSeq = TextTaskCodec.read(buffer, sequential, Integer.MAX_VALUE);
+        List<Task> chunked = new ArrayList<>();
+        long chunkedSeq = TextTaskCodec.read(buffer, chunked, 64);
+
+        assertEquals(9, sequentialSeq);
+        assertEquals(9, chunkedSeq);
+        assertEquals(501, chunked.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).toString(), chunked.get(i).toString());
+        }
+    }
+}
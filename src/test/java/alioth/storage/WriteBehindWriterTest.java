@@ -0,0 +1,70 @@
+package alioth.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import alioth.exception.AliothException;
+import alioth.message.Message;
+
+/**
+ * Tests for WriteBehindWriter to verify batching, durability waits and error reporting.
+ */
+public class WriteBehindWriterTest {
+
+    /**
+     * Tests that changes queued within one flush interval are written as a single batch.
+     */
+    @Test
+    public void flush_burstOfChanges_writtenInOneBatch() throws Exception {
+        List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        WriteBehindWriter<Integer> writer = new WriteBehindWriter<>(batch -> batches.add(new ArrayList<>(batch)),
+                DurabilityPolicy.ASYNC, Duration.ofSeconds(30), "test-writer");
+
+        for (int i = 0; i < 100; i++) {
+            writer.await(writer.enqueue(i));
+        }
+        assertEquals(0, batches.size(), "ASYNC changes should wait for the flush interval.");
+
+        writer.flush();
+        assertEquals(1, batches.size());
+        assertEquals(100, batches.get(0).size());
+        assertEquals(99, (int) batches.get(0).get(99));
+        writer.close();
+    }
+
+    /**
+     * Tests that a SYNC caller only returns once its change has been written.
+     */
+    @Test
+    public void await_syncPolicy_waitsForWrite() throws Exception {
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        WriteBehindWriter<Integer> writer = new WriteBehindWriter<>(written::addAll,
+                DurabilityPolicy.SYNC, Duration.ofSeconds(30), "test-writer");
+
+        writer.await(writer.enqueue(7));
+        assertEquals(List.of(7), written);
+        writer.close();
+    }
+
+    /**
+     * Tests that failing writes are reported to the caller instead of being lost silently.
+     */
+    @Test
+    public void flush_failingWrite_exceptionThrown() {
+        WriteBehindWriter<Integer> writer = new WriteBehindWriter<>(batch -> {
+            throw new IOException("disk full");
+        }, DurabilityPolicy.ASYNC, Duration.ofMillis(10), "test-writer");
+
+        writer.enqueue(1);
+        AliothException e = assertThrows(AliothException.class, writer::flush);
+        assertEquals(Message.SAVE_ERROR.getText(), e.getMessage());
+    }
+}
@@ -0,0 +1,61 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for BkTree to verify it finds exactly the words a full scan would.
+ */
+public class BkTreeTest {
+
+    /**
+     * Tests the edit distance of insertions, deletions and substitutions.
+     */
+    @Test
+    public void distance_commonEdits_counted() {
+        assertEquals(0, BkTree.distance("ball", "ball"));
+        assertEquals(1, BkTree.distance("ball", "bal"));
+        assertEquals(1, BkTree.distance("ball", "bell"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+        assertEquals(4, BkTree.distance("", "gown"));
+    }
+
+    /**
+     * Tests that searches over a random vocabulary match a brute-force scan.
+     */
+    @Test
+    public void collectWithin_randomWords_matchesFullScan() {
+        Random random = new Random(11);
+        List<String> vocabulary = new ArrayList<>();
+        BkTree tree = new BkTree();
+        for (int i = 0; i < 500; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int j = random.nextInt(7) + 1; j > 0; j--) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            tree.add(word.toString());
+            if (!vocabulary.contains(word.toString())) {
+                vocabulary.add(word.toString());
+            }
+        }
+        assertEquals(vocabulary.size(), tree.size());
+
+        for (String query : List.of("abc", "dddd", "a", "bacdab")) {
+            for (int k = 0; k <= 2; k++) {
+                int maxDistance = k;
+                List<String> found = new ArrayList<>();
+                tree.collectWithin(query, maxDistance, found);
+                List<String> expected = vocabulary.stream()
+                        .filter(word -> BkTree.distance(query, word) <= maxDistance)
+                        .sorted()
+                        .toList();
+                assertEquals(expected, found.stream().sorted().toList(), query + " within " + k);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ChangeHistory to verify undo and redo order and the capacity limit.
+ */
+public class ChangeHistoryTest {
+
+    private static List<TaskChange> changes(int count) {
+        List<TaskChange> changes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            changes.add(TaskChange.added(new Todo("task " + i)));
+        }
+        return changes;
+    }
+
+    /**
+     * Tests that changes are undone newest first and redone in the order they were undone.
+     */
+    @Test
+    public void undoRedo_severalChanges_lastInFirstOut() {
+        ChangeHistory history = new ChangeHistory(5);
+        List<TaskChange> changes = changes(3);
+        changes.forEach(history::record);
+
+        assertSame(changes.get(2), history.undo());
+        assertSame(changes.get(1), history.undo());
+        assertSame(changes.get(1), history.redo());
+        assertSame(changes.get(2), history.redo());
+        assertNull(history.redo());
+    }
+
+    /**
+     * Tests that only the newest changes are kept once the history is full.
+     */
+    @Test
+    public void undo_moreChangesThanCapacity_oldestDropped() {
+        ChangeHistory history = new ChangeHistory(4);
+        List<TaskChange> changes = changes(10);
+        changes.forEach(history::record);
+
+        for (int i = 9; i >= 6; i--) {
+            assertSame(changes.get(i), history.undo());
+        }
+        assertNull(history.undo());
+        assertEquals(changes.get(6), history.redo());
+    }
+
+    /**
+     * Tests that a new change clears the changes that could have been redone.
+     */
+    @Test
+    public void record_afterUndo_redoCleared() {
+        ChangeHistory history = new ChangeHistory(4);
+        List<TaskChange> changes = changes(3);
+        history.record(changes.get(0));
+        history.record(changes.get(1));
+        history.undo();
+        ChangeHistory before = history.copy();
+        history.record(changes.get(2));
+
+        assertNull(history.redo());
+        assertSame(changes.get(2), history.undo());
+        assertSame(changes.get(0), history.undo());
+        assertSame(changes.get(1), before.redo());
+    }
+}
@@ -0,0 +1,90 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ConcurrentTaskList to verify readers on other threads see consistent lists.
+ */
+public class ConcurrentTaskListTest {
+
+    /**
+     * Tests that the list behaves like a TaskList on a single thread.
+     */
+    @Test
+    public void operations_singleThread_matchTaskList() {
+        ConcurrentTaskList tasks = ConcurrentTaskList.backedBy(new ArrayList<>(List.of(
+                new Todo("royal ball"), new Todo("glass slipper"))));
+        tasks.add(new Todo("pumpkin ball"));
+        tasks.setDone(0, true);
+        tasks.remove(1);
+
+        assertEquals(2, tasks.size());
+        assertEquals("pumpkin ball", tasks.get(1).getDescription());
+        assertEquals(tasks.asList(), tasks.find("ball"));
+        assertEquals(1, tasks.indexOfId(3));
+        assertTrue(tasks.containsDuplicate(new Todo("pumpkin ball")));
+    }
+
+    /**
+     * Tests that readers never see a half-applied change while a writer adds and removes tasks.
+     * Every task the writer adds is removed right after, so readers must always see the
+     * base tasks, possibly followed by one extra task.
+     */
+    @Test
+    public void reads_duringWrites_seeConsistentList() throws Exception {
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(new Todo("base task " + i));
+        }
+
+        AtomicBoolean isRunning = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong reads = new AtomicLong();
+        int readerCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < readerCount; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (isRunning.get()) {
+                        List<Task> snapshot = tasks.asList();
+                        assertTrue(snapshot.size() == 100 || snapshot.size() == 101, "size " + snapshot.size());
+                        assertEquals("base task 42", tasks.get(42).getDescription());
+                        assertEquals(100, tasks.find("base task").size());
+                        int size = tasks.size();
+                        assertTrue(size == 100 || size == 101, "size " + size);
+                        reads.incrementAndGet();
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            tasks.add(new Todo("extra " + i));
+            tasks.setDone(100, true);
+            tasks.remove(100);
+        }
+        isRunning.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertTrue(reads.get() > 0);
+        assertEquals(100, tasks.size());
+    }
+}
@@ -0,0 +1,59 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for EventIntervalTree to verify overlap queries match a full scan.
+ */
+public class EventIntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 2, 20, 0, 0);
+
+    private boolean overlaps(Event event, LocalDateTime from, LocalDateTime to, boolean isTouchingIncluded) {
+        if (isTouchingIncluded) {
+            return !event.getFrom().isAfter(to) && !event.getTo().isBefore(from);
+        }
+        return event.getFrom().isBefore(to) && event.getTo().isAfter(from);
+    }
+
+    /**
+     * Tests random ranges against random events, as events are added and removed.
+     */
+    @Test
+    public void collectOverlapping_randomEvents_matchesFullScan() {
+        Random random = new Random(3);
+        EventIntervalTree tree = new EventIntervalTree();
+        List<Event> events = new ArrayList<>();
+
+        for (int id = 0; id < 400; id++) {
+            if (!events.isEmpty() && random.nextInt(4) == 0) {
+                tree.remove(events.remove(random.nextInt(events.size())));
+            }
+            LocalDateTime from = BASE.plusHours(random.nextInt(200));
+            Event event = new Event("event " + id, from, from.plusHours(random.nextInt(10)));
+            event.id = id;
+            events.add(event);
+            tree.add(event);
+
+            LocalDateTime rangeFrom = BASE.plusHours(random.nextInt(200));
+            LocalDateTime rangeTo = rangeFrom.plusHours(random.nextInt(5));
+            for (boolean isTouchingIncluded : new boolean[] {true, false}) {
+                List<Task> expected = events.stream()
+                        .filter(e -> overlaps(e, rangeFrom, rangeTo, isTouchingIncluded))
+                        .sorted(Comparator.comparing(Event::getFrom).thenComparingInt(e -> e.id))
+                        .map(e -> (Task) e)
+                        .toList();
+                List<Task> found = new ArrayList<>();
+                tree.collectOverlapping(rangeFrom, rangeTo, isTouchingIncluded, found);
+                assertEquals(expected, found);
+            }
+        }
+    }
+}
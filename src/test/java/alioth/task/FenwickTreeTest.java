@@ -0,0 +1,59 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for FenwickTree to verify it agrees with a plain array of slot counts.
+ */
+public class FenwickTreeTest {
+
+    /**
+     * Tests that a tree created with full slots finds every slot by its rank.
+     */
+    @Test
+    public void findKth_fullSlots_returnsSameSlot() {
+        FenwickTree tree = new FenwickTree(10);
+        for (int k = 1; k <= 10; k++) {
+            assertEquals(k, tree.findKth(k));
+            assertEquals(k, tree.prefixSum(k));
+        }
+    }
+
+    /**
+     * Tests random appends and removals against a list of counts.
+     */
+    @Test
+    public void appendAndAdd_randomOperations_matchesCounts() {
+        Random random = new Random(13);
+        FenwickTree tree = new FenwickTree(3);
+        List<Integer> counts = new ArrayList<>(List.of(1, 1, 1));
+        for (int i = 0; i < 2000; i++) {
+            int live = counts.stream().mapToInt(Integer::intValue).sum();
+            if (live == 0 || random.nextInt(3) > 0) {
+                int value = random.nextInt(4) == 0 ? 0 : 1;
+                tree.append(value);
+                counts.add(value);
+            } else {
+                int k = random.nextInt(live) + 1;
+                int slot = tree.findKth(k);
+                assertEquals(1, (int) counts.get(slot - 1));
+                assertEquals(k, tree.prefixSum(slot));
+                tree.add(slot, -1);
+                counts.set(slot - 1, 0);
+            }
+        }
+
+        assertEquals(counts.size(), tree.size());
+        int sum = 0;
+        for (int slot = 1; slot <= counts.size(); slot++) {
+            sum += counts.get(slot - 1);
+            assertEquals(sum, tree.prefixSum(slot));
+        }
+    }
+}
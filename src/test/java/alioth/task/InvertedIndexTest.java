@@ -0,0 +1,96 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for InvertedIndex to verify boolean matching and BM25 ranking.
+ */
+public class InvertedIndexTest {
+    private InvertedIndex index;
+    private Task ball;
+    private Task ballGown;
+    private Task gown;
+    private Task slipper;
+
+    private Task indexed(int id, String description) {
+        Task task = new Todo(description);
+        task.id = id;
+        index.add(task);
+        return task;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        index = new InvertedIndex();
+        ball = indexed(1, "Royal ball, royal BALL!");
+        ballGown = indexed(2, "sew gown for the ball at midnight, then sleep until noon");
+        gown = indexed(3, "wash gown");
+        slipper = indexed(4, "find glass slipper");
+    }
+
+    /**
+     * Tests that words are lower-cased and split at punctuation.
+     */
+    @Test
+    public void tokenize_punctuation_splitsWords() {
+        assertEquals(List.of("royal", "ball", "slipper", "s", "42"),
+                InvertedIndex.tokenize("Royal ball; slipper's #42"));
+    }
+
+    /**
+     * Tests that more occurrences in a shorter description rank higher.
+     */
+    @Test
+    public void search_singleWord_ranksByRelevance() {
+        assertEquals(List.of(ball, ballGown), index.search(Query.words("ball"), 0));
+    }
+
+    /**
+     * Tests that a task put back with a smaller id than the others keeps its ranking and order.
+     */
+    @Test
+    public void add_smallerIdAfterRemoval_rankedAsBefore() {
+        List<Task> before = index.search(Query.words("gown"), 0);
+        index.remove(ballGown);
+        index.remove(ball);
+        index.add(ball);
+        index.add(ballGown);
+
+        assertEquals(before, index.search(Query.words("gown"), 0));
+        assertEquals(List.of(ball, ballGown), index.search(Query.words("ball"), 0));
+        assertEquals(List.of(ballGown, gown), index.findSimilar("gowns", 1));
+    }
+
+    /**
+     * Tests the boolean operators and phrases.
+     */
+    @Test
+    public void search_booleanQueries_matchSets() {
+        assertEquals(List.of(ballGown), index.search(Query.and(Query.words("ball"), Query.words("gown")), 0));
+        assertEquals(List.of(ball), index.search(Query.and(Query.words("ball"), Query.not(Query.words("gown"))), 0));
+        assertEquals(List.of(slipper, gown), index.search(
+                Query.or(Query.words("glass slipper"), Query.words("wash")), 0));
+        assertEquals(List.of(), index.search(Query.words("slipper glass"), 0));
+        assertEquals(List.of(gown, slipper), index.search(Query.not(Query.words("ball")), 0));
+    }
+
+    /**
+     * Tests that a limited search returns the top of the full ranking, and removed tasks are gone.
+     */
+    @Test
+    public void search_limitAndRemoval_returnsTopMatches() {
+        Query query = Query.or(Query.words("gown"), Query.words("ball"));
+        List<Task> all = index.search(query, 0);
+
+        assertEquals(3, all.size());
+        assertEquals(all.subList(0, 2), index.search(query, 2));
+
+        index.remove(ballGown);
+        assertEquals(List.of(ball, gown), index.search(query, 5));
+    }
+}
@@ -0,0 +1,97 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for TaskChange to verify that undoing and redoing restores tasks exactly.
+ */
+public class TaskChangeTest {
+    private TaskList tasks;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        for (int i = 1; i <= 6; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+    }
+
+    /**
+     * Tests that undoing a removal puts the tasks back in their places with their ids.
+     */
+    @Test
+    public void undo_removal_tasksBackInPlace() {
+        String before = tasks.asList().toString();
+        assertTrue(tasks.find("task 3").size() == 1);
+        TaskChange change = TaskChange.removed(tasks.removeAll(new int[] {1, 2, 5}));
+
+        change.undo(tasks);
+        assertEquals(before, tasks.asList().toString());
+        assertEquals(2, tasks.indexOfId(3));
+        assertEquals("[[T][ ] task 3]", tasks.find("task 3").toString());
+
+        change.redo(tasks);
+        assertEquals("[[T][ ] task 1, [T][ ] task 4, [T][ ] task 5]", tasks.asList().toString());
+    }
+
+    /**
+     * Tests that undoing an addition removes the task, and redoing it brings the task back as it
+     * was added, with its id, but as a copy the change keeps no hold of.
+     */
+    @Test
+    public void undoRedo_addition_sameTaskBack() {
+        Todo todo = new Todo("task 7");
+        tasks.add(todo);
+        TaskChange change = TaskChange.added(todo);
+
+        assertEquals(List.of(todo), change.undo(tasks));
+        assertEquals(6, tasks.size());
+        Task redone = change.redo(tasks).get(0);
+        assertSame(redone, tasks.get(6));
+        assertNotSame(todo, redone);
+        assertEquals("[T][ ] task 7", redone.toString());
+        assertEquals(7, redone.getId());
+
+        redone.setDone(true);
+        change.undo(tasks);
+        assertEquals("[T][ ] task 7", change.redo(tasks).get(0).toString());
+    }
+
+    /**
+     * Tests that undoing a mark gives every task back its own old done flag.
+     */
+    @Test
+    public void undo_doneChange_oldFlagsBack() {
+        tasks.setDone(0, true);
+        List<Task> marked = tasks.setDoneAll(new int[] {0, 1}, true);
+        TaskChange change = TaskChange.doneChanged(marked, new boolean[] {true, false}, true);
+
+        change.undo(tasks);
+        assertTrue(tasks.get(0).isDone());
+        assertEquals(1, tasks.indicesOfDone().length);
+
+        change.redo(tasks);
+        assertEquals(2, tasks.indicesOfDone().length);
+    }
+
+    /**
+     * Tests that a change still applies to a copy of the list it was made to.
+     */
+    @Test
+    public void undo_onCopy_appliesById() {
+        TaskChange change = TaskChange.removed(List.of(tasks.remove(0)));
+        TaskList copy = tasks.copy();
+
+        change.undo(copy);
+        assertEquals("task 1", copy.get(0).getDescription());
+        assertEquals(5, tasks.size());
+    }
+}
@@ -0,0 +1,84 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for TaskKeyIndex to verify it agrees with a map from hash to ids.
+ */
+public class TaskKeyIndexTest {
+
+    /**
+     * Tests that tasks sharing a hash are all found, and that removing one keeps the others.
+     */
+    @Test
+    public void anyMatch_sharedHash_findsEveryId() {
+        TaskKeyIndex index = new TaskKeyIndex(0);
+        index.add(7, 1);
+        index.add(7, 2);
+        index.add(8, 3);
+
+        assertTrue(index.anyMatch(7, id -> id == 2));
+        index.remove(7, 2);
+        assertFalse(index.anyMatch(7, id -> id == 2));
+        assertTrue(index.anyMatch(7, id -> id == 1));
+        assertFalse(index.anyMatch(9, id -> true));
+        assertEquals(2, index.size());
+    }
+
+    /**
+     * Tests that a task removed with a hash it was not added with is still removed.
+     */
+    @Test
+    public void remove_wrongHash_removesById() {
+        TaskKeyIndex index = new TaskKeyIndex(4);
+        index.add(5, 1);
+        index.remove(6, 1);
+
+        assertFalse(index.anyMatch(5, id -> true));
+        assertEquals(0, index.size());
+    }
+
+    /**
+     * Tests random adds and removals with many colliding hashes against a map of ids.
+     */
+    @Test
+    public void addAndRemove_randomOperations_matchesMap() {
+        Random random = new Random(17);
+        TaskKeyIndex index = new TaskKeyIndex(1);
+        Map<Long, List<Integer>> expected = new HashMap<>();
+        int nextId = 1;
+        for (int i = 0; i < 5000; i++) {
+            long hash = random.nextInt(200) * 0x100000000L;
+            List<Integer> ids = expected.computeIfAbsent(hash, key -> new ArrayList<>());
+            if (ids.isEmpty() || random.nextInt(3) > 0) {
+                index.add(hash, nextId);
+                ids.add(nextId++);
+            } else {
+                Integer id = ids.remove(random.nextInt(ids.size()));
+                index.remove(hash, id);
+            }
+        }
+
+        int size = 0;
+        for (Map.Entry<Long, List<Integer>> entry : expected.entrySet()) {
+            for (int id : entry.getValue()) {
+                assertTrue(index.anyMatch(entry.getKey(), candidate -> candidate == id));
+            }
+            List<Integer> found = new ArrayList<>();
+            index.anyMatch(entry.getKey(), id -> !found.add(id));
+            assertEquals(entry.getValue().size(), found.size());
+            size += found.size();
+        }
+        assertEquals(size, index.size());
+    }
+}
@@ -2,9 +2,14 @@ package alioth.task;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,4 +93,291 @@ public class TaskListTest {
         taskList.add(new Todo("sleep"));
         assertFalse(taskList.containsDuplicate(new Todo("wake up")));
     }
+
+    /**
+     * Tests that the duplicate index follows marking, removal and re-adding.
+     */
+    @Test
+    public void containsDuplicate_afterChanges_tracksDoneFlagAndRemoval() {
+        taskList.add(new Todo("polish crown"));
+        taskList.add(new Todo("polish crown"));
+        assertTrue(taskList.containsDuplicate(new Todo("polish crown")));
+
+        taskList.setDone(0, true);
+        Todo done = new Todo("polish crown");
+        done.setDone(true);
+        assertTrue(taskList.containsDuplicate(done));
+
+        taskList.remove(1);
+        assertFalse(taskList.containsDuplicate(new Todo("polish crown")));
+        taskList.add(new Todo("polish crown"));
+        assertTrue(taskList.containsDuplicate(new Todo("polish crown")));
+    }
+
+    /**
+     * Tests that tasks of different types or dates are not duplicates, and event times
+     * only count to the minute, as they are displayed.
+     */
+    @Test
+    public void containsDuplicate_typesAndDates_matchDisplayedForm() {
+        LocalDateTime start = LocalDateTime.of(2026, 2, 20, 18, 0);
+        taskList.add(new Deadline("ball", LocalDate.of(2026, 2, 20)));
+        taskList.add(new Event("ball", start, start.plusHours(4)));
+
+        assertFalse(taskList.containsDuplicate(new Todo("ball")));
+        assertFalse(taskList.containsDuplicate(new Deadline("ball", LocalDate.of(2026, 2, 21))));
+        assertTrue(taskList.containsDuplicate(new Deadline("ball", LocalDate.of(2026, 2, 20))));
+        assertTrue(taskList.containsDuplicate(
+                new Event("ball", start.plusSeconds(30), start.plusHours(4))));
+    }
+
+    /**
+     * Tests that indexed searches return the same tasks, in list order, as a full scan
+     * while tasks are added and removed.
+     */
+    @Test
+    public void find_afterAddsAndRemovals_matchesFullScan() {
+        Random random = new Random(7);
+        String[] words = {"ball", "gown", "ballroom", "glass", "slipper", "aaa", "a|b"};
+        for (int round = 0; round < 300; round++) {
+            if (taskList.size() > 0 && random.nextInt(3) == 0) {
+                taskList.remove(random.nextInt(taskList.size()));
+            } else {
+                taskList.add(new Todo(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]));
+            }
+
+            for (String keyword : List.of("ball", "all", "aaaa", "l g", "a", "slipper ball", "zzz")) {
+                List<Task> expected = taskList.asList().stream()
+                        .filter(task -> task.getDescription().contains(keyword))
+                        .toList();
+                assertEquals(expected, taskList.find(keyword), keyword);
+            }
+        }
+    }
+
+    /**
+     * Tests that fuzzy finds follow removals and return tasks in list order.
+     */
+    @Test
+    public void findSimilar_afterRemoval_keepsListOrder() {
+        taskList.add(new Todo("sew gowns"));
+        taskList.add(new Todo("wash gown"));
+        taskList.add(new Todo("grown"));
+        assertEquals(3, taskList.findSimilar("gown").size());
+        assertEquals("sew gowns", taskList.findSimilar("gown").get(0).getDescription());
+
+        taskList.remove(0);
+        taskList.remove(0);
+        assertEquals(List.of(taskList.get(0)), taskList.findSimilar("gown"));
+        assertEquals(0, taskList.findSimilar("sew").size());
+    }
+
+    /**
+     * Tests that due and overdue views follow marking, unmarking and removal, in date then list order.
+     */
+    @Test
+    public void findDueAndOverdue_afterChanges_tracksUndoneDeadlines() {
+        LocalDate today = LocalDate.of(2026, 2, 20);
+        taskList.add(new Deadline("tax", today.minusDays(3)));
+        taskList.add(new Deadline("essay", today.plusDays(2)));
+        taskList.add(new Deadline("slipper", today));
+        taskList.add(new Deadline("gown", today));
+        taskList.add(new Todo("sleep"));
+
+        assertEquals(List.of(taskList.get(2), taskList.get(3), taskList.get(1)), taskList.findDue(today, 5));
+        assertEquals(List.of(taskList.get(2), taskList.get(3)), taskList.findDue(today, 2));
+        assertEquals(List.of(taskList.get(0)), taskList.findOverdue(today));
+
+        taskList.setDone(2, true);
+        taskList.setDone(0, true);
+        assertEquals(List.of(taskList.get(3), taskList.get(1)), taskList.findDue(today, 5));
+        assertEquals(List.of(), taskList.findOverdue(today));
+
+        taskList.setDone(2, false);
+        taskList.remove(1);
+        assertEquals(List.of(taskList.get(1), taskList.get(2)), taskList.findDue(today, 5));
+    }
+
+    /**
+     * Tests that ids survive removals while positions shift, and that removed ids are not found.
+     */
+    @Test
+    public void ids_afterRemovals_stayStable() {
+        Todo ball = new Todo("ball");
+        Todo gown = new Todo("gown");
+        Todo slipper = new Todo("slipper");
+        taskList.add(ball);
+        taskList.add(gown);
+        taskList.add(slipper);
+        assertEquals(2, gown.getId());
+
+        taskList.remove(0);
+        assertEquals(gown, taskList.getById(2));
+        assertEquals(0, taskList.indexOfId(2));
+        assertEquals(1, taskList.indexOfId(3));
+        assertNull(taskList.getById(1));
+        assertEquals(-1, taskList.indexOfId(1));
+        assertEquals(-1, taskList.indexOfId(4));
+
+        Todo pumpkin = new Todo("pumpkin");
+        taskList.add(pumpkin);
+        assertEquals(4, pumpkin.getId());
+        assertEquals(List.of(gown, slipper, pumpkin), taskList.asList());
+    }
+
+    /**
+     * Tests that the empty slots left by removals are compacted away, keeping ids and order.
+     */
+    @Test
+    public void remove_manyTasks_compactsSlots() {
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 100; i++) {
+                taskList.add(new Todo("task " + round + " " + i));
+            }
+            taskList.removeAll(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+            while (taskList.size() > 10) {
+                taskList.remove(taskList.size() - 1);
+            }
+        }
+
+        assertEquals(10, taskList.size());
+        assertTrue(taskList.slotCount() <= 2 * taskList.size() + 32, "slots: " + taskList.slotCount());
+        assertEquals(0, taskList.indexOfId(4901));
+        assertEquals(9, taskList.indexOfId(4910));
+        assertEquals(-1, taskList.indexOfId(11));
+        assertEquals("task 49 9", taskList.get(9).getDescription());
+
+        TaskList copy = taskList.copy();
+        Todo pumpkin = new Todo("pumpkin");
+        copy.add(pumpkin);
+        assertEquals(5001, pumpkin.getId());
+    }
+
+    /**
+     * Tests that a removed task goes back to its place with its id, even after the slots
+     * were compacted in between.
+     */
+    @Test
+    public void restore_afterCompaction_keepsIdAndPlace() {
+        for (int i = 0; i < 100; i++) {
+            taskList.add(new Todo("task " + i));
+        }
+        Task removed = taskList.remove(10);
+        while (taskList.size() > 30) {
+            taskList.remove(taskList.size() - 1);
+        }
+        assertTrue(taskList.slotCount() < 100, "Slots should have been compacted.");
+
+        taskList.restore(removed);
+        assertEquals(11, removed.getId());
+        assertEquals(removed, taskList.getById(11));
+        assertEquals(10, taskList.indexOfId(11));
+        assertEquals("task 9", taskList.get(9).getDescription());
+        assertEquals("task 11", taskList.get(11).getDescription());
+        assertTrue(taskList.containsDuplicate(new Todo("task 10")));
+    }
+
+    /**
+     * Tests that restored tasks are found again, in list order, by the search indexes
+     * that were already built.
+     */
+    @Test
+    public void restore_searchIndexesBuilt_foundInListOrder() {
+        for (String description : List.of("royal ball", "royal gown", "royal slipper")) {
+            taskList.add(new Todo(description));
+        }
+        assertEquals(3, taskList.find("royal").size());
+        assertEquals(3, taskList.search(Query.words("royal"), 0).size());
+
+        List<Task> removed = taskList.removeAll(new int[] {0, 1});
+        taskList.restore(removed.get(1));
+        taskList.restore(removed.get(0));
+
+        assertEquals(taskList.asList(), taskList.find("royal"));
+        assertEquals(taskList.asList(), taskList.search(Query.words("royal"), 0));
+        assertEquals(List.of(removed.get(1)), taskList.findSimilar("gowns"));
+    }
+
+    /**
+     * Tests that positional access matches a plain list after random adds and removals.
+     */
+    @Test
+    public void get_randomAddsAndRemovals_matchesList() {
+        Random random = new Random(17);
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            if (expected.isEmpty() || random.nextBoolean()) {
+                Task task = new Todo("task " + i);
+                taskList.add(task);
+                expected.add(task);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), taskList.remove(index));
+            }
+        }
+
+        assertEquals(expected.size(), taskList.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Task task = expected.get(i);
+            assertEquals(task, taskList.get(i));
+            assertEquals(i, taskList.indexOfId(task.getId()));
+        }
+    }
+
+    /**
+     * Tests that a copy keeps the ids and that changing it leaves the original as it is.
+     */
+    @Test
+    public void copy_changedCopy_originalUnchanged() {
+        taskList.add(new Todo("ball"));
+        taskList.add(new Deadline("gown", LocalDate.of(2026, 3, 1)));
+        taskList.add(new Todo("slipper"));
+        taskList.remove(0);
+
+        String original = taskList.asList().toString();
+        TaskList copy = taskList.copy();
+        assertEquals(original, copy.asList().toString());
+        assertEquals(3, copy.get(1).getId());
+
+        copy.setDone(0, true);
+        copy.remove(1);
+        copy.add(new Todo("pumpkin"));
+
+        assertEquals(original, taskList.asList().toString());
+        assertFalse(taskList.get(0).isDone());
+        assertEquals(4, copy.get(1).getId());
+        assertEquals(1, copy.indexOfId(4));
+        assertEquals(-1, copy.indexOfId(3));
+    }
+
+    /**
+     * Tests that removing and marking several tasks at once matches doing it one by one.
+     */
+    @Test
+    public void removeAll_severalIndices_sameAsOneByOne() {
+        TaskList oneByOne = new TaskList();
+        for (int i = 0; i < 20; i++) {
+            taskList.add(new Todo("task " + i));
+            oneByOne.add(new Todo("task " + i));
+        }
+        assertTrue(taskList.containsDuplicate(new Todo("task 4")));
+
+        taskList.setDoneAll(new int[] {1, 4, 7}, true);
+        List<Task> removed = taskList.removeAll(new int[] {0, 2, 3, 10, 19});
+        oneByOne.setDone(1, true);
+        oneByOne.setDone(4, true);
+        oneByOne.setDone(7, true);
+        for (int index : new int[] {19, 10, 3, 2, 0}) {
+            oneByOne.remove(index);
+        }
+
+        assertEquals("[[T][ ] task 0, [T][ ] task 2, [T][ ] task 3, [T][ ] task 10, [T][ ] task 19]",
+                removed.toString());
+        assertEquals(oneByOne.asList().toString(), taskList.asList().toString());
+        assertEquals(3, taskList.indicesOfDone().length);
+        assertTrue(taskList.containsDuplicate(new Todo("task 5")));
+        assertFalse(taskList.containsDuplicate(new Todo("task 3")));
+        assertFalse(taskList.containsDuplicate(new Todo("task 4")));
+        assertEquals(-1, taskList.indexOfId(11));
+    }
 }
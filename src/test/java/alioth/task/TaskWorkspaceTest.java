@@ -0,0 +1,68 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for TaskWorkspace to verify that transactions work on a private copy.
+ */
+public class TaskWorkspaceTest {
+    private TaskList tasks;
+    private TaskWorkspace workspace;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        tasks.add(new Todo("ball"));
+        workspace = new TaskWorkspace(tasks);
+    }
+
+    /**
+     * Tests that a committed transaction replaces the tasks with the working copy.
+     */
+    @Test
+    public void commit_changedCopy_copyKept() {
+        workspace.begin();
+        workspace.getTasks().add(new Todo("gown"));
+        assertEquals(1, tasks.size());
+
+        TaskList committed = workspace.commit();
+        assertFalse(workspace.isInTransaction());
+        assertSame(committed, workspace.getTasks());
+        assertEquals(2, committed.size());
+    }
+
+    /**
+     * Tests that a rolled back transaction leaves the tasks as they were.
+     */
+    @Test
+    public void rollback_changedCopy_tasksUnchanged() {
+        workspace.begin();
+        assertTrue(workspace.isInTransaction());
+        workspace.getTasks().setDone(0, true);
+        workspace.rollback();
+
+        assertSame(tasks, workspace.getTasks());
+        assertFalse(tasks.get(0).isDone());
+    }
+
+    /**
+     * Tests that a rolled back transaction also forgets the changes recorded in it.
+     */
+    @Test
+    public void rollback_changesRecorded_historyRestored() {
+        TaskChange before = TaskChange.doneChanged(tasks.asList(), new boolean[] {false}, true);
+        workspace.recordChange(before);
+        workspace.begin();
+        workspace.recordChange(TaskChange.removed(workspace.getTasks().removeAll(new int[] {0})));
+        workspace.rollback();
+
+        assertSame(before, workspace.getHistory().undo());
+        assertEquals(null, workspace.getHistory().undo());
+    }
+}
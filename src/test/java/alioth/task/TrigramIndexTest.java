@@ -0,0 +1,77 @@
+package alioth.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for TrigramIndex to verify substring lookups are exact.
+ */
+public class TrigramIndexTest {
+
+    private Task indexed(TrigramIndex index, int id, String description) {
+        Task task = new Todo(description);
+        task.id = id;
+        index.add(task);
+        return task;
+    }
+
+    /**
+     * Tests that tasks sharing every trigram of the keyword but not the keyword itself are excluded.
+     */
+    @Test
+    public void find_trigramsPresentButNotAdjacent_excludesTask() {
+        TrigramIndex index = new TrigramIndex();
+        Task match = indexed(index, 1, "banana split");
+        indexed(index, 2, "ban ana nan");
+
+        assertEquals(List.of(match), index.find("banan"));
+    }
+
+    /**
+     * Tests that a removed task is no longer found, even if it repeated a trigram.
+     */
+    @Test
+    public void remove_repeatedTrigram_removesTask() {
+        TrigramIndex index = new TrigramIndex();
+        Task removed = indexed(index, 1, "aaaaa");
+        Task kept = indexed(index, 2, "aaa");
+
+        index.remove(removed);
+
+        assertEquals(List.of(kept), index.find("aaa"));
+        assertEquals(List.of(), index.find("aaaa"));
+    }
+
+    /**
+     * Tests that a task put back with a smaller id than the others is found in id order.
+     */
+    @Test
+    public void add_smallerIdAfterRemoval_foundInOrder() {
+        TrigramIndex index = new TrigramIndex();
+        Task first = indexed(index, 1, "royal ball");
+        Task second = indexed(index, 2, "royal gown");
+        Task third = indexed(index, 3, "royal royal slipper");
+
+        index.remove(second);
+        index.remove(first);
+        index.add(second);
+        index.add(first);
+
+        assertEquals(List.of(first, second, third), index.find("royal"));
+        assertEquals(List.of(second), index.find("gown"));
+    }
+
+    /**
+     * Tests that only keywords of at least three characters can use the index.
+     */
+    @Test
+    public void canSearch_shortKeyword_returnsFalse() {
+        assertFalse(TrigramIndex.canSearch("ab"));
+        assertTrue(TrigramIndex.canSearch("abc"));
+    }
+}
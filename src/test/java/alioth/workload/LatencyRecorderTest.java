@@ -0,0 +1,70 @@
+package alioth.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for LatencyRecorder to verify percentiles are taken from the recorded samples.
+ */
+public class LatencyRecorderTest {
+
+    /**
+     * Tests the percentiles of the samples 1 to 1000, recorded out of order.
+     */
+    @Test
+    public void percentile_thousandSamples_nearestRank() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1000; i >= 1; i--) {
+            recorder.record(i);
+        }
+
+        assertEquals(1000, recorder.count());
+        assertEquals(500, recorder.percentile(0.5));
+        assertEquals(990, recorder.percentile(0.99));
+        assertEquals(999, recorder.percentile(0.999));
+        assertEquals(1000, recorder.max());
+        assertEquals(1, recorder.percentile(0));
+    }
+
+    /**
+     * Tests that samples recorded after a percentile was taken are included in the next one.
+     */
+    @Test
+    public void percentile_recordAfterQuery_included() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(5);
+        assertEquals(5, recorder.max());
+
+        recorder.record(9);
+        recorder.record(1);
+        assertEquals(9, recorder.max());
+        assertEquals(5, recorder.percentile(0.5));
+    }
+
+    /**
+     * Tests that samples added from another recorder count towards the percentiles.
+     */
+    @Test
+    public void addAll_twoRecorders_mergesSamples() {
+        LatencyRecorder merged = new LatencyRecorder();
+        merged.record(3);
+        LatencyRecorder other = new LatencyRecorder();
+        for (int i = 1; i <= 2000; i++) {
+            other.record(i);
+        }
+
+        merged.addAll(other);
+        assertEquals(2001, merged.count());
+        assertEquals(2000, merged.max());
+        assertEquals(1000, merged.percentile(0.5));
+    }
+
+    /**
+     * Tests that an empty recorder reports 0.
+     */
+    @Test
+    public void percentile_noSamples_zero() {
+        assertEquals(0, new LatencyRecorder().percentile(0.99));
+    }
+}
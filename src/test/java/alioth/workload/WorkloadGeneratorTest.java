@@ -0,0 +1,82 @@
+package alioth.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.BatchRunner;
+import alioth.parser.Parser;
+import alioth.storage.Storage;
+import alioth.task.Task;
+
+/**
+ * Tests for WorkloadGenerator to verify generated tasks and traces are valid and follow the requested mix.
+ */
+public class WorkloadGeneratorTest {
+    private static final LocalDate BASE_DATE = LocalDate.of(2026, 3, 1);
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that the same seed gives the same tasks, and that no two tasks are the same.
+     */
+    @Test
+    public void generateTasks_sameSeed_sameDistinctTasks() {
+        List<Task> tasks = new WorkloadGenerator(7, 0.5, 1.0, BASE_DATE).generateTasks(500);
+        List<Task> again = new WorkloadGenerator(7, 0.5, 1.0, BASE_DATE).generateTasks(500);
+
+        assertEquals(tasks.toString(), again.toString());
+        assertEquals(500, tasks.stream().map(Task::toString).distinct().count());
+    }
+
+    /**
+     * Tests that a popular word appears far more often than a rare one when the words are skewed.
+     */
+    @Test
+    public void nextWord_skewed_popularWordsMoreOften() {
+        WorkloadGenerator generator = new WorkloadGenerator(1, 0, 1.2, BASE_DATE);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(generator.nextWord(), 1, Integer::sum);
+        }
+
+        int most = counts.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        assertTrue(most > 1000, "most popular word drawn " + most + " times");
+    }
+
+    /**
+     * Tests that the trace has about the requested share of writes, and that every command in it
+     * succeeds when run on the generated tasks.
+     */
+    @Test
+    public void generateTrace_replayed_everyCommandSucceeds() throws Exception {
+        WorkloadGenerator generator = new WorkloadGenerator(3, 0.3, 1.0, BASE_DATE);
+        Storage storage = new Storage(tempDir.resolve("tasks.txt"));
+        storage.save(generator.generateTasks(200));
+        List<String> trace = generator.generateTrace(2000, 200);
+
+        long writeCount = trace.stream().map(Parser::getCommandWord)
+                .filter(word -> List.of("todo", "deadline", "event", "mark", "unmark", "delete").contains(word))
+                .count();
+        assertTrue(writeCount > 500 && writeCount < 700, writeCount + " writes");
+
+        BatchRunner runner = new BatchRunner(new Storage(tempDir.resolve("tasks.txt")), 0, true);
+        StringWriter out = new StringWriter();
+        BatchRunner.Summary summary = runner.run(new BufferedReader(new StringReader(String.join("\n", trace))),
+                out);
+        assertEquals(2000, summary.commandCount());
+        assertEquals(0, summary.errorCount(), out.toString());
+    }
+}
@@ -0,0 +1,82 @@
+package alioth.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import alioth.storage.Storage;
+
+/**
+ * Tests for WorkloadTool to verify a generated workload can be replayed without changing its save file.
+ */
+public class WorkloadToolTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that generating writes the save file and trace, and that replaying reports every command
+     * while leaving the save file as it was.
+     */
+    @Test
+    public void replay_generatedWorkload_reportsEveryCommand() throws Exception {
+        WorkloadTool.Options options = WorkloadTool.Options.parse(new String[] {
+            "generate", "--tasks", "300", "--commands", "400", "--write-ratio", "0.5", "--format", "binary",
+            "--out", tempDir.toString()}, 1);
+        WorkloadTool.generate(options);
+        assertEquals(300, new Storage(tempDir.resolve("tasks.txt")).load().size());
+        assertEquals(400, Files.readAllLines(tempDir.resolve("trace.txt")).size());
+        byte[] savedBefore = Files.readAllBytes(tempDir.resolve("tasks.txt"));
+
+        WorkloadTool.Options replayOptions = WorkloadTool.Options.parse(new String[] {
+            "replay", "--data", tempDir.resolve("tasks.txt").toString(),
+            "--trace", tempDir.resolve("trace.txt").toString(), "--journal"}, 1);
+        WorkloadReplayer.Report report = WorkloadTool.replay(replayOptions);
+
+        assertEquals(400, report.commandCount());
+        assertTrue(report.latencies().containsKey("find"));
+        assertTrue(report.toString().contains("p99.9 us"));
+        assertTrue(Arrays.equals(savedBefore, Files.readAllBytes(tempDir.resolve("tasks.txt"))));
+    }
+
+    /**
+     * Tests that the API load run sends every request on every thread, and leaves the save file as it was.
+     */
+    @Test
+    public void api_localServer_reportsEveryRequest() throws Exception {
+        WorkloadTool.generate(WorkloadTool.Options.parse(new String[] {
+            "generate", "--tasks", "50", "--commands", "1", "--out", tempDir.toString()}, 1));
+        byte[] savedBefore = Files.readAllBytes(tempDir.resolve("tasks.txt"));
+
+        WorkloadReplayer.Report report = WorkloadTool.api(WorkloadTool.Options.parse(new String[] {
+            "api", "--data", tempDir.resolve("tasks.txt").toString(), "--threads", "3", "--rounds", "12",
+            "--batch", "5"}, 1));
+
+        assertEquals(36, report.latencies().get("add").count());
+        assertEquals(36, report.latencies().get("delete").count());
+        assertEquals(6, report.latencies().get("batch").count());
+        assertEquals(36 * 4 + 6, report.commandCount());
+        assertTrue(Arrays.equals(savedBefore, Files.readAllBytes(tempDir.resolve("tasks.txt"))));
+    }
+
+    /**
+     * Tests that the session load run keeps every idle session served while the active ones send commands.
+     */
+    @Test
+    public void sessions_localServer_reportsEveryCommand() throws Exception {
+        WorkloadReplayer.Report report = WorkloadTool.sessions(WorkloadTool.Options.parse(new String[] {
+            "sessions", "--idle", "30", "--active", "4", "--rounds", "5"}, 1));
+
+        assertEquals(34, report.latencies().get("connect").count());
+        assertEquals(20, report.latencies().get("todo").count());
+        assertEquals(20, report.latencies().get("delete").count());
+        assertEquals(30, report.latencies().get("list").count());
+        assertEquals(34 + 20 * 4 + 30, report.commandCount());
+    }
+}
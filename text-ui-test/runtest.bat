@@ -6,16 +6,20 @@ if not exist ..\bin mkdir ..\bin
 REM delete output from previous run
 if exist ACTUAL.TXT del ACTUAL.TXT
 
-REM compile the code into the bin folder
-javac -cp ..\src\main\java -Xlint:none -d ..\bin ..\src\main\java\alioth\*.java
+REM compile the code apart from the GUI into the bin folder
+dir /s /b ..\src\main\java\*.java | findstr /v \gui\ > sources.txt
+javac -cp ..\src\main\java -Xlint:none -d ..\bin @sources.txt
+del sources.txt
 IF ERRORLEVEL 1 (
     echo ********** BUILD FAILURE **********
     exit /b 1
 )
 REM no error here, errorlevel == 0
 
-REM run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ..\bin alioth.Alioth < input.txt > ACTUAL.TXT
+REM run the commands in input.txt on an empty save file and redirect the output to the ACTUAL.TXT
+if exist data.txt del data.txt
+java -classpath ..\bin alioth.BatchRunner --data data.txt < input.txt > ACTUAL.TXT 2> NUL
+del data.txt
 
 REM compare the output to the expected output
 FC ACTUAL.TXT EXPECTED.TXT
@@ -12,15 +12,17 @@ then
     rm ACTUAL.TXT
 fi
 
-# compile the code into the bin folder, terminates if error occurred
-if ! javac -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/*.java
+# compile the code apart from the GUI into the bin folder, terminates if error occurred
+if ! javac -cp ../src/main/java -Xlint:none -d ../bin $(find ../src/main/java -name '*.java' ! -path '*/gui/*')
 then
     echo "********** BUILD FAILURE **********"
     exit 1
 fi
 
-# run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ../bin Duke < input.txt > ACTUAL.TXT
+# run the commands in input.txt on an empty save file and redirect the output to the ACTUAL.TXT
+DATA_FILE=$(mktemp -d)/alioth.txt
+java -classpath ../bin alioth.BatchRunner --data "$DATA_FILE" < input.txt > ACTUAL.TXT 2> /dev/null
+rm -rf "$(dirname "$DATA_FILE")"
 
 # convert to UNIX format
 cp EXPECTED.TXT EXPECTED-UNIX.TXT